@@ -0,0 +1,40 @@
+package com.example.kapt.bench;
+
+import com.example.kapt.dto.AlphaVantageNewsResponseDto;
+import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Jackson decoding of full upstream pages: 250 coins is CoinGecko's largest {@code per_page}, 1000 articles is
+ * Alpha Vantage's {@code limit} ceiling. Scores are per page.
+ */
+@State(Scope.Benchmark)
+public class PayloadDecodingBenchmark {
+
+    private ObjectMapper mapper;
+    private byte[] coinMarkets;
+    private byte[] newsFeed;
+
+    @Setup
+    public void setUp() {
+        mapper = Fixtures.objectMapper();
+        coinMarkets = Fixtures.toJson(mapper, Fixtures.coinMarkets(250));
+        newsFeed = Fixtures.toJson(mapper, Fixtures.newsFeed(1000));
+    }
+
+    @Benchmark
+    public CoinGeckoResponseDto[] decodeCoinMarkets250() throws IOException {
+        return mapper.readValue(coinMarkets, CoinGeckoResponseDto[].class);
+    }
+
+    @Benchmark
+    public AlphaVantageNewsResponseDto decodeNewsFeed1000() throws IOException {
+        return mapper.readValue(newsFeed, AlphaVantageNewsResponseDto.class);
+    }
+}
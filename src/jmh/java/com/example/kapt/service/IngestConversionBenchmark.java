@@ -0,0 +1,72 @@
+package com.example.kapt.service;
+
+import com.example.kapt.bench.Fixtures;
+import com.example.kapt.dto.AlphaVantageNewsArticleDto;
+import com.example.kapt.dto.AlphaVantageNewsResponseDto;
+import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.example.kapt.ingest.IngestMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Per-item cost of turning decoded upstream DTOs into entities, and of the coin tagging that runs on every article.
+ * Each invocation walks a whole page, so scores are per coin or per article.
+ */
+@State(Scope.Benchmark)
+public class IngestConversionBenchmark {
+
+    private static final int COINS = 250;
+    private static final int ARTICLES = 1000;
+
+    private CoinGeckoService coinGeckoService;
+    private AlphaVantageNewsService newsService;
+    private List<CoinGeckoResponseDto> coins;
+    private List<AlphaVantageNewsArticleDto> articles;
+
+    @Setup
+    public void setUp() throws IOException {
+        coinGeckoService = new CoinGeckoService(WebClient.builder(), new IngestMetrics(new SimpleMeterRegistry()),
+                "http://localhost");
+        newsService = new AlphaVantageNewsService(WebClient.create(), null);
+
+        // decoded the same way as in production, so ticker_sentiment entries are maps rather than typed DTOs
+        ObjectMapper mapper = Fixtures.objectMapper();
+        coins = List.of(mapper.readValue(Fixtures.toJson(mapper, Fixtures.coinMarkets(COINS)), CoinGeckoResponseDto[].class));
+        articles = mapper.readValue(Fixtures.toJson(mapper, Fixtures.newsFeed(ARTICLES)), AlphaVantageNewsResponseDto.class)
+                .getFeed();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COINS)
+    public void coinGeckoConvertToEntity(Blackhole blackhole) {
+        for (CoinGeckoResponseDto dto : coins) {
+            blackhole.consume(coinGeckoService.convertToEntity(dto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ARTICLES)
+    public void newsConvertToEntity(Blackhole blackhole) {
+        for (AlphaVantageNewsArticleDto dto : articles) {
+            blackhole.consume(newsService.convertToEntity(dto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ARTICLES)
+    public void extractCryptocurrencyMentions(Blackhole blackhole) {
+        for (AlphaVantageNewsArticleDto dto : articles) {
+            blackhole.consume(newsService.extractCryptocurrencyMentions(dto.getTitle(), dto.getSummary(), dto.getTickerSentiment()));
+        }
+    }
+}
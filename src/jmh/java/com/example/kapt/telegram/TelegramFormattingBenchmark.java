@@ -0,0 +1,64 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.bench.Fixtures;
+import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.example.kapt.ingest.IngestMetrics;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.service.CoinGeckoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Per-line cost of the Markdown helpers behind /top, /gainers and the digest, over the top 250 coins.
+ */
+@State(Scope.Benchmark)
+public class TelegramFormattingBenchmark {
+
+    private static final int COINS = 250;
+
+    private List<Cryptocurrency> coins;
+    private BigDecimal[] largeNumbers;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Fixtures.objectMapper();
+        CoinGeckoService converter = new CoinGeckoService(WebClient.builder(), new IngestMetrics(new SimpleMeterRegistry()),
+                "http://localhost");
+        coins = Arrays.stream(mapper.readValue(Fixtures.toJson(mapper, Fixtures.coinMarkets(COINS)), CoinGeckoResponseDto[].class))
+                .map(converter::convertToEntity)
+                .toList();
+        // market caps and volumes together span every branch, from plain dollars up to trillions
+        largeNumbers = coins.stream()
+                .flatMap(coin -> Stream.of(coin.getMarketCap(), coin.getTotalVolume().movePointLeft(4)))
+                .toArray(BigDecimal[]::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COINS)
+    public void formatCryptocurrencyInfo(Blackhole blackhole) {
+        for (int i = 0; i < COINS; i++) {
+            blackhole.consume(TelegramMessageFormatter.formatCryptocurrencyInfo(i + 1, coins.get(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * COINS)
+    public void formatLargeNumber(Blackhole blackhole) {
+        for (BigDecimal number : largeNumbers) {
+            blackhole.consume(TelegramMessageFormatter.formatLargeNumber(number));
+        }
+    }
+}
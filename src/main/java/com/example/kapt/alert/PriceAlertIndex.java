@@ -0,0 +1,139 @@
+package com.example.kapt.alert;
+
+import com.example.kapt.model.PriceAlert.Direction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the active price alerts, kept per symbol in two threshold-sorted maps. A price move
+ * from {@code previous} to {@code current} only touches the thresholds in between, so evaluation cost
+ * grows with the number of alerts that fire rather than with the number of alerts held.
+ */
+public class PriceAlertIndex {
+
+    private final Map<String, SymbolAlerts> bySymbol = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    public void add(Entry entry) {
+        bySymbol.computeIfAbsent(entry.getSymbol(), symbol -> new SymbolAlerts()).add(entry);
+        byId.put(entry.getId(), entry);
+    }
+
+    public boolean remove(long id) {
+        Entry entry = byId.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        SymbolAlerts alerts = bySymbol.get(entry.getSymbol());
+        return alerts != null && alerts.remove(entry);
+    }
+
+    /**
+     * Removes and returns the alerts crossed by a price move: ABOVE alerts with a threshold in
+     * (previous, current] when the price rose, BELOW alerts with a threshold in [current, previous) when it fell.
+     */
+    public List<Entry> collectTriggered(String symbol, BigDecimal previous, BigDecimal current) {
+        SymbolAlerts alerts = bySymbol.get(symbol);
+        if (alerts == null || previous == null || current == null || previous.compareTo(current) == 0) {
+            return List.of();
+        }
+
+        List<Entry> triggered = alerts.collect(previous, current);
+        for (Entry entry : triggered) {
+            byId.remove(entry.getId());
+        }
+        return triggered;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public void clear() {
+        bySymbol.clear();
+        byId.clear();
+    }
+
+    private static class SymbolAlerts {
+        private final TreeMap<BigDecimal, Map<Long, Entry>> above = new TreeMap<>();
+        private final TreeMap<BigDecimal, Map<Long, Entry>> below = new TreeMap<>();
+
+        synchronized void add(Entry entry) {
+            thresholds(entry.getDirection())
+                    .computeIfAbsent(entry.getThreshold(), threshold -> new LinkedHashMap<>())
+                    .put(entry.getId(), entry);
+        }
+
+        synchronized boolean remove(Entry entry) {
+            TreeMap<BigDecimal, Map<Long, Entry>> thresholds = thresholds(entry.getDirection());
+            Map<Long, Entry> bucket = thresholds.get(entry.getThreshold());
+            if (bucket == null || bucket.remove(entry.getId()) == null) {
+                return false;
+            }
+            if (bucket.isEmpty()) {
+                thresholds.remove(entry.getThreshold());
+            }
+            return true;
+        }
+
+        synchronized List<Entry> collect(BigDecimal previous, BigDecimal current) {
+            NavigableMap<BigDecimal, Map<Long, Entry>> crossed = current.compareTo(previous) > 0
+                    ? above.subMap(previous, false, current, true)
+                    : below.subMap(current, true, previous, false);
+
+            List<Entry> triggered = new ArrayList<>();
+            Map.Entry<BigDecimal, Map<Long, Entry>> bucket;
+            while ((bucket = crossed.pollFirstEntry()) != null) {
+                triggered.addAll(bucket.getValue().values());
+            }
+            return triggered;
+        }
+
+        private TreeMap<BigDecimal, Map<Long, Entry>> thresholds(Direction direction) {
+            return direction == Direction.ABOVE ? above : below;
+        }
+    }
+
+    public static class Entry {
+        private final long id;
+        private final long chatId;
+        private final String symbol;
+        private final Direction direction;
+        private final BigDecimal threshold;
+
+        public Entry(long id, long chatId, String symbol, Direction direction, BigDecimal threshold) {
+            this.id = id;
+            this.chatId = chatId;
+            this.symbol = symbol;
+            this.direction = direction;
+            this.threshold = threshold;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getChatId() {
+            return chatId;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public Direction getDirection() {
+            return direction;
+        }
+
+        public BigDecimal getThreshold() {
+            return threshold;
+        }
+    }
+}
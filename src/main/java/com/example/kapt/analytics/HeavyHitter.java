@@ -0,0 +1,56 @@
+package com.example.kapt.analytics;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+public final class HeavyHitter {
+
+    private final String term;
+    private final long count;
+    private final long error;
+
+    @JsonCreator
+    public HeavyHitter(@JsonProperty("term") String term,
+                       @JsonProperty("count") long count,
+                       @JsonProperty("error") long error) {
+        this.term = term;
+        this.count = count;
+        this.error = error;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getError() {
+        return error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HeavyHitter that = (HeavyHitter) o;
+        return count == that.count && error == that.error && Objects.equals(term, that.term);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(term, count, error);
+    }
+
+    @Override
+    public String toString() {
+        return "HeavyHitter{" +
+                "term='" + term + '\'' +
+                ", count=" + count +
+                ", error=" + error +
+                '}';
+    }
+}
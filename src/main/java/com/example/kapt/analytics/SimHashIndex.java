@@ -0,0 +1,188 @@
+package com.example.kapt.analytics;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Near-duplicate lookup over 64-bit SimHash fingerprints of recent documents.
+ * <p>
+ * The fingerprint is split into {@code maxDistance + 1} bands. Two fingerprints within {@code maxDistance}
+ * differing bits must agree exactly on at least one band, so a lookup only compares the documents sharing a
+ * band bucket with the query instead of every indexed one. Documents older than {@code window} (relative to
+ * the newest one seen) are evicted, and at most {@code maxEntries} are kept.
+ */
+public class SimHashIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int maxDistance;
+    private final long windowMillis;
+    private final int maxEntries;
+    private final int[] bandShifts;
+    private final long[] bandMasks;
+    private final List<Map<Long, List<Entry>>> bands;
+    private final Map<String, Entry> byKey = new HashMap<>();
+    private final Deque<Entry> insertionOrder = new ArrayDeque<>();
+    private long newestMillis = Long.MIN_VALUE;
+
+    public SimHashIndex(int maxDistance, Duration window, int maxEntries) {
+        if (maxDistance < 0 || maxDistance >= 32) {
+            throw new IllegalArgumentException("Max distance must be between 0 and 31, was " + maxDistance);
+        }
+        this.maxDistance = maxDistance;
+        this.windowMillis = window.toMillis();
+        this.maxEntries = maxEntries;
+
+        int bandCount = maxDistance + 1;
+        this.bandShifts = new int[bandCount];
+        this.bandMasks = new long[bandCount];
+        this.bands = new ArrayList<>(bandCount);
+        int shift = 0;
+        for (int i = 0; i < bandCount; i++) {
+            // The last band takes the bits left over when 64 does not divide evenly
+            int width = i == bandCount - 1 ? 64 - shift : 64 / bandCount;
+            bandShifts[i] = shift;
+            bandMasks[i] = width == 64 ? -1L : (1L << width) - 1;
+            bands.add(new HashMap<>());
+            shift += width;
+        }
+    }
+
+    /**
+     * SimHash of the lower-cased word unigrams and bigrams of {@code text}; 0 when it has no words.
+     */
+    public static long fingerprint(String text) {
+        if (text == null) {
+            return 0L;
+        }
+        String[] tokens = TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT));
+        int[] weights = new int[64];
+        String previous = null;
+        for (String token : tokens) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            addFeature(weights, hash(token));
+            if (previous != null) {
+                addFeature(weights, hash(previous + ' ' + token));
+            }
+            previous = token;
+        }
+
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the key of an indexed document within {@code maxDistance} bits of {@code fingerprint}, or
+     * {@code null} after indexing this one. A key that is already indexed is never its own duplicate.
+     */
+    public synchronized String findOrAdd(String key, long fingerprint, long timestampMillis) {
+        newestMillis = Math.max(newestMillis, timestampMillis);
+        evictExpired();
+        if (byKey.containsKey(key)) {
+            return null;
+        }
+
+        for (int band = 0; band < bands.size(); band++) {
+            List<Entry> bucket = bands.get(band).get(bandValue(fingerprint, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry candidate : bucket) {
+                if (Long.bitCount(candidate.fingerprint ^ fingerprint) <= maxDistance) {
+                    return candidate.key;
+                }
+            }
+        }
+
+        Entry entry = new Entry(key, fingerprint, timestampMillis);
+        byKey.put(key, entry);
+        insertionOrder.addLast(entry);
+        for (int band = 0; band < bands.size(); band++) {
+            bands.get(band).computeIfAbsent(bandValue(fingerprint, band), value -> new ArrayList<>(1)).add(entry);
+        }
+        while (byKey.size() > maxEntries) {
+            remove(insertionOrder.peekFirst().key);
+        }
+        return null;
+    }
+
+    public synchronized void remove(String key) {
+        Entry entry = byKey.remove(key);
+        if (entry == null) {
+            return;
+        }
+        insertionOrder.remove(entry);
+        for (int band = 0; band < bands.size(); band++) {
+            long value = bandValue(entry.fingerprint, band);
+            List<Entry> bucket = bands.get(band).get(value);
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                bands.get(band).remove(value);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    private void evictExpired() {
+        long cutoff = newestMillis - windowMillis;
+        while (!insertionOrder.isEmpty() && insertionOrder.peekFirst().timestampMillis < cutoff) {
+            remove(insertionOrder.peekFirst().key);
+        }
+    }
+
+    private long bandValue(long fingerprint, int band) {
+        return (fingerprint >>> bandShifts[band]) & bandMasks[band];
+    }
+
+    private static void addFeature(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    // FNV-1a spreads poorly into the high bits, so it is finished with the MurmurHash3 mixer
+    private static long hash(String feature) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < feature.length(); i++) {
+            hash ^= feature.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Entry {
+        private final String key;
+        private final long fingerprint;
+        private final long timestampMillis;
+
+        Entry(String key, long fingerprint, long timestampMillis) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.timestampMillis = timestampMillis;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.kapt.analytics;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Sliding-window top-K built from a ring of time buckets, each holding its own
+ * {@link SpaceSavingCounter}. Memory is bounded by {@code bucketCount * capacity} terms.
+ * <p>
+ * Writers call {@link #offer} and then {@link #refresh} once per batch; the merged ranking
+ * is published as an immutable snapshot so that {@link #top(int)} is O(K) and lock-free.
+ */
+public class SlidingWindowTopK {
+
+    private final String name;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int snapshotSize;
+    private final SpaceSavingCounter[] buckets;
+    private final long[] bucketIds;
+
+    private volatile List<HeavyHitter> snapshot = List.of();
+
+    public SlidingWindowTopK(String name, Duration window, int bucketCount, int capacity, int snapshotSize) {
+        if (window.toMillis() % bucketCount != 0) {
+            throw new IllegalArgumentException("Window must be divisible into " + bucketCount + " buckets");
+        }
+        this.name = name;
+        this.bucketMillis = window.toMillis() / bucketCount;
+        this.bucketCount = bucketCount;
+        this.snapshotSize = snapshotSize;
+        this.buckets = new SpaceSavingCounter[bucketCount];
+        this.bucketIds = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new SpaceSavingCounter(capacity);
+        }
+        Arrays.fill(bucketIds, -1L);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized boolean offer(String term, Instant timestamp, Instant now) {
+        long currentBucket = bucketId(now);
+        long bucket = Math.min(bucketId(timestamp), currentBucket);
+        if (bucket <= currentBucket - bucketCount) {
+            return false;
+        }
+
+        int slot = slot(bucket);
+        if (bucketIds[slot] != bucket) {
+            buckets[slot].clear();
+            bucketIds[slot] = bucket;
+        }
+        buckets[slot].offer(term);
+        return true;
+    }
+
+    public synchronized void refresh(Instant now) {
+        long oldestLiveBucket = bucketId(now) - bucketCount + 1;
+        Map<String, long[]> merged = new HashMap<>();
+
+        for (int i = 0; i < bucketCount; i++) {
+            if (bucketIds[i] < oldestLiveBucket) {
+                buckets[i].clear();
+                bucketIds[i] = -1L;
+                continue;
+            }
+            for (HeavyHitter entry : buckets[i].entries()) {
+                long[] totals = merged.computeIfAbsent(entry.getTerm(), term -> new long[2]);
+                totals[0] += entry.getCount();
+                totals[1] += entry.getError();
+            }
+        }
+
+        PriorityQueue<HeavyHitter> heap = new PriorityQueue<>(Comparator.comparingLong(HeavyHitter::getCount));
+        for (Map.Entry<String, long[]> entry : merged.entrySet()) {
+            heap.offer(new HeavyHitter(entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+            if (heap.size() > snapshotSize) {
+                heap.poll();
+            }
+        }
+
+        List<HeavyHitter> ranked = new ArrayList<>(heap);
+        ranked.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed().thenComparing(HeavyHitter::getTerm));
+        snapshot = List.copyOf(ranked);
+    }
+
+    public List<HeavyHitter> top(int k) {
+        List<HeavyHitter> current = snapshot;
+        return current.subList(0, Math.min(k, current.size()));
+    }
+
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    public synchronized List<BucketState> exportBuckets() {
+        List<BucketState> states = new ArrayList<>();
+        for (int i = 0; i < bucketCount; i++) {
+            if (bucketIds[i] >= 0) {
+                states.add(new BucketState(bucketIds[i] * bucketMillis, buckets[i].entries()));
+            }
+        }
+        return states;
+    }
+
+    public synchronized void restore(List<BucketState> states, Instant now) {
+        for (BucketState state : states) {
+            long bucket = state.getStartMillis() / bucketMillis;
+            if (bucket <= bucketId(now) - bucketCount) {
+                continue;
+            }
+            int slot = slot(bucket);
+            buckets[slot].clear();
+            bucketIds[slot] = bucket;
+            for (HeavyHitter entry : state.getEntries()) {
+                buckets[slot].offer(entry.getTerm(), entry.getCount(), entry.getError());
+            }
+        }
+        refresh(now);
+    }
+
+    private long bucketId(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), bucketMillis);
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) bucketCount);
+    }
+
+    public static final class BucketState {
+        private final long startMillis;
+        private final List<HeavyHitter> entries;
+
+        @JsonCreator
+        public BucketState(@JsonProperty("startMillis") long startMillis,
+                           @JsonProperty("entries") List<HeavyHitter> entries) {
+            this.startMillis = startMillis;
+            this.entries = entries;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public List<HeavyHitter> getEntries() {
+            return entries;
+        }
+    }
+}
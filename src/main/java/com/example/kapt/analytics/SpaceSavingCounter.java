@@ -0,0 +1,101 @@
+package com.example.kapt.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters counter (Metwally et al.). Tracks at most {@code capacity} terms;
+ * when full, the least frequent term is evicted and the newcomer inherits its count as error.
+ * Not thread-safe.
+ */
+public class SpaceSavingCounter {
+
+    private static final Comparator<Counter> BY_COUNT = Comparator
+            .comparingLong((Counter c) -> c.count)
+            .thenComparing(c -> c.term);
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+
+    public SpaceSavingCounter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String term) {
+        offer(term, 1, 0);
+    }
+
+    public void offer(String term, long increment, long error) {
+        Counter counter = counters.get(term);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count += increment;
+            counter.error += error;
+            ordered.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter(term, increment, error);
+        } else {
+            Counter evicted = ordered.pollFirst();
+            counters.remove(evicted.term);
+            counter = new Counter(term, evicted.count + increment, evicted.count + error);
+        }
+        counters.put(term, counter);
+        ordered.add(counter);
+    }
+
+    public List<HeavyHitter> entries() {
+        List<HeavyHitter> entries = new ArrayList<>(counters.size());
+        for (Counter counter : ordered.descendingSet()) {
+            entries.add(new HeavyHitter(counter.term, counter.count, counter.error));
+        }
+        return entries;
+    }
+
+    public List<HeavyHitter> top(int k) {
+        List<HeavyHitter> top = new ArrayList<>(Math.min(k, counters.size()));
+        for (Counter counter : ordered.descendingSet()) {
+            if (top.size() >= k) {
+                break;
+            }
+            top.add(new HeavyHitter(counter.term, counter.count, counter.error));
+        }
+        return top;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        counters.clear();
+        ordered.clear();
+    }
+
+    private static final class Counter {
+        private final String term;
+        private long count;
+        private long error;
+
+        private Counter(String term, long count, long error) {
+            this.term = term;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -6,18 +6,46 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import java.util.List;
+
 @Configuration
 public class TelegramBotConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(TelegramBotConfig.class);
 
+    public static final String MODE_WEBHOOK = "webhook";
+
     @Value("${app.telegram.bot.enabled:false}")
     private boolean telegramBotEnabled;
 
+    @Value("${app.telegram.bot.mode:polling}")
+    private String botMode;
+
+    @Value("${app.telegram.webhook.url:}")
+    private String webhookUrl;
+
+    @Value("${app.telegram.webhook.path:/api/v1/telegram/webhook}")
+    private String webhookPath;
+
+    @Value("${app.telegram.webhook.secret-token:}")
+    private String webhookSecretToken;
+
+    @Value("${app.telegram.webhook.max-connections:40}")
+    private int webhookMaxConnections;
+
+    @Bean
+    public DefaultBotOptions telegramBotOptions(@Value("${app.telegram.api-base-url:https://api.telegram.org/bot}") String apiBaseUrl) {
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(apiBaseUrl);
+        return options;
+    }
+
     @Bean
     public TelegramBotsApi telegramBotsApi(CryptocurrencyTelegramBot cryptocurrencyTelegramBot) throws TelegramApiException {
         if (!telegramBotEnabled) {
@@ -25,6 +53,11 @@ public class TelegramBotConfig {
             return null;
         }
 
+        if (MODE_WEBHOOK.equalsIgnoreCase(botMode)) {
+            registerWebhook(cryptocurrencyTelegramBot);
+            return null;
+        }
+
         TelegramBotsApi botsApi = new TelegramBotsApi(DefaultBotSession.class);
 
         try {
@@ -37,4 +70,24 @@ public class TelegramBotConfig {
 
         return botsApi;
     }
+
+    // Webhook mode serves a single instance, see TelegramWebhookController; registering again on restart is idempotent
+    private void registerWebhook(CryptocurrencyTelegramBot bot) throws TelegramApiException {
+        if (webhookUrl.isBlank()) {
+            throw new IllegalStateException("app.telegram.webhook.url must be set when app.telegram.bot.mode=webhook");
+        }
+
+        SetWebhook setWebhook = new SetWebhook(webhookUrl.replaceAll("/+$", "") + webhookPath);
+        setWebhook.setSecretToken(webhookSecretToken);
+        setWebhook.setMaxConnections(webhookMaxConnections);
+        setWebhook.setAllowedUpdates(List.of("message", "callback_query", "inline_query"));
+
+        try {
+            bot.execute(setWebhook);
+            logger.info("Telegram webhook registered at {}", setWebhook.getUrl());
+        } catch (TelegramApiException e) {
+            logger.error("Failed to register Telegram webhook", e);
+            throw e;
+        }
+    }
 }
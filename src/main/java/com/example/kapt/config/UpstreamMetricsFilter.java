@@ -0,0 +1,71 @@
+package com.example.kapt.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every outbound WebClient call as {@code upstream.request.duration}, tagged with the upstream host,
+ * the endpoint and the response status ({@code IO_ERROR} when no response arrived). Alpha Vantage serves
+ * every call from {@code /query}, so its endpoint tag is the {@code function} parameter instead of the path.
+ */
+public class UpstreamMetricsFilter implements ExchangeFilterFunction {
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        long startNanos = System.nanoTime();
+        return next.exchange(request)
+                .doOnNext(response -> record(request.url(), String.valueOf(response.statusCode().value()), startNanos))
+                .doOnError(error -> record(request.url(), "IO_ERROR", startNanos));
+    }
+
+    private void record(URI url, String status, long startNanos) {
+        Timer.builder("upstream.request.duration")
+                .description("Latency of calls to external APIs until the response status arrives")
+                .tag("upstream", upstream(url))
+                .tag("endpoint", endpoint(url))
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    static String upstream(URI url) {
+        String host = url.getHost();
+        if (host == null) {
+            return "unknown";
+        }
+        if (host.endsWith("coingecko.com")) {
+            return "coingecko";
+        }
+        if (host.endsWith("alphavantage.co")) {
+            return "alphavantage";
+        }
+        return host;
+    }
+
+    static String endpoint(URI url) {
+        String path = url.getPath() == null || url.getPath().isEmpty() ? "/" : url.getPath();
+        if ("/query".equals(path)) {
+            String function = UriComponentsBuilder.fromUri(url).build().getQueryParams().getFirst("function");
+            if (function != null) {
+                return function;
+            }
+        }
+        return path;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.kapt.controller;
 
 import com.example.kapt.model.Cryptocurrency;
 import com.example.kapt.service.CryptocurrencyService;
+import com.example.kapt.service.JobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -23,9 +25,11 @@ public class CryptocurrencyController {
     private static final Logger logger = LoggerFactory.getLogger(CryptocurrencyController.class);
 
     private final CryptocurrencyService cryptocurrencyService;
+    private final JobService jobService;
 
-    public CryptocurrencyController(CryptocurrencyService cryptocurrencyService) {
+    public CryptocurrencyController(CryptocurrencyService cryptocurrencyService, JobService jobService) {
         this.cryptocurrencyService = cryptocurrencyService;
+        this.jobService = jobService;
     }
 
     @GetMapping
@@ -135,16 +139,17 @@ public class CryptocurrencyController {
 
     @PostMapping("/update")
     @Operation(summary = "Update cryptocurrency data", description = "Manually trigger cryptocurrency data update from external API")
-    public ResponseEntity<String> updateCryptocurrencyData() {
+    public ResponseEntity<Map<String, Object>> updateCryptocurrencyData() {
         logger.info("Manual cryptocurrency data update triggered");
 
         try {
-            cryptocurrencyService.fetchAndSaveCryptocurrencies();
-            return ResponseEntity.ok("Cryptocurrency data update started successfully");
+            JobService.Job job = jobService.submitTask("cryptocurrency-update", "cryptocurrency-update",
+                    progress -> cryptocurrencyService.fetchAndSaveCryptocurrencies(progress));
+            return JobController.accepted(job);
         } catch (Exception e) {
             logger.error("Error triggering cryptocurrency data update", e);
             return ResponseEntity.internalServerError()
-                    .body("Error triggering cryptocurrency data update: " + e.getMessage());
+                    .body(Map.of("error", "Error triggering cryptocurrency data update: " + e.getMessage()));
         }
     }
 }
@@ -0,0 +1,47 @@
+package com.example.kapt.controller;
+
+import com.example.kapt.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+@Tag(name = "Jobs", description = "Status of background ingest jobs")
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get job status", description = "Progress and result of a background ingest job")
+    public ResponseEntity<JobService.Job> getJob(
+            @Parameter(description = "Job id returned by the triggering endpoint")
+            @PathVariable String id) {
+
+        return jobService.findJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    static ResponseEntity<Map<String, Object>> accepted(JobService.Job job) {
+        String statusUrl = "/api/v1/jobs/" + job.getId();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jobId", job.getId());
+        body.put("status", job.getStatus());
+        body.put("statusUrl", statusUrl);
+        return ResponseEntity.accepted().location(URI.create(statusUrl)).body(body);
+    }
+}
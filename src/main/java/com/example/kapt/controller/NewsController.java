@@ -1,6 +1,10 @@
 package com.example.kapt.controller;
 
+import com.example.kapt.analytics.HeavyHitter;
+import com.example.kapt.dto.NewsSummary;
 import com.example.kapt.model.News;
+import com.example.kapt.service.AlphaVantageRequestScheduler;
+import com.example.kapt.service.JobService;
 import com.example.kapt.service.NewsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,11 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -24,12 +30,14 @@ public class NewsController {
     private static final Logger logger = LoggerFactory.getLogger(NewsController.class);
 
     private final NewsService newsService;
+    private final JobService jobService;
 
-    public NewsController(NewsService newsService) {
+    public NewsController(NewsService newsService, JobService jobService) {
         this.newsService = newsService;
+        this.jobService = jobService;
     }    @GetMapping
     @Operation(summary = "Get all news", description = "Retrieve all cryptocurrency news articles with pagination and sorting")
-    public ResponseEntity<Page<News>> getAllNews(
+    public ResponseEntity<Page<NewsSummary>> getAllNews(
             @Parameter(description = "Page number (0-based)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size")
@@ -50,7 +58,7 @@ public class NewsController {
         logger.info("Getting all news: page={}, size={}, sortBy={}, sortDir={}",
                 page, size, sortBy, sortDir);
 
-        Page<News> news = newsService.getAllNews(page, size, sortBy, sortDir);
+        Page<NewsSummary> news = newsService.getAllNews(page, size, sortBy, sortDir);
         return ResponseEntity.ok(news);
     }
 
@@ -67,7 +75,7 @@ public class NewsController {
                 .orElse(ResponseEntity.notFound().build());
     }    @GetMapping("/search")
     @Operation(summary = "Search news", description = "Search news articles by keyword in title or description")
-    public ResponseEntity<List<News>> searchNews(
+    public ResponseEntity<List<NewsSummary>> searchNews(
             @Parameter(description = "Search keyword")
             @RequestParam String q) {
 
@@ -78,37 +86,37 @@ public class NewsController {
 
         logger.info("Searching news with keyword: {}", q);
 
-        List<News> results = newsService.searchNews(q.trim());
+        List<NewsSummary> results = newsService.searchNews(q.trim());
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/coin/{coin}")
     @Operation(summary = "Get news by cryptocurrency", description = "Get news articles mentioning specific cryptocurrency")
-    public ResponseEntity<List<News>> getNewsByCoin(
+    public ResponseEntity<List<NewsSummary>> getNewsByCoin(
             @Parameter(description = "Cryptocurrency symbol (e.g., btc, eth)")
             @PathVariable String coin) {
 
         logger.info("Getting news for cryptocurrency: {}", coin);
 
-        List<News> results = newsService.getNewsByCoin(coin);
+        List<NewsSummary> results = newsService.getNewsByCoin(coin);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/source/{sourceName}")
     @Operation(summary = "Get news by source", description = "Get news articles from specific source")
-    public ResponseEntity<List<News>> getNewsBySource(
+    public ResponseEntity<List<NewsSummary>> getNewsBySource(
             @Parameter(description = "News source name")
             @PathVariable String sourceName) {
 
         logger.info("Getting news from source: {}", sourceName);
 
-        List<News> results = newsService.getNewsBySource(sourceName);
+        List<NewsSummary> results = newsService.getNewsBySource(sourceName);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/sentiment/{sentiment}")
     @Operation(summary = "Get news by sentiment", description = "Get news articles with specific sentiment")
-    public ResponseEntity<Page<News>> getNewsBySentiment(
+    public ResponseEntity<Page<NewsSummary>> getNewsBySentiment(
             @Parameter(description = "Sentiment (positive, negative, neutral)")
             @PathVariable String sentiment,
             @Parameter(description = "Page number (0-based)")
@@ -118,13 +126,13 @@ public class NewsController {
 
         logger.info("Getting news with sentiment: {}", sentiment);
 
-        Page<News> results = newsService.getNewsBySentiment(sentiment, page, size);
+        Page<NewsSummary> results = newsService.getNewsBySentiment(sentiment, page, size);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/language/{language}")
     @Operation(summary = "Get news by language", description = "Get news articles in specific language")
-    public ResponseEntity<Page<News>> getNewsByLanguage(
+    public ResponseEntity<Page<NewsSummary>> getNewsByLanguage(
             @Parameter(description = "Language code (e.g., en, fr, de)")
             @PathVariable String language,
             @Parameter(description = "Page number (0-based)")
@@ -134,23 +142,23 @@ public class NewsController {
 
         logger.info("Getting news in language: {}", language);
 
-        Page<News> results = newsService.getNewsByLanguage(language, page, size);
+        Page<NewsSummary> results = newsService.getNewsByLanguage(language, page, size);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/category/{category}")
     @Operation(summary = "Get news by category", description = "Get news articles in specific category")
-    public ResponseEntity<List<News>> getNewsByCategory(
+    public ResponseEntity<List<NewsSummary>> getNewsByCategory(
             @Parameter(description = "News category")
             @PathVariable String category) {
 
         logger.info("Getting news in category: {}", category);
 
-        List<News> results = newsService.getNewsByCategory(category);
+        List<NewsSummary> results = newsService.getNewsByCategory(category);
         return ResponseEntity.ok(results);
     }    @GetMapping("/recent")
     @Operation(summary = "Get recent news", description = "Get news articles published in the last N hours")
-    public ResponseEntity<List<News>> getRecentNews(
+    public ResponseEntity<List<NewsSummary>> getRecentNews(
             @Parameter(description = "Number of hours back to search")
             @RequestParam(defaultValue = "24") int hours) {
 
@@ -160,13 +168,13 @@ public class NewsController {
 
         logger.info("Getting recent news from last {} hours", hours);
 
-        List<News> results = newsService.getRecentNews(hours);
+        List<NewsSummary> results = newsService.getRecentNews(hours);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/between")
     @Operation(summary = "Get news between dates", description = "Get news articles published between two dates")
-    public ResponseEntity<List<News>> getNewsBetweenDates(
+    public ResponseEntity<List<NewsSummary>> getNewsBetweenDates(
             @Parameter(description = "Start date (ISO format: yyyy-MM-dd'T'HH:mm:ss)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @Parameter(description = "End date (ISO format: yyyy-MM-dd'T'HH:mm:ss)")
@@ -174,13 +182,13 @@ public class NewsController {
 
         logger.info("Getting news between {} and {}", startDate, endDate);
 
-        List<News> results = newsService.getNewsBetweenDates(startDate, endDate);
+        List<NewsSummary> results = newsService.getNewsBetweenDates(startDate, endDate);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/advanced-search")
     @Operation(summary = "Advanced news search", description = "Search news with multiple criteria")
-    public ResponseEntity<Page<News>> advancedSearch(
+    public ResponseEntity<Page<NewsSummary>> advancedSearch(
             @Parameter(description = "Search keyword")
             @RequestParam(required = false) String keyword,
             @Parameter(description = "Source name")
@@ -205,7 +213,7 @@ public class NewsController {
         logger.info("Advanced search - keyword: {}, source: {}, language: {}, sentiment: {}, coin: {}, category: {}",
                 keyword, sourceName, language, sentiment, coin, category);
 
-        Page<News> results = newsService.searchWithCriteria(
+        Page<NewsSummary> results = newsService.searchWithCriteria(
                 keyword, sourceName, language, sentiment, coin, category,
                 fromDate, toDate, page, size
         );
@@ -224,6 +232,27 @@ public class NewsController {
         return ResponseEntity.ok(trending);
     }
 
+    @GetMapping("/trending/keywords")
+    @Operation(summary = "Get trending keywords", description = "Get most frequent keywords in article titles and summaries over a sliding window")
+    public ResponseEntity<List<HeavyHitter>> getTrendingKeywords(
+            @Parameter(description = "Sliding window (1h or 24h)")
+            @RequestParam(defaultValue = "24h") String window,
+            @Parameter(description = "Number of keywords to return")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        if (limit <= 0 || limit > 50) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        logger.info("Getting top {} trending keywords for window {}", limit, window);
+
+        try {
+            return ResponseEntity.ok(newsService.getTrendingKeywords(window, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/sources/top")
     @Operation(summary = "Get top news sources", description = "Get news sources with most articles")
     public ResponseEntity<List<String>> getTopNewsSources(
@@ -247,25 +276,29 @@ public class NewsController {
 
     @PostMapping("/update")
     @Operation(summary = "Update news", description = "Manually trigger news update from external API")
-    public ResponseEntity<String> updateNews(
+    public ResponseEntity<Map<String, Object>> updateNews(
             @Parameter(description = "Batch size for fetching news")
             @RequestParam(defaultValue = "50") int batchSize) {
 
         logger.info("Manual news update triggered with batch size: {}", batchSize);
 
         try {
-            newsService.fetchAndSaveLatestNews(batchSize);
-            return ResponseEntity.ok("News update started successfully");
+            JobService.Job job = jobService.submit("news-update", "news-update:" + batchSize,
+                    progress -> newsService.fetchAndSaveLatestNews(batchSize, progress));
+            return JobController.accepted(job);
+        } catch (AlphaVantageRequestScheduler.QuotaExceededException e) {
+            logger.warn("Rejected news update request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error triggering news update", e);
             return ResponseEntity.internalServerError()
-                    .body("Error triggering news update: " + e.getMessage());
+                    .body(Map.of("error", "Error triggering news update: " + e.getMessage()));
         }
     }
 
     @PostMapping("/update/coin/{coin}")
     @Operation(summary = "Update news for coin", description = "Fetch latest news for specific cryptocurrency")
-    public ResponseEntity<String> updateNewsForCoin(
+    public ResponseEntity<Map<String, Object>> updateNewsForCoin(
             @Parameter(description = "Cryptocurrency symbol")
             @PathVariable String coin,
             @Parameter(description = "Batch size for fetching news")
@@ -274,18 +307,22 @@ public class NewsController {
         logger.info("Manual news update triggered for coin: {} with batch size: {}", coin, batchSize);
 
         try {
-            newsService.fetchAndSaveNewsByCoin(new String[]{coin}, batchSize);
-            return ResponseEntity.ok("News update for " + coin + " started successfully");
+            JobService.Job job = jobService.submit("news-update-coin", "news-update-coin:" + coin.toUpperCase() + ":" + batchSize,
+                    progress -> newsService.fetchAndSaveNewsByCoin(new String[]{coin}, batchSize, progress));
+            return JobController.accepted(job);
+        } catch (AlphaVantageRequestScheduler.QuotaExceededException e) {
+            logger.warn("Rejected news update request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error triggering news update for coin: {}", coin, e);
             return ResponseEntity.internalServerError()
-                    .body("Error triggering news update for " + coin + ": " + e.getMessage());
+                    .body(Map.of("error", "Error triggering news update for " + coin + ": " + e.getMessage()));
         }
     }
 
     @PostMapping("/search-and-save")
     @Operation(summary = "Search and save news", description = "Search for news by keyword and save to database")
-    public ResponseEntity<String> searchAndSaveNews(
+    public ResponseEntity<Map<String, Object>> searchAndSaveNews(
             @Parameter(description = "Search keyword")
             @RequestParam String keyword,
             @Parameter(description = "Batch size for fetching news")
@@ -294,12 +331,16 @@ public class NewsController {
         logger.info("Search and save news triggered for keyword: {} with batch size: {}", keyword, batchSize);
 
         try {
-            newsService.searchAndSaveNews(keyword, batchSize);
-            return ResponseEntity.ok("Search and save for keyword '" + keyword + "' started successfully");
+            JobService.Job job = jobService.submit("news-search-and-save", "news-search-and-save:" + keyword.toLowerCase() + ":" + batchSize,
+                    progress -> newsService.searchAndSaveNews(keyword, batchSize, progress));
+            return JobController.accepted(job);
+        } catch (AlphaVantageRequestScheduler.QuotaExceededException e) {
+            logger.warn("Rejected news update request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error in search and save for keyword: {}", keyword, e);
             return ResponseEntity.internalServerError()
-                    .body("Error in search and save for keyword '" + keyword + "': " + e.getMessage());
+                    .body(Map.of("error", "Error in search and save for keyword '" + keyword + "': " + e.getMessage()));
         }
     }
 
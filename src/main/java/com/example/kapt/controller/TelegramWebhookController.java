@@ -0,0 +1,62 @@
+package com.example.kapt.controller;
+
+import com.example.kapt.telegram.CryptocurrencyTelegramBot;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Receives Telegram updates pushed to the webhook when the bot is enabled with {@code app.telegram.bot.mode=webhook}.
+ * Updates are handed to the same bot entry point long polling uses and acknowledged as soon as they are queued.
+ * <p>
+ * Webhook mode supports a single running instance, like polling: the send budget, digest scheduler, price alert
+ * index and response cache all live in this process, so a second replica would double the send rate and the
+ * broadcasts.
+ */
+@Hidden
+@RestController
+@ConditionalOnExpression("${app.telegram.bot.enabled:false} and '${app.telegram.bot.mode:polling}'.equalsIgnoreCase('webhook')")
+public class TelegramWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelegramWebhookController.class);
+    static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final CryptocurrencyTelegramBot bot;
+    private final byte[] secretToken;
+
+    public TelegramWebhookController(CryptocurrencyTelegramBot bot,
+                                     @Value("${app.telegram.webhook.secret-token:}") String secretToken) {
+        if (secretToken.isBlank()) {
+            throw new IllegalStateException("app.telegram.webhook.secret-token must be set when app.telegram.bot.mode=webhook");
+        }
+        this.bot = bot;
+        this.secretToken = secretToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostMapping("${app.telegram.webhook.path:/api/v1/telegram/webhook}")
+    public ResponseEntity<Void> receiveUpdate(
+            @RequestHeader(value = SECRET_TOKEN_HEADER, required = false) String token,
+            @RequestBody Update update) {
+
+        // constant-time comparison so the token cannot be guessed byte by byte from response timings
+        if (token == null || !MessageDigest.isEqual(secretToken, token.getBytes(StandardCharsets.UTF_8))) {
+            logger.warn("Rejected Telegram webhook call with a missing or wrong secret token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        bot.onUpdateReceived(update);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.kapt.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a news list shows. List queries select only these, so the TEXT bodies and array columns of
+ * {@link com.example.kapt.model.News} are read only when a single article is opened.
+ */
+public class NewsSummary {
+
+    private final Long id;
+    private final String articleId;
+    private final String title;
+    private final String link;
+    private final LocalDateTime pubDate;
+    private final String sourceName;
+    private final String sentiment;
+
+    public NewsSummary(Long id, String articleId, String title, String link, LocalDateTime pubDate,
+                       String sourceName, String sentiment) {
+        this.id = id;
+        this.articleId = articleId;
+        this.title = title;
+        this.link = link;
+        this.pubDate = pubDate;
+        this.sourceName = sourceName;
+        this.sentiment = sentiment;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getArticleId() {
+        return articleId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getLink() {
+        return link;
+    }
+
+    public LocalDateTime getPubDate() {
+        return pubDate;
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public String getSentiment() {
+        return sentiment;
+    }
+
+    @Override
+    public String toString() {
+        return "NewsSummary{" +
+                "articleId='" + articleId + '\'' +
+                ", title='" + title + '\'' +
+                ", pubDate=" + pubDate +
+                '}';
+    }
+}
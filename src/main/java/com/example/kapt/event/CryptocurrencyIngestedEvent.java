@@ -0,0 +1,61 @@
+package com.example.kapt.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Published after a CoinGecko ingest run has saved or updated cryptocurrency rows.
+ */
+public class CryptocurrencyIngestedEvent {
+
+    private final int savedCount;
+    private final List<PriceChange> priceChanges;
+
+    public CryptocurrencyIngestedEvent(int savedCount) {
+        this(savedCount, List.of());
+    }
+
+    public CryptocurrencyIngestedEvent(int savedCount, List<PriceChange> priceChanges) {
+        this.savedCount = savedCount;
+        this.priceChanges = List.copyOf(priceChanges);
+    }
+
+    public int getSavedCount() {
+        return savedCount;
+    }
+
+    /**
+     * Symbols whose stored price moved during the run, with the price before and after.
+     */
+    public List<PriceChange> getPriceChanges() {
+        return priceChanges;
+    }
+
+    public boolean hasChanges() {
+        return savedCount > 0;
+    }
+
+    public static class PriceChange {
+        private final String symbol;
+        private final BigDecimal previousPrice;
+        private final BigDecimal currentPrice;
+
+        public PriceChange(String symbol, BigDecimal previousPrice, BigDecimal currentPrice) {
+            this.symbol = symbol;
+            this.previousPrice = previousPrice;
+            this.currentPrice = currentPrice;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public BigDecimal getPreviousPrice() {
+            return previousPrice;
+        }
+
+        public BigDecimal getCurrentPrice() {
+            return currentPrice;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.kapt.event;
+
+import com.example.kapt.model.News;
+
+import java.util.List;
+
+/**
+ * Published once per ingest run after the fetched articles have been persisted.
+ */
+public class NewsIngestedEvent {
+
+    private final List<News> savedArticles;
+    private final int updatedCount;
+
+    public NewsIngestedEvent(List<News> savedArticles, int updatedCount) {
+        this.savedArticles = List.copyOf(savedArticles);
+        this.updatedCount = updatedCount;
+    }
+
+    public List<News> getSavedArticles() {
+        return savedArticles;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public boolean hasChanges() {
+        return !savedArticles.isEmpty() || updatedCount > 0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.kapt.event;
+
+import com.example.kapt.model.PriceAlert.Direction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Published once per ingest run with every price alert that fired and has been deactivated.
+ */
+public class PriceAlertsTriggeredEvent {
+
+    private final List<TriggeredAlert> alerts;
+
+    public PriceAlertsTriggeredEvent(List<TriggeredAlert> alerts) {
+        this.alerts = List.copyOf(alerts);
+    }
+
+    public List<TriggeredAlert> getAlerts() {
+        return alerts;
+    }
+
+    public static class TriggeredAlert {
+        private final long alertId;
+        private final long chatId;
+        private final String symbol;
+        private final Direction direction;
+        private final BigDecimal threshold;
+        private final BigDecimal price;
+
+        public TriggeredAlert(long alertId, long chatId, String symbol, Direction direction, BigDecimal threshold, BigDecimal price) {
+            this.alertId = alertId;
+            this.chatId = chatId;
+            this.symbol = symbol;
+            this.direction = direction;
+            this.threshold = threshold;
+            this.price = price;
+        }
+
+        public long getAlertId() {
+            return alertId;
+        }
+
+        public long getChatId() {
+            return chatId;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public Direction getDirection() {
+            return direction;
+        }
+
+        public BigDecimal getThreshold() {
+            return threshold;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+    }
+}
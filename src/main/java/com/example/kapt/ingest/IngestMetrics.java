@@ -0,0 +1,106 @@
+package com.example.kapt.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters shared by the CoinGecko and Alpha Vantage ingest paths, tagged by {@code source}:
+ * run and stage durations, rows by outcome, rate-limiter waits, and the age of the last successful run.
+ * Upstream HTTP latency is recorded separately by {@link com.example.kapt.config.UpstreamMetricsFilter}.
+ */
+@Component
+public class IngestMetrics {
+
+    public static final String COINGECKO = "coingecko";
+    public static final String NEWS = "news";
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, AtomicLong> lastSuccessMillis = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IngestMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemUTC());
+    }
+
+    IngestMetrics(MeterRegistry meterRegistry, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        // Registered up front so a source that never succeeds is visible; until then the age counts from startup
+        for (String source : List.of(COINGECKO, NEWS)) {
+            lastSuccess(source);
+        }
+    }
+
+    public void recordRun(String source, long startNanos, boolean success) {
+        Timer.builder("ingest.run.duration")
+                .description("Duration of one ingest run")
+                .tag("source", source)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (success) {
+            lastSuccess(source).set(clock.millis());
+        }
+    }
+
+    public void recordStage(String source, String stage, long startNanos) {
+        Timer.builder("ingest.stage.duration")
+                .description("Time spent in one stage of an ingest run")
+                .tag("source", source)
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRows(String source, int inserted, int updated, int skipped, int failed) {
+        rowCounter(source, "inserted").increment(inserted);
+        rowCounter(source, "updated").increment(updated);
+        rowCounter(source, "skipped").increment(skipped);
+        rowCounter(source, "failed").increment(failed);
+    }
+
+    public void recordRateLimitWait(String upstream, String priority, long waitNanos) {
+        Timer.builder("upstream.ratelimit.wait")
+                .description("Time a request waited for the upstream rate limiter")
+                .tag("upstream", upstream)
+                .tag("priority", priority)
+                .register(meterRegistry)
+                .record(Math.max(0, waitNanos), TimeUnit.NANOSECONDS);
+    }
+
+    public double getSecondsSinceLastSuccess(String source) {
+        return (clock.millis() - lastSuccess(source).get()) / 1000.0;
+    }
+
+    private AtomicLong lastSuccess(String source) {
+        return lastSuccessMillis.computeIfAbsent(source, key -> {
+            AtomicLong millis = new AtomicLong(clock.millis());
+            Gauge.builder("ingest.last.success.age", this, metrics -> metrics.getSecondsSinceLastSuccess(key))
+                    .description("Seconds since the last ingest run that received and stored data")
+                    .tag("source", key)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            return millis;
+        });
+    }
+
+    private Counter rowCounter(String source, String outcome) {
+        return Counter.builder("ingest.rows")
+                .description("Rows handled by ingest runs")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
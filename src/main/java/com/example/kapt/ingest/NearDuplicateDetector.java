@@ -0,0 +1,96 @@
+package com.example.kapt.ingest;
+
+import com.example.kapt.analytics.SimHashIndex;
+import com.example.kapt.model.News;
+import com.example.kapt.repository.NewsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Flags syndicated copies of a story already ingested from another source. The first article seen keeps
+ * {@code duplicate = false}; later ones whose title and summary fingerprint is within the configured
+ * distance are stored with {@code duplicate = true}, which every feed query filters out.
+ */
+@Component
+public class NearDuplicateDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateDetector.class);
+
+    private final NewsRepository newsRepository;
+    private final boolean enabled;
+    private final Duration window;
+    private final SimHashIndex index;
+
+    public NearDuplicateDetector(NewsRepository newsRepository,
+                                 @Value("${app.news.processing.duplicate-check-enabled:true}") boolean enabled,
+                                 @Value("${app.news.dedup.max-distance:6}") int maxDistance,
+                                 @Value("${app.news.dedup.window-hours:48}") int windowHours,
+                                 @Value("${app.news.dedup.max-entries:20000}") int maxEntries) {
+        this.newsRepository = newsRepository;
+        this.enabled = enabled;
+        this.window = Duration.ofHours(windowHours);
+        this.index = new SimHashIndex(maxDistance, window, maxEntries);
+    }
+
+    /**
+     * Sets the duplicate flag of {@code news} and indexes it when it is an original.
+     *
+     * @return whether it was flagged as a copy of an earlier article
+     */
+    public boolean markDuplicate(News news) {
+        if (!enabled) {
+            return false;
+        }
+        String original = check(news.getArticleId(), news.getTitle(), news.getDescription(), news.getPubDate());
+        news.setDuplicate(original != null);
+        if (original != null) {
+            logger.debug("Article {} is a near-duplicate of {}", news.getArticleId(), original);
+        }
+        return original != null;
+    }
+
+    /**
+     * Drops articles that were indexed but never stored, so later copies of them are not flagged.
+     */
+    public void forget(Collection<String> articleIds) {
+        if (enabled) {
+            articleIds.forEach(index::remove);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Object[]> recent = newsRepository.findDuplicateCheckSourcesSince(LocalDateTime.now().minus(window));
+            for (Object[] row : recent) {
+                check((String) row[0], (String) row[1], (String) row[2], (LocalDateTime) row[3]);
+            }
+            logger.info("Near-duplicate index warmed with {} recent articles", index.size());
+        } catch (Exception e) {
+            logger.warn("Could not warm the near-duplicate index: {}", e.getMessage());
+        }
+    }
+
+    private String check(String articleId, String title, String description, LocalDateTime pubDate) {
+        String text = description != null ? title + " " + description : title;
+        long fingerprint = SimHashIndex.fingerprint(text);
+        if (fingerprint == 0L) {
+            return null;
+        }
+        LocalDateTime timestamp = pubDate != null ? pubDate : LocalDateTime.now();
+        return index.findOrAdd(articleId, fingerprint, timestamp.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+}
@@ -0,0 +1,564 @@
+package com.example.kapt.ingest;
+
+import com.example.kapt.dto.AlphaVantageNewsArticleDto;
+import com.example.kapt.event.NewsIngestedEvent;
+import com.example.kapt.model.News;
+import com.example.kapt.model.NewsArticleKey;
+import com.example.kapt.model.NewsContent;
+import com.example.kapt.repository.NewsArticleKeyRepository;
+import com.example.kapt.repository.NewsContentRepository;
+import com.example.kapt.repository.NewsRepository;
+import com.example.kapt.service.AlphaVantageNewsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Staged news ingestion: decode → enrich → dedup → batch persist, connected by bounded queues.
+ * Each stage runs on its own worker threads, so tagging overlaps with database writes, and a full queue
+ * blocks the stage before it all the way back to the Alpha Vantage call thread that submitted the articles.
+ */
+@Component
+public class NewsIngestPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsIngestPipeline.class);
+
+    private final AlphaVantageNewsService alphaVantageNewsService;
+    private final NewsRepository newsRepository;
+    private final NewsContentRepository newsContentRepository;
+    private final NewsArticleKeyRepository newsArticleKeyRepository;
+    private final NearDuplicateDetector nearDuplicateDetector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final IngestMetrics ingestMetrics;
+
+    @Value("${app.news.pipeline.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.news.pipeline.decode-workers:1}")
+    private int decodeWorkers;
+
+    @Value("${app.news.pipeline.enrich-workers:2}")
+    private int enrichWorkers;
+
+    @Value("${app.news.pipeline.dedup-workers:1}")
+    private int dedupWorkers;
+
+    @Value("${app.news.pipeline.persist-workers:1}")
+    private int persistWorkers;
+
+    @Value("${app.news.pipeline.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.news.pipeline.batch-linger-ms:200}")
+    private long batchLingerMillis;
+
+    @Value("${app.news.processing.max-content-length:10000}")
+    private int maxContentLength;
+
+    private BlockingQueue<Item> decodeQueue;
+    private BlockingQueue<Item> enrichQueue;
+    private BlockingQueue<Item> dedupQueue;
+    private BlockingQueue<Item> persistQueue;
+
+    private final Set<String> inFlightArticleIds = ConcurrentHashMap.newKeySet();
+    private final List<Thread> workers = new ArrayList<>();
+    private ExecutorService eventExecutor;
+    private volatile boolean running;
+
+    public NewsIngestPipeline(AlphaVantageNewsService alphaVantageNewsService, NewsRepository newsRepository,
+                              NewsContentRepository newsContentRepository, NewsArticleKeyRepository newsArticleKeyRepository,
+                              NearDuplicateDetector nearDuplicateDetector, ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              IngestMetrics ingestMetrics) {
+        this.alphaVantageNewsService = alphaVantageNewsService;
+        this.newsRepository = newsRepository;
+        this.newsContentRepository = newsContentRepository;
+        this.newsArticleKeyRepository = newsArticleKeyRepository;
+        this.nearDuplicateDetector = nearDuplicateDetector;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.ingestMetrics = ingestMetrics;
+    }
+
+    @PostConstruct
+    public void start() {
+        decodeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        enrichQueue = new ArrayBlockingQueue<>(queueCapacity);
+        dedupQueue = new ArrayBlockingQueue<>(queueCapacity);
+        persistQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+        registerQueueGauge("decode", decodeQueue);
+        registerQueueGauge("enrich", enrichQueue);
+        registerQueueGauge("dedup", dedupQueue);
+        registerQueueGauge("persist", persistQueue);
+
+        // One thread keeps events in run order and off the pipeline threads, which listeners would otherwise stall
+        eventExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "news-ingest-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        startStage("decode", decodeWorkers, decodeQueue, enrichQueue, this::decode);
+        startStage("enrich", enrichWorkers, enrichQueue, dedupQueue, this::enrich);
+        startStage("dedup", dedupWorkers, dedupQueue, persistQueue, this::dedup);
+        for (int i = 0; i < Math.max(1, persistWorkers); i++) {
+            startWorker("news-ingest-persist-" + i, this::persistLoop);
+        }
+        logger.info("News ingest pipeline started (decode={}, enrich={}, dedup={}, persist={}, queue={}, batch={})",
+                decodeWorkers, enrichWorkers, dedupWorkers, persistWorkers, queueCapacity, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        eventExecutor.shutdown();
+    }
+
+    /**
+     * Feeds a fetched page into the pipeline. Blocks while the decode queue is full; the returned future
+     * completes once every article has been persisted or dropped. {@link NewsIngestedEvent} is then published
+     * on a separate thread.
+     */
+    public CompletableFuture<IngestResult> ingest(List<AlphaVantageNewsArticleDto> articles, String description) {
+        return ingest(articles, description, percent -> { });
+    }
+
+    /**
+     * Like {@link #ingest(List, String)}, reporting the share of the page's articles already persisted or
+     * dropped, from 0 to 100, to {@code progress}.
+     */
+    public CompletableFuture<IngestResult> ingest(List<AlphaVantageNewsArticleDto> articles, String description,
+                                                  IntConsumer progress) {
+        Run run = new Run(description, articles.size(), progress);
+        if (articles.isEmpty()) {
+            run.complete();
+            return run.future;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            for (AlphaVantageNewsArticleDto dto : articles) {
+                decodeQueue.put(new Item(run, dto));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.future.completeExceptionally(e);
+        } finally {
+            sample.stop(stageTimer("fetch"));
+        }
+        return run.future;
+    }
+
+    private Item decode(Item item) {
+        News news = alphaVantageNewsService.decode(item.dto);
+        if (news == null) {
+            return item.drop("invalid");
+        }
+        limitTextLength(news);
+        item.news = news;
+        return item;
+    }
+
+    private void limitTextLength(News news) {
+        if (maxContentLength <= 0) {
+            return;
+        }
+        news.setDescription(truncate(news.getDescription()));
+        news.setContent(truncate(news.getContent()));
+    }
+
+    // Cuts before a surrogate pair that straddles the limit rather than keeping half of it
+    private String truncate(String text) {
+        if (text == null || text.length() <= maxContentLength) {
+            return text;
+        }
+        int end = Character.isHighSurrogate(text.charAt(maxContentLength - 1)) ? maxContentLength - 1 : maxContentLength;
+        return text.substring(0, end);
+    }
+
+    private Item enrich(Item item) {
+        alphaVantageNewsService.enrich(item.news, item.dto);
+        return item;
+    }
+
+    private Item dedup(Item item) {
+        // Another run may already be writing the same article; let that one win
+        if (!inFlightArticleIds.add(item.news.getArticleId())) {
+            return item.drop("duplicate");
+        }
+        item.claimed = true;
+        try {
+            // A syndicated copy is still stored, flagged so that feeds skip it
+            if (nearDuplicateDetector.markDuplicate(item.news)) {
+                itemCounter("dedup", "near_duplicate").increment();
+            }
+        } catch (RuntimeException e) {
+            release(item);
+            throw e;
+        }
+        return item;
+    }
+
+    // An item that never reaches the persist stage must give its id back, or every later run drops the article
+    private void release(Item item) {
+        item.claimed = false;
+        inFlightArticleIds.remove(item.news.getArticleId());
+        nearDuplicateDetector.forget(List.of(item.news.getArticleId()));
+    }
+
+    private void persistLoop() {
+        List<Item> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Item first = persistQueue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchLingerMillis);
+                while (batch.size() < batchSize) {
+                    Item next = persistQueue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                persistBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persistBatch(List<Item> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<String> articleIds = batch.stream().map(item -> item.news.getArticleId()).collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, News> existing = newsRepository.findByArticleIdIn(articleIds).stream()
+                        .collect(Collectors.toMap(News::getArticleId, Function.identity(), (a, b) -> a));
+
+                List<News> toSave = new ArrayList<>(batch.size());
+                List<News> moved = new ArrayList<>();
+                for (Item item : batch) {
+                    News current = existing.get(item.news.getArticleId());
+                    if (current != null) {
+                        if (!Objects.equals(current.getPubDate(), item.news.getPubDate())) {
+                            moved.add(current);
+                        }
+                        copyArticleData(current, item.news);
+                        toSave.add(current);
+                        item.updated = true;
+                    } else {
+                        toSave.add(item.news);
+                    }
+                }
+                List<News> saved = newsRepository.saveAll(toSave);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).news = saved.get(i);
+                }
+                saveContent(batch);
+                saveArticleKeys(batch);
+                moveRedatedArticles(moved);
+            });
+            // Release the ids before completing the runs so an immediate re-ingest is not dropped as in flight
+            articleIds.forEach(inFlightArticleIds::remove);
+
+            for (Item item : batch) {
+                if (item.updated) {
+                    item.run.updated();
+                    itemCounter("persist", "updated").increment();
+                } else {
+                    item.run.saved(item.news);
+                    itemCounter("persist", "inserted").increment();
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to persist batch of {} news articles", batch.size(), e);
+            articleIds.forEach(inFlightArticleIds::remove);
+            nearDuplicateDetector.forget(articleIds);
+            batch.forEach(item -> item.run.failed());
+            itemCounter("persist", "failed").increment(batch.size());
+        } finally {
+            sample.stop(stageTimer("persist"));
+        }
+    }
+
+    // Only a body that differs from the summary is stored; an update without one keeps the stored body
+    private void saveContent(List<Item> batch) {
+        List<NewsContent> contents = new ArrayList<>();
+        for (Item item : batch) {
+            News news = item.news;
+            if (news.getContent() != null && !news.getContent().equals(news.getDescription())) {
+                contents.add(new NewsContent(news.getId(), news.getPubDate(), news.getContent()));
+            }
+        }
+        if (!contents.isEmpty()) {
+            newsContentRepository.saveAll(contents);
+        }
+    }
+
+    // A key written concurrently by another instance fails the insert at commit, so the article is stored once
+    private void saveArticleKeys(List<Item> batch) {
+        List<NewsArticleKey> keys = new ArrayList<>();
+        for (Item item : batch) {
+            if (!item.updated) {
+                keys.add(new NewsArticleKey(item.news.getArticleId(), item.news.getId(), item.news.getPubDate()));
+            }
+        }
+        if (!keys.isEmpty()) {
+            newsArticleKeyRepository.saveAll(keys);
+        }
+    }
+
+    // Retention purges keys and bodies by their copy of pub_date, so a re-dated article moves them along
+    private void moveRedatedArticles(List<News> moved) {
+        for (News news : moved) {
+            newsArticleKeyRepository.updatePubDate(news.getArticleId(), news.getPubDate());
+            newsContentRepository.updatePubDate(news.getId(), news.getPubDate());
+        }
+    }
+
+    private void copyArticleData(News existing, News newData) {
+        existing.setTitle(newData.getTitle());
+        existing.setLink(newData.getLink());
+        existing.setKeywords(newData.getKeywords());
+        existing.setCreator(newData.getCreator());
+        existing.setVideoUrl(newData.getVideoUrl());
+        existing.setDescription(newData.getDescription());
+        existing.setContent(newData.getContent());
+        existing.setPubDate(newData.getPubDate());
+        existing.setSourceIcon(newData.getSourceIcon());
+        existing.setSourceName(newData.getSourceName());
+        existing.setSourceUrl(newData.getSourceUrl());
+        existing.setSourcePriority(newData.getSourcePriority());
+        existing.setCountry(newData.getCountry());
+        existing.setCategory(newData.getCategory());
+        existing.setLanguage(newData.getLanguage());
+        existing.setCoinMentioned(newData.getCoinMentioned());
+        existing.setSentiment(newData.getSentiment());
+        existing.setAiTag(newData.getAiTag());
+        existing.setDuplicate(newData.getDuplicate());
+    }
+
+    private void startStage(String stage, int parallelism, BlockingQueue<Item> input, BlockingQueue<Item> output,
+                            Function<Item, Item> step) {
+        Timer timer = stageTimer(stage);
+        for (int i = 0; i < Math.max(1, parallelism); i++) {
+            startWorker("news-ingest-" + stage + "-" + i, () -> {
+                while (running) {
+                    Item item;
+                    try {
+                        item = input.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    Item result;
+                    long startNanos = System.nanoTime();
+                    try {
+                        result = step.apply(item);
+                    } catch (Exception e) {
+                        logger.error("News ingest stage {} failed for {}", stage, item.dto.getUrl(), e);
+                        itemCounter(stage, "failed").increment();
+                        item.run.failed();
+                        continue;
+                    } finally {
+                        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    }
+
+                    if (result.dropReason != null) {
+                        itemCounter(stage, result.dropReason).increment();
+                        item.run.skipped();
+                        continue;
+                    }
+                    try {
+                        output.put(result);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        if (result.claimed) {
+                            release(result);
+                        }
+                        item.run.failed();
+                        return;
+                    }
+                }
+            });
+        }
+    }
+
+    private void startWorker(String name, Runnable body) {
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        thread.start();
+        workers.add(thread);
+    }
+
+    private void registerQueueGauge(String stage, BlockingQueue<Item> queue) {
+        meterRegistry.gauge("news.ingest.queue.size", Tags.of("stage", stage), queue, BlockingQueue::size);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("news.ingest.stage.duration").tag("stage", stage).register(meterRegistry);
+    }
+
+    private Counter itemCounter(String stage, String outcome) {
+        return Counter.builder("news.ingest.items").tag("stage", stage).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private static class Item {
+        private final Run run;
+        private final AlphaVantageNewsArticleDto dto;
+        private News news;
+        private boolean updated;
+        private boolean claimed;
+        private String dropReason;
+
+        Item(Run run, AlphaVantageNewsArticleDto dto) {
+            this.run = run;
+            this.dto = dto;
+        }
+
+        Item drop(String reason) {
+            this.dropReason = reason;
+            return this;
+        }
+    }
+
+    private class Run {
+        private final String description;
+        private final int size;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger remaining;
+        private final List<News> savedArticles = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger updatedCount = new AtomicInteger();
+        private final AtomicInteger skippedCount = new AtomicInteger();
+        private final AtomicInteger failedCount = new AtomicInteger();
+        private final CompletableFuture<IngestResult> future = new CompletableFuture<>();
+        private final IntConsumer progress;
+
+        Run(String description, int size, IntConsumer progress) {
+            this.description = description;
+            this.size = size;
+            this.remaining = new AtomicInteger(size);
+            this.progress = progress;
+        }
+
+        void saved(News news) {
+            savedArticles.add(news);
+            countDown();
+        }
+
+        void updated() {
+            updatedCount.incrementAndGet();
+            countDown();
+        }
+
+        void skipped() {
+            skippedCount.incrementAndGet();
+            countDown();
+        }
+
+        void failed() {
+            failedCount.incrementAndGet();
+            countDown();
+        }
+
+        private void countDown() {
+            int left = remaining.decrementAndGet();
+            progress.accept((size - left) * 100 / size);
+            if (left == 0) {
+                complete();
+            }
+        }
+
+        void complete() {
+            List<News> saved = List.copyOf(savedArticles);
+            IngestResult result = new IngestResult(saved.size(), updatedCount.get(), skippedCount.get(), failedCount.get());
+            logger.info("News ingest for {} completed - saved: {}, updated: {}, skipped: {}, failed: {}",
+                    description, result.getSaved(), result.getUpdated(), result.getSkipped(), result.getFailed());
+            ingestMetrics.recordRows(IngestMetrics.NEWS, result.getSaved(), result.getUpdated(), result.getSkipped(), result.getFailed());
+            // An empty page is what a failed upstream call turns into, so it does not count as fresh data
+            ingestMetrics.recordRun(IngestMetrics.NEWS, startNanos, size > 0 && result.getFailed() == 0);
+            NewsIngestedEvent event = new NewsIngestedEvent(saved, result.getUpdated());
+            try {
+                eventExecutor.execute(() -> {
+                    try {
+                        eventPublisher.publishEvent(event);
+                    } catch (Exception e) {
+                        logger.warn("News ingested listeners failed for {}: {}", description, e.getMessage());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.debug("Pipeline stopped, not publishing the ingested event for {}", description);
+            }
+            future.complete(result);
+        }
+    }
+
+    public static class IngestResult {
+        private final int saved;
+        private final int updated;
+        private final int skipped;
+        private final int failed;
+
+        public IngestResult(int saved, int updated, int skipped, int failed) {
+            this.saved = saved;
+            this.updated = updated;
+            this.skipped = skipped;
+            this.failed = failed;
+        }
+
+        public int getSaved() {
+            return saved;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.kapt.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A Telegram chat's watchlist and digest schedule. The watchlist is stored in canonical form (upper-case,
+ * sorted, comma-separated) so that chats watching the same coins can be grouped by plain string equality.
+ */
+@Entity
+@Table(name = "chat_subscriptions")
+public class ChatSubscription {
+
+    public static final int DEFAULT_DIGEST_HOUR = 8;
+
+    @Id
+    @Column(name = "chat_id")
+    private Long chatId;
+
+    @Column(nullable = false, length = 512)
+    private String watchlist = "";
+
+    @Column(name = "digest_enabled", nullable = false)
+    private Boolean digestEnabled = false;
+
+    @Column(name = "digest_hour", nullable = false)
+    private Integer digestHour = DEFAULT_DIGEST_HOUR;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ChatSubscription() {
+    }
+
+    public ChatSubscription(Long chatId) {
+        this.chatId = chatId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public static String canonicalWatchlist(Collection<String> symbols) {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                sorted.add(symbol.trim().toUpperCase());
+            }
+        }
+        return String.join(",", sorted);
+    }
+
+    public static List<String> parseWatchlist(String watchlist) {
+        return watchlist == null || watchlist.isEmpty() ? List.of() : Arrays.asList(watchlist.split(","));
+    }
+
+    public List<String> getSymbols() {
+        return parseWatchlist(watchlist);
+    }
+
+    public Long getChatId() {
+        return chatId;
+    }
+
+    public void setChatId(Long chatId) {
+        this.chatId = chatId;
+    }
+
+    public String getWatchlist() {
+        return watchlist;
+    }
+
+    public void setWatchlist(String watchlist) {
+        this.watchlist = watchlist;
+    }
+
+    public Boolean getDigestEnabled() {
+        return digestEnabled;
+    }
+
+    public void setDigestEnabled(Boolean digestEnabled) {
+        this.digestEnabled = digestEnabled;
+    }
+
+    public Integer getDigestHour() {
+        return digestHour;
+    }
+
+    public void setDigestHour(Integer digestHour) {
+        this.digestHour = digestHour;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
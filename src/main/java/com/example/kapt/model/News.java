@@ -26,7 +26,7 @@ public class News {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "article_id", unique = true, nullable = false)
+    @Column(name = "article_id", nullable = false)
     @NotBlank(message = "Article ID cannot be blank")
     @Size(max = 255, message = "Article ID cannot exceed 255 characters")
     private String articleId;
@@ -53,10 +53,11 @@ public class News {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @Column(name = "content", columnDefinition = "TEXT")
+    // Stored in news_content and attached only when a single article is loaded
+    @Transient
     private String content;
 
-    @Column(name = "pub_date")
+    @Column(name = "pub_date", nullable = false)
     private LocalDateTime pubDate;
 
     @Column(name = "source_icon", length = 2048)
@@ -77,21 +78,23 @@ public class News {
     @Column(name = "country", columnDefinition = "VARCHAR(10)[]")
     private String[] country;
 
-    @Column(name = "category", columnDefinition = "VARCHAR(100)[]")
+    // The arrays queried with array_contains leave the type to the dialect, which also renders the parameter
+    // casts; H2 does not parse VARCHAR(n)[]
+    @Column(name = "category", length = 100)
     private String[] category;
 
     @Column(name = "language", length = 10)
     @Size(max = 10, message = "Language code cannot exceed 10 characters")
     private String language;
 
-    @Column(name = "coin_mentioned", columnDefinition = "VARCHAR(50)[]")
+    @Column(name = "coin_mentioned", length = 50)
     private String[] coinMentioned;
 
     @Column(name = "sentiment", length = 20)
     @Size(max = 20, message = "Sentiment cannot exceed 20 characters")
     private String sentiment;
 
-    @Column(name = "ai_tag", columnDefinition = "VARCHAR(100)[]")
+    @Column(name = "ai_tag", length = 100)
     private String[] aiTag;
 
     @Column(name = "duplicate", nullable = false)
@@ -121,6 +124,13 @@ public class News {
     }
 
 
+    @PrePersist
+    protected void onCreate() {
+        if (this.pubDate == null) {
+            this.pubDate = this.createdAt;
+        }
+    }
+
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,73 @@
+package com.example.kapt.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registry entry for one stored article. Unique constraints on the partitioned news table must include
+ * pub_date, so this unpartitioned table is what keeps article_id unique across partitions: a second writer of
+ * the same article fails on its primary key and rolls its batch back.
+ */
+@Entity
+@Table(name = "news_article_ids")
+public class NewsArticleKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "article_id", length = 255)
+    private String articleId;
+
+    @Column(name = "news_id", nullable = false)
+    private Long newsId;
+
+    @Column(name = "pub_date", nullable = false)
+    private LocalDateTime pubDate;
+
+    // Keys are only created for new articles, so saving one always inserts instead of merging
+    @Transient
+    private boolean isNew = true;
+
+    public NewsArticleKey() {
+    }
+
+    public NewsArticleKey(String articleId, Long newsId, LocalDateTime pubDate) {
+        this.articleId = articleId;
+        this.newsId = newsId;
+        this.pubDate = pubDate;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markStored() {
+        isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return articleId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getArticleId() {
+        return articleId;
+    }
+
+    public Long getNewsId() {
+        return newsId;
+    }
+
+    public LocalDateTime getPubDate() {
+        return pubDate;
+    }
+}
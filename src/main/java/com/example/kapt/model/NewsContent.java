@@ -0,0 +1,63 @@
+package com.example.kapt.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * The full body of a {@link News} article, kept out of the news rows so that list and range scans do not
+ * read it. Postgres stores the body lz4-compressed; it is only loaded when a single article is requested.
+ */
+@Entity
+@Table(name = "news_content")
+public class NewsContent {
+
+    @Id
+    @Column(name = "news_id")
+    private Long newsId;
+
+    @Column(name = "pub_date", nullable = false)
+    private LocalDateTime pubDate;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public NewsContent() {
+    }
+
+    public NewsContent(Long newsId, LocalDateTime pubDate, String body) {
+        this.newsId = newsId;
+        this.pubDate = pubDate;
+        this.body = body;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getNewsId() {
+        return newsId;
+    }
+
+    public LocalDateTime getPubDate() {
+        return pubDate;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
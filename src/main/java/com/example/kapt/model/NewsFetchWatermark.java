@@ -0,0 +1,56 @@
+package com.example.kapt.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "news_fetch_watermarks")
+public class NewsFetchWatermark {
+
+    @Id
+    @Column(name = "query_key", length = 255)
+    private String queryKey;
+
+    @Column(name = "last_published", nullable = false)
+    private LocalDateTime lastPublished;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public NewsFetchWatermark() {
+    }
+
+    public NewsFetchWatermark(String queryKey, LocalDateTime lastPublished) {
+        this.queryKey = queryKey;
+        this.lastPublished = lastPublished;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getQueryKey() {
+        return queryKey;
+    }
+
+    public void setQueryKey(String queryKey) {
+        this.queryKey = queryKey;
+    }
+
+    public LocalDateTime getLastPublished() {
+        return lastPublished;
+    }
+
+    public void setLastPublished(LocalDateTime lastPublished) {
+        this.lastPublished = lastPublished;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
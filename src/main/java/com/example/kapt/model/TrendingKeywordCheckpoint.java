@@ -0,0 +1,56 @@
+package com.example.kapt.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "trending_keyword_checkpoints")
+public class TrendingKeywordCheckpoint {
+
+    @Id
+    @Column(name = "window_name", length = 20)
+    private String windowName;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "saved_at", nullable = false)
+    private LocalDateTime savedAt;
+
+    public TrendingKeywordCheckpoint() {
+    }
+
+    public TrendingKeywordCheckpoint(String windowName, String payload) {
+        this.windowName = windowName;
+        this.payload = payload;
+        this.savedAt = LocalDateTime.now();
+    }
+
+    public String getWindowName() {
+        return windowName;
+    }
+
+    public void setWindowName(String windowName) {
+        this.windowName = windowName;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getSavedAt() {
+        return savedAt;
+    }
+
+    public void setSavedAt(LocalDateTime savedAt) {
+        this.savedAt = savedAt;
+    }
+}
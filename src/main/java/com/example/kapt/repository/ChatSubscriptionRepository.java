@@ -0,0 +1,27 @@
+package com.example.kapt.repository;
+
+import com.example.kapt.model.ChatSubscription;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChatSubscriptionRepository extends JpaRepository<ChatSubscription, Long> {
+
+    /**
+     * One keyset page of the chats due a digest at {@code hour}, reading only the two columns the fan-out needs.
+     */
+    @Query("SELECT s.chatId AS chatId, s.watchlist AS watchlist FROM ChatSubscription s " +
+            "WHERE s.digestEnabled = true AND s.digestHour = :hour AND s.chatId > :afterChatId ORDER BY s.chatId")
+    List<DigestRecipient> findDigestRecipients(@Param("hour") int hour, @Param("afterChatId") long afterChatId, Pageable pageable);
+
+    interface DigestRecipient {
+        Long getChatId();
+
+        String getWatchlist();
+    }
+}
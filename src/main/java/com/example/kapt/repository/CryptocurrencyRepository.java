@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,9 @@ public interface CryptocurrencyRepository extends JpaRepository<Cryptocurrency,
 
     Optional<Cryptocurrency> findBySymbolIgnoreCase(String symbol);
 
+    @Query("SELECT c FROM Cryptocurrency c WHERE UPPER(c.symbol) IN :symbols")
+    List<Cryptocurrency> findBySymbolsIgnoreCase(@Param("symbols") Collection<String> symbols);
+
     List<Cryptocurrency> findByNameContainingIgnoreCase(String name);
 
     List<Cryptocurrency> findBySymbolContainingIgnoreCase(String symbol);
@@ -0,0 +1,23 @@
+package com.example.kapt.repository;
+
+import com.example.kapt.model.NewsArticleKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface NewsArticleKeyRepository extends JpaRepository<NewsArticleKey, String> {
+
+    @Modifying
+    @Query("UPDATE NewsArticleKey k SET k.pubDate = :pubDate WHERE k.articleId = :articleId")
+    int updatePubDate(@Param("articleId") String articleId, @Param("pubDate") LocalDateTime pubDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM news_article_ids WHERE pub_date < :cutoff AND article_id IN " +
+            "(SELECT article_id FROM news_article_ids WHERE pub_date < :cutoff ORDER BY pub_date LIMIT :limit)", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
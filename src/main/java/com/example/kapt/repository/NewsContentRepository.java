@@ -0,0 +1,23 @@
+package com.example.kapt.repository;
+
+import com.example.kapt.model.NewsContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface NewsContentRepository extends JpaRepository<NewsContent, Long> {
+
+    @Modifying
+    @Query("UPDATE NewsContent c SET c.pubDate = :pubDate WHERE c.newsId = :newsId")
+    int updatePubDate(@Param("newsId") Long newsId, @Param("pubDate") LocalDateTime pubDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM news_content WHERE pub_date < :cutoff AND news_id IN " +
+            "(SELECT news_id FROM news_content WHERE pub_date < :cutoff ORDER BY pub_date LIMIT :limit)", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
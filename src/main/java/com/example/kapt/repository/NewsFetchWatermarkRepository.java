@@ -0,0 +1,9 @@
+package com.example.kapt.repository;
+
+import com.example.kapt.model.NewsFetchWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NewsFetchWatermarkRepository extends JpaRepository<NewsFetchWatermark, String> {
+}
@@ -1,33 +1,43 @@
 package com.example.kapt.repository;
 
+import com.example.kapt.dto.NewsSummary;
 import com.example.kapt.model.News;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface NewsRepository extends JpaRepository<News, Long> {
 
+    /**
+     * Select clause of the list queries: only the columns in {@link NewsSummary}.
+     */
+    String SUMMARY = "SELECT new com.example.kapt.dto.NewsSummary(n.id, n.articleId, n.title, n.link, n.pubDate, n.sourceName, n.sentiment) ";
+
     Optional<News> findByArticleId(String articleId);
 
-    Page<News> findByDuplicateFalseOrderByPubDateDesc(Pageable pageable);
+    List<News> findByArticleIdIn(Collection<String> articleIds);
+
+    Page<NewsSummary> findByDuplicateFalseOrderByPubDateDesc(Pageable pageable);
 
-    List<News> findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc(String sourceName);
+    List<NewsSummary> findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc(String sourceName);
 
-    Page<News> findByLanguageAndDuplicateFalseOrderByPubDateDesc(String language, Pageable pageable);
+    Page<NewsSummary> findByLanguageAndDuplicateFalseOrderByPubDateDesc(String language, Pageable pageable);
 
-    Page<News> findBySentimentAndDuplicateFalseOrderByPubDateDesc(String sentiment, Pageable pageable);
+    Page<NewsSummary> findBySentimentAndDuplicateFalseOrderByPubDateDesc(String sentiment, Pageable pageable);
 
-    List<News> findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(LocalDateTime dateTime);
+    List<NewsSummary> findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(LocalDateTime dateTime);
 
-    List<News> findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc(LocalDateTime startDate, LocalDateTime endDate);
+    List<NewsSummary> findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc(LocalDateTime startDate, LocalDateTime endDate);
 
     @Query("SELECT n FROM News n WHERE LOWER(n.title) LIKE LOWER(CONCAT('%', :keyword, '%')) AND n.duplicate = false ORDER BY n.pubDate DESC")
     List<News> findByTitleContainingKeyword(@Param("keyword") String keyword);
@@ -35,30 +45,67 @@ public interface NewsRepository extends JpaRepository<News, Long> {
     @Query("SELECT n FROM News n WHERE LOWER(n.description) LIKE LOWER(CONCAT('%', :keyword, '%')) AND n.duplicate = false ORDER BY n.pubDate DESC")
     List<News> findByDescriptionContainingKeyword(@Param("keyword") String keyword);
 
-    @Query("SELECT n FROM News n WHERE " +
+    @Query(SUMMARY + "FROM News n WHERE " +
             "(LOWER(n.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(n.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
             "n.duplicate = false ORDER BY n.pubDate DESC")
-    List<News> searchByTitleOrDescription(@Param("keyword") String keyword);    @Query("SELECT n FROM News n JOIN n.coinMentioned cm WHERE cm = :coin AND n.duplicate = false ORDER BY n.pubDate DESC")
-    List<News> findByCoinMentioned(@Param("coin") String coin);
+    List<NewsSummary> searchByTitleOrDescription(@Param("keyword") String keyword);
 
-    @Query("SELECT n FROM News n JOIN n.category cat WHERE cat = :category AND n.duplicate = false ORDER BY n.pubDate DESC")
-    List<News> findByCategory(@Param("category") String category);
+    @Query(SUMMARY + "FROM News n WHERE array_contains(n.coinMentioned, :coin) AND n.duplicate = false ORDER BY n.pubDate DESC")
+    List<NewsSummary> findByCoinMentioned(@Param("coin") String coin);
 
-    @Query("SELECT n FROM News n JOIN n.aiTag tag WHERE tag = :tag AND n.duplicate = false ORDER BY n.pubDate DESC")
+    @Query(SUMMARY + "FROM News n WHERE array_contains(n.category, :category) AND n.duplicate = false ORDER BY n.pubDate DESC")
+    List<NewsSummary> findByCategory(@Param("category") String category);
+
+    @Query("SELECT n FROM News n WHERE array_contains(n.aiTag, :tag) AND n.duplicate = false ORDER BY n.pubDate DESC")
     List<News> findByAiTag(@Param("tag") String tag);
 
     @Query("SELECT n FROM News n WHERE n.pubDate >= :since AND n.duplicate = false ORDER BY n.pubDate DESC")
     List<News> findRecentNews(@Param("since") LocalDateTime since);
 
+    @Query("SELECT n.coinMentioned FROM News n WHERE n.pubDate >= :since AND n.duplicate = false AND n.coinMentioned IS NOT NULL")
+    List<String[]> findCoinsMentionedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT n.articleId, n.title, n.description, n.pubDate FROM News n WHERE n.pubDate >= :since AND n.duplicate = false ORDER BY n.pubDate")
+    List<Object[]> findDuplicateCheckSourcesSince(@Param("since") LocalDateTime since);
+
+    @Query(SUMMARY + "FROM News n WHERE n.duplicate = false ORDER BY n.pubDate DESC, n.id DESC")
+    List<NewsSummary> findLatestPage(Pageable pageable);
+
+    @Query(SUMMARY + "FROM News n WHERE n.duplicate = false AND " +
+            "n.pubDate <= :pubDate AND (n.pubDate < :pubDate OR (n.pubDate = :pubDate AND n.id < :id)) ORDER BY n.pubDate DESC, n.id DESC")
+    List<NewsSummary> findPageOlderThan(@Param("pubDate") LocalDateTime pubDate, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY + "FROM News n WHERE n.duplicate = false AND " +
+            "n.pubDate >= :pubDate AND (n.pubDate > :pubDate OR (n.pubDate = :pubDate AND n.id > :id)) ORDER BY n.pubDate ASC, n.id ASC")
+    List<NewsSummary> findPageNewerThan(@Param("pubDate") LocalDateTime pubDate, @Param("id") Long id, Pageable pageable);
+
     @Query("SELECT n.sourceName, COUNT(n) FROM News n WHERE n.duplicate = false GROUP BY n.sourceName ORDER BY COUNT(n) DESC")
     List<Object[]> getNewsCountBySource();
 
     @Query("SELECT n.sentiment, COUNT(n) FROM News n WHERE n.duplicate = false AND n.sentiment IS NOT NULL GROUP BY n.sentiment")
-    List<Object[]> getNewsCountBySentiment();    @Query("SELECT 'BTC', COUNT(n) FROM News n WHERE n.duplicate = false AND n.coinMentioned IS NOT NULL")
-    List<Object[]> getNewsCountByCoin();    @Query("SELECT 'trending', COUNT(n) FROM News n WHERE n.duplicate = false AND n.keywords IS NOT NULL AND n.pubDate >= :since")
+    List<Object[]> getNewsCountBySentiment();
+
+    @Query(value = "SELECT coin, article_count FROM news_coin_stats ORDER BY article_count DESC, coin", nativeQuery = true)
+    List<Object[]> getNewsCountByCoin();
+
+    @Query(value = "SELECT keyword, SUM(article_count) AS total FROM news_keyword_stats WHERE bucket >= date_trunc('hour', CAST(:since AS TIMESTAMP)) " +
+            "GROUP BY keyword ORDER BY total DESC, keyword LIMIT 20", nativeQuery = true)
     List<Object[]> getTrendingKeywords(@Param("since") LocalDateTime since);
 
+    @Modifying
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY news_coin_stats", nativeQuery = true)
+    void refreshCoinStatistics();
+
+    @Modifying
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY news_keyword_stats", nativeQuery = true)
+    void refreshKeywordStatistics();
+
+    @Modifying
+    @Query(value = "DELETE FROM news WHERE pub_date < :cutoff AND id IN " +
+            "(SELECT id FROM news WHERE pub_date < :cutoff ORDER BY pub_date LIMIT :limit)", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
     boolean existsByArticleId(String articleId);
 
     long countByDuplicateFalse();
@@ -66,24 +113,26 @@ public interface NewsRepository extends JpaRepository<News, Long> {
     List<News> findByDuplicateTrue();
 
     @Query("SELECT n FROM News n WHERE n.sourcePriority IS NOT NULL AND n.duplicate = false ORDER BY n.sourcePriority ASC, n.pubDate DESC")
-    List<News> findBySourcePriorityOrderByPriorityAndDate(Pageable pageable);    @Query("SELECT n FROM News n WHERE " +
-            "(:keyword IS NULL OR LOWER(n.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(n.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+    List<News> findBySourcePriorityOrderByPriorityAndDate(Pageable pageable);    @Query(SUMMARY + "FROM News n WHERE " +
+            "(:keyword IS NULL OR LOWER(n.title) LIKE LOWER(CONCAT('%', CAST(:keyword AS String), '%')) OR LOWER(n.description) LIKE LOWER(CONCAT('%', CAST(:keyword AS String), '%'))) AND " +
             "(:sourceName IS NULL OR n.sourceName = :sourceName) AND " +
             "(:language IS NULL OR n.language = :language) AND " +
             "(:sentiment IS NULL OR n.sentiment = :sentiment) AND " +
-            "(:coin IS NULL OR :coin MEMBER OF n.coinMentioned) AND " +
-            "(:category IS NULL OR :category MEMBER OF n.category) AND " +
-            "(:fromDate IS NULL OR n.pubDate >= :fromDate) AND " +
-            "(:toDate IS NULL OR n.pubDate <= :toDate) AND " +
+            "(:anyCoin = false OR array_contains(n.coinMentioned, :coins)) AND " +
+            "(:anyCategory = false OR array_contains(n.category, :categories)) AND " +
+            "(CAST(:fromDate AS LocalDateTime) IS NULL OR n.pubDate >= :fromDate) AND " +
+            "(CAST(:toDate AS LocalDateTime) IS NULL OR n.pubDate <= :toDate) AND " +
             "n.duplicate = false " +
             "ORDER BY n.pubDate DESC")
-    Page<News> findByMultipleCriteria(
+    Page<NewsSummary> findByMultipleCriteria(
             @Param("keyword") String keyword,
             @Param("sourceName") String sourceName,
             @Param("language") String language,
             @Param("sentiment") String sentiment,
-            @Param("coin") String coin,
-            @Param("category") String category,
+            @Param("anyCoin") boolean anyCoin,
+            @Param("coins") String[] coins,
+            @Param("anyCategory") boolean anyCategory,
+            @Param("categories") String[] categories,
             @Param("fromDate") LocalDateTime fromDate,
             @Param("toDate") LocalDateTime toDate,
             Pageable pageable
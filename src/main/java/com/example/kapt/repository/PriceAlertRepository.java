@@ -0,0 +1,29 @@
+package com.example.kapt.repository;
+
+import com.example.kapt.model.PriceAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
+
+    List<PriceAlert> findByActiveTrue();
+
+    List<PriceAlert> findByChatIdAndActiveTrueOrderByIdAsc(Long chatId);
+
+    long countByChatIdAndActiveTrue(Long chatId);
+
+    Optional<PriceAlert> findByIdAndChatIdAndActiveTrue(Long id, Long chatId);
+
+    @Modifying
+    @Query("UPDATE PriceAlert a SET a.active = false, a.triggeredAt = :triggeredAt WHERE a.id IN :ids AND a.active = true")
+    int deactivate(@Param("ids") Collection<Long> ids, @Param("triggeredAt") LocalDateTime triggeredAt);
+}
@@ -1,6 +1,8 @@
 package com.example.kapt.scheduler;
 
 import com.example.kapt.model.News;
+import com.example.kapt.service.AlphaVantageRequestScheduler;
+import com.example.kapt.service.AlphaVantageRequestScheduler.Priority;
 import com.example.kapt.service.NewsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +15,9 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 @ConditionalOnProperty(name = "app.news.scheduler.enabled", havingValue = "true", matchIfMissing = true)
@@ -22,6 +27,7 @@ public class NewsScheduler {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final NewsService newsService;
+    private final AtomicBoolean cycleRunning = new AtomicBoolean();
 
     @Value("${app.news.scheduler.timezone:UTC}")
     private String timezone;
@@ -31,45 +37,80 @@ public class NewsScheduler {
         logger.info("NewsScheduler initialized with timezone: {}", timezone);
     }
 
+    /**
+     * Starts an incremental fetch and returns without waiting for it: paced Alpha Vantage calls can take minutes,
+     * and the shared scheduler thread also drives the trending, job cleanup, digest and CoinGecko tasks. A cycle
+     * that is still running when the next one is due makes that one a no-op.
+     */
     @Scheduled(initialDelayString = "${app.news.scheduler.initial-delay:60000}", fixedDelayString = "${app.news.scheduler.fixed-delay:3600000}")
     public void updateNews() {
+        if (!cycleRunning.compareAndSet(false, true)) {
+            logger.info("Previous scheduled news update is still running, skipping this cycle");
+            return;
+        }
         LocalDateTime startTime = LocalDateTime.now();
         logger.info("Starting scheduled news update at {}", startTime.format(FORMATTER));
-        try {
 
-            newsService.fetchAndSaveLatestNews(10);
+        CompletableFuture<Integer> cycle;
+        try {
+            cycle = newsService.fetchAndSaveIncrementalNews(Priority.SCHEDULED);
+        } catch (AlphaVantageRequestScheduler.QuotaExceededException e) {
+            cycleRunning.set(false);
+            logger.warn("Skipping scheduled news update: {}", e.getMessage());
+            return;
+        } catch (Exception e) {
+            cycleRunning.set(false);
+            logUpdateFailure(startTime, e);
+            return;
+        }
 
-            List<News> recentArticles = newsService.getRecentNews(1);
+        cycle.exceptionally(this::skipFailedFetch)
+                .thenRun(() -> logUpdateSummary(startTime))
+                .whenComplete((ignored, error) -> {
+                    cycleRunning.set(false);
+                    if (error != null) {
+                        logUpdateFailure(startTime, error);
+                    }
+                });
+    }
 
-            LocalDateTime endTime = LocalDateTime.now();
-            long duration = java.time.Duration.between(startTime, endTime).toMillis();
+    private void logUpdateSummary(LocalDateTime startTime) {
+        List<News> recentArticles = newsService.getRecentArticles(1);
 
-            logger.info("Scheduled news update completed successfully. " + "Recent articles found: {}, Duration: {}ms, Time: {}", recentArticles.size(), duration, endTime.format(FORMATTER));
+        LocalDateTime endTime = LocalDateTime.now();
+        long duration = java.time.Duration.between(startTime, endTime).toMillis();
 
-            if (!recentArticles.isEmpty()) {
-                logNewArticlesSummary(recentArticles);
-            } else {
-                logger.info("No new articles found during this update cycle");
-            }
+        logger.info("Scheduled news update completed successfully. " + "Recent articles found: {}, Duration: {}ms, Time: {}", recentArticles.size(), duration, endTime.format(FORMATTER));
 
-        } catch (Exception e) {
-            LocalDateTime errorTime = LocalDateTime.now();
-            long duration = java.time.Duration.between(startTime, errorTime).toMillis();
+        if (!recentArticles.isEmpty()) {
+            logNewArticlesSummary(recentArticles);
+        } else {
+            logger.info("No new articles found during this update cycle");
+        }
+    }
 
-            logger.error("Scheduled news update failed after {}ms at {}: {}", duration, errorTime.format(FORMATTER), e.getMessage(), e);
+    private void logUpdateFailure(LocalDateTime startTime, Throwable error) {
+        LocalDateTime errorTime = LocalDateTime.now();
+        long duration = java.time.Duration.between(startTime, errorTime).toMillis();
 
+        logger.error("Scheduled news update failed after {}ms at {}: {}", duration, errorTime.format(FORMATTER), error.getMessage(), error);
+    }
 
-        }
+    // A failed Alpha Vantage request only costs this cycle: the watermark stays put and the next one resumes from it
+    private Integer skipFailedFetch(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        logger.warn("Skipping scheduled news update: {}", cause.getMessage());
+        return 0;
     }
 
     public int triggerManualUpdate() {
         logger.info("Manual news update triggered at {}", LocalDateTime.now().format(FORMATTER));
 
         try {
-            newsService.fetchAndSaveLatestNews(50);
-            List<News> recentArticles = newsService.getRecentNews(1);
-            logger.info("Manual news update completed. Recent articles found: {}", recentArticles.size());
-            return recentArticles.size();
+            newsService.fetchAndSaveLatestNews(50, Priority.SCHEDULED).join();
+            int recentArticles = newsService.getRecentNews(1).size();
+            logger.info("Manual news update completed. Recent articles found: {}", recentArticles);
+            return recentArticles;
         } catch (Exception e) {
             logger.error("Manual news update failed: {}", e.getMessage(), e);
             throw new RuntimeException("Manual news update failed", e);
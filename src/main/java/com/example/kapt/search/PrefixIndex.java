@@ -0,0 +1,89 @@
+package com.example.kapt.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable character trie in which every node keeps the best {@code limit} items found under it.
+ * Items are inserted in rank order, so a lookup is a walk down the prefix followed by returning the
+ * node's precomputed list, independent of how many items share the prefix.
+ */
+public final class PrefixIndex<T> {
+
+    private final Node<T> root;
+    private final int size;
+
+    private PrefixIndex(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param rankedItems items ordered best first
+     * @param keys        the strings each item can be found by; matched case-insensitively
+     * @param limit       how many items each prefix keeps
+     */
+    public static <T> PrefixIndex<T> build(List<T> rankedItems, Function<T, Collection<String>> keys, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        Node<T> root = new Node<>();
+        for (T item : rankedItems) {
+            root.offer(item, limit);
+            for (String key : keys.apply(item)) {
+                if (key == null) {
+                    continue;
+                }
+                String normalized = normalize(key);
+                Node<T> node = root;
+                for (int i = 0; i < normalized.length(); i++) {
+                    node = node.children.computeIfAbsent(normalized.charAt(i), c -> new Node<>());
+                    node.offer(item, limit);
+                }
+            }
+        }
+        return new PrefixIndex<>(root, rankedItems.size());
+    }
+
+    public static <T> PrefixIndex<T> empty() {
+        return new PrefixIndex<>(new Node<>(), 0);
+    }
+
+    /**
+     * Returns the best items having a key that starts with {@code prefix}; a blank prefix returns the best overall.
+     */
+    public List<T> lookup(String prefix) {
+        String normalized = prefix == null ? "" : normalize(prefix);
+        Node<T> node = root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.children.get(normalized.charAt(i));
+        }
+        return node != null ? List.copyOf(node.top) : List.of();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static String normalize(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private final List<T> top = new ArrayList<>(1);
+
+        // Items arrive best first and one at a time, so a repeat can only be the item added last
+        void offer(T item, int limit) {
+            if (top.size() < limit && (top.isEmpty() || top.get(top.size() - 1) != item)) {
+                top.add(item);
+            }
+        }
+    }
+}
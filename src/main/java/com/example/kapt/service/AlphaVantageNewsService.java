@@ -3,6 +3,7 @@ package com.example.kapt.service;
 import com.example.kapt.dto.AlphaVantageNewsArticleDto;
 import com.example.kapt.dto.AlphaVantageNewsResponseDto;
 import com.example.kapt.model.News;
+import com.example.kapt.service.AlphaVantageRequestScheduler.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,110 +17,141 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AlphaVantageNewsService {
 
     private static final Logger logger = LoggerFactory.getLogger(AlphaVantageNewsService.class);
+    private static final DateTimeFormatter TIME_FROM_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmm");
 
     private final WebClient webClient;
+    private final AlphaVantageRequestScheduler requestScheduler;
+
     @Value("${app.alphavantage.api.key:demo}")
     private String apiKey;
 
     @Value("${app.alphavantage.api.url:https://www.alphavantage.co/query}")
     private String baseUrl;
 
-    @Value("${app.alphavantage.api.rate-limit-delay:12000}")
-    private long requestDelay;
-
-    public AlphaVantageNewsService(WebClient webClient) {
+    public AlphaVantageNewsService(WebClient webClient, AlphaVantageRequestScheduler requestScheduler) {
         this.webClient = webClient;
+        this.requestScheduler = requestScheduler;
     }
 
-    public List<AlphaVantageNewsArticleDto> fetchLatestCryptoNews(int size) {
-        return fetchCryptoNewsByTickers("CRYPTO:BTC,CRYPTO:ETH", size);
+    public CompletableFuture<List<AlphaVantageNewsArticleDto>> fetchLatestCryptoNews(int size) {
+        return fetchLatestCryptoNews(size, Priority.ADHOC);
     }
 
-    public List<AlphaVantageNewsArticleDto> fetchCryptoNewsByTickers(String tickers, int size) {
-        try {
-            logger.info("Fetching crypto news for tickers: {} with size: {}", tickers, size);
+    public CompletableFuture<List<AlphaVantageNewsArticleDto>> fetchLatestCryptoNews(int size, Priority priority) {
+        return fetchCryptoNewsByTickers("CRYPTO:BTC,CRYPTO:ETH", size, priority);
+    }
 
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl)
-                    .queryParam("function", "NEWS_SENTIMENT")
-                    .queryParam("tickers", tickers)
-                    .queryParam("limit", Math.min(size, 1000))
-                    .queryParam("apikey", apiKey);
+    public CompletableFuture<List<AlphaVantageNewsArticleDto>> fetchCryptoNewsByTickers(String tickers, int size) {
+        return fetchCryptoNewsByTickers(tickers, size, Priority.ADHOC);
+    }
 
-            String url = builder.toUriString();
-            logger.debug("Making request to: {}", url);
+    public CompletableFuture<List<AlphaVantageNewsArticleDto>> fetchCryptoNewsByTickers(String tickers, int size, Priority priority) {
+        logger.info("Fetching crypto news for tickers: {} with size: {}", tickers, size);
 
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .queryParam("function", "NEWS_SENTIMENT")
+                .queryParam("tickers", tickers)
+                .queryParam("limit", Math.min(size, 1000));
 
-            Thread.sleep(requestDelay);
+        return submit(builder, priority, "tickers " + tickers);
+    }
 
-            AlphaVantageNewsResponseDto response = webClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(AlphaVantageNewsResponseDto.class)
-                    .block();
+    /**
+     * Fetches articles published at or after {@code timeFrom}, oldest first, so that callers can page forward
+     * by passing the latest {@code time_published} of the previous page.
+     */
+    public CompletableFuture<List<AlphaVantageNewsArticleDto>> fetchCryptoNewsByTickersSince(String tickers, LocalDateTime timeFrom,
+                                                                                          int size, Priority priority) {
+        logger.info("Fetching crypto news for tickers: {} published since {} with size: {}", tickers, timeFrom, size);
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .queryParam("function", "NEWS_SENTIMENT")
+                .queryParam("tickers", tickers)
+                .queryParam("time_from", timeFrom.format(TIME_FROM_FORMAT))
+                .queryParam("sort", "EARLIEST")
+                .queryParam("limit", Math.min(size, 1000));
+
+        return submit(builder, priority, "tickers " + tickers + " since " + timeFrom);
+    }
 
-            if (response == null || response.getFeed() == null) {
-                logger.warn("No data received from Alpha Vantage API");
-                return new ArrayList<>();
-            }
+    public CompletableFuture<List<AlphaVantageNewsArticleDto>> fetchCryptoNewsByTopics(String topics, int size) {
+        return fetchCryptoNewsByTopics(topics, size, Priority.ADHOC);
+    }
 
-            logger.info("Successfully fetched {} crypto news articles", response.getFeed().size());
-            return response.getFeed();
+    public CompletableFuture<List<AlphaVantageNewsArticleDto>> fetchCryptoNewsByTopics(String topics, int size, Priority priority) {
+        logger.info("Fetching crypto news for topics: {} with size: {}", topics, size);
 
-        } catch (WebClientResponseException e) {
-            logger.error("Error fetching crypto news from Alpha Vantage API: HTTP {} - {}",
-                    e.getStatusCode(), e.getResponseBodyAsString());
-            return new ArrayList<>();
-        } catch (InterruptedException e) {
-            logger.error("Request delay interrupted", e);
-            Thread.currentThread().interrupt();
-            return new ArrayList<>();
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching crypto news from Alpha Vantage", e);
-            return new ArrayList<>();
-        }
-    }
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .queryParam("function", "NEWS_SENTIMENT")
+                .queryParam("topics", topics)
+                .queryParam("limit", Math.min(size, 1000));
 
-    public List<AlphaVantageNewsArticleDto> fetchCryptoNewsByTopics(String topics, int size) {
-        try {
-            logger.info("Fetching crypto news for topics: {} with size: {}", topics, size);
+        return submit(builder, priority, "topics " + topics);
+    }
 
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl)
-                    .queryParam("function", "NEWS_SENTIMENT")
-                    .queryParam("topics", topics)
-                    .queryParam("limit", Math.min(size, 1000))
-                    .queryParam("apikey", apiKey);
+    /**
+     * Requests still available today under the API key's daily quota.
+     */
+    public int getRemainingDailyQuota() {
+        return requestScheduler.getRemainingToday();
+    }
 
-            String url = builder.toUriString();
-            logger.debug("Making request to: {}", url);
+    private CompletableFuture<List<AlphaVantageNewsArticleDto>> submit(UriComponentsBuilder builder, Priority priority, String description) {
+        // The request key leaves out the API key so it never ends up in logs
+        String requestKey = builder.toUriString();
+        String url = builder.cloneBuilder().queryParam("apikey", apiKey).toUriString();
+        return requestScheduler.submit(requestKey, priority, () -> fetchFeed(url, requestKey, description));
+    }
 
-            Thread.sleep(requestDelay);
+    // Failures complete the request's future exceptionally, so callers can tell them from an empty feed
+    private List<AlphaVantageNewsArticleDto> fetchFeed(String url, String requestKey, String description) {
+        logger.debug("Making request to: {}", requestKey);
 
-            AlphaVantageNewsResponseDto response = webClient.get()
+        AlphaVantageNewsResponseDto response;
+        try {
+            response = webClient.get()
                     .uri(url)
                     .retrieve()
                     .bodyToMono(AlphaVantageNewsResponseDto.class)
                     .block();
+        } catch (WebClientResponseException e) {
+            logger.error("Error fetching crypto news from Alpha Vantage API: HTTP {} - {}",
+                    e.getStatusCode(), e.getResponseBodyAsString());
+            throw new NewsFetchException("Alpha Vantage returned HTTP " + e.getStatusCode().value() + " for " + description, e);
+        } catch (Exception e) {
+            logger.error("Unexpected error fetching crypto news from Alpha Vantage for {}", description, e);
+            throw new NewsFetchException("Could not fetch news from Alpha Vantage for " + description, e);
+        }
 
-            if (response == null || response.getFeed() == null) {
-                logger.warn("No data received from Alpha Vantage API");
-                return new ArrayList<>();
-            }
+        // Alpha Vantage answers throttled or invalid requests with a message instead of a feed
+        if (response == null || response.getFeed() == null) {
+            logger.warn("No data received from Alpha Vantage API for {}", description);
+            throw new NewsFetchException("No news feed received from Alpha Vantage for " + description, null);
+        }
 
-            logger.info("Successfully fetched {} news articles for topics", response.getFeed().size());
-            return response.getFeed();
+        logger.info("Successfully fetched {} news articles for {}", response.getFeed().size(), description);
+        return response.getFeed();
+    }
 
-        } catch (Exception e) {
-            logger.error("Error fetching news by topics from Alpha Vantage", e);
-            return new ArrayList<>();
+    public News convertToEntity(AlphaVantageNewsArticleDto dto) {
+        News news = decode(dto);
+        if (news != null) {
+            enrich(news, dto);
         }
+        return news;
     }
 
-    public News convertToEntity(AlphaVantageNewsArticleDto dto) {
+    /**
+     * Maps the plain fields of an article; coin and keyword tagging is left to {@link #enrich}.
+     */
+    public News decode(AlphaVantageNewsArticleDto dto) {
         if (dto == null || dto.getTitle() == null || dto.getUrl() == null) {
             logger.warn("Invalid Alpha Vantage DTO data, skipping conversion: {}", dto);
             return null;
@@ -132,8 +164,8 @@ public class AlphaVantageNewsService {
             news.setArticleId(generateArticleId(dto.getUrl()));
             news.setTitle(dto.getTitle());
             news.setLink(dto.getUrl());
+            // The summary is the only text Alpha Vantage sends; it is stored once, as the description
             news.setDescription(dto.getSummary());
-            news.setContent(dto.getSummary());
             news.setSourceName(dto.getSource());
             news.setSourceUrl(dto.getSourceDomain());
             news.setLanguage("en");
@@ -158,10 +190,6 @@ public class AlphaVantageNewsService {
                 news.setPubDate(LocalDateTime.now());
             }
 
-
-            String[] extractedCoins = extractCryptocurrencyMentions(dto.getTitle(), dto.getSummary(), dto.getTickerSentiment());
-            news.setCoinMentioned(extractedCoins);
-
             return news;
 
         } catch (Exception e) {
@@ -170,10 +198,27 @@ public class AlphaVantageNewsService {
         }
     }
 
+    public void enrich(News news, AlphaVantageNewsArticleDto dto) {
+        String[] extractedCoins = extractCryptocurrencyMentions(dto.getTitle(), dto.getSummary(), dto.getTickerSentiment());
+        news.setCoinMentioned(extractedCoins);
+        news.setKeywords(extractTopicKeywords(dto.getTopics()));
+    }
+
     private String generateArticleId(String url) {
         return "av_" + Math.abs(url.hashCode());
     }
 
+    public LocalDateTime parsePublishedAt(String timePublished) {
+        if (timePublished == null) {
+            return null;
+        }
+        try {
+            return parseAlphaVantageDate(timePublished);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
     private LocalDateTime parseAlphaVantageDate(String dateString) {
         try {
 
@@ -185,7 +230,7 @@ public class AlphaVantageNewsService {
         }
     }
 
-    private String[] extractCryptocurrencyMentions(String title, String summary, List<Object> tickerSentiment) {
+    String[] extractCryptocurrencyMentions(String title, String summary, List<Object> tickerSentiment) {
         List<String> mentions = new ArrayList<>();
 
 
@@ -221,6 +266,24 @@ public class AlphaVantageNewsService {
         return mentions.toArray(new String[0]);
     }
 
+    private String[] extractTopicKeywords(List<Object> topics) {
+        List<String> keywords = new ArrayList<>();
+
+        if (topics != null) {
+            for (Object topic : topics) {
+                Object value = topic instanceof Map<?, ?> map ? map.get("topic") : topic;
+                if (value != null) {
+                    String keyword = value.toString().trim().toLowerCase();
+                    if (!keyword.isEmpty() && !keywords.contains(keyword)) {
+                        keywords.add(keyword);
+                    }
+                }
+            }
+        }
+
+        return keywords.toArray(new String[0]);
+    }
+
     public String[] getSupportedCryptoTickers() {
         return new String[]{
                 "CRYPTO:BTC", "CRYPTO:ETH", "CRYPTO:BNB", "CRYPTO:ADA", "CRYPTO:SOL",
@@ -235,4 +298,10 @@ public class AlphaVantageNewsService {
                 "economy_monetary", "finance", "earnings", "ipo", "mergers_and_acquisitions"
         };
     }
+
+    public static class NewsFetchException extends RuntimeException {
+        public NewsFetchException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
@@ -0,0 +1,256 @@
+package com.example.kapt.service;
+
+import com.example.kapt.ingest.IngestMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single queue in front of the Alpha Vantage API. A dispatcher thread releases requests one at a time
+ * while keeping within the per-minute and per-day budgets of the API key; scheduled refreshes are released
+ * before ad-hoc requests and identical queued requests share one upstream call.
+ */
+@Component
+public class AlphaVantageRequestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlphaVantageRequestScheduler.class);
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    public enum Priority {
+        SCHEDULED,
+        ADHOC
+    }
+
+    private final Clock clock;
+    private final IngestMetrics ingestMetrics;
+    private final PriorityBlockingQueue<PendingRequest<?>> queue = new PriorityBlockingQueue<>();
+    private final Map<String, PendingRequest<?>> pendingByKey = new HashMap<>();
+    private final Deque<Long> callsInLastMinute = new ArrayDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final int requestsPerMinute;
+    private final long minDelayMillis;
+    private final int dailyQuota;
+
+    private ExecutorService callExecutor;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private long lastCallMillis;
+    private LocalDate quotaDay;
+    private int usedToday;
+
+    @Autowired
+    public AlphaVantageRequestScheduler(@Value("${app.alphavantage.api.requests-per-minute:5}") int requestsPerMinute,
+                                        @Value("${app.alphavantage.api.rate-limit-delay:12000}") long minDelayMillis,
+                                        @Value("${app.alphavantage.api.daily-quota:25}") int dailyQuota,
+                                        IngestMetrics ingestMetrics) {
+        this(requestsPerMinute, minDelayMillis, dailyQuota, Clock.systemUTC(), ingestMetrics);
+    }
+
+    AlphaVantageRequestScheduler(int requestsPerMinute, long minDelayMillis, int dailyQuota, Clock clock,
+                                 IngestMetrics ingestMetrics) {
+        this.requestsPerMinute = Math.max(1, requestsPerMinute);
+        this.minDelayMillis = Math.max(0, minDelayMillis);
+        this.dailyQuota = Math.max(0, dailyQuota);
+        this.clock = clock;
+        this.ingestMetrics = ingestMetrics;
+        this.quotaDay = LocalDate.now(clock.withZone(ZoneOffset.UTC));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        callExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "alphavantage-call");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::dispatchLoop, "alphavantage-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (callExecutor != null) {
+            callExecutor.shutdownNow();
+        }
+        PendingRequest<?> request;
+        while ((request = queue.poll()) != null) {
+            request.future.cancel(false);
+        }
+    }
+
+    /**
+     * Queues an upstream call. When a request with the same key is already waiting, the caller joins it
+     * and the waiting request is promoted to the higher of the two priorities.
+     *
+     * @throws QuotaExceededException if today's quota is already used up
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String key, Priority priority, Supplier<T> call) {
+        synchronized (this) {
+            PendingRequest<?> existing = pendingByKey.get(key);
+            if (existing != null) {
+                if (priority.ordinal() < existing.priority.ordinal() && queue.remove(existing)) {
+                    existing.priority = priority;
+                    queue.add(existing);
+                }
+                logger.debug("Merged Alpha Vantage request {} into queued request", key);
+                return (CompletableFuture<T>) existing.future;
+            }
+
+            rollQuotaDay();
+            if (usedToday + queue.size() >= dailyQuota) {
+                throw new QuotaExceededException(
+                        "Alpha Vantage daily quota of " + dailyQuota + " requests is exhausted until 00:00 UTC");
+            }
+
+            PendingRequest<T> request = new PendingRequest<>(key, priority, sequence.incrementAndGet(), call);
+            pendingByKey.put(key, request);
+            queue.add(request);
+            logger.debug("Queued Alpha Vantage request {} with priority {} ({} waiting)", key, priority, queue.size());
+            return request.future;
+        }
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    public synchronized int getUsedToday() {
+        rollQuotaDay();
+        return usedToday;
+    }
+
+    public synchronized int getRemainingToday() {
+        rollQuotaDay();
+        return Math.max(0, dailyQuota - usedToday);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                awaitPermit();
+                PendingRequest<?> request = queue.take();
+                synchronized (this) {
+                    pendingByKey.remove(request.key, request);
+                    rollQuotaDay();
+                    if (usedToday >= dailyQuota) {
+                        request.future.completeExceptionally(new QuotaExceededException(
+                                "Alpha Vantage daily quota of " + dailyQuota + " requests is exhausted until 00:00 UTC"));
+                        continue;
+                    }
+                    long now = clock.millis();
+                    usedToday++;
+                    lastCallMillis = now;
+                    callsInLastMinute.addLast(now);
+                }
+                ingestMetrics.recordRateLimitWait("alphavantage", request.priority.name().toLowerCase(),
+                        System.nanoTime() - request.submittedNanos);
+                callExecutor.execute(request::run);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Alpha Vantage dispatcher error", e);
+            }
+        }
+    }
+
+    private void awaitPermit() throws InterruptedException {
+        while (true) {
+            long waitMillis;
+            synchronized (this) {
+                waitMillis = millisUntilPermit(clock.millis());
+            }
+            if (waitMillis <= 0) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(waitMillis);
+        }
+    }
+
+    long millisUntilPermit(long now) {
+        while (!callsInLastMinute.isEmpty() && now - callsInLastMinute.peekFirst() >= MINUTE_MILLIS) {
+            callsInLastMinute.pollFirst();
+        }
+
+        long wait = 0;
+        if (lastCallMillis > 0) {
+            wait = lastCallMillis + minDelayMillis - now;
+        }
+        if (callsInLastMinute.size() >= requestsPerMinute) {
+            wait = Math.max(wait, callsInLastMinute.peekFirst() + MINUTE_MILLIS - now);
+        }
+        return wait;
+    }
+
+    private void rollQuotaDay() {
+        LocalDate today = LocalDate.now(clock.withZone(ZoneOffset.UTC));
+        if (!today.equals(quotaDay)) {
+            quotaDay = today;
+            usedToday = 0;
+        }
+    }
+
+    private static class PendingRequest<T> implements Comparable<PendingRequest<?>> {
+        private final String key;
+        private final long sequence;
+        private final Supplier<T> call;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long submittedNanos = System.nanoTime();
+        private volatile Priority priority;
+
+        PendingRequest(String key, Priority priority, long sequence, Supplier<T> call) {
+            this.key = key;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.call = call;
+        }
+
+        void run() {
+            try {
+                future.complete(call.get());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public int compareTo(PendingRequest<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    public static class QuotaExceededException extends RuntimeException {
+        public QuotaExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.kapt.service;
 
 import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.example.kapt.ingest.IngestMetrics;
 import com.example.kapt.model.Cryptocurrency;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,24 +22,27 @@ import java.util.List;
 public class CoinGeckoService {
 
     private static final Logger logger = LoggerFactory.getLogger(CoinGeckoService.class);
-    private static final String COINGECKO_BASE_URL = "https://api.coingecko.com/api/v3";
-
     private final WebClient webClient;
+    private final IngestMetrics ingestMetrics;
 
     @Value("${app.coingecko.request-delay:1000}")
     private long requestDelay;
 
-    public CoinGeckoService(WebClient.Builder webClientBuilder) {
+    public CoinGeckoService(WebClient.Builder webClientBuilder, IngestMetrics ingestMetrics,
+                            @Value("${app.coingecko.api.url:https://api.coingecko.com/api/v3}") String baseUrl) {
         this.webClient = webClientBuilder
-                .baseUrl(COINGECKO_BASE_URL)
+                .baseUrl(baseUrl)
                 .build();
+        this.ingestMetrics = ingestMetrics;
     }
 
 
     public List<CoinGeckoResponseDto> fetchTopCryptocurrencies(int page, int perPage) {
         try {
 
+            long waitStart = System.nanoTime();
             Thread.sleep(requestDelay);
+            ingestMetrics.recordRateLimitWait(IngestMetrics.COINGECKO, "default", System.nanoTime() - waitStart);
 
             String uri = String.format("/coins/markets?vs_currency=usd&order=market_cap_desc&per_page=%d&page=%d&sparkline=false&locale=en",
                     Math.min(perPage, 250), page);
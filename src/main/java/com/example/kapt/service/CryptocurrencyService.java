@@ -1,10 +1,13 @@
 package com.example.kapt.service;
 
 import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.example.kapt.event.CryptocurrencyIngestedEvent;
+import com.example.kapt.ingest.IngestMetrics;
 import com.example.kapt.model.Cryptocurrency;
 import com.example.kapt.repository.CryptocurrencyRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,8 +17,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -25,66 +36,134 @@ public class CryptocurrencyService {
 
     private final CryptocurrencyRepository cryptocurrencyRepository;
     private final CoinGeckoService coinGeckoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngestMetrics ingestMetrics;
 
-    public CryptocurrencyService(CryptocurrencyRepository cryptocurrencyRepository, CoinGeckoService coinGeckoService) {
+    public CryptocurrencyService(CryptocurrencyRepository cryptocurrencyRepository, CoinGeckoService coinGeckoService,
+                                 ApplicationEventPublisher eventPublisher, IngestMetrics ingestMetrics) {
         this.cryptocurrencyRepository = cryptocurrencyRepository;
         this.coinGeckoService = coinGeckoService;
+        this.eventPublisher = eventPublisher;
+        this.ingestMetrics = ingestMetrics;
     }
 
-    public void fetchAndSaveCryptocurrencies() {
+    public int fetchAndSaveCryptocurrencies() {
+        return fetchAndSaveCryptocurrencies(percent -> {
+        });
+    }
+
+    /**
+     * Fetches the top coins page by page and upserts them, reporting the share of pages done to {@code progress}.
+     * Fails when CoinGecko returns nothing at all or the coins cannot be stored, so callers can tell a failed
+     * update from one that found nothing new.
+     */
+    public int fetchAndSaveCryptocurrencies(IntConsumer progress) {
         logger.info("Starting cryptocurrency data fetch and save process");
 
+        long runStart = System.nanoTime();
+        int totalSaved = 0;
+        RowCounts rows = new RowCounts();
+        List<CryptocurrencyIngestedEvent.PriceChange> priceChanges = new ArrayList<>();
         try {
             int page = 1;
             int perPage = 100;
-            int totalSaved = 0;
+            int pages = 3;
 
-            while (page <= 3) {
+            while (page <= pages) {
+                long fetchStart = System.nanoTime();
                 List<CoinGeckoResponseDto> dtos = coinGeckoService.fetchTopCryptocurrencies(page, perPage);
+                ingestMetrics.recordStage(IngestMetrics.COINGECKO, "fetch", fetchStart);
 
                 if (dtos.isEmpty()) {
+                    // CoinGeckoService turns request errors into an empty page
+                    if (page == 1) {
+                        throw new IllegalStateException("No data received from CoinGecko");
+                    }
                     logger.warn("No data received for page {}, stopping fetch", page);
                     break;
                 }
 
+                long persistStart = System.nanoTime();
+                Map<String, Cryptocurrency> existing = findExisting(dtos);
                 for (CoinGeckoResponseDto dto : dtos) {
                     try {
-                        saveOrUpdateCryptocurrency(dto);
-                        totalSaved++;
+                        if (saveOrUpdateCryptocurrency(dto, existing, priceChanges, rows)) {
+                            totalSaved++;
+                        }
                     } catch (Exception e) {
+                        rows.failed++;
                         logger.error("Error saving cryptocurrency: {}", dto.getSymbol(), e);
                     }
                 }
+                ingestMetrics.recordStage(IngestMetrics.COINGECKO, "persist", persistStart);
 
+                progress.accept(page * 100 / pages);
                 page++;
             }
 
             logger.info("Successfully saved/updated {} cryptocurrencies", totalSaved);
+        } catch (RuntimeException e) {
+            logger.error("Error during cryptocurrency fetch and save process", e);
+            throw e;
+        } finally {
+            ingestMetrics.recordRows(IngestMetrics.COINGECKO, rows.inserted, rows.updated, rows.skipped, rows.failed);
+            ingestMetrics.recordRun(IngestMetrics.COINGECKO, runStart, totalSaved > 0);
+        }
 
+        try {
+            eventPublisher.publishEvent(new CryptocurrencyIngestedEvent(totalSaved, priceChanges));
         } catch (Exception e) {
-            logger.error("Error during cryptocurrency fetch and save process", e);
+            logger.warn("Cryptocurrency ingested listeners failed: {}", e.getMessage());
         }
+        return totalSaved;
     }
 
-    private void saveOrUpdateCryptocurrency(CoinGeckoResponseDto dto) {
+    // One lookup per page instead of one per coin; updates to the returned entities are flushed in JDBC batches on commit
+    private Map<String, Cryptocurrency> findExisting(List<CoinGeckoResponseDto> dtos) {
+        Set<String> symbols = dtos.stream()
+                .map(CoinGeckoResponseDto::getSymbol)
+                .filter(Objects::nonNull)
+                .map(symbol -> symbol.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        Map<String, Cryptocurrency> existing = new HashMap<>();
+        if (!symbols.isEmpty()) {
+            for (Cryptocurrency crypto : cryptocurrencyRepository.findBySymbolsIgnoreCase(symbols)) {
+                existing.putIfAbsent(crypto.getSymbol().toUpperCase(Locale.ROOT), crypto);
+            }
+        }
+        return existing;
+    }
+
+    private boolean saveOrUpdateCryptocurrency(CoinGeckoResponseDto dto, Map<String, Cryptocurrency> existing,
+                                               List<CryptocurrencyIngestedEvent.PriceChange> priceChanges, RowCounts rows) {
         Cryptocurrency crypto = coinGeckoService.convertToEntity(dto);
         if (crypto == null) {
-            return;
+            rows.skipped++;
+            return false;
         }
 
-        Optional<Cryptocurrency> existing = cryptocurrencyRepository.findBySymbolIgnoreCase(crypto.getSymbol());
+        String key = crypto.getSymbol().toUpperCase(Locale.ROOT);
+        Cryptocurrency existingCrypto = existing.get(key);
 
-        if (existing.isPresent()) {
+        if (existingCrypto != null) {
 
-            Cryptocurrency existingCrypto = existing.get();
+            BigDecimal previousPrice = existingCrypto.getCurrentPrice();
             updateCryptocurrencyData(existingCrypto, crypto);
+            if (previousPrice != null && crypto.getCurrentPrice() != null
+                    && previousPrice.compareTo(crypto.getCurrentPrice()) != 0) {
+                priceChanges.add(new CryptocurrencyIngestedEvent.PriceChange(
+                        existingCrypto.getSymbol(), previousPrice, crypto.getCurrentPrice()));
+            }
             cryptocurrencyRepository.save(existingCrypto);
+            rows.updated++;
             logger.debug("Updated cryptocurrency: {}", crypto.getSymbol());
         } else {
 
-            cryptocurrencyRepository.save(crypto);
+            existing.put(key, cryptocurrencyRepository.save(crypto));
+            rows.inserted++;
             logger.debug("Saved new cryptocurrency: {}", crypto.getSymbol());
         }
+        return true;
     }
 
     private void updateCryptocurrencyData(Cryptocurrency existing, Cryptocurrency newData) {
@@ -108,6 +187,11 @@ public class CryptocurrencyService {
         return cryptocurrencyRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public List<Cryptocurrency> getAllCryptocurrencies() {
+        return cryptocurrencyRepository.findAll();
+    }
+
     @Transactional(readOnly = true)
     public Optional<Cryptocurrency> findBySymbol(String symbol) {
         return cryptocurrencyRepository.findBySymbolIgnoreCase(symbol);
@@ -202,6 +286,13 @@ public class CryptocurrencyService {
         return cryptocurrencyRepository.findByLastUpdatedAfter(since);
     }
 
+    private static class RowCounts {
+        private int inserted;
+        private int updated;
+        private int skipped;
+        private int failed;
+    }
+
     public static class MarketStatistics {
         private final Long totalCount;
         private final BigDecimal totalMarketCap;
@@ -0,0 +1,234 @@
+package com.example.kapt.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Tracks manually triggered background jobs. Submitting a job whose key matches one that is still
+ * running returns the running job instead of starting another one.
+ */
+@Service
+public class JobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+    public enum JobStatus {
+        PENDING,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final Map<String, Job> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, Job> activeByKey = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    @Value("${app.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    public JobService(@Value("${app.jobs.worker-threads:2}") int workerThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a job whose work is already asynchronous. The starter runs on the calling thread and should
+     * only kick the work off; exceptions it throws propagate to the caller and no job is recorded.
+     */
+    public Job submit(String type, String key, Supplier<? extends CompletableFuture<?>> starter) {
+        return submit(type, key, progress -> starter.get());
+    }
+
+    /**
+     * Like {@link #submit(String, String, Supplier)}, passing the starter the callback through which the work
+     * reports how much of it is done, from 0 to 100, as {@link Job#getProgress()}.
+     */
+    public Job submit(String type, String key, Function<IntConsumer, ? extends CompletableFuture<?>> starter) {
+        synchronized (activeByKey) {
+            Job running = activeByKey.get(key);
+            if (running != null) {
+                logger.debug("Joining running job {} for {}", running.getId(), key);
+                return running;
+            }
+
+            Job job = new Job(type, key);
+            CompletableFuture<?> future = starter.apply(job::reportProgress);
+            job.markRunning();
+            track(job, future);
+            return job;
+        }
+    }
+
+    /**
+     * Runs blocking work on the job executor so the calling request thread is released immediately.
+     */
+    public Job submitTask(String type, String key, Supplier<?> task) {
+        return submitTask(type, key, progress -> task.get());
+    }
+
+    /**
+     * Like {@link #submitTask(String, String, Supplier)}, with a callback through which the task reports how
+     * much of it is done, from 0 to 100, as {@link Job#getProgress()}.
+     */
+    public Job submitTask(String type, String key, Function<IntConsumer, ?> task) {
+        synchronized (activeByKey) {
+            Job running = activeByKey.get(key);
+            if (running != null) {
+                logger.debug("Joining running job {} for {}", running.getId(), key);
+                return running;
+            }
+
+            Job job = new Job(type, key);
+            CompletableFuture<?> future = CompletableFuture.supplyAsync(() -> {
+                job.markRunning();
+                return task.apply(job::reportProgress);
+            }, executor);
+            track(job, future);
+            return job;
+        }
+    }
+
+    public Optional<Job> findJob(String id) {
+        return Optional.ofNullable(jobsById.get(id));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.cleanup-interval:60000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobsById.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void track(Job job, CompletableFuture<?> future) {
+        jobsById.put(job.getId(), job);
+        activeByKey.put(job.getKey(), job);
+        logger.info("Started {} job {} for {}", job.getType(), job.getId(), job.getKey());
+
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                job.markFailed(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+                logger.warn("{} job {} failed: {}", job.getType(), job.getId(), job.getError());
+            } else {
+                job.markSucceeded(result);
+                logger.info("{} job {} finished with result {}", job.getType(), job.getId(), result);
+            }
+            activeByKey.remove(job.getKey(), job);
+        });
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Job {
+        private final String id;
+        private final String type;
+        private final String key;
+        private final LocalDateTime submittedAt;
+        private volatile JobStatus status;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Integer progress;
+        private volatile Object result;
+        private volatile String error;
+
+        Job(String type, String key) {
+            this.id = UUID.randomUUID().toString();
+            this.type = type;
+            this.key = key;
+            this.submittedAt = LocalDateTime.now();
+            this.status = JobStatus.PENDING;
+        }
+
+        void markRunning() {
+            this.startedAt = LocalDateTime.now();
+            this.status = JobStatus.RUNNING;
+        }
+
+        // Reports can arrive from several worker threads out of order, so progress never moves backwards
+        synchronized void reportProgress(int percent) {
+            int clamped = Math.max(0, Math.min(100, percent));
+            if (progress == null || clamped > progress) {
+                this.progress = clamped;
+            }
+        }
+
+        void markSucceeded(Object result) {
+            this.result = result;
+            this.progress = 100;
+            this.finishedAt = LocalDateTime.now();
+            this.status = JobStatus.SUCCEEDED;
+        }
+
+        void markFailed(String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = JobStatus.FAILED;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public JobStatus getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public Integer getProgress() {
+            return progress;
+        }
+
+        public Object getResult() {
+            return result;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.kapt.service;
+
+import com.example.kapt.repository.NewsArticleKeyRepository;
+import com.example.kapt.repository.NewsContentRepository;
+import com.example.kapt.repository.NewsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class NewsRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsRetentionService.class);
+    private static final Pattern PARTITION_NAME = Pattern.compile("news_p(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NewsRepository newsRepository;
+    private final NewsContentRepository newsContentRepository;
+    private final NewsArticleKeyRepository newsArticleKeyRepository;
+    private final NewsStatisticsRefresher statisticsRefresher;
+    private final TransactionTemplate chunkTransaction;
+
+    @Value("${app.news.retention.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    @Value("${app.news.retention.partition-months-ahead:3}")
+    private int partitionMonthsAhead;
+
+    public NewsRetentionService(JdbcTemplate jdbcTemplate, NewsRepository newsRepository,
+                                NewsContentRepository newsContentRepository, NewsArticleKeyRepository newsArticleKeyRepository,
+                                NewsStatisticsRefresher statisticsRefresher, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newsRepository = newsRepository;
+        this.newsContentRepository = newsContentRepository;
+        this.newsArticleKeyRepository = newsArticleKeyRepository;
+        this.statisticsRefresher = statisticsRefresher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Removes every article published before the cutoff. Months that lie entirely before the cutoff
+     * are detached and dropped as whole partitions; the remainder is deleted in short chunked transactions.
+     */
+    public int purgeOlderThan(LocalDateTime cutoff) {
+        long startTime = System.currentTimeMillis();
+        long droppedRows = 0;
+
+        if (isPartitioned()) {
+            for (String partition : findPartitionsEndingBefore(cutoff)) {
+                droppedRows += dropPartition(partition);
+            }
+        }
+
+        long deletedRows = deleteInChunks(limit -> newsRepository.deleteOlderThan(cutoff, limit));
+        long deletedBodies = deleteInChunks(limit -> newsContentRepository.deleteOlderThan(cutoff, limit));
+        deleteInChunks(limit -> newsArticleKeyRepository.deleteOlderThan(cutoff, limit));
+        statisticsRefresher.refresh();
+
+        logger.info("Retention removed ~{} rows via partition drop, {} rows and {} bodies via chunked delete older than {} in {} ms",
+                droppedRows, deletedRows, deletedBodies, cutoff, System.currentTimeMillis() - startTime);
+        return (int) Math.min(Integer.MAX_VALUE, droppedRows + deletedRows);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.news.retention.partition-maintenance-cron:0 15 0 * * *}", zone = "UTC")
+    public void ensureFuturePartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+
+        // pub_date is stored in UTC, like the cron zone above
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= partitionMonthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = partitionName(month);
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF news FOR VALUES FROM ('%s') TO ('%s')",
+                        name, month.atDay(1), month.plusMonths(1).atDay(1)));
+            } catch (Exception e) {
+                // Usually means rows for this month already landed in news_default
+                logger.warn("Could not create news partition {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private long deleteInChunks(IntUnaryOperator deleteChunk) {
+        long total = 0;
+        while (true) {
+            Integer deleted = chunkTransaction.execute(status -> deleteChunk.applyAsInt(deleteChunkSize));
+            if (deleted == null || deleted == 0) {
+                return total;
+            }
+            total += deleted;
+            if (deleted < deleteChunkSize) {
+                return total;
+            }
+        }
+    }
+
+    List<String> findPartitionsEndingBefore(LocalDateTime cutoff) {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = 'news'", String.class);
+
+        List<String> expired = new ArrayList<>();
+        for (String name : names) {
+            parsePartitionMonth(name)
+                    .filter(month -> !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff))
+                    .ifPresent(month -> expired.add(name));
+        }
+        expired.sort(String::compareTo);
+        return expired;
+    }
+
+    private long dropPartition(String name) {
+        try {
+            // reltuples is the planner estimate, good enough for reporting and avoids scanning the partition
+            Long estimate = jdbcTemplate.queryForObject(
+                    "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE relname = ?", Long.class, name);
+            jdbcTemplate.execute("ALTER TABLE news DETACH PARTITION " + name);
+            jdbcTemplate.execute("DROP TABLE " + name);
+            logger.info("Dropped news partition {} (~{} rows)", name, estimate);
+            return estimate != null ? estimate : 0;
+        } catch (Exception e) {
+            logger.warn("Could not drop news partition {}, falling back to chunked delete: {}", name, e.getMessage());
+            return 0;
+        }
+    }
+
+    private boolean isPartitioned() {
+        try {
+            String kind = jdbcTemplate.queryForObject(
+                    "SELECT relkind::text FROM pg_class WHERE relname = 'news' AND relkind IN ('r', 'p')", String.class);
+            return "p".equals(kind);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return "news_p" + month.atDay(1).format(PARTITION_SUFFIX);
+    }
+
+    static Optional<YearMonth> parsePartitionMonth(String name) {
+        Matcher matcher = PARTITION_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        LocalDate start = LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), 1);
+        return Optional.of(YearMonth.from(start));
+    }
+}
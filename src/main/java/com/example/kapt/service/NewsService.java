@@ -1,21 +1,37 @@
 package com.example.kapt.service;
 
+import com.example.kapt.analytics.HeavyHitter;
 import com.example.kapt.dto.AlphaVantageNewsArticleDto;
+import com.example.kapt.dto.NewsSummary;
+import com.example.kapt.ingest.NewsIngestPipeline;
 import com.example.kapt.model.News;
+import com.example.kapt.model.NewsContent;
+import com.example.kapt.model.NewsFetchWatermark;
+import com.example.kapt.repository.NewsContentRepository;
+import com.example.kapt.repository.NewsFetchWatermarkRepository;
 import com.example.kapt.repository.NewsRepository;
+import com.example.kapt.service.AlphaVantageRequestScheduler.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,102 +39,212 @@ import java.util.stream.Collectors;
 public class NewsService {
 
     private static final Logger logger = LoggerFactory.getLogger(NewsService.class);
+    private static final String LATEST_NEWS_TICKERS = "CRYPTO:BTC,CRYPTO:ETH";
+    private static final int FETCHED_PROGRESS = 10;
+    private static final IntConsumer NO_PROGRESS = percent -> { };
 
     private final NewsRepository newsRepository;
+    private final NewsContentRepository newsContentRepository;
     private final AlphaVantageNewsService alphaVantageNewsService;
+    private final TrendingKeywordService trendingKeywordService;
+    private final NewsRetentionService newsRetentionService;
+    private final NewsIngestPipeline ingestPipeline;
+    private final NewsFetchWatermarkRepository watermarkRepository;
 
-    public NewsService(NewsRepository newsRepository, AlphaVantageNewsService alphaVantageNewsService) {
+    @Value("${app.news.incremental.page-size:200}")
+    private int incrementalPageSize;
+
+    @Value("${app.news.incremental.max-pages-per-cycle:3}")
+    private int maxPagesPerCycle;
+
+    @Value("${app.news.incremental.initial-lookback-hours:24}")
+    private int initialLookbackHours;
+
+    @Value("${app.news.scheduler.fixed-delay:3600000}")
+    private long cycleIntervalMillis;
+
+    public NewsService(NewsRepository newsRepository, NewsContentRepository newsContentRepository,
+                       NewsFetchWatermarkRepository watermarkRepository, AlphaVantageNewsService alphaVantageNewsService,
+                       TrendingKeywordService trendingKeywordService, NewsRetentionService newsRetentionService,
+                       NewsIngestPipeline ingestPipeline) {
         this.newsRepository = newsRepository;
+        this.newsContentRepository = newsContentRepository;
+        this.watermarkRepository = watermarkRepository;
         this.alphaVantageNewsService = alphaVantageNewsService;
+        this.trendingKeywordService = trendingKeywordService;
+        this.newsRetentionService = newsRetentionService;
+        this.ingestPipeline = ingestPipeline;
     }
 
 
-    public void fetchAndSaveLatestNews() {
-        fetchAndSaveLatestNews(10);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveLatestNews() {
+        return fetchAndSaveLatestNews(10);
     }
 
 
-    public void fetchAndSaveLatestNews(int batchSize) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveLatestNews(int batchSize) {
+        return fetchAndSaveLatestNews(batchSize, Priority.ADHOC);
+    }
+
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveLatestNews(int batchSize, Priority priority) {
+        return fetchAndSaveLatestNews(batchSize, priority, NO_PROGRESS);
+    }
+
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveLatestNews(int batchSize, IntConsumer progress) {
+        return fetchAndSaveLatestNews(batchSize, Priority.ADHOC, progress);
+    }
+
+
+    /**
+     * Reports to {@code progress} how much of the job is done, from 0 to 100: {@value #FETCHED_PROGRESS} once the
+     * page has arrived, then the share of its articles that went through the ingest pipeline.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveLatestNews(int batchSize, Priority priority, IntConsumer progress) {
         logger.info("Starting news fetch and save process with batch size: {}", batchSize);
 
-        try {
+        int adjustedBatchSize = Math.min(batchSize, 50);
+        return alphaVantageNewsService.fetchLatestCryptoNews(adjustedBatchSize, priority)
+                .thenCompose(newsDtos -> ingest(newsDtos, "latest news", progress))
+                .whenComplete((saved, error) -> {
+                    if (error != null) {
+                        logger.error("Error during news fetch and save process", error);
+                    }
+                });
+    }
 
-            int adjustedBatchSize = Math.min(batchSize, 50);
-            List<AlphaVantageNewsArticleDto> newsDtos = alphaVantageNewsService.fetchLatestCryptoNews(adjustedBatchSize);
-            int savedCount = 0;
-            int duplicateCount = 0;
 
-            for (AlphaVantageNewsArticleDto dto : newsDtos) {
-                try {
-                    if (saveOrUpdateNews(dto)) {
-                        savedCount++;
-                    } else {
-                        duplicateCount++;
+    /**
+     * Fetches only articles published at or after the stored watermark of the latest-news query, paging forward until
+     * caught up or the per-cycle page budget is spent. The budget is also capped so the remaining daily quota lasts
+     * until the quota resets. The watermark only advances once every article of a page has been persisted, so a page
+     * with failures is fetched again on the next cycle. A failed request fails the returned future.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveIncrementalNews(Priority priority) {
+        String queryKey = "tickers:" + LATEST_NEWS_TICKERS;
+        LocalDateTime watermark = watermarkRepository.findById(queryKey)
+                .map(NewsFetchWatermark::getLastPublished)
+                .orElseGet(() -> LocalDateTime.now().minusHours(initialLookbackHours));
+
+        int pageBudget = pageBudget();
+        logger.info("Starting incremental news fetch for {} since {} with a budget of {} page(s)", queryKey, watermark, pageBudget);
+        return fetchPagesSince(queryKey, watermark, priority, 1, pageBudget, 0)
+                .whenComplete((saved, error) -> {
+                    if (error != null) {
+                        logger.error("Error during incremental news fetch for {}", queryKey, error);
                     }
-                } catch (Exception e) {
-                    logger.error("Error saving news article: {}", dto.getUrl(), e);
-                }
-            }
+                });
+    }
 
-            logger.info("News fetch completed - saved: {}, duplicates: {}", savedCount, duplicateCount);
+    // At most one page per remaining cycle of the UTC day the quota resets at, but always the first page
+    private int pageBudget() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        long millisLeftToday = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+        long interval = Math.max(1, cycleIntervalMillis);
+        long cyclesLeftToday = Math.max(1, (millisLeftToday + interval - 1) / interval);
+        long quotaPerCycle = alphaVantageNewsService.getRemainingDailyQuota() / cyclesLeftToday;
+        return (int) Math.max(1, Math.min(maxPagesPerCycle, quotaPerCycle));
+    }
 
-        } catch (Exception e) {
-            logger.error("Error during news fetch and save process", e);
-        }
+    private CompletableFuture<Integer> fetchPagesSince(String queryKey, LocalDateTime watermark, Priority priority,
+                                                       int page, int pageBudget, int savedSoFar) {
+        return alphaVantageNewsService.fetchCryptoNewsByTickersSince(LATEST_NEWS_TICKERS, watermark, incrementalPageSize, priority)
+                .thenCompose(newsDtos -> {
+                    // time_from has minute precision, so only articles before the watermark itself are dropped; the
+                    // watermark's own second is ingested again, because another article may share it, and upserted
+                    List<AlphaVantageNewsArticleDto> newer = new ArrayList<>();
+                    LocalDateTime nextWatermark = watermark;
+                    for (AlphaVantageNewsArticleDto dto : newsDtos) {
+                        LocalDateTime publishedAt = alphaVantageNewsService.parsePublishedAt(dto.getTimePublished());
+                        if (publishedAt != null && !publishedAt.isBefore(watermark)) {
+                            newer.add(dto);
+                            if (publishedAt.isAfter(nextWatermark)) {
+                                nextWatermark = publishedAt;
+                            }
+                        }
+                    }
+
+                    LocalDateTime pageWatermark = nextWatermark;
+                    return ingestPipeline.ingest(newer, queryKey + " page " + page).thenCompose(result -> {
+                        if (result.getFailed() > 0) {
+                            logger.warn("Incremental news fetch for {} keeps watermark {} after {} failed article(s)",
+                                    queryKey, watermark, result.getFailed());
+                            return CompletableFuture.completedFuture(savedSoFar + result.getSaved());
+                        }
+                        // Saved after the page's articles have committed, not with them: a crash in between only
+                        // means the page is fetched and upserted again
+                        watermarkRepository.save(new NewsFetchWatermark(queryKey, pageWatermark));
+
+                        int total = savedSoFar + result.getSaved();
+                        boolean caughtUp = newsDtos.size() < incrementalPageSize || !pageWatermark.isAfter(watermark);
+                        if (caughtUp || page >= pageBudget) {
+                            logger.info("Incremental news fetch for {} finished after {} page(s), saved {}, watermark {}{}",
+                                    queryKey, page, total, pageWatermark, caughtUp ? "" : " (page budget reached)");
+                            return CompletableFuture.completedFuture(total);
+                        }
+                        return fetchPagesSince(queryKey, pageWatermark, priority, page + 1, pageBudget, total);
+                    });
+                });
     }
 
 
-    public void fetchAndSaveNewsByCoin(String[] coins, int batchSize) {
-        logger.info("Fetching news for coins: {} with batch size: {}", String.join(",", coins), batchSize);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveNewsByCoin(String[] coins, int batchSize) {
+        return fetchAndSaveNewsByCoin(coins, batchSize, NO_PROGRESS);
+    }
 
-        try {
 
-            String tickers = String.join(",", java.util.Arrays.stream(coins).map(coin -> "CRYPTO:" + coin.toUpperCase()).toArray(String[]::new));
-            List<AlphaVantageNewsArticleDto> newsDtos = alphaVantageNewsService.fetchCryptoNewsByTickers(tickers, batchSize);
-            int savedCount = 0;
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> fetchAndSaveNewsByCoin(String[] coins, int batchSize, IntConsumer progress) {
+        logger.info("Fetching news for coins: {} with batch size: {}", String.join(",", coins), batchSize);
 
-            for (AlphaVantageNewsArticleDto dto : newsDtos) {
-                try {
-                    if (saveOrUpdateNews(dto)) {
-                        savedCount++;
+        String coinList = String.join(",", coins);
+        String tickers = String.join(",", java.util.Arrays.stream(coins).map(coin -> "CRYPTO:" + coin.toUpperCase()).toArray(String[]::new));
+        return alphaVantageNewsService.fetchCryptoNewsByTickers(tickers, batchSize, Priority.ADHOC)
+                .thenCompose(newsDtos -> ingest(newsDtos, "coins " + coinList, progress))
+                .whenComplete((saved, error) -> {
+                    if (error != null) {
+                        logger.error("Error fetching news for coins", error);
                     }
-                } catch (Exception e) {
-                    logger.error("Error saving news article: {}", dto.getUrl(), e);
-                }
-            }
+                });
+    }
 
-            logger.info("Saved {} news articles for coins: {}", savedCount, String.join(",", coins));
 
-        } catch (Exception e) {
-            logger.error("Error fetching news for coins", e);
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> searchAndSaveNews(String keyword, int batchSize) {
+        return searchAndSaveNews(keyword, batchSize, NO_PROGRESS);
     }
 
 
-    public void searchAndSaveNews(String keyword, int batchSize) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Integer> searchAndSaveNews(String keyword, int batchSize, IntConsumer progress) {
         logger.info("Searching and saving news for keyword: {} with batch size: {}", keyword, batchSize);
 
-        try {
-
-            String topics = mapKeywordToTopics(keyword);
-            List<AlphaVantageNewsArticleDto> newsDtos = alphaVantageNewsService.fetchCryptoNewsByTopics(topics, batchSize);
-            int savedCount = 0;
-
-            for (AlphaVantageNewsArticleDto dto : newsDtos) {
-                try {
-                    if (saveOrUpdateNews(dto)) {
-                        savedCount++;
+        String topics = mapKeywordToTopics(keyword);
+        return alphaVantageNewsService.fetchCryptoNewsByTopics(topics, batchSize, Priority.ADHOC)
+                .thenCompose(newsDtos -> ingest(newsDtos, "keyword " + keyword, progress))
+                .whenComplete((saved, error) -> {
+                    if (error != null) {
+                        logger.error("Error searching and saving news for keyword: {}", keyword, error);
                     }
-                } catch (Exception e) {
-                    logger.error("Error saving news article: {}", dto.getUrl(), e);
-                }
-            }
+                });
+    }
 
-            logger.info("Saved {} news articles for keyword: {}", savedCount, keyword);
 
-        } catch (Exception e) {
-            logger.error("Error searching and saving news for keyword: {}", keyword, e);
-        }
+    // Waiting for the paced upstream call is the first tenth of the work, ingesting the page the rest
+    private CompletableFuture<Integer> ingest(List<AlphaVantageNewsArticleDto> newsDtos, String description,
+                                              IntConsumer progress) {
+        progress.accept(FETCHED_PROGRESS);
+        return ingestPipeline.ingest(newsDtos, description,
+                        percent -> progress.accept(FETCHED_PROGRESS + percent * (100 - FETCHED_PROGRESS) / 100))
+                .thenApply(NewsIngestPipeline.IngestResult::getSaved);
     }
 
 
@@ -136,121 +262,98 @@ public class NewsService {
         }
     }
 
-    private boolean saveOrUpdateNews(AlphaVantageNewsArticleDto dto) {
-        News newsEntity = alphaVantageNewsService.convertToEntity(dto);
-        if (newsEntity == null) {
-            return false;
-        }
-
-
-        Optional<News> existing = newsRepository.findByArticleId(newsEntity.getArticleId());
-
-        if (existing.isPresent()) {
-
-            News existingNews = existing.get();
-            updateNewsData(existingNews, newsEntity);
-            newsRepository.save(existingNews);
-            logger.debug("Updated existing news article: {}", newsEntity.getArticleId());
-            return false;
-        } else {
-
-            newsRepository.save(newsEntity);
-            logger.debug("Saved new news article: {}", newsEntity.getArticleId());
-            return true;
-        }
-    }
-
-    private void updateNewsData(News existing, News newData) {
-        existing.setTitle(newData.getTitle());
-        existing.setLink(newData.getLink());
-        existing.setKeywords(newData.getKeywords());
-        existing.setCreator(newData.getCreator());
-        existing.setVideoUrl(newData.getVideoUrl());
-        existing.setDescription(newData.getDescription());
-        existing.setContent(newData.getContent());
-        existing.setPubDate(newData.getPubDate());
-        existing.setSourceIcon(newData.getSourceIcon());
-        existing.setSourceName(newData.getSourceName());
-        existing.setSourceUrl(newData.getSourceUrl());
-        existing.setSourcePriority(newData.getSourcePriority());
-        existing.setCountry(newData.getCountry());
-        existing.setCategory(newData.getCategory());
-        existing.setLanguage(newData.getLanguage());
-        existing.setCoinMentioned(newData.getCoinMentioned());
-        existing.setSentiment(newData.getSentiment());
-        existing.setAiTag(newData.getAiTag());
-        existing.setDuplicate(newData.getDuplicate());
-    }
-
     @Transactional(readOnly = true)
-    public Page<News> getAllNews(int page, int size, String sortBy, String sortDir) {
+    public Page<NewsSummary> getAllNews(int page, int size, String sortBy, String sortDir) {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
         return newsRepository.findByDuplicateFalseOrderByPubDateDesc(pageable);
     }
 
 
+    /**
+     * The full article, with its body read from news_content. Articles whose source only sent a summary
+     * show the description as their content.
+     */
     @Transactional(readOnly = true)
     public Optional<News> findByArticleId(String articleId) {
-        return newsRepository.findByArticleId(articleId);
+        return newsRepository.findByArticleId(articleId).map(news -> {
+            news.setContent(newsContentRepository.findById(news.getId())
+                    .map(NewsContent::getBody)
+                    .orElse(news.getDescription()));
+            return news;
+        });
     }
 
 
     @Transactional(readOnly = true)
-    public List<News> searchNews(String keyword) {
+    public List<NewsSummary> searchNews(String keyword) {
         return newsRepository.searchByTitleOrDescription(keyword);
     }
 
 
     @Transactional(readOnly = true)
-    public List<News> getNewsByCoin(String coin) {
+    public List<NewsSummary> getNewsByCoin(String coin) {
         return newsRepository.findByCoinMentioned(coin.toLowerCase());
     }
 
 
     @Transactional(readOnly = true)
-    public List<News> getNewsBySource(String sourceName) {
+    public List<NewsSummary> getNewsBySource(String sourceName) {
         return newsRepository.findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc(sourceName);
     }
 
 
     @Transactional(readOnly = true)
-    public Page<News> getNewsBySentiment(String sentiment, int page, int size) {
+    public Page<NewsSummary> getNewsBySentiment(String sentiment, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return newsRepository.findBySentimentAndDuplicateFalseOrderByPubDateDesc(sentiment, pageable);
     }
 
 
     @Transactional(readOnly = true)
-    public Page<News> getNewsByLanguage(String language, int page, int size) {
+    public Page<NewsSummary> getNewsByLanguage(String language, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return newsRepository.findByLanguageAndDuplicateFalseOrderByPubDateDesc(language, pageable);
     }
 
 
     @Transactional(readOnly = true)
-    public List<News> getNewsByCategory(String category) {
+    public List<NewsSummary> getNewsByCategory(String category) {
         return newsRepository.findByCategory(category);
     }
 
 
     @Transactional(readOnly = true)
-    public List<News> getRecentNews(int hours) {
+    public List<NewsSummary> getRecentNews(int hours) {
+        LocalDateTime since = LocalDateTime.now().minusHours(hours);
+        return newsRepository.findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(since);
+    }
+
+
+    /**
+     * Full articles of the last {@code hours}, for callers that need the tags rather than a list view.
+     */
+    @Transactional(readOnly = true)
+    public List<News> getRecentArticles(int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
         return newsRepository.findRecentNews(since);
     }
 
 
     @Transactional(readOnly = true)
-    public List<News> getNewsBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
+    public List<NewsSummary> getNewsBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
         return newsRepository.findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc(startDate, endDate);
     }
 
 
     @Transactional(readOnly = true)
-    public Page<News> searchWithCriteria(String keyword, String sourceName, String language, String sentiment, String coin, String category, LocalDateTime fromDate, LocalDateTime toDate, int page, int size) {
+    public Page<NewsSummary> searchWithCriteria(String keyword, String sourceName, String language, String sentiment, String coin, String category, LocalDateTime fromDate, LocalDateTime toDate, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return newsRepository.findByMultipleCriteria(keyword, sourceName, language, sentiment, coin, category, fromDate, toDate, pageable);
+        // The arrays are bound even when unused: Postgres cannot type a null array parameter
+        String[] coins = coin != null ? new String[]{coin.toLowerCase()} : new String[0];
+        String[] categories = category != null ? new String[]{category} : new String[0];
+        return newsRepository.findByMultipleCriteria(keyword, sourceName, language, sentiment, coin != null, coins,
+                category != null, categories, fromDate, toDate, pageable);
     }
 
 
@@ -261,19 +364,30 @@ public class NewsService {
         List<Object[]> sentimentStats = newsRepository.getNewsCountBySentiment();
         List<Object[]> coinStats = newsRepository.getNewsCountByCoin();
 
-        LocalDateTime last24Hours = LocalDateTime.now().minusHours(24);
-        List<Object[]> trendingKeywords = newsRepository.getTrendingKeywords(last24Hours);
+        List<Object[]> trendingKeywords;
+        if (trendingKeywordService.hasData(TrendingKeywordService.WINDOW_24H)) {
+            trendingKeywords = trendingKeywordService.getTrendingKeywords(TrendingKeywordService.WINDOW_24H, 20).stream()
+                    .map(keyword -> new Object[]{keyword.getTerm(), keyword.getCount()})
+                    .collect(Collectors.toList());
+        } else {
+            trendingKeywords = newsRepository.getTrendingKeywords(LocalDateTime.now().minusHours(24));
+        }
 
         return new NewsStatistics(totalCount, sourceStats, sentimentStats, coinStats, trendingKeywords);
     }
 
 
+    public List<HeavyHitter> getTrendingKeywords(String window, int limit) {
+        return trendingKeywordService.getTrendingKeywords(window, limit);
+    }
+
+
     @Transactional(readOnly = true)
     public List<String> getTrendingCryptocurrencies(int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        List<News> recentNews = newsRepository.findRecentNews(since);
+        List<String[]> coinsMentioned = newsRepository.findCoinsMentionedSince(since);
 
-        return recentNews.stream().filter(news -> news.getCoinMentioned() != null).flatMap(news -> List.of(news.getCoinMentioned()).stream()).collect(Collectors.groupingBy(coin -> coin, Collectors.counting())).entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed()).limit(10).map(Map.Entry::getKey).collect(Collectors.toList());
+        return coinsMentioned.stream().flatMap(coins -> List.of(coins).stream()).collect(Collectors.groupingBy(coin -> coin, Collectors.counting())).entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed()).limit(10).map(Map.Entry::getKey).collect(Collectors.toList());
     }
 
 
@@ -296,32 +410,54 @@ public class NewsService {
     }
 
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int deleteOldNews(int daysOld) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        List<News> oldNews = newsRepository.findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc(LocalDateTime.of(2020, 1, 1, 0, 0), cutoffDate);
-
-        int deletedCount = oldNews.size();
-        newsRepository.deleteAll(oldNews);
+        // pub_date and the partition bounds are UTC, whatever the host's zone
+        LocalDateTime cutoffDate = LocalDateTime.now(ZoneOffset.UTC).minusDays(daysOld);
+        int deletedCount = newsRetentionService.purgeOlderThan(cutoffDate);
 
         logger.info("Deleted {} old news articles older than {} days", deletedCount, daysOld);
         return deletedCount;
     }
 
 
-    public List<News> getLatestNews(int limit) {
+    public List<NewsSummary> getLatestNews(int limit) {
         Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "pubDate"));
-        Page<News> newsPage = newsRepository.findByDuplicateFalseOrderByPubDateDesc(pageable);
+        Page<NewsSummary> newsPage = newsRepository.findByDuplicateFalseOrderByPubDateDesc(pageable);
         return newsPage.getContent();
     }
 
 
-    public List<News> searchNews(String keyword, int limit) {
-        List<News> allResults = newsRepository.searchByTitleOrDescription(keyword);
+    /**
+     * One page of the feed ordered by (pubDate, id) descending. Without a cursor the newest page is
+     * returned, otherwise the articles strictly older than the cursor.
+     */
+    @Transactional(readOnly = true)
+    public List<NewsSummary> getNewsPageOlderThan(LocalDateTime pubDate, Long id, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        if (pubDate == null || id == null) {
+            return newsRepository.findLatestPage(pageable);
+        }
+        return newsRepository.findPageOlderThan(pubDate, id, pageable);
+    }
+
+    /**
+     * The articles directly newer than the cursor, returned in the same descending order as older pages.
+     */
+    @Transactional(readOnly = true)
+    public List<NewsSummary> getNewsPageNewerThan(LocalDateTime pubDate, Long id, int limit) {
+        List<NewsSummary> page = new ArrayList<>(newsRepository.findPageNewerThan(pubDate, id, PageRequest.of(0, limit)));
+        Collections.reverse(page);
+        return page;
+    }
+
+    public List<NewsSummary> searchNews(String keyword, int limit) {
+        List<NewsSummary> allResults = newsRepository.searchByTitleOrDescription(keyword);
         return allResults.stream().limit(limit).collect(Collectors.toList());
     }
 
 
-    public Page<News> getAllNews(int page, int size) {
+    public Page<NewsSummary> getAllNews(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "pubDate"));
         return newsRepository.findByDuplicateFalseOrderByPubDateDesc(pageable);
     }
@@ -0,0 +1,47 @@
+package com.example.kapt.service;
+
+import com.example.kapt.event.NewsIngestedEvent;
+import com.example.kapt.repository.NewsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class NewsStatisticsRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsStatisticsRefresher.class);
+
+    private final NewsRepository newsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public NewsStatisticsRefresher(NewsRepository newsRepository, PlatformTransactionManager transactionManager) {
+        this.newsRepository = newsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsIngested(NewsIngestedEvent event) {
+        if (!event.hasChanges()) {
+            return;
+        }
+        refresh();
+    }
+
+    public void refresh() {
+        try {
+            long startTime = System.currentTimeMillis();
+            transactionTemplate.executeWithoutResult(status -> {
+                newsRepository.refreshCoinStatistics();
+                newsRepository.refreshKeywordStatistics();
+            });
+            logger.debug("Refreshed news statistics views in {} ms", System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            logger.warn("Could not refresh news statistics views: {}", e.getMessage());
+        }
+    }
+}
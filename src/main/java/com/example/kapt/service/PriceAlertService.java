@@ -0,0 +1,189 @@
+package com.example.kapt.service;
+
+import com.example.kapt.alert.PriceAlertIndex;
+import com.example.kapt.event.CryptocurrencyIngestedEvent;
+import com.example.kapt.event.PriceAlertsTriggeredEvent;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.model.PriceAlert;
+import com.example.kapt.model.PriceAlert.Direction;
+import com.example.kapt.repository.PriceAlertRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores Telegram price alerts and evaluates them after every CoinGecko ingest. Active alerts are mirrored
+ * in a {@link PriceAlertIndex}, so evaluation is a range lookup per moved symbol instead of a table scan.
+ */
+@Service
+public class PriceAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceAlertService.class);
+
+    private final PriceAlertRepository priceAlertRepository;
+    private final CryptocurrencyService cryptocurrencyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer evaluationTimer;
+    private final PriceAlertIndex index = new PriceAlertIndex();
+
+    @Value("${app.alerts.max-per-chat:20}")
+    private int maxAlertsPerChat;
+
+    @Value("${app.alerts.deactivate-batch-size:1000}")
+    private int deactivateBatchSize;
+
+    public PriceAlertService(PriceAlertRepository priceAlertRepository, CryptocurrencyService cryptocurrencyService,
+                             ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.priceAlertRepository = priceAlertRepository;
+        this.cryptocurrencyService = cryptocurrencyService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.evaluationTimer = Timer.builder("price.alerts.evaluation")
+                .description("Time to find the alerts crossed by one ingest run")
+                .register(meterRegistry);
+        meterRegistry.gauge("price.alerts.active", index, PriceAlertIndex::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveAlerts() {
+        index.clear();
+        List<PriceAlert> active = priceAlertRepository.findByActiveTrue();
+        active.forEach(alert -> index.add(toEntry(alert)));
+        logger.info("Loaded {} active price alerts", active.size());
+    }
+
+    @Transactional
+    public PriceAlert createAlert(long chatId, String symbol, Direction direction, BigDecimal threshold) {
+        String normalizedSymbol = symbol.toUpperCase();
+        threshold = threshold.setScale(8, RoundingMode.HALF_UP);
+        if (threshold.signum() <= 0) {
+            throw new AlertRejectedException("Порог должен быть больше нуля.");
+        }
+
+        Cryptocurrency crypto = cryptocurrencyService.findBySymbol(normalizedSymbol)
+                .orElseThrow(() -> new AlertRejectedException("Криптовалюта с символом \"" + normalizedSymbol + "\" не найдена."));
+        BigDecimal price = crypto.getCurrentPrice();
+        if (price != null && (direction == Direction.ABOVE ? price.compareTo(threshold) >= 0 : price.compareTo(threshold) <= 0)) {
+            throw new AlertRejectedException("Условие уже выполнено: текущая цена " + normalizedSymbol + " — " + price.stripTrailingZeros().toPlainString() + ".");
+        }
+
+        if (priceAlertRepository.countByChatIdAndActiveTrue(chatId) >= maxAlertsPerChat) {
+            throw new AlertRejectedException("Достигнут лимит в " + maxAlertsPerChat + " активных алертов. Удалите ненужные через /unalert.");
+        }
+
+        PriceAlert alert = priceAlertRepository.save(new PriceAlert(chatId, normalizedSymbol, direction, threshold));
+        PriceAlertIndex.Entry entry = toEntry(alert);
+        afterCommit(() -> index.add(entry));
+        logger.debug("Created price alert {} for chat {}: {} {} {}", alert.getId(), chatId, normalizedSymbol, direction, threshold);
+        return alert;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PriceAlert> getActiveAlerts(long chatId) {
+        return priceAlertRepository.findByChatIdAndActiveTrueOrderByIdAsc(chatId);
+    }
+
+    @Transactional
+    public boolean cancelAlert(long chatId, long alertId) {
+        return priceAlertRepository.findByIdAndChatIdAndActiveTrue(alertId, chatId)
+                .map(alert -> {
+                    alert.setActive(false);
+                    priceAlertRepository.save(alert);
+                    afterCommit(() -> index.remove(alertId));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCryptocurrencyIngested(CryptocurrencyIngestedEvent event) {
+        List<PriceAlertsTriggeredEvent.TriggeredAlert> triggered = evaluate(event.getPriceChanges());
+        if (triggered.isEmpty()) {
+            return;
+        }
+
+        deactivate(triggered);
+        logger.info("{} price alerts triggered", triggered.size());
+        eventPublisher.publishEvent(new PriceAlertsTriggeredEvent(triggered));
+    }
+
+    List<PriceAlertsTriggeredEvent.TriggeredAlert> evaluate(List<CryptocurrencyIngestedEvent.PriceChange> priceChanges) {
+        return evaluationTimer.record(() -> {
+            List<PriceAlertsTriggeredEvent.TriggeredAlert> triggered = new ArrayList<>();
+            for (CryptocurrencyIngestedEvent.PriceChange change : priceChanges) {
+                for (PriceAlertIndex.Entry entry : index.collectTriggered(change.getSymbol().toUpperCase(),
+                        change.getPreviousPrice(), change.getCurrentPrice())) {
+                    triggered.add(new PriceAlertsTriggeredEvent.TriggeredAlert(entry.getId(), entry.getChatId(),
+                            entry.getSymbol(), entry.getDirection(), entry.getThreshold(), change.getCurrentPrice()));
+                }
+            }
+            return triggered;
+        });
+    }
+
+    private void deactivate(List<PriceAlertsTriggeredEvent.TriggeredAlert> triggered) {
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = Math.max(1, deactivateBatchSize);
+        for (int from = 0; from < triggered.size(); from += batchSize) {
+            List<Long> ids = triggered.subList(from, Math.min(from + batchSize, triggered.size())).stream()
+                    .map(PriceAlertsTriggeredEvent.TriggeredAlert::getAlertId)
+                    .toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> priceAlertRepository.deactivate(ids, now));
+            } catch (Exception e) {
+                logger.error("Could not deactivate {} triggered price alerts", ids.size(), e);
+            }
+        }
+    }
+
+    public int getActiveAlertCount() {
+        return index.size();
+    }
+
+    // The index mirrors committed rows only, so a rolled-back create or cancel never reaches it
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static PriceAlertIndex.Entry toEntry(PriceAlert alert) {
+        return new PriceAlertIndex.Entry(alert.getId(), alert.getChatId(), alert.getSymbol(),
+                alert.getDirection(), alert.getThreshold());
+    }
+
+    public static class AlertRejectedException extends RuntimeException {
+        public AlertRejectedException(String message) {
+            super(message);
+        }
+    }
+}
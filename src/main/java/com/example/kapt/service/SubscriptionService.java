@@ -0,0 +1,132 @@
+package com.example.kapt.service;
+
+import com.example.kapt.model.ChatSubscription;
+import com.example.kapt.repository.ChatSubscriptionRepository;
+import com.example.kapt.repository.ChatSubscriptionRepository.DigestRecipient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persists Telegram watchlists and digest schedules, and hands the digest fan-out its recipients already
+ * grouped by watchlist.
+ */
+@Service
+public class SubscriptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionService.class);
+
+    private final ChatSubscriptionRepository subscriptionRepository;
+    private final CryptocurrencyService cryptocurrencyService;
+
+    @Value("${app.digest.max-watchlist-size:10}")
+    private int maxWatchlistSize;
+
+    @Value("${app.digest.recipient-page-size:10000}")
+    private int recipientPageSize;
+
+    public SubscriptionService(ChatSubscriptionRepository subscriptionRepository, CryptocurrencyService cryptocurrencyService) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.cryptocurrencyService = cryptocurrencyService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> getWatchlist(long chatId) {
+        return subscriptionRepository.findById(chatId)
+                .map(ChatSubscription::getSymbols)
+                .orElse(List.of());
+    }
+
+    @Transactional
+    public List<String> watch(long chatId, Collection<String> symbols) {
+        ChatSubscription subscription = subscriptionRepository.findById(chatId).orElseGet(() -> new ChatSubscription(chatId));
+
+        Set<String> watchlist = new LinkedHashSet<>(subscription.getSymbols());
+        for (String symbol : symbols) {
+            String normalizedSymbol = symbol.toUpperCase();
+            if (watchlist.contains(normalizedSymbol)) {
+                continue;
+            }
+            if (cryptocurrencyService.findBySymbol(normalizedSymbol).isEmpty()) {
+                throw new SubscriptionRejectedException("Криптовалюта с символом \"" + normalizedSymbol + "\" не найдена.");
+            }
+            watchlist.add(normalizedSymbol);
+        }
+        if (watchlist.size() > maxWatchlistSize) {
+            throw new SubscriptionRejectedException("В списке наблюдения может быть не больше " + maxWatchlistSize + " монет.");
+        }
+
+        subscription.setWatchlist(ChatSubscription.canonicalWatchlist(watchlist));
+        return subscriptionRepository.save(subscription).getSymbols();
+    }
+
+    @Transactional
+    public boolean unwatch(long chatId, String symbol) {
+        return subscriptionRepository.findById(chatId)
+                .filter(subscription -> subscription.getSymbols().contains(symbol.toUpperCase()))
+                .map(subscription -> {
+                    List<String> watchlist = new ArrayList<>(subscription.getSymbols());
+                    watchlist.remove(symbol.toUpperCase());
+                    subscription.setWatchlist(ChatSubscription.canonicalWatchlist(watchlist));
+                    subscriptionRepository.save(subscription);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Transactional
+    public ChatSubscription setDigest(long chatId, boolean enabled, Integer hour) {
+        if (hour != null && (hour < 0 || hour > 23)) {
+            throw new SubscriptionRejectedException("Час рассылки должен быть от 0 до 23 (UTC).");
+        }
+
+        ChatSubscription subscription = subscriptionRepository.findById(chatId).orElseGet(() -> new ChatSubscription(chatId));
+        subscription.setDigestEnabled(enabled);
+        if (hour != null) {
+            subscription.setDigestHour(hour);
+        }
+        return subscriptionRepository.save(subscription);
+    }
+
+    /**
+     * Every chat due a digest at {@code hour}, keyed by canonical watchlist. Recipients are read in keyset
+     * pages of two columns, so a run costs a handful of queries however many chats are subscribed.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<Long>> groupDigestRecipients(int hour) {
+        Map<String, List<Long>> groups = new HashMap<>();
+        PageRequest page = PageRequest.of(0, Math.max(1, recipientPageSize));
+        long afterChatId = Long.MIN_VALUE;
+        int total = 0;
+
+        List<DigestRecipient> batch;
+        do {
+            batch = subscriptionRepository.findDigestRecipients(hour, afterChatId, page);
+            for (DigestRecipient recipient : batch) {
+                groups.computeIfAbsent(recipient.getWatchlist(), watchlist -> new ArrayList<>()).add(recipient.getChatId());
+                afterChatId = recipient.getChatId();
+            }
+            total += batch.size();
+        } while (batch.size() == page.getPageSize());
+
+        logger.debug("{} chats due a digest at {}:00 UTC in {} watchlist groups", total, hour, groups.size());
+        return groups;
+    }
+
+    public static class SubscriptionRejectedException extends RuntimeException {
+        public SubscriptionRejectedException(String message) {
+            super(message);
+        }
+    }
+}
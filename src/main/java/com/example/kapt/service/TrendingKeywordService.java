@@ -0,0 +1,178 @@
+package com.example.kapt.service;
+
+import com.example.kapt.analytics.HeavyHitter;
+import com.example.kapt.analytics.SlidingWindowTopK;
+import com.example.kapt.event.NewsIngestedEvent;
+import com.example.kapt.model.News;
+import com.example.kapt.model.TrendingKeywordCheckpoint;
+import com.example.kapt.repository.TrendingKeywordCheckpointRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Service
+public class TrendingKeywordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingKeywordService.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "are", "but", "not", "you", "all", "any", "can", "had", "her", "was", "one",
+            "our", "out", "has", "have", "his", "how", "its", "may", "new", "now", "old", "see", "two", "who",
+            "did", "get", "let", "say", "she", "too", "use", "that", "with", "this", "from", "they", "will",
+            "would", "there", "their", "what", "about", "which", "when", "make", "like", "time", "just", "into",
+            "than", "then", "them", "these", "some", "could", "other", "more", "over", "also", "after", "been",
+            "were", "said", "says", "while", "where", "amid", "here", "being", "under", "most", "only",
+            "such", "very", "week", "year", "today", "daily", "report", "news", "price", "prices"
+    );
+
+    public static final String WINDOW_1H = "1h";
+    public static final String WINDOW_24H = "24h";
+
+    private final TrendingKeywordCheckpointRepository checkpointRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, SlidingWindowTopK> windows;
+
+    public TrendingKeywordService(TrendingKeywordCheckpointRepository checkpointRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.news.trending.capacity:500}") int capacity,
+                                  @Value("${app.news.trending.top-size:50}") int topSize) {
+        this.checkpointRepository = checkpointRepository;
+        this.objectMapper = objectMapper;
+        this.windows = Map.of(
+                WINDOW_1H, new SlidingWindowTopK(WINDOW_1H, Duration.ofHours(1), 12, capacity, topSize),
+                WINDOW_24H, new SlidingWindowTopK(WINDOW_24H, Duration.ofHours(24), 24, capacity, topSize)
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsIngested(NewsIngestedEvent event) {
+        if (event.getSavedArticles().isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        for (News article : event.getSavedArticles()) {
+            // Syndicated copies count once, through their original, like the duplicate = FALSE statistics
+            if (Boolean.TRUE.equals(article.getDuplicate())) {
+                continue;
+            }
+            Instant publishedAt = article.getPubDate() != null ? article.getPubDate().toInstant(ZoneOffset.UTC) : now;
+            for (String token : tokenize(article.getTitle(), article.getDescription())) {
+                for (SlidingWindowTopK window : windows.values()) {
+                    window.offer(token, publishedAt, now);
+                }
+            }
+        }
+        windows.values().forEach(window -> window.refresh(now));
+        logger.debug("Trending keywords updated from {} articles", event.getSavedArticles().size());
+    }
+
+    /**
+     * Moves both windows forward so buckets that aged out stop counting even when nothing is ingested;
+     * otherwise the snapshots would keep the ranking of the last ingest indefinitely.
+     */
+    @Scheduled(fixedDelayString = "${app.news.trending.advance-interval:60000}")
+    public void advanceWindows() {
+        Instant now = Instant.now();
+        windows.values().forEach(window -> window.refresh(now));
+    }
+
+    public List<HeavyHitter> getTrendingKeywords(String windowName, int limit) {
+        SlidingWindowTopK window = windows.get(windowName);
+        if (window == null) {
+            throw new IllegalArgumentException("Unsupported window: " + windowName + " (expected 1h or 24h)");
+        }
+        return window.top(limit);
+    }
+
+    public boolean hasData(String windowName) {
+        SlidingWindowTopK window = windows.get(windowName);
+        return window != null && !window.isEmpty();
+    }
+
+    @Scheduled(initialDelayString = "${app.news.trending.checkpoint-interval:300000}", fixedDelayString = "${app.news.trending.checkpoint-interval:300000}")
+    public void checkpoint() {
+        for (SlidingWindowTopK window : windows.values()) {
+            try {
+                String payload = objectMapper.writeValueAsString(window.exportBuckets());
+                checkpointRepository.save(new TrendingKeywordCheckpoint(window.getName(), payload));
+            } catch (Exception e) {
+                logger.warn("Could not checkpoint trending window {}: {}", window.getName(), e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreCheckpoints() {
+        Instant now = Instant.now();
+        for (SlidingWindowTopK window : windows.values()) {
+            try {
+                checkpointRepository.findById(window.getName()).ifPresent(checkpoint -> {
+                    try {
+                        List<SlidingWindowTopK.BucketState> buckets = objectMapper.readValue(
+                                checkpoint.getPayload(), new TypeReference<List<SlidingWindowTopK.BucketState>>() {
+                                });
+                        window.restore(buckets, now);
+                        logger.info("Restored trending window {} from checkpoint saved at {}", window.getName(), checkpoint.getSavedAt());
+                    } catch (Exception e) {
+                        logger.warn("Ignoring unreadable checkpoint for trending window {}: {}", window.getName(), e.getMessage());
+                    }
+                });
+            } catch (Exception e) {
+                logger.warn("Could not load checkpoint for trending window {}: {}", window.getName(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    static Set<String> tokenize(String title, String summary) {
+        Set<String> tokens = new HashSet<>();
+        addTokens(tokens, title);
+        addTokens(tokens, summary);
+        return tokens;
+    }
+
+    private static void addTokens(Set<String> tokens, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        for (String raw : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (raw.length() >= MIN_TOKEN_LENGTH && !STOP_WORDS.contains(raw) && !isNumeric(raw)) {
+                tokens.add(raw);
+            }
+        }
+    }
+
+    private static boolean isNumeric(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
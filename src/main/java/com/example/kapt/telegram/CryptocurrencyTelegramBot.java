@@ -1,17 +1,22 @@
 package com.example.kapt.telegram;
 
+import com.example.kapt.model.ChatSubscription;
 import com.example.kapt.model.Cryptocurrency;
-import com.example.kapt.model.News;
+import com.example.kapt.model.PriceAlert;
 import com.example.kapt.service.CryptocurrencyService;
-import com.example.kapt.service.NewsService;
+import com.example.kapt.service.PriceAlertService;
+import com.example.kapt.service.SubscriptionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.InlineQuery;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
@@ -19,29 +24,50 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.Keyboard
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.text.NumberFormat;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatCryptocurrencyDetails;
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatCryptocurrencyInfo;
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatLargeNumber;
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatPrice;
 
 @Component
 public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
 
     private static final Logger logger = LoggerFactory.getLogger(CryptocurrencyTelegramBot.class);
+    private static final Pattern ALERT_PATTERN =
+            Pattern.compile("^/alert\\s+([A-Za-z0-9]{1,20})\\s*([<>])\\s*(\\d+(?:[.,]\\d+)?)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("^/digest\\s+(on|off)(?:\\s+(\\d{1,2}))?$");
 
     private final CryptocurrencyService cryptocurrencyService;
-    private final NewsService newsService;
-    private final NumberFormat currencyFormatter;
+    private final TelegramNewsPager newsPager;
+    private final TelegramUpdateDispatcher updateDispatcher;
+    private final TelegramResponseCache responseCache;
+    private final TelegramSendQueue sendQueue;
+    private final PriceAlertService priceAlertService;
+    private final TelegramInlineSearch inlineSearch;
+    private final SubscriptionService subscriptionService;
 
     @Value("${app.telegram.bot.username}")
     private String botUsername;
 
-    @Value("${app.telegram.bot.token}")
-    private String botToken;
-
-    public CryptocurrencyTelegramBot(CryptocurrencyService cryptocurrencyService, NewsService newsService) {
+    public CryptocurrencyTelegramBot(DefaultBotOptions botOptions,
+                                     @Value("${app.telegram.bot.token}") String botToken,
+                                     CryptocurrencyService cryptocurrencyService, TelegramNewsPager newsPager,
+                                     TelegramUpdateDispatcher updateDispatcher, TelegramResponseCache responseCache,
+                                     TelegramSendQueue sendQueue, PriceAlertService priceAlertService,
+                                     TelegramInlineSearch inlineSearch, SubscriptionService subscriptionService) {
+        super(botOptions, botToken);
         this.cryptocurrencyService = cryptocurrencyService;
-        this.newsService = newsService;
-        this.currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
+        this.newsPager = newsPager;
+        this.updateDispatcher = updateDispatcher;
+        this.responseCache = responseCache;
+        this.sendQueue = sendQueue;
+        this.priceAlertService = priceAlertService;
+        this.inlineSearch = inlineSearch;
+        this.subscriptionService = subscriptionService;
     }
 
     @Override
@@ -49,13 +75,21 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
         return botUsername;
     }
 
+    /**
+     * Entry point for both long polling and the webhook controller; handlers run on the update dispatcher.
+     */
     @Override
-    public String getBotToken() {
-        return botToken;
+    public void onUpdateReceived(Update update) {
+        if (update.hasMessage() && update.getMessage().hasText()) {
+            updateDispatcher.dispatch(update.getMessage().getChatId(), "message", () -> handleUpdate(update));
+        } else if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null) {
+            updateDispatcher.dispatch(update.getCallbackQuery().getMessage().getChatId(), "callback", () -> handleUpdate(update));
+        } else if (update.hasInlineQuery()) {
+            updateDispatcher.dispatch(update.getInlineQuery().getFrom().getId(), "inline_query", () -> handleUpdate(update));
+        }
     }
 
-    @Override
-    public void onUpdateReceived(Update update) {
+    void handleUpdate(Update update) {
         if (update.hasMessage() && update.getMessage().hasText()) {
             String messageText = update.getMessage().getText();
             long chatId = update.getMessage().getChatId();
@@ -81,6 +115,18 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
             } catch (Exception e) {
                 logger.error("Error handling callback query: {}", callbackData, e);
             }
+        } else if (update.hasInlineQuery()) {
+            handleInlineQuery(update.getInlineQuery());
+        }
+    }
+
+    // Answered directly rather than through the send queue: an answer is not a chat message, and it is
+    // only useful within Telegram's inline timeout
+    private void handleInlineQuery(InlineQuery inlineQuery) {
+        try {
+            execute(inlineSearch.answer(inlineQuery));
+        } catch (TelegramApiException e) {
+            logger.warn("Could not answer inline query \"{}\": {}", inlineQuery.getQuery(), e.getMessage());
         }
     }
 
@@ -115,11 +161,27 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
             case "📰 новости":
                 handleNewsCommand(chatId);
                 break;
+            case "/alerts":
+                handleAlertsCommand(chatId);
+                break;
+            case "/watchlist":
+                handleWatchlistCommand(chatId);
+                break;
             default:
                 if (command.startsWith("/search ") || command.startsWith("🔍 поиск:")) {
                     handleSearchCommand(chatId, messageText);
                 } else if (command.startsWith("/price ")) {
                     handlePriceCommand(chatId, messageText);
+                } else if (command.startsWith("/alert ")) {
+                    handleAlertCommand(chatId, messageText);
+                } else if (command.startsWith("/unalert ")) {
+                    handleUnalertCommand(chatId, messageText);
+                } else if (command.equals("/watch") || command.startsWith("/watch ")) {
+                    handleWatchCommand(chatId, messageText);
+                } else if (command.startsWith("/unwatch ")) {
+                    handleUnwatchCommand(chatId, messageText);
+                } else if (command.equals("/digest") || command.startsWith("/digest ")) {
+                    handleDigestCommand(chatId, command);
                 } else if (isSymbolQuery(messageText)) {
                     handleSymbolQuery(chatId, messageText);
                 } else {
@@ -143,7 +205,7 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
         message.setText(welcomeMessage);
         message.setReplyMarkup(createMainKeyboard());
 
-        executeMessage(message);
+        executeMessage(chatId, message);
     }
 
     private void handleHelpCommand(long chatId) {
@@ -157,142 +219,57 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
                         "*Поиск:*\n" +
                         "• Введите символ криптовалюты (например: BTC, ETH)\n" +
                         "• /search <название> - поиск по названию\n" +
-                        "• /price <символ> - цена конкретной криптовалюты\n\n" +
+                        "• /price <символ> - цена конкретной криптовалюты\n" +
+                        "• @" + botUsername.replace("_", "\\_") + " <символ> - поиск из любого чата\n\n" +
+                        "*Алерты:*\n" +
+                        "• /alert BTC > 70000 - уведомить, когда цена поднимется до уровня\n" +
+                        "• /alert BTC < 50000 - уведомить, когда цена опустится до уровня\n" +
+                        "• /alerts - список активных алертов\n" +
+                        "• /unalert <номер> - удалить алерт\n\n" +
+                        "*Дайджест:*\n" +
+                        "• /watch BTC ETH - добавить монеты в список наблюдения\n" +
+                        "• /unwatch <символ> - убрать монету из списка\n" +
+                        "• /watchlist - цены монет из списка\n" +
+                        "• /digest on 8 - ежедневный дайджест в 08:00 UTC, /digest off - отключить\n\n" +
                         "Все данные обновляются каждые 15 минут.";
 
         sendMarkdownMessage(chatId, helpMessage);
     }
 
     private void handleTopCommand(long chatId) {
-        List<Cryptocurrency> topCryptocurrencies = cryptocurrencyService.getTopByMarketCap(10);
-
-        if (topCryptocurrencies.isEmpty()) {
-            sendMessage(chatId, "Данные пока не загружены. Попробуйте позже.");
-            return;
-        }
-
-        StringBuilder message = new StringBuilder("🔥 *Топ-10 криптовалют по рыночной капитализации:*\n\n");
-
-        for (int i = 0; i < topCryptocurrencies.size(); i++) {
-            Cryptocurrency crypto = topCryptocurrencies.get(i);
-            message.append(formatCryptocurrencyInfo(i + 1, crypto));
-        }
-
-        sendMarkdownMessage(chatId, message.toString());
+        sendCachedResponse(chatId, responseCache.getTop());
     }
 
     private void handleGainersCommand(long chatId) {
-        List<Cryptocurrency> gainers = cryptocurrencyService.getTopGainers(10);
-
-        if (gainers.isEmpty()) {
-            sendMessage(chatId, "Данные о лидерах роста пока недоступны.");
-            return;
-        }
-
-        StringBuilder message = new StringBuilder("📈 *Топ-10 лидеров роста (24ч):*\n\n");
-
-        for (int i = 0; i < gainers.size(); i++) {
-            Cryptocurrency crypto = gainers.get(i);
-            message.append(formatCryptocurrencyInfo(i + 1, crypto));
-        }
-
-        sendMarkdownMessage(chatId, message.toString());
+        sendCachedResponse(chatId, responseCache.getGainers());
     }
 
     private void handleLosersCommand(long chatId) {
-        List<Cryptocurrency> losers = cryptocurrencyService.getTopLosers(10);
-
-        if (losers.isEmpty()) {
-            sendMessage(chatId, "Данные о лидерах падения пока недоступны.");
-            return;
-        }
-
-        StringBuilder message = new StringBuilder("📉 *Топ-10 лидеров падения (24ч):*\n\n");
-
-        for (int i = 0; i < losers.size(); i++) {
-            Cryptocurrency crypto = losers.get(i);
-            message.append(formatCryptocurrencyInfo(i + 1, crypto));
-        }
-
-        sendMarkdownMessage(chatId, message.toString());
+        sendCachedResponse(chatId, responseCache.getLosers());
     }
 
     private void handleStatsCommand(long chatId) {
-        CryptocurrencyService.MarketStatistics stats = cryptocurrencyService.getMarketStatistics();
-
-        String statsMessage = String.format(
-                "📊 *Статистика рынка криптовалют:*\n\n" +
-                        "💰 Общая капитализация: $%s\n" +
-                        "📈 Количество криптовалют: %d\n" +
-                        "📊 Средн. изменение (24ч): %.2f%%\n" +
-                        "🚀 Макс. рост (24ч): %.2f%%\n" +
-                        "📉 Макс. падение (24ч): %.2f%%",
-                formatLargeNumber(stats.getTotalMarketCap()),
-                stats.getTotalCount(),
-                stats.getAvgPriceChange(),
-                stats.getMaxPriceChange(),
-                stats.getMinPriceChange()
-        );
+        sendCachedResponse(chatId, responseCache.getStats());
+    }
 
-        sendMarkdownMessage(chatId, statsMessage);
+    private void sendCachedResponse(long chatId, TelegramResponseCache.Response response) {
+        if (response.isMarkdown()) {
+            sendMarkdownMessage(chatId, response.getText());
+        } else {
+            sendMessage(chatId, response.getText());
+        }
     }
 
     private void handleNewsCommand(long chatId) {
         try {
-            List<News> newsList = newsService.getRecentNews(24);
-
-            if (newsList.isEmpty()) {
-                sendMessage(chatId, "📰 Нет новых статей за последние 24 часа.\n\n" +
-                        "Попробуйте позже или используйте другие команды для получения информации о криптовалютах.");
-                return;
-            }
-
-            StringBuilder message = new StringBuilder("📰 *Последние новости о криптовалютах (24ч):*\n\n");
-
-
-            int limit = Math.min(newsList.size(), 5);
-            for (int i = 0; i < limit; i++) {
-                News news = newsList.get(i);
-
-
-                String formattedDate = "Неизвестно";
-                if (news.getPubDate() != null) {
-                    formattedDate = news.getPubDate().toString().substring(0, 16).replace("T", " ");
-                }
-
+            TelegramNewsPager.NewsPage page = newsPager.firstPage();
 
-                String title = news.getTitle().replace("*", "\\*").replace("_", "\\_");
-
-                message.append(String.format(
-                        "• *%s*\n  📅 %s\n  🔗 [Читать полностью](%s)\n\n",
-                        title,
-                        formattedDate,
-                        news.getLink()
-                ));
-            }
-            if (newsList.size() > 5) {
-                message.append(String.format("_Показано новостей 1-5 из %d_\n\n", newsList.size()));
-            }
-
-            message.append("💡 _Данные обновляются автоматически каждый час_");
-
-
-            if (newsList.size() > 5) {
-                InlineKeyboardMarkup keyboard = new InlineKeyboardMarkup();
-                List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-                List<InlineKeyboardButton> row = new ArrayList<>();
-
-                InlineKeyboardButton moreButton = new InlineKeyboardButton();
-                moreButton.setText("📰 Показать еще");
-                moreButton.setCallbackData("news_more_1");
-                row.add(moreButton);
-
-                rows.add(row);
-                keyboard.setKeyboard(rows);
-
-                sendMessageWithKeyboard(chatId, message.toString(), keyboard);
+            if (page.isEmpty()) {
+                sendMessage(chatId, page.getText());
+            } else if (page.hasNavigation()) {
+                sendMessageWithKeyboard(chatId, page.getText(), createNewsKeyboard(page));
             } else {
-                sendMarkdownMessage(chatId, message.toString());
+                sendMarkdownMessage(chatId, page.getText());
             }
 
         } catch (Exception e) {
@@ -347,84 +324,142 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
             return;
         }
 
-        Cryptocurrency c = cryptoOpt.get();
-        String message = String.format(
-                "*%s (%s)*\n\n" +
-                        "💰 Цена: %s\n" +
-                        "📈 Изменение (24ч): %.2f%%\n" +
-                        "💎 Рыночная капитализация: %s\n" +
-                        "📊 Объем торгов (24ч): %s\n" +
-                        "🏆 Ранг: #%d\n" +
-                        "🔄 Обновлено: %s",
-                c.getName(),
-                c.getSymbol(),
-                formatPrice(c.getCurrentPrice()),
-                c.getPriceChangePercentage24h(),
-                formatLargeNumber(c.getMarketCap()),
-                formatLargeNumber(c.getTotalVolume()),
-                c.getMarketCapRank(),
-                c.getLastUpdated() != null ? c.getLastUpdated().toString().substring(0, 16).replace("T", " ") : "N/A"
-        );
-
-        sendMarkdownMessage(chatId, message);
+        sendMarkdownMessage(chatId, formatCryptocurrencyDetails(cryptoOpt.get()));
     }
 
-    private void handleUnknownCommand(long chatId) {
-        sendMessage(chatId, "Команда не распознана. Используйте /help для получения списка доступных команд.");
+    private void handleAlertCommand(long chatId, String messageText) {
+        Matcher matcher = ALERT_PATTERN.matcher(messageText.trim());
+        if (!matcher.matches()) {
+            sendMessage(chatId, "Формат: /alert <символ> > <цена> или /alert <символ> < <цена>. Например: /alert BTC > 70000");
+            return;
+        }
+
+        PriceAlert.Direction direction = ">".equals(matcher.group(2)) ? PriceAlert.Direction.ABOVE : PriceAlert.Direction.BELOW;
+        BigDecimal threshold = new BigDecimal(matcher.group(3).replace(',', '.'));
+
+        try {
+            PriceAlert alert = priceAlertService.createAlert(chatId, matcher.group(1), direction, threshold);
+            sendMarkdownMessage(chatId, String.format("🔔 Алерт #%d создан: *%s* %s %s",
+                    alert.getId(), alert.getSymbol(), direction == PriceAlert.Direction.ABOVE ? "выше" : "ниже",
+                    formatPrice(alert.getThreshold())));
+        } catch (PriceAlertService.AlertRejectedException e) {
+            sendMessage(chatId, e.getMessage());
+        }
     }
 
-    private boolean isSymbolQuery(String text) {
-        return text.matches("^[A-Za-z]{2,10}$");
+    private void handleAlertsCommand(long chatId) {
+        List<PriceAlert> alerts = priceAlertService.getActiveAlerts(chatId);
+
+        if (alerts.isEmpty()) {
+            sendMessage(chatId, "У вас нет активных алертов. Создайте алерт командой /alert BTC > 70000");
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("🔔 *Ваши алерты:*\n\n");
+        for (PriceAlert alert : alerts) {
+            message.append(String.format("#%d *%s* %s %s\n",
+                    alert.getId(), alert.getSymbol(), alert.getDirection() == PriceAlert.Direction.ABOVE ? ">" : "<",
+                    formatPrice(alert.getThreshold())));
+        }
+        message.append("\n_Удалить: /unalert <номер>_");
+
+        sendMarkdownMessage(chatId, message.toString());
     }
 
-    private String extractSearchTerm(String messageText, String... prefixes) {
-        String lowerCaseMessage = messageText.toLowerCase();
-        for (String prefix : prefixes) {
-            if (lowerCaseMessage.startsWith(prefix)) {
-                return messageText.substring(prefix.length()).trim();
-            }
+    private void handleUnalertCommand(long chatId, String messageText) {
+        String id = extractSearchTerm(messageText, "/unalert ").replace("#", "");
+        if (!id.matches("\\d{1,18}")) {
+            sendMessage(chatId, "Укажите номер алерта. Например: /unalert 12");
+            return;
+        }
+
+        if (priceAlertService.cancelAlert(chatId, Long.parseLong(id))) {
+            sendMessage(chatId, "Алерт #" + id + " удален.");
+        } else {
+            sendMessage(chatId, "Активный алерт #" + id + " не найден.");
         }
-        return "";
     }
 
-    private String formatCryptocurrencyInfo(int rank, Cryptocurrency crypto) {
-        return String.format(
-                "%d. *%s* (%s)\n" +
-                        "   💰 %s  📈 %.2f%%\n\n",
-                rank,
-                crypto.getName(),
-                crypto.getSymbol(),
-                formatPrice(crypto.getCurrentPrice()),
-                crypto.getPriceChangePercentage24h() != null ? crypto.getPriceChangePercentage24h() : BigDecimal.ZERO
-        );
+    private void handleWatchCommand(long chatId, String messageText) {
+        String symbols = extractSearchTerm(messageText, "/watch");
+        if (symbols.isEmpty()) {
+            sendMessage(chatId, "Укажите символы через пробел. Например: /watch BTC ETH SOL");
+            return;
+        }
+
+        try {
+            List<String> watchlist = subscriptionService.watch(chatId, Arrays.asList(symbols.split("[\\s,]+")));
+            sendMessage(chatId, "👀 Список наблюдения: " + String.join(", ", watchlist) +
+                    "\nЕжедневный дайджест: /digest on");
+        } catch (SubscriptionService.SubscriptionRejectedException e) {
+            sendMessage(chatId, e.getMessage());
+        }
     }
 
-    private String formatPrice(BigDecimal price) {
-        if (price == null) return "N/A";
-        if (price.compareTo(BigDecimal.ONE) < 0 && price.compareTo(BigDecimal.ZERO) != 0) {
-            return String.format(Locale.US, "$%.6f", price);
+    private void handleUnwatchCommand(long chatId, String messageText) {
+        String symbol = extractSearchTerm(messageText, "/unwatch ").toUpperCase();
+        if (subscriptionService.unwatch(chatId, symbol)) {
+            sendMessage(chatId, symbol + " удален из списка наблюдения.");
         } else {
-            return currencyFormatter.format(price);
+            sendMessage(chatId, symbol + " нет в вашем списке наблюдения.");
         }
     }
 
-    private String formatLargeNumber(BigDecimal number) {
-        if (number == null) return "N/A";
+    private void handleWatchlistCommand(long chatId) {
+        List<String> watchlist = subscriptionService.getWatchlist(chatId);
+        if (watchlist.isEmpty()) {
+            sendMessage(chatId, "Список наблюдения пуст. Добавьте монеты командой /watch BTC ETH");
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("👀 *Ваш список наблюдения:*\n\n");
+        int rank = 1;
+        for (String symbol : watchlist) {
+            Optional<Cryptocurrency> crypto = cryptocurrencyService.findBySymbol(symbol);
+            if (crypto.isPresent()) {
+                message.append(formatCryptocurrencyInfo(rank++, crypto.get()));
+            }
+        }
+        message.append("_Удалить: /unwatch <символ>_");
 
-        BigDecimal trillion = new BigDecimal("1000000000000");
-        BigDecimal billion = new BigDecimal("1000000000");
-        BigDecimal million = new BigDecimal("1000000");
+        sendMarkdownMessage(chatId, message.toString());
+    }
 
-        if (number.compareTo(trillion) >= 0) {
-            return String.format(Locale.US, "%.2fT", number.divide(trillion, 2, RoundingMode.HALF_UP));
+    private void handleDigestCommand(long chatId, String command) {
+        Matcher matcher = DIGEST_PATTERN.matcher(command);
+        if (!matcher.matches()) {
+            sendMessage(chatId, "Используйте /digest on [час UTC] или /digest off. Например: /digest on 8");
+            return;
         }
-        if (number.compareTo(billion) >= 0) {
-            return String.format(Locale.US, "%.2fB", number.divide(billion, 2, RoundingMode.HALF_UP));
+
+        try {
+            boolean enabled = "on".equals(matcher.group(1));
+            Integer hour = matcher.group(2) != null ? Integer.valueOf(matcher.group(2)) : null;
+            ChatSubscription subscription = subscriptionService.setDigest(chatId, enabled, hour);
+            sendMessage(chatId, enabled
+                    ? String.format("☀️ Дайджест будет приходить каждый день в %02d:00 UTC.", subscription.getDigestHour())
+                    : "Дайджест отключен.");
+        } catch (SubscriptionService.SubscriptionRejectedException e) {
+            sendMessage(chatId, e.getMessage());
         }
-        if (number.compareTo(million) >= 0) {
-            return String.format(Locale.US, "%.2fM", number.divide(million, 2, RoundingMode.HALF_UP));
+    }
+
+    private void handleUnknownCommand(long chatId) {
+        sendMessage(chatId, "Команда не распознана. Используйте /help для получения списка доступных команд.");
+    }
+
+    private boolean isSymbolQuery(String text) {
+        return text.matches("^[A-Za-z]{2,10}$");
+    }
+
+    private String extractSearchTerm(String messageText, String... prefixes) {
+        String lowerCaseMessage = messageText.toLowerCase();
+        for (String prefix : prefixes) {
+            if (lowerCaseMessage.startsWith(prefix)) {
+                return messageText.substring(prefix.length()).trim();
+            }
         }
-        return currencyFormatter.format(number.setScale(0, RoundingMode.HALF_UP));
+        return "";
     }
 
     private ReplyKeyboardMarkup createMainKeyboard() {
@@ -452,7 +487,7 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
         SendMessage message = new SendMessage();
         message.setChatId(chatId);
         message.setText(text);
-        executeMessage(message);
+        executeMessage(chatId, message);
     }
 
     private void sendMarkdownMessage(long chatId, String text) {
@@ -460,102 +495,57 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
         message.setChatId(chatId);
         message.setText(text);
         message.setParseMode("Markdown");
-        executeMessage(message);
+        executeMessage(chatId, message);
     }
 
-    private void executeMessage(SendMessage message) {
-        try {
-            execute(message);
-            logger.debug("Sent message to chat {}: {}", message.getChatId(), message.getText().substring(0, Math.min(50, message.getText().length())));
-        } catch (TelegramApiException e) {
-            logger.error("Error sending message to chat {}: {}", message.getChatId(), e.getMessage());
-        }
+    private void executeMessage(long chatId, BotApiMethod<?> method) {
+        sendQueue.enqueue(chatId, TelegramSendQueue.Priority.INTERACTIVE, method);
     }
 
     private void handleCallbackQuery(long chatId, int messageId, String callbackData) {
-        if (callbackData.startsWith("news_more_")) {
-            int page = Integer.parseInt(callbackData.substring("news_more_".length()));
-            handleNewsPage(chatId, messageId, page);
+        if (TelegramNewsPager.isPageCallback(callbackData)) {
+            handleNewsPage(chatId, messageId, callbackData);
         }
     }
 
-    private void handleNewsPage(long chatId, int messageId, int page) {
+    private void handleNewsPage(long chatId, int messageId, String callbackData) {
         try {
-            List<News> newsList = newsService.getLatestNews(50);
-
-            if (newsList.isEmpty()) {
-                editMessage(chatId, messageId, "📰 *Новости не найдены*\n\nПопробуйте позже.");
-                return;
-            }
-
-            int newsPerPage = 5;
-            int startIndex = page * newsPerPage;
-            int endIndex = Math.min(startIndex + newsPerPage, newsList.size());
-
-            if (startIndex >= newsList.size()) {
-                editMessage(chatId, messageId, "📰 *Больше новостей нет*\n\nВы просмотрели все доступные новости.");
-                return;
-            }
-
-            StringBuilder message = new StringBuilder("📰 *Новости о криптовалютах (стр. " + (page + 1) + "):*\n\n");
-
-            for (int i = startIndex; i < endIndex; i++) {
-                News news = newsList.get(i);
-
-                String formattedDate = "Неизвестно";
-                if (news.getPubDate() != null) {
-                    formattedDate = news.getPubDate().toString().substring(0, 16).replace("T", " ");
-                }
-
-                String title = news.getTitle().replace("*", "\\*").replace("_", "\\_");
-
-                message.append(String.format(
-                        "• *%s*\n  📅 %s\n  🔗 [Читать полностью](%s)\n\n",
-                        title,
-                        formattedDate,
-                        news.getLink()
-                ));
-            }
-
-
-            InlineKeyboardMarkup keyboard = new InlineKeyboardMarkup();
-            List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-            List<InlineKeyboardButton> row = new ArrayList<>();
-
-
-            if (page > 0) {
-                InlineKeyboardButton prevButton = new InlineKeyboardButton();
-                prevButton.setText("◀️ Предыдущая");
-                prevButton.setCallbackData("news_more_" + (page - 1));
-                row.add(prevButton);
-            }
-
-
-            if (endIndex < newsList.size()) {
-                InlineKeyboardButton nextButton = new InlineKeyboardButton();
-                nextButton.setText("Следующая ▶️");
-                nextButton.setCallbackData("news_more_" + (page + 1));
-                row.add(nextButton);
-            }
+            TelegramNewsPager.NewsPage page = newsPager.page(callbackData);
 
-            if (!row.isEmpty()) {
-                rows.add(row);
+            if (page.hasNavigation()) {
+                editMessageWithKeyboard(chatId, messageId, page.getText(), createNewsKeyboard(page));
+            } else {
+                editMessage(chatId, messageId, page.getText());
             }
 
-            keyboard.setKeyboard(rows);
-
-            message.append(String.format("_Показано новостей %d-%d из %d_\n\n",
-                    startIndex + 1, endIndex, newsList.size()));
-            message.append("💡 _Данные обновляются автоматически каждый час_");
-
-            editMessageWithKeyboard(chatId, messageId, message.toString(), keyboard);
-
         } catch (Exception e) {
             logger.error("Error handling news page for chat {}: {}", chatId, e.getMessage(), e);
             editMessage(chatId, messageId, "❌ Произошла ошибка при загрузке новостей. Попробуйте позже.");
         }
     }
 
+    private InlineKeyboardMarkup createNewsKeyboard(TelegramNewsPager.NewsPage page) {
+        List<InlineKeyboardButton> row = new ArrayList<>();
+
+        if (page.getNewerCursor() != null) {
+            InlineKeyboardButton prevButton = new InlineKeyboardButton();
+            prevButton.setText("◀️ Предыдущая");
+            prevButton.setCallbackData(page.getNewerCursor());
+            row.add(prevButton);
+        }
+
+        if (page.getOlderCursor() != null) {
+            InlineKeyboardButton nextButton = new InlineKeyboardButton();
+            nextButton.setText(page.getNewerCursor() == null ? "📰 Показать еще" : "Следующая ▶️");
+            nextButton.setCallbackData(page.getOlderCursor());
+            row.add(nextButton);
+        }
+
+        InlineKeyboardMarkup keyboard = new InlineKeyboardMarkup();
+        keyboard.setKeyboard(List.of(row));
+        return keyboard;
+    }
+
     private void editMessage(long chatId, int messageId, String text) {
         EditMessageText editMessage = new EditMessageText();
         editMessage.setChatId(chatId);
@@ -563,11 +553,7 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
         editMessage.setText(text);
         editMessage.setParseMode("Markdown");
 
-        try {
-            execute(editMessage);
-        } catch (TelegramApiException e) {
-            logger.error("Error editing message in chat {}: {}", chatId, e.getMessage());
-        }
+        executeMessage(chatId, editMessage);
     }
 
     private void editMessageWithKeyboard(long chatId, int messageId, String text, InlineKeyboardMarkup keyboard) {
@@ -578,11 +564,7 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
         editMessage.setParseMode("Markdown");
         editMessage.setReplyMarkup(keyboard);
 
-        try {
-            execute(editMessage);
-        } catch (TelegramApiException e) {
-            logger.error("Error editing message with keyboard in chat {}: {}", chatId, e.getMessage());
-        }
+        executeMessage(chatId, editMessage);
     }
 
     private void sendMessageWithKeyboard(long chatId, String text, InlineKeyboardMarkup keyboard) {
@@ -592,10 +574,6 @@ public class CryptocurrencyTelegramBot extends TelegramLongPollingBot {
         message.setParseMode("Markdown");
         message.setReplyMarkup(keyboard);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error sending message with keyboard to chat {}: {}", chatId, e.getMessage());
-        }
+        executeMessage(chatId, message);
     }
 }
@@ -0,0 +1,53 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.event.PriceAlertsTriggeredEvent;
+import com.example.kapt.event.PriceAlertsTriggeredEvent.TriggeredAlert;
+import com.example.kapt.model.PriceAlert.Direction;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatPrice;
+
+/**
+ * Turns triggered price alerts into Telegram messages: one message per chat per ingest run, however many
+ * of that chat's alerts fired, queued behind interactive replies.
+ */
+@Component
+public class TelegramAlertNotifier {
+
+    private final TelegramSendQueue sendQueue;
+
+    public TelegramAlertNotifier(TelegramSendQueue sendQueue) {
+        this.sendQueue = sendQueue;
+    }
+
+    @EventListener
+    public void onAlertsTriggered(PriceAlertsTriggeredEvent event) {
+        Map<Long, List<TriggeredAlert>> byChat = event.getAlerts().stream()
+                .collect(Collectors.groupingBy(TriggeredAlert::getChatId, LinkedHashMap::new, Collectors.toList()));
+
+        byChat.forEach((chatId, alerts) -> {
+            SendMessage message = new SendMessage(String.valueOf(chatId), formatNotification(alerts));
+            message.setParseMode("Markdown");
+            sendQueue.enqueue(chatId, TelegramSendQueue.Priority.ALERT, message);
+        });
+    }
+
+    static String formatNotification(List<TriggeredAlert> alerts) {
+        StringBuilder message = new StringBuilder("🔔 *Сработали алерты:*\n\n");
+        for (TriggeredAlert alert : alerts) {
+            message.append(String.format("• *%s* %s %s — сейчас %s\n",
+                    alert.getSymbol(),
+                    alert.getDirection() == Direction.ABOVE ? "выше" : "ниже",
+                    formatPrice(alert.getThreshold()),
+                    formatPrice(alert.getPrice())));
+        }
+        return message.toString();
+    }
+}
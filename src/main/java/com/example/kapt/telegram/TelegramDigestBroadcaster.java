@@ -0,0 +1,220 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.dto.NewsSummary;
+import com.example.kapt.model.ChatSubscription;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.service.CryptocurrencyService;
+import com.example.kapt.service.NewsService;
+import com.example.kapt.service.SubscriptionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatCryptocurrencyInfo;
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatNewsItem;
+
+/**
+ * Sends the hourly digest to every chat scheduled for the current UTC hour. Recipients arrive grouped by
+ * watchlist, market data and headlines are loaded once per run, and each distinct digest is rendered once
+ * and shared by its whole group. Messages go out at broadcast priority through the send queue, whose
+ * backlog is held below a threshold so interactive replies are never dropped for lack of space.
+ */
+@Component
+public class TelegramDigestBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelegramDigestBroadcaster.class);
+    private static final int DEFAULT_LIST_SIZE = 5;
+
+    private final SubscriptionService subscriptionService;
+    private final CryptocurrencyService cryptocurrencyService;
+    private final NewsService newsService;
+    private final TelegramSendQueue sendQueue;
+    private final Timer runTimer;
+    private final Counter recipientCounter;
+    private final Counter delayedRunCounter;
+    private final ExecutorService executor;
+    // Hours queued on the executor and not finished yet, guarded by itself
+    private final Set<Integer> pendingHours = new LinkedHashSet<>();
+
+    @Value("${app.digest.headlines:3}")
+    private int headlineCount;
+
+    @Value("${app.digest.max-queued:5000}")
+    private int maxQueued;
+
+    @Value("${app.digest.queue-wait-minutes:10}")
+    private long queueWaitMinutes;
+
+    public TelegramDigestBroadcaster(SubscriptionService subscriptionService, CryptocurrencyService cryptocurrencyService,
+                                     NewsService newsService, TelegramSendQueue sendQueue, MeterRegistry meterRegistry) {
+        this.subscriptionService = subscriptionService;
+        this.cryptocurrencyService = cryptocurrencyService;
+        this.newsService = newsService;
+        this.sendQueue = sendQueue;
+        this.runTimer = Timer.builder("telegram.digest.run")
+                .description("Time to render and queue one digest run")
+                .register(meterRegistry);
+        this.recipientCounter = Counter.builder("telegram.digest.recipients")
+                .description("Digest messages queued for delivery")
+                .register(meterRegistry);
+        this.delayedRunCounter = Counter.builder("telegram.digest.runs.delayed")
+                .description("Digest runs that had to wait for an earlier run to finish queuing")
+                .register(meterRegistry);
+        Gauge.builder("telegram.digest.runs.pending", this, TelegramDigestBroadcaster::getPendingRunCount)
+                .description("Digest runs waiting or in progress")
+                .register(meterRegistry);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "telegram-digest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Runs off the scheduler thread: queuing a large run waits on the send rate for a long time
+    @Scheduled(cron = "${app.digest.cron:0 0 * * * *}", zone = "UTC")
+    public void scheduleDigest() {
+        queueRun(ZonedDateTime.now(ZoneOffset.UTC).getHour());
+    }
+
+    /**
+     * Queues the run for {@code hour} behind any run still in progress, so a slow hour delays the next
+     * one instead of dropping it. An hour that is already pending is not queued twice.
+     */
+    void queueRun(int hour) {
+        int ahead;
+        synchronized (pendingHours) {
+            if (!pendingHours.add(hour)) {
+                logger.warn("The {}:00 UTC digest run is still pending, not queuing it again", hour);
+                return;
+            }
+            ahead = pendingHours.size() - 1;
+        }
+        if (ahead > 0) {
+            delayedRunCounter.increment();
+            logger.warn("Digest delivery is falling behind: the {}:00 UTC run waits for {} earlier run(s)", hour, ahead);
+        }
+
+        executor.execute(() -> {
+            try {
+                broadcast(hour);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Digest run for {}:00 UTC failed", hour, e);
+            } finally {
+                synchronized (pendingHours) {
+                    pendingHours.remove(hour);
+                }
+            }
+        });
+    }
+
+    public int getPendingRunCount() {
+        synchronized (pendingHours) {
+            return pendingHours.size();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public DigestRun broadcast(int hour) throws InterruptedException {
+        long startTime = System.nanoTime();
+        Map<String, List<Long>> groups = subscriptionService.groupDigestRecipients(hour);
+        if (groups.isEmpty()) {
+            return new DigestRun(0, 0);
+        }
+
+        Map<String, Cryptocurrency> coins = new HashMap<>();
+        for (Cryptocurrency crypto : cryptocurrencyService.getAllCryptocurrencies()) {
+            coins.put(crypto.getSymbol().toUpperCase(), crypto);
+        }
+        List<Cryptocurrency> topCoins = cryptocurrencyService.getTopByMarketCap(DEFAULT_LIST_SIZE);
+        List<NewsSummary> headlines = newsService.getLatestNews(headlineCount);
+
+        int threshold = Math.max(1, Math.min(maxQueued, sendQueue.getCapacity() / 2));
+        int queuedCount = 0;
+        for (Map.Entry<String, List<Long>> group : groups.entrySet()) {
+            String text = renderDigest(ChatSubscription.parseWatchlist(group.getKey()), coins, topCoins, headlines);
+            for (Long chatId : group.getValue()) {
+                if (!sendQueue.awaitQueuedBelow(threshold, queueWaitMinutes, TimeUnit.MINUTES)) {
+                    logger.error("Telegram send queue did not drain, abandoning digest run after {} messages", queuedCount);
+                    return new DigestRun(queuedCount, groups.size());
+                }
+                SendMessage message = new SendMessage(String.valueOf(chatId), text);
+                message.setParseMode("Markdown");
+                message.setDisableWebPagePreview(true);
+                sendQueue.enqueue(chatId, TelegramSendQueue.Priority.BROADCAST, message);
+                queuedCount++;
+            }
+        }
+
+        recipientCounter.increment(queuedCount);
+        runTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        logger.info("Queued the {}:00 UTC digest for {} chats from {} distinct messages", hour, queuedCount, groups.size());
+        return new DigestRun(queuedCount, groups.size());
+    }
+
+    static String renderDigest(List<String> watchlist, Map<String, Cryptocurrency> coins,
+                               List<Cryptocurrency> topCoins, List<NewsSummary> headlines) {
+        StringBuilder message = new StringBuilder("☀️ *Ваш дайджест*\n\n");
+
+        List<Cryptocurrency> listed = watchlist.isEmpty()
+                ? topCoins
+                : watchlist.stream().map(coins::get).filter(Objects::nonNull).toList();
+        message.append(watchlist.isEmpty() ? "🔥 *Топ по капитализации:*\n\n" : "👀 *Ваш список наблюдения:*\n\n");
+        for (int i = 0; i < listed.size(); i++) {
+            message.append(formatCryptocurrencyInfo(i + 1, listed.get(i)));
+        }
+
+        if (!headlines.isEmpty()) {
+            message.append("📰 *Главные новости:*\n\n");
+            for (NewsSummary news : headlines) {
+                message.append(formatNewsItem(news));
+            }
+        }
+
+        message.append("_Список: /watch, /unwatch. Отключить: /digest off_");
+        return message.toString();
+    }
+
+    public static class DigestRun {
+        private final int recipients;
+        private final int distinctMessages;
+
+        DigestRun(int recipients, int distinctMessages) {
+            this.recipients = recipients;
+            this.distinctMessages = distinctMessages;
+        }
+
+        public int getRecipients() {
+            return recipients;
+        }
+
+        public int getDistinctMessages() {
+            return distinctMessages;
+        }
+    }
+}
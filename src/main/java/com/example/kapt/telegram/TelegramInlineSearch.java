@@ -0,0 +1,159 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.event.CryptocurrencyIngestedEvent;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.search.PrefixIndex;
+import com.example.kapt.service.CryptocurrencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.telegram.telegrambots.meta.api.methods.AnswerInlineQuery;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.InlineQuery;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.inputmessagecontent.InputTextMessageContent;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.result.InlineQueryResult;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.result.InlineQueryResultArticle;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatCryptocurrencyDetails;
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatPrice;
+
+/**
+ * Answers inline queries ({@code @bot btc}) from a prefix index over coin symbols and names. The index and
+ * the result articles are rebuilt after each ingest, so answering a keystroke never touches the database.
+ */
+@Component
+public class TelegramInlineSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelegramInlineSearch.class);
+
+    // Telegram accepts at most 50 results per answer
+    private static final int MAX_TELEGRAM_RESULTS = 50;
+
+    private static final Comparator<Cryptocurrency> BY_MARKET_CAP = Comparator
+            .comparing(Cryptocurrency::getMarketCapRank, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Cryptocurrency::getMarketCap, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Cryptocurrency::getSymbol, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final CryptocurrencyService cryptocurrencyService;
+    private final int maxResults;
+    private final int cacheTimeSeconds;
+    private final AtomicReference<PrefixIndex<CoinEntry>> index = new AtomicReference<>();
+
+    public TelegramInlineSearch(CryptocurrencyService cryptocurrencyService,
+                                @Value("${app.telegram.inline.max-results:20}") int maxResults,
+                                @Value("${app.telegram.inline.cache-time-seconds:30}") int cacheTimeSeconds) {
+        this.cryptocurrencyService = cryptocurrencyService;
+        this.maxResults = Math.max(1, Math.min(maxResults, MAX_TELEGRAM_RESULTS));
+        this.cacheTimeSeconds = cacheTimeSeconds;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCryptocurrencyIngested(CryptocurrencyIngestedEvent event) {
+        if (!event.hasChanges()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Could not rebuild the inline search index, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    public AnswerInlineQuery answer(InlineQuery inlineQuery) {
+        List<InlineQueryResult> results = new ArrayList<>(search(inlineQuery.getQuery()));
+
+        AnswerInlineQuery answer = new AnswerInlineQuery(inlineQuery.getId(), results);
+        answer.setCacheTime(cacheTimeSeconds);
+        answer.setIsPersonal(false);
+        return answer;
+    }
+
+    public List<InlineQueryResultArticle> search(String query) {
+        return current().lookup(query).stream().map(CoinEntry::getArticle).toList();
+    }
+
+    /**
+     * Loads every coin once and publishes a fresh index; returns the number of indexed coins.
+     */
+    public int rebuild() {
+        return build().size();
+    }
+
+    private PrefixIndex<CoinEntry> build() {
+        long startTime = System.currentTimeMillis();
+        List<Cryptocurrency> ranked = new ArrayList<>(cryptocurrencyService.getAllCryptocurrencies());
+        ranked.removeIf(crypto -> crypto.getSymbol() == null);
+        ranked.sort(BY_MARKET_CAP);
+
+        List<CoinEntry> entries = ranked.stream()
+                .map(crypto -> new CoinEntry(searchKeys(crypto), toArticle(crypto)))
+                .toList();
+        PrefixIndex<CoinEntry> next = PrefixIndex.build(entries, CoinEntry::getKeys, maxResults);
+        index.set(next);
+        logger.debug("Built inline search index over {} coins in {} ms", next.size(), System.currentTimeMillis() - startTime);
+        return next;
+    }
+
+    private PrefixIndex<CoinEntry> current() {
+        PrefixIndex<CoinEntry> current = index.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = index.get();
+            return current != null ? current : build();
+        }
+    }
+
+    private static InlineQueryResultArticle toArticle(Cryptocurrency crypto) {
+        InputTextMessageContent content = new InputTextMessageContent(formatCryptocurrencyDetails(crypto));
+        content.setParseMode("Markdown");
+
+        String symbol = crypto.getSymbol().toUpperCase(Locale.ROOT);
+        String title = crypto.getName() != null ? crypto.getName() + " (" + symbol + ")" : symbol;
+        InlineQueryResultArticle article = new InlineQueryResultArticle(symbol, title, content);
+        BigDecimal change = crypto.getPriceChangePercentage24h();
+        article.setDescription(String.format(Locale.US, "%s  📈 %.2f%%", formatPrice(crypto.getCurrentPrice()),
+                change != null ? change : BigDecimal.ZERO));
+        return article;
+    }
+
+    // The symbol, the full name, and each later word of the name ("inu" finds Shiba Inu)
+    private static List<String> searchKeys(Cryptocurrency crypto) {
+        List<String> keys = new ArrayList<>();
+        keys.add(crypto.getSymbol());
+        if (crypto.getName() != null) {
+            keys.add(crypto.getName());
+            String[] words = crypto.getName().trim().split("\\s+");
+            keys.addAll(Arrays.asList(words).subList(1, words.length));
+        }
+        return keys;
+    }
+
+    private static class CoinEntry {
+        private final List<String> keys;
+        private final InlineQueryResultArticle article;
+
+        CoinEntry(List<String> keys, InlineQueryResultArticle article) {
+            this.keys = keys;
+            this.article = article;
+        }
+
+        List<String> getKeys() {
+            return keys;
+        }
+
+        InlineQueryResultArticle getArticle() {
+            return article;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.dto.NewsSummary;
+import com.example.kapt.model.Cryptocurrency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Markdown fragments shared by the bot and the pre-rendered response cache.
+ */
+public final class TelegramMessageFormatter {
+
+    // NumberFormat is not thread-safe and formatting runs on dispatcher and ingest threads
+    private static final ThreadLocal<NumberFormat> CURRENCY_FORMAT =
+            ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(Locale.US));
+
+    private static final BigDecimal TRILLION = new BigDecimal("1000000000000");
+    private static final BigDecimal BILLION = new BigDecimal("1000000000");
+    private static final BigDecimal MILLION = new BigDecimal("1000000");
+
+    private TelegramMessageFormatter() {
+    }
+
+    public static String formatCryptocurrencyInfo(int rank, Cryptocurrency crypto) {
+        return String.format(
+                "%d. *%s* (%s)\n" +
+                        "   💰 %s  📈 %.2f%%\n\n",
+                rank,
+                crypto.getName(),
+                crypto.getSymbol(),
+                formatPrice(crypto.getCurrentPrice()),
+                crypto.getPriceChangePercentage24h() != null ? crypto.getPriceChangePercentage24h() : BigDecimal.ZERO
+        );
+    }
+
+    public static String formatCryptocurrencyDetails(Cryptocurrency c) {
+        return String.format(
+                "*%s (%s)*\n\n" +
+                        "💰 Цена: %s\n" +
+                        "📈 Изменение (24ч): %.2f%%\n" +
+                        "💎 Рыночная капитализация: %s\n" +
+                        "📊 Объем торгов (24ч): %s\n" +
+                        "🏆 Ранг: #%d\n" +
+                        "🔄 Обновлено: %s",
+                c.getName(),
+                c.getSymbol(),
+                formatPrice(c.getCurrentPrice()),
+                c.getPriceChangePercentage24h(),
+                formatLargeNumber(c.getMarketCap()),
+                formatLargeNumber(c.getTotalVolume()),
+                c.getMarketCapRank(),
+                c.getLastUpdated() != null ? c.getLastUpdated().toString().substring(0, 16).replace("T", " ") : "N/A"
+        );
+    }
+
+    public static String formatPrice(BigDecimal price) {
+        if (price == null) return "N/A";
+        if (price.compareTo(BigDecimal.ONE) < 0 && price.compareTo(BigDecimal.ZERO) != 0) {
+            return String.format(Locale.US, "$%.6f", price);
+        } else {
+            return CURRENCY_FORMAT.get().format(price);
+        }
+    }
+
+    public static String formatLargeNumber(BigDecimal number) {
+        if (number == null) return "N/A";
+
+        if (number.compareTo(TRILLION) >= 0) {
+            return String.format(Locale.US, "%.2fT", number.divide(TRILLION, 2, RoundingMode.HALF_UP));
+        }
+        if (number.compareTo(BILLION) >= 0) {
+            return String.format(Locale.US, "%.2fB", number.divide(BILLION, 2, RoundingMode.HALF_UP));
+        }
+        if (number.compareTo(MILLION) >= 0) {
+            return String.format(Locale.US, "%.2fM", number.divide(MILLION, 2, RoundingMode.HALF_UP));
+        }
+        return CURRENCY_FORMAT.get().format(number.setScale(0, RoundingMode.HALF_UP));
+    }
+
+    public static String formatNewsItem(NewsSummary news) {
+        String formattedDate = "Неизвестно";
+        if (news.getPubDate() != null) {
+            formattedDate = news.getPubDate().toString().substring(0, 16).replace("T", " ");
+        }
+
+        String title = news.getTitle().replace("*", "\\*").replace("_", "\\_");
+
+        return String.format(
+                "• *%s*\n  📅 %s\n  🔗 [Читать полностью](%s)\n\n",
+                title,
+                formattedDate,
+                news.getLink()
+        );
+    }
+}
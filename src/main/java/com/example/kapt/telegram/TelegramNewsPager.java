@@ -0,0 +1,216 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.dto.NewsSummary;
+import com.example.kapt.event.NewsIngestedEvent;
+import com.example.kapt.service.NewsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatNewsItem;
+
+/**
+ * Renders the bot's news pages with keyset cursors. Navigation buttons carry the (pubDate, id) of the
+ * page edge in their callback data, so every page is a single limited, indexed query no matter how deep
+ * the reader goes. Rendered pages are kept in a small LRU cache that is cleared after each ingest.
+ */
+@Component
+public class TelegramNewsPager {
+
+    static final String OLDER_PREFIX = "news_after_";
+    static final String NEWER_PREFIX = "news_before_";
+    static final String LEGACY_PREFIX = "news_more_";
+    private static final String FIRST_PAGE_KEY = "news_first";
+    private static final int PAGE_SIZE = 5;
+    private static final int RECENT_HOURS = 24;
+    private static final String FOOTER = "💡 _Данные обновляются автоматически каждый час_";
+
+    private final NewsService newsService;
+    private final Duration cacheTtl;
+    private final Map<String, NewsPage> cache;
+    // Bumped by every clear, so a page loaded across an ingest is served once but never cached
+    private long generation;
+
+    public TelegramNewsPager(NewsService newsService,
+                             @Value("${app.telegram.news-pages.cache-size:64}") int cacheSize,
+                             @Value("${app.telegram.news-pages.cache-ttl-seconds:300}") long cacheTtlSeconds) {
+        this.newsService = newsService;
+        this.cacheTtl = Duration.ofSeconds(cacheTtlSeconds);
+        int maxEntries = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NewsPage> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsIngested(NewsIngestedEvent event) {
+        if (event.hasChanges()) {
+            synchronized (cache) {
+                cache.clear();
+                generation++;
+            }
+        }
+    }
+
+    public static boolean isPageCallback(String callbackData) {
+        return callbackData.startsWith(OLDER_PREFIX) || callbackData.startsWith(NEWER_PREFIX)
+                || callbackData.startsWith(LEGACY_PREFIX);
+    }
+
+    /**
+     * The /news page: the newest articles of the last 24 hours, with a button into the older feed.
+     */
+    public NewsPage firstPage() {
+        return cached(FIRST_PAGE_KEY, () -> {
+            List<NewsSummary> fetched = newsService.getNewsPageOlderThan(null, null, PAGE_SIZE + 1);
+            LocalDateTime since = LocalDateTime.now().minusHours(RECENT_HOURS);
+            List<NewsSummary> recent = fetched.stream()
+                    .limit(PAGE_SIZE)
+                    .filter(news -> news.getPubDate() != null && !news.getPubDate().isBefore(since))
+                    .toList();
+
+            if (recent.isEmpty()) {
+                return NewsPage.empty("📰 Нет новых статей за последние 24 часа.\n\n" +
+                        "Попробуйте позже или используйте другие команды для получения информации о криптовалютах.");
+            }
+
+            String olderCursor = fetched.size() > recent.size() ? cursor(OLDER_PREFIX, recent.get(recent.size() - 1)) : null;
+            return render("📰 *Последние новости о криптовалютах (24ч):*\n\n", recent, null, olderCursor);
+        });
+    }
+
+    /**
+     * The page a navigation button points to. Callback data from messages sent before cursors were
+     * introduced falls back to the newest page.
+     */
+    public NewsPage page(String callbackData) {
+        if (callbackData.startsWith(LEGACY_PREFIX)) {
+            return cached(OLDER_PREFIX, () -> olderPage(null, null));
+        }
+
+        boolean older = callbackData.startsWith(OLDER_PREFIX);
+        String[] parts = callbackData.substring(older ? OLDER_PREFIX.length() : NEWER_PREFIX.length()).split("_");
+        LocalDateTime pubDate = fromEpochMicros(Long.parseLong(parts[0]));
+        Long id = Long.parseLong(parts[1]);
+
+        return cached(callbackData, () -> older ? olderPage(pubDate, id) : newerPage(pubDate, id));
+    }
+
+    private NewsPage olderPage(LocalDateTime pubDate, Long id) {
+        List<NewsSummary> fetched = newsService.getNewsPageOlderThan(pubDate, id, PAGE_SIZE + 1);
+        if (fetched.isEmpty()) {
+            return NewsPage.empty("📰 *Больше новостей нет*\n\nВы просмотрели все доступные новости.");
+        }
+
+        List<NewsSummary> page = fetched.subList(0, Math.min(PAGE_SIZE, fetched.size()));
+        String newerCursor = pubDate != null ? cursor(NEWER_PREFIX, page.get(0)) : null;
+        String olderCursor = fetched.size() > PAGE_SIZE ? cursor(OLDER_PREFIX, page.get(page.size() - 1)) : null;
+        return render("📰 *Новости о криптовалютах:*\n\n", page, newerCursor, olderCursor);
+    }
+
+    private NewsPage newerPage(LocalDateTime pubDate, Long id) {
+        List<NewsSummary> fetched = newsService.getNewsPageNewerThan(pubDate, id, PAGE_SIZE + 1);
+        if (fetched.isEmpty()) {
+            return olderPage(null, null);
+        }
+
+        // fetched is newest first, so any extra row sits at the head
+        List<NewsSummary> page = fetched.subList(Math.max(0, fetched.size() - PAGE_SIZE), fetched.size());
+        String newerCursor = fetched.size() > PAGE_SIZE ? cursor(NEWER_PREFIX, page.get(0)) : null;
+        String olderCursor = cursor(OLDER_PREFIX, page.get(page.size() - 1));
+        return render("📰 *Новости о криптовалютах:*\n\n", page, newerCursor, olderCursor);
+    }
+
+    private NewsPage render(String header, List<NewsSummary> page, String newerCursor, String olderCursor) {
+        StringBuilder message = new StringBuilder(header);
+        for (NewsSummary news : page) {
+            message.append(formatNewsItem(news));
+        }
+        message.append(FOOTER);
+        return new NewsPage(message.toString(), newerCursor, olderCursor, false);
+    }
+
+    private NewsPage cached(String key, Supplier<NewsPage> loader) {
+        Instant now = Instant.now();
+        long loadGeneration;
+        synchronized (cache) {
+            NewsPage page = cache.get(key);
+            if (page != null && page.renderedAt.plus(cacheTtl).isAfter(now)) {
+                return page;
+            }
+            loadGeneration = generation;
+        }
+
+        NewsPage page = loader.get();
+        synchronized (cache) {
+            if (generation == loadGeneration) {
+                cache.put(key, page);
+            }
+        }
+        return page;
+    }
+
+    static String cursor(String prefix, NewsSummary news) {
+        return prefix + toEpochMicros(news.getPubDate()) + "_" + news.getId();
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    public static class NewsPage {
+        private final String text;
+        private final String newerCursor;
+        private final String olderCursor;
+        private final boolean empty;
+        private final Instant renderedAt = Instant.now();
+
+        NewsPage(String text, String newerCursor, String olderCursor, boolean empty) {
+            this.text = text;
+            this.newerCursor = newerCursor;
+            this.olderCursor = olderCursor;
+            this.empty = empty;
+        }
+
+        static NewsPage empty(String text) {
+            return new NewsPage(text, null, null, true);
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getNewerCursor() {
+            return newerCursor;
+        }
+
+        public String getOlderCursor() {
+            return olderCursor;
+        }
+
+        public boolean isEmpty() {
+            return empty;
+        }
+
+        public boolean hasNavigation() {
+            return newerCursor != null || olderCursor != null;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.event.CryptocurrencyIngestedEvent;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.service.CryptocurrencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatCryptocurrencyInfo;
+import static com.example.kapt.telegram.TelegramMessageFormatter.formatLargeNumber;
+
+/**
+ * Holds the rendered text of the market commands for the current cryptocurrency data generation.
+ * The snapshot is rebuilt once after each ingest and swapped in atomically, so serving a command
+ * never touches the database. Rebuilds run one at a time, so a slow one cannot publish its older
+ * reads over a newer generation.
+ */
+@Component
+public class TelegramResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelegramResponseCache.class);
+    private static final int LIST_SIZE = 10;
+
+    private final CryptocurrencyService cryptocurrencyService;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public TelegramResponseCache(CryptocurrencyService cryptocurrencyService) {
+        this.cryptocurrencyService = cryptocurrencyService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCryptocurrencyIngested(CryptocurrencyIngestedEvent event) {
+        if (!event.hasChanges()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Could not rebuild Telegram responses, keeping generation {}: {}",
+                    snapshot.get() != null ? snapshot.get().getGeneration() : 0, e.getMessage());
+        }
+    }
+
+    public Response getTop() {
+        return current().getTop();
+    }
+
+    public Response getGainers() {
+        return current().getGainers();
+    }
+
+    public Response getLosers() {
+        return current().getLosers();
+    }
+
+    public Response getStats() {
+        return current().getStats();
+    }
+
+    public long getGeneration() {
+        Snapshot current = snapshot.get();
+        return current != null ? current.getGeneration() : 0;
+    }
+
+    /**
+     * Renders every cached command from the database and publishes the result as the next generation.
+     */
+    public synchronized Snapshot rebuild() {
+        long startTime = System.currentTimeMillis();
+        Snapshot previous = snapshot.get();
+        Snapshot next = new Snapshot(
+                previous != null ? previous.getGeneration() + 1 : 1,
+                renderList(cryptocurrencyService.getTopByMarketCap(LIST_SIZE),
+                        "🔥 *Топ-10 криптовалют по рыночной капитализации:*\n\n",
+                        "Данные пока не загружены. Попробуйте позже."),
+                renderList(cryptocurrencyService.getTopGainers(LIST_SIZE),
+                        "📈 *Топ-10 лидеров роста (24ч):*\n\n",
+                        "Данные о лидерах роста пока недоступны."),
+                renderList(cryptocurrencyService.getTopLosers(LIST_SIZE),
+                        "📉 *Топ-10 лидеров падения (24ч):*\n\n",
+                        "Данные о лидерах падения пока недоступны."),
+                renderStats(cryptocurrencyService.getMarketStatistics()));
+        snapshot.set(next);
+        logger.debug("Rendered Telegram responses generation {} in {} ms",
+                next.getGeneration(), System.currentTimeMillis() - startTime);
+        return next;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get();
+            return current != null ? current : rebuild();
+        }
+    }
+
+    private static Response renderList(List<Cryptocurrency> cryptocurrencies, String header, String emptyText) {
+        if (cryptocurrencies.isEmpty()) {
+            return new Response(emptyText, false);
+        }
+
+        StringBuilder message = new StringBuilder(header);
+        for (int i = 0; i < cryptocurrencies.size(); i++) {
+            message.append(formatCryptocurrencyInfo(i + 1, cryptocurrencies.get(i)));
+        }
+        return new Response(message.toString(), true);
+    }
+
+    private static Response renderStats(CryptocurrencyService.MarketStatistics stats) {
+        String statsMessage = String.format(
+                "📊 *Статистика рынка криптовалют:*\n\n" +
+                        "💰 Общая капитализация: $%s\n" +
+                        "📈 Количество криптовалют: %d\n" +
+                        "📊 Средн. изменение (24ч): %.2f%%\n" +
+                        "🚀 Макс. рост (24ч): %.2f%%\n" +
+                        "📉 Макс. падение (24ч): %.2f%%",
+                formatLargeNumber(stats.getTotalMarketCap()),
+                stats.getTotalCount(),
+                stats.getAvgPriceChange(),
+                stats.getMaxPriceChange(),
+                stats.getMinPriceChange()
+        );
+        return new Response(statsMessage, true);
+    }
+
+    public static class Snapshot {
+        private final long generation;
+        private final Response top;
+        private final Response gainers;
+        private final Response losers;
+        private final Response stats;
+
+        Snapshot(long generation, Response top, Response gainers, Response losers, Response stats) {
+            this.generation = generation;
+            this.top = top;
+            this.gainers = gainers;
+            this.losers = losers;
+            this.stats = stats;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public Response getTop() {
+            return top;
+        }
+
+        public Response getGainers() {
+            return gainers;
+        }
+
+        public Response getLosers() {
+            return losers;
+        }
+
+        public Response getStats() {
+            return stats;
+        }
+    }
+
+    public static class Response {
+        private final String text;
+        private final boolean markdown;
+
+        Response(String text, boolean markdown) {
+            this.text = text;
+            this.markdown = markdown;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public boolean isMarkdown() {
+            return markdown;
+        }
+    }
+}
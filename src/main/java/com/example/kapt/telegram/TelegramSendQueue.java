@@ -0,0 +1,331 @@
+package com.example.kapt.telegram;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Paces outbound Telegram API calls against the bot-wide and per-chat flood limits. Each chat has its own
+ * priority queue and at most one call in flight, so a chat's messages are delivered in order. Among chats
+ * that are allowed to send, the oldest message of the highest priority goes first. A 429 response
+ * re-queues the message and holds the chat for the {@code retry_after} Telegram asks for.
+ * <p>
+ * The limits are counted in this process only. Telegram applies them per bot, so the bot must run as a single
+ * instance in both polling and webhook mode.
+ */
+@Component
+public class TelegramSendQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelegramSendQueue.class);
+    private static final long GLOBAL_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public enum Priority {
+        INTERACTIVE,
+        ALERT,
+        BROADCAST
+    }
+
+    private final Supplier<AbsSender> senderSupplier;
+    private final MeterRegistry meterRegistry;
+    private final int messagesPerSecond;
+    private final long perChatIntervalNanos;
+    private final int capacity;
+    private final int maxRetries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final Map<Long, ChatQueue> chats = new HashMap<>();
+    private final Deque<Long> recentSends = new ArrayDeque<>();
+    private final ExecutorService sendExecutor;
+    private long sequence;
+    private int queued;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    @Autowired
+    public TelegramSendQueue(ObjectProvider<AbsSender> senderProvider,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.telegram.send-queue.messages-per-second:30}") int messagesPerSecond,
+                             @Value("${app.telegram.send-queue.per-chat-interval-ms:1000}") long perChatIntervalMs,
+                             @Value("${app.telegram.send-queue.capacity:10000}") int capacity,
+                             @Value("${app.telegram.send-queue.max-retries:3}") int maxRetries,
+                             @Value("${app.telegram.send-queue.sender-threads:4}") int senderThreads) {
+        this(senderProvider::getObject, meterRegistry, messagesPerSecond, perChatIntervalMs, capacity, maxRetries, senderThreads);
+    }
+
+    TelegramSendQueue(Supplier<AbsSender> senderSupplier, MeterRegistry meterRegistry, int messagesPerSecond,
+                      long perChatIntervalMs, int capacity, int maxRetries, int senderThreads) {
+        this.senderSupplier = senderSupplier;
+        this.meterRegistry = meterRegistry;
+        this.messagesPerSecond = Math.max(1, messagesPerSecond);
+        this.perChatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, perChatIntervalMs));
+        this.capacity = Math.max(1, capacity);
+        this.maxRetries = Math.max(0, maxRetries);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sendExecutor = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "telegram-send-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("telegram.send.queue.size", this, TelegramSendQueue::getQueuedCount)
+                .description("Outbound Telegram calls waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "telegram-send-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        sendExecutor.shutdown();
+    }
+
+    /**
+     * Queues an API call for the given chat. The returned future completes when Telegram accepts the call,
+     * or exceptionally when it is rejected, dropped because the queue is full, or runs out of retries.
+     */
+    public CompletableFuture<Void> enqueue(long chatId, Priority priority, BotApiMethod<?> method) {
+        OutboundMessage message;
+        lock.lock();
+        try {
+            if (queued >= capacity) {
+                meterRegistry.counter("telegram.send.messages", "priority", priority.name(), "outcome", "dropped").increment();
+                logger.warn("Telegram send queue is full, dropping {} message for chat {}", priority, chatId);
+                return CompletableFuture.failedFuture(new IllegalStateException("Telegram send queue is full"));
+            }
+            message = new OutboundMessage(chatId, priority, method, sequence++, System.nanoTime());
+            chats.computeIfAbsent(chatId, ChatQueue::new).messages.add(message);
+            queued++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return message.result;
+    }
+
+    /**
+     * Blocks until fewer than {@code threshold} calls are queued, so a bulk producer can keep its backlog
+     * below the capacity interactive replies rely on. Returns false if the timeout elapses first.
+     */
+    public boolean awaitQueuedBelow(int threshold, long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (queued >= threshold) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = drained.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getQueuedCount() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                OutboundMessage next = takeNext();
+                sendExecutor.execute(() -> send(next));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Telegram send dispatcher failed", e);
+            }
+        }
+    }
+
+    private OutboundMessage takeNext() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                while (!recentSends.isEmpty() && now - recentSends.peekFirst() >= GLOBAL_WINDOW_NANOS) {
+                    recentSends.pollFirst();
+                }
+
+                long waitNanos;
+                if (recentSends.size() >= messagesPerSecond) {
+                    waitNanos = recentSends.peekFirst() + GLOBAL_WINDOW_NANOS - now;
+                } else {
+                    ChatQueue best = null;
+                    long earliestReady = Long.MAX_VALUE;
+                    for (Iterator<ChatQueue> iterator = chats.values().iterator(); iterator.hasNext(); ) {
+                        ChatQueue chat = iterator.next();
+                        if (chat.inFlight) {
+                            continue;
+                        }
+                        if (chat.messages.isEmpty()) {
+                            // An idle chat is kept until its interval has passed, so its next message still waits for it
+                            if (chat.readyAt - now <= 0) {
+                                iterator.remove();
+                            }
+                            continue;
+                        }
+                        if (chat.readyAt - now > 0) {
+                            earliestReady = Math.min(earliestReady, chat.readyAt - now);
+                        } else if (best == null || OutboundMessage.ORDER.compare(chat.messages.peek(), best.messages.peek()) < 0) {
+                            best = chat;
+                        }
+                    }
+
+                    if (best != null) {
+                        best.inFlight = true;
+                        queued--;
+                        drained.signalAll();
+                        recentSends.addLast(now);
+                        return best.messages.poll();
+                    }
+                    waitNanos = earliestReady;
+                }
+
+                if (waitNanos == Long.MAX_VALUE) {
+                    changed.await();
+                } else {
+                    changed.awaitNanos(waitNanos);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void send(OutboundMessage message) {
+        long retryAfterNanos = 0;
+        boolean requeue = false;
+        try {
+            senderSupplier.get().execute(message.method);
+            recordOutcome(message, "sent");
+            meterRegistry.timer("telegram.send.latency", "priority", message.priority.name())
+                    .record(System.nanoTime() - message.enqueuedAt, TimeUnit.NANOSECONDS);
+            message.result.complete(null);
+        } catch (TelegramApiRequestException e) {
+            Integer retryAfter = e.getParameters() != null ? e.getParameters().getRetryAfter() : null;
+            if (Integer.valueOf(429).equals(e.getErrorCode()) && message.attempts < maxRetries) {
+                message.attempts++;
+                retryAfterNanos = TimeUnit.SECONDS.toNanos(retryAfter != null ? retryAfter : 1);
+                requeue = true;
+                recordOutcome(message, "retried");
+                logger.warn("Telegram rate limited chat {}, retrying in {} s", message.chatId, retryAfter);
+            } else {
+                fail(message, e);
+            }
+        } catch (TelegramApiException | RuntimeException e) {
+            fail(message, e);
+        } finally {
+            release(message, requeue, retryAfterNanos);
+        }
+    }
+
+    private void release(OutboundMessage message, boolean requeue, long retryAfterNanos) {
+        lock.lock();
+        try {
+            ChatQueue chat = chats.get(message.chatId);
+            chat.inFlight = false;
+            chat.readyAt = System.nanoTime() + Math.max(perChatIntervalNanos, retryAfterNanos);
+            if (requeue) {
+                chat.messages.add(message);
+                queued++;
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fail(OutboundMessage message, Exception e) {
+        recordOutcome(message, "failed");
+        logger.error("Error sending {} to chat {}: {}", message.method.getMethod(), message.chatId, e.getMessage());
+        message.result.completeExceptionally(e);
+    }
+
+    private void recordOutcome(OutboundMessage message, String outcome) {
+        meterRegistry.counter("telegram.send.messages", "priority", message.priority.name(), "outcome", outcome).increment();
+    }
+
+    private static class ChatQueue {
+        private final PriorityQueue<OutboundMessage> messages = new PriorityQueue<>(OutboundMessage.ORDER);
+        private long readyAt;
+        private boolean inFlight;
+
+        ChatQueue(Long chatId) {
+            this.readyAt = System.nanoTime();
+        }
+    }
+
+    private static class OutboundMessage {
+        private static final Comparator<OutboundMessage> ORDER = Comparator
+                .comparing((OutboundMessage message) -> message.priority)
+                .thenComparingLong(message -> message.sequence);
+
+        private final long chatId;
+        private final Priority priority;
+        private final BotApiMethod<?> method;
+        private final long sequence;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private int attempts;
+
+        OutboundMessage(long chatId, Priority priority, BotApiMethod<?> method, long sequence, long enqueuedAt) {
+            this.chatId = chatId;
+            this.priority = priority;
+            this.method = method;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.kapt.telegram;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Telegram update handlers off the long-polling thread. Updates are striped by chat id onto
+ * single-threaded executors, so one chat is always handled in order while different chats run in parallel.
+ * When a stripe's queue is full the polling thread waits, which leaves further updates buffered on Telegram's side.
+ */
+@Component
+public class TelegramUpdateDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelegramUpdateDispatcher.class);
+
+    private final ThreadPoolExecutor[] stripes;
+    private final MeterRegistry meterRegistry;
+
+    public TelegramUpdateDispatcher(@Value("${app.telegram.dispatcher.stripes:8}") int stripeCount,
+                                    @Value("${app.telegram.dispatcher.queue-capacity:100}") int queueCapacity,
+                                    MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stripes = new ThreadPoolExecutor[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            String threadName = "telegram-handler-" + i;
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> waitForCapacity(runnable, executor));
+        }
+
+        Gauge.builder("telegram.dispatcher.queue.size", this, TelegramUpdateDispatcher::getQueuedCount)
+                .description("Telegram updates waiting for a handler thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a handler behind earlier updates of the same chat. Updates without a chat share stripe 0.
+     */
+    public void dispatch(Long chatId, String updateType, Runnable handler) {
+        Timer timer = Timer.builder("telegram.update.handler.duration")
+                .tag("type", updateType)
+                .register(meterRegistry);
+        long queuedAt = System.nanoTime();
+
+        stripeFor(chatId).execute(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                handler.run();
+            } catch (Exception e) {
+                logger.error("Unhandled error in Telegram {} handler for chat {}", updateType, chatId, e);
+            } finally {
+                long finishedAt = System.nanoTime();
+                timer.record(finishedAt - startedAt, TimeUnit.NANOSECONDS);
+                meterRegistry.timer("telegram.update.queue.wait", "type", updateType)
+                        .record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    public int getQueuedCount() {
+        int queued = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            queued += stripe.getQueue().size();
+        }
+        return queued;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        for (ThreadPoolExecutor stripe : stripes) {
+            try {
+                if (!stripe.awaitTermination(5, TimeUnit.SECONDS)) {
+                    stripe.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stripe.shutdownNow();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor stripeFor(Long chatId) {
+        if (chatId == null) {
+            return stripes[0];
+        }
+        return stripes[Math.floorMod(Long.hashCode(chatId), stripes.length)];
+    }
+
+    private static void waitForCapacity(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Telegram dispatcher is shut down");
+        }
+        try {
+            executor.getQueue().put(runnable);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a Telegram handler slot", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+-- Article bodies move out of the news heap into their own table, stored once and compressed.
+-- news.description keeps the summary that search reads; news_content only holds a body that differs
+-- from it. Alpha Vantage sends a summary only, so new articles no longer carry their text twice.
+CREATE TABLE news_content
+(
+    news_id    BIGINT PRIMARY KEY,
+    pub_date   TIMESTAMP NOT NULL,
+    body       TEXT      NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- lz4 is faster than the default pglz; servers built without it keep pglz
+DO
+$$
+BEGIN
+ALTER TABLE news_content ALTER COLUMN body SET COMPRESSION lz4;
+EXCEPTION
+    WHEN feature_not_supported THEN
+        RAISE NOTICE 'lz4 is not available, news_content.body uses pglz';
+END
+$$;
+
+-- Compress bodies from 128 bytes of row on instead of only past the default ~2 kB
+ALTER TABLE news_content SET (toast_tuple_target = 128);
+
+-- news is partitioned with a (id, pub_date) key, so there is no foreign key; retention deletes by pub_date
+CREATE INDEX idx_news_content_pub_date ON news_content (pub_date);
+
+INSERT INTO news_content (news_id, pub_date, body)
+SELECT id, pub_date, content
+FROM news
+WHERE content IS NOT NULL
+  AND content IS DISTINCT FROM description;
+
+-- Existing pages keep the dropped column's bytes until they are rewritten; new rows are narrower
+ALTER TABLE news DROP COLUMN content;
+
+COMMENT
+ON TABLE news_content IS 'Full article bodies, loaded only when a single article is requested';
+COMMENT
+ON COLUMN news_content.pub_date IS 'Copy of news.pub_date so retention can purge bodies by date';
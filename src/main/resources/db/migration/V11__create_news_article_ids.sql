@@ -0,0 +1,30 @@
+-- news is partitioned by pub_date, so its unique key is (article_id, pub_date) and an article re-fetched with
+-- a shifted pub_date, or written by two ingests at once, could be stored twice. This unpartitioned registry
+-- keeps article_id unique across partitions; the ingest pipeline writes it in the same transaction as news.
+CREATE TABLE news_article_ids
+(
+    article_id VARCHAR(255) PRIMARY KEY,
+    news_id    BIGINT    NOT NULL,
+    pub_date   TIMESTAMP NOT NULL
+);
+
+-- Retention deletes registry entries by the pub_date of their article
+CREATE INDEX idx_news_article_ids_pub_date ON news_article_ids (pub_date);
+
+-- Keep the most recently updated copy of any article already stored twice
+DELETE
+FROM news n
+    USING news newer
+WHERE n.article_id = newer.article_id
+  AND (newer.updated_at, newer.id) > (n.updated_at, n.id);
+
+DELETE
+FROM news_content c
+WHERE NOT EXISTS (SELECT 1 FROM news n WHERE n.id = c.news_id);
+
+INSERT INTO news_article_ids (article_id, news_id, pub_date)
+SELECT article_id, id, pub_date
+FROM news;
+
+COMMENT
+ON TABLE news_article_ids IS 'One row per stored article; keeps article_id unique across news partitions';
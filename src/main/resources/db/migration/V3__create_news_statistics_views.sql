@@ -0,0 +1,33 @@
+-- Precomputed per-coin and per-keyword article counts for the statistics endpoint.
+-- Both views are refreshed CONCURRENTLY after every news ingest, which requires a unique index.
+
+CREATE MATERIALIZED VIEW news_coin_stats AS
+SELECT coin,
+       COUNT(*) AS article_count
+FROM news,
+     unnest(coin_mentioned) AS coin
+WHERE duplicate = FALSE
+GROUP BY coin;
+
+CREATE UNIQUE INDEX idx_news_coin_stats_coin ON news_coin_stats (coin);
+CREATE INDEX idx_news_coin_stats_article_count ON news_coin_stats (article_count DESC);
+
+-- Keyword counts are bucketed by hour so that trending queries for any window inside
+-- the retained range only sum a few hundred rows instead of scanning the news table.
+CREATE MATERIALIZED VIEW news_keyword_stats AS
+SELECT keyword,
+       date_trunc('hour', pub_date) AS bucket,
+       COUNT(*)                     AS article_count
+FROM news,
+     unnest(keywords) AS keyword
+WHERE duplicate = FALSE
+  AND pub_date >= CURRENT_TIMESTAMP - INTERVAL '7 days'
+GROUP BY keyword, date_trunc('hour', pub_date);
+
+CREATE UNIQUE INDEX idx_news_keyword_stats_keyword_bucket ON news_keyword_stats (keyword, bucket);
+CREATE INDEX idx_news_keyword_stats_bucket ON news_keyword_stats (bucket);
+
+COMMENT
+ON MATERIALIZED VIEW news_coin_stats IS 'Number of non-duplicate articles mentioning each coin';
+COMMENT
+ON MATERIALIZED VIEW news_keyword_stats IS 'Hourly number of non-duplicate articles per keyword over the last 7 days';
@@ -0,0 +1,12 @@
+-- Checkpoints of the in-memory trending keyword windows so that a restart keeps its state
+CREATE TABLE trending_keyword_checkpoints
+(
+    window_name VARCHAR(20) PRIMARY KEY,
+    payload     TEXT      NOT NULL,
+    saved_at    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT
+ON TABLE trending_keyword_checkpoints IS 'Serialized bucket state of the trending keyword sliding windows';
+COMMENT
+ON COLUMN trending_keyword_checkpoints.payload IS 'JSON list of buckets with their Space-Saving counters';
@@ -0,0 +1,157 @@
+-- Convert news into a table range-partitioned by month of pub_date.
+-- Retention can then detach and drop whole partitions instead of deleting row by row.
+
+-- Statistics views depend on news; they are recreated against the partitioned table below
+DROP MATERIALIZED VIEW IF EXISTS news_keyword_stats;
+DROP MATERIALIZED VIEW IF EXISTS news_coin_stats;
+
+ALTER TABLE news RENAME TO news_legacy;
+ALTER TABLE news_legacy RENAME CONSTRAINT news_pkey TO news_legacy_pkey;
+ALTER TABLE news_legacy RENAME CONSTRAINT news_article_id_key TO news_legacy_article_id_key;
+ALTER SEQUENCE news_id_seq OWNED BY NONE;
+
+DROP INDEX IF EXISTS idx_news_article_id;
+DROP INDEX IF EXISTS idx_news_pub_date;
+DROP INDEX IF EXISTS idx_news_source_name;
+DROP INDEX IF EXISTS idx_news_language;
+DROP INDEX IF EXISTS idx_news_sentiment;
+DROP INDEX IF EXISTS idx_news_duplicate;
+DROP INDEX IF EXISTS idx_news_coin_mentioned;
+DROP INDEX IF EXISTS idx_news_category;
+DROP INDEX IF EXISTS idx_news_ai_tag;
+DROP INDEX IF EXISTS idx_news_keywords;
+DROP INDEX IF EXISTS idx_news_created_at;
+
+-- Unique constraints on a partitioned table must include the partition key,
+-- so article_id uniqueness is enforced per pub_date and checked by the ingest upsert.
+CREATE TABLE news
+(
+    id              BIGINT              NOT NULL DEFAULT nextval('news_id_seq'),
+    article_id      VARCHAR(255)        NOT NULL,
+    title           TEXT                NOT NULL,
+    link            VARCHAR(2048)       NOT NULL,
+    keywords        TEXT[],
+    creator         VARCHAR(255)[],
+    video_url       VARCHAR(2048),
+    description     TEXT,
+    content         TEXT,
+    pub_date        TIMESTAMP           NOT NULL,
+    source_icon     VARCHAR(2048),
+    source_name     VARCHAR(255),
+    source_url      VARCHAR(2048),
+    source_priority INTEGER,
+    country         VARCHAR(10)[],
+    category        VARCHAR(100)[],
+    language        VARCHAR(10),
+    coin_mentioned  VARCHAR(50)[],
+    sentiment       VARCHAR(20),
+    ai_tag          VARCHAR(100)[],
+    duplicate       BOOLEAN                      DEFAULT FALSE,
+    created_at      TIMESTAMP           NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at      TIMESTAMP           NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT news_pkey PRIMARY KEY (id, pub_date),
+    CONSTRAINT news_article_id_pub_date_key UNIQUE (article_id, pub_date)
+) PARTITION BY RANGE (pub_date);
+
+ALTER SEQUENCE news_id_seq OWNED BY news.id;
+
+-- Monthly partitions covering existing data and the next three months
+DO
+$$
+DECLARE
+    month_start TIMESTAMP;
+    last_month  TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP + INTERVAL '3 months');
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(COALESCE(pub_date, created_at)), CURRENT_TIMESTAMP))
+    INTO month_start
+    FROM news_legacy;
+
+    WHILE month_start <= last_month
+        LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF news FOR VALUES FROM (%L) TO (%L)',
+                           'news_p' || to_char(month_start, 'YYYY_MM'),
+                           month_start,
+                           month_start + INTERVAL '1 month');
+            month_start := month_start + INTERVAL '1 month';
+        END LOOP;
+END
+$$;
+
+-- Catches rows outside the pre-created range until partition maintenance catches up
+CREATE TABLE news_default PARTITION OF news DEFAULT;
+
+INSERT INTO news (id, article_id, title, link, keywords, creator, video_url, description, content, pub_date,
+                  source_icon, source_name, source_url, source_priority, country, category, language,
+                  coin_mentioned, sentiment, ai_tag, duplicate, created_at, updated_at)
+SELECT id,
+       article_id,
+       title,
+       link,
+       keywords,
+       creator,
+       video_url,
+       description,
+       content,
+       COALESCE(pub_date, created_at),
+       source_icon,
+       source_name,
+       source_url,
+       source_priority,
+       country,
+       category,
+       language,
+       coin_mentioned,
+       sentiment,
+       ai_tag,
+       duplicate,
+       created_at,
+       updated_at
+FROM news_legacy;
+
+DROP TABLE news_legacy;
+
+CREATE INDEX idx_news_article_id ON news (article_id);
+CREATE INDEX idx_news_pub_date ON news (pub_date);
+CREATE INDEX idx_news_source_name ON news (source_name);
+CREATE INDEX idx_news_language ON news (language);
+CREATE INDEX idx_news_sentiment ON news (sentiment);
+CREATE INDEX idx_news_duplicate ON news (duplicate);
+CREATE INDEX idx_news_coin_mentioned ON news USING GIN(coin_mentioned);
+CREATE INDEX idx_news_category ON news USING GIN(category);
+CREATE INDEX idx_news_ai_tag ON news USING GIN(ai_tag);
+CREATE INDEX idx_news_keywords ON news USING GIN(keywords);
+CREATE INDEX idx_news_created_at ON news (created_at);
+
+COMMENT
+ON TABLE news IS 'Stores cryptocurrency news articles, range-partitioned by month of pub_date';
+COMMENT
+ON COLUMN news.pub_date IS 'Publication date from the source; partition key';
+
+CREATE MATERIALIZED VIEW news_coin_stats AS
+SELECT coin,
+       COUNT(*) AS article_count
+FROM news,
+     unnest(coin_mentioned) AS coin
+WHERE duplicate = FALSE
+GROUP BY coin;
+
+CREATE UNIQUE INDEX idx_news_coin_stats_coin ON news_coin_stats (coin);
+CREATE INDEX idx_news_coin_stats_article_count ON news_coin_stats (article_count DESC);
+
+CREATE MATERIALIZED VIEW news_keyword_stats AS
+SELECT keyword,
+       date_trunc('hour', pub_date) AS bucket,
+       COUNT(*)                     AS article_count
+FROM news,
+     unnest(keywords) AS keyword
+WHERE duplicate = FALSE
+  AND pub_date >= CURRENT_TIMESTAMP - INTERVAL '7 days'
+GROUP BY keyword, date_trunc('hour', pub_date);
+
+CREATE UNIQUE INDEX idx_news_keyword_stats_keyword_bucket ON news_keyword_stats (keyword, bucket);
+CREATE INDEX idx_news_keyword_stats_bucket ON news_keyword_stats (bucket);
+
+COMMENT
+ON MATERIALIZED VIEW news_coin_stats IS 'Number of non-duplicate articles mentioning each coin';
+COMMENT
+ON MATERIALIZED VIEW news_keyword_stats IS 'Hourly number of non-duplicate articles per keyword over the last 7 days';
@@ -0,0 +1,12 @@
+-- High-water marks of the Alpha Vantage news queries so each fetch only asks for newer articles
+CREATE TABLE news_fetch_watermarks
+(
+    query_key      VARCHAR(255) PRIMARY KEY,
+    last_published TIMESTAMP NOT NULL,
+    updated_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT
+ON TABLE news_fetch_watermarks IS 'Latest time_published seen per Alpha Vantage news query';
+COMMENT
+ON COLUMN news_fetch_watermarks.query_key IS 'Query identifier, e.g. tickers:CRYPTO:BTC,CRYPTO:ETH';
@@ -0,0 +1,5 @@
+-- Keyset paging of the news feed walks (pub_date, id) in descending order; the composite index
+-- also serves the plain pub_date range scans, so the single-column index is dropped
+CREATE INDEX idx_news_pub_date_id ON news (pub_date DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_news_pub_date;
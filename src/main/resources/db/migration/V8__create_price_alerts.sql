@@ -0,0 +1,21 @@
+-- Telegram price alerts; active ones are loaded into memory and evaluated after every CoinGecko ingest
+CREATE TABLE price_alerts
+(
+    id           BIGSERIAL PRIMARY KEY,
+    chat_id      BIGINT         NOT NULL,
+    symbol       VARCHAR(20)    NOT NULL,
+    direction    VARCHAR(10)    NOT NULL,
+    threshold    DECIMAL(20, 8) NOT NULL,
+    active       BOOLEAN        NOT NULL DEFAULT TRUE,
+    created_at   TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    triggered_at TIMESTAMP,
+    CONSTRAINT chk_price_alerts_direction CHECK (direction IN ('ABOVE', 'BELOW'))
+);
+
+CREATE INDEX idx_price_alerts_chat_active ON price_alerts (chat_id) WHERE active;
+CREATE INDEX idx_price_alerts_active ON price_alerts (id) WHERE active;
+
+COMMENT
+ON TABLE price_alerts IS 'Price thresholds Telegram users asked to be notified about';
+COMMENT
+ON COLUMN price_alerts.direction IS 'ABOVE fires when the price rises to the threshold, BELOW when it falls to it';
@@ -0,0 +1,20 @@
+-- Per-chat watchlists and digest schedules for the Telegram broadcast fan-out
+CREATE TABLE chat_subscriptions
+(
+    chat_id        BIGINT PRIMARY KEY,
+    watchlist      VARCHAR(512) NOT NULL DEFAULT '',
+    digest_enabled BOOLEAN      NOT NULL DEFAULT FALSE,
+    digest_hour    INTEGER      NOT NULL DEFAULT 8,
+    created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_chat_subscriptions_digest_hour CHECK (digest_hour BETWEEN 0 AND 23)
+);
+
+CREATE INDEX idx_chat_subscriptions_digest ON chat_subscriptions (digest_hour, chat_id) WHERE digest_enabled;
+
+COMMENT
+ON TABLE chat_subscriptions IS 'Telegram chats subscribed to a watchlist and an optional daily digest';
+COMMENT
+ON COLUMN chat_subscriptions.watchlist IS 'Sorted, comma-separated symbols; equal strings get the same digest';
+COMMENT
+ON COLUMN chat_subscriptions.digest_hour IS 'UTC hour the digest is sent at';
@@ -0,0 +1,60 @@
+package com.example.kapt.alert;
+
+import com.example.kapt.model.PriceAlert.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Evaluation time of one ingest-sized price move against a growing number of held alerts. Run with
+ * {@code gradle benchmark}; it is excluded from the regular test task.
+ */
+@Tag("benchmark")
+@DisplayName("PriceAlertIndex Benchmark")
+class PriceAlertIndexBenchmarkTest {
+
+    private static final String[] SYMBOLS = {"BTC", "ETH", "SOL", "XRP", "ADA", "DOGE", "DOT", "LTC", "LINK", "AVAX"};
+    private static final int ROUNDS = 200;
+
+    @Test
+    @DisplayName("Evaluation time should track triggered alerts, not held alerts")
+    void evaluationTimeAgainstAlertCount() {
+        System.out.printf("%12s %16s %14s%n", "alerts", "avg eval (us)", "avg fired");
+        for (int alertCount : new int[]{1_000, 10_000, 100_000, 500_000}) {
+            PriceAlertIndex index = new PriceAlertIndex();
+            Random random = new Random(42);
+            for (int i = 0; i < alertCount; i++) {
+                String symbol = SYMBOLS[i % SYMBOLS.length];
+                Direction direction = random.nextBoolean() ? Direction.ABOVE : Direction.BELOW;
+                // thresholds spread +-50% around a base price of 1000
+                BigDecimal threshold = BigDecimal.valueOf(500 + random.nextInt(1_000_000) / 1000.0);
+                index.add(new PriceAlertIndex.Entry(i, i % 50_000, symbol, direction, threshold));
+            }
+
+            long totalNanos = 0;
+            long totalFired = 0;
+            BigDecimal price = BigDecimal.valueOf(1000);
+            for (int round = 0; round < ROUNDS; round++) {
+                // a 0.1% move per symbol: up for the first half of the rounds, then back down
+                BigDecimal next = round < ROUNDS / 2
+                        ? price.multiply(new BigDecimal("1.001"))
+                        : price.divide(new BigDecimal("1.001"), 8, RoundingMode.HALF_UP);
+                long start = System.nanoTime();
+                for (String symbol : SYMBOLS) {
+                    totalFired += index.collectTriggered(symbol, price, next).size();
+                }
+                totalNanos += System.nanoTime() - start;
+                price = next;
+            }
+
+            System.out.printf("%12d %16.1f %14.1f%n", alertCount, totalNanos / 1000.0 / ROUNDS, (double) totalFired / ROUNDS);
+            assertThat(index.size()).isLessThanOrEqualTo(alertCount);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.kapt.alert;
+
+import com.example.kapt.model.PriceAlert.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PriceAlertIndex Tests")
+class PriceAlertIndexTest {
+
+    private PriceAlertIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PriceAlertIndex();
+        index.add(new PriceAlertIndex.Entry(1, 100, "BTC", Direction.ABOVE, new BigDecimal("70000")));
+        index.add(new PriceAlertIndex.Entry(2, 101, "BTC", Direction.ABOVE, new BigDecimal("72000")));
+        index.add(new PriceAlertIndex.Entry(3, 102, "BTC", Direction.ABOVE, new BigDecimal("70000.00")));
+        index.add(new PriceAlertIndex.Entry(4, 100, "BTC", Direction.BELOW, new BigDecimal("60000")));
+        index.add(new PriceAlertIndex.Entry(5, 100, "ETH", Direction.ABOVE, new BigDecimal("4000")));
+    }
+
+    @Test
+    @DisplayName("Should fire only the alerts whose threshold lies between the old and new price")
+    void shouldFireAlertsCrossedByPriceMove() {
+        assertThat(index.collectTriggered("BTC", new BigDecimal("69000"), new BigDecimal("71000")))
+                .extracting(PriceAlertIndex.Entry::getId)
+                .containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.collectTriggered("BTC", new BigDecimal("71000"), new BigDecimal("69000"))).isEmpty();
+        assertThat(index.collectTriggered("BTC", new BigDecimal("69000"), new BigDecimal("59000")))
+                .extracting(PriceAlertIndex.Entry::getId)
+                .containsExactly(4L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should treat the threshold as reached when the price lands exactly on it")
+    void shouldIncludeExactThreshold() {
+        assertThat(index.collectTriggered("BTC", new BigDecimal("71999.99"), new BigDecimal("72000")))
+                .extracting(PriceAlertIndex.Entry::getId)
+                .containsExactly(2L);
+        assertThat(index.collectTriggered("BTC", new BigDecimal("72000"), new BigDecimal("72000"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not fire removed alerts")
+    void shouldNotFireRemovedAlerts() {
+        assertThat(index.remove(5)).isTrue();
+        assertThat(index.remove(5)).isFalse();
+
+        assertThat(index.collectTriggered("ETH", new BigDecimal("3900"), new BigDecimal("4100"))).isEmpty();
+    }
+}
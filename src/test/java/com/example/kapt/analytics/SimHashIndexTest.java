@@ -0,0 +1,100 @@
+package com.example.kapt.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SimHash near-duplicate index Tests")
+class SimHashIndexTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final String SUMMARY = "The SEC approved the first spot bitcoin exchange-traded funds on Wednesday, "
+            + "opening the market to a wider range of investors after a decade of rejections.";
+
+    private final SimHashIndex index = new SimHashIndex(3, Duration.ofHours(48), 100);
+
+    @Test
+    @DisplayName("Should give reformatted and lightly edited copies nearby fingerprints")
+    void shouldFingerprintCopiesCloseTogether() {
+        // Given
+        long original = SimHashIndex.fingerprint("SEC approves spot Bitcoin ETFs " + SUMMARY);
+
+        // When
+        long reformatted = SimHashIndex.fingerprint("SEC APPROVES SPOT BITCOIN ETFS - " + SUMMARY.replace(",", ""));
+        long edited = SimHashIndex.fingerprint("SEC approves spot Bitcoin ETFs " + SUMMARY.replace("Wednesday", "Thursday"));
+        long unrelated = SimHashIndex.fingerprint("Ethereum developers schedule the Dencun upgrade for March");
+
+        // Then
+        assertThat(reformatted).isEqualTo(original);
+        // within the default app.news.dedup.max-distance, and far from a different story
+        assertThat(Long.bitCount(edited ^ original)).isLessThanOrEqualTo(6);
+        assertThat(Long.bitCount(unrelated ^ original)).isGreaterThan(12);
+        assertThat(SimHashIndex.fingerprint(" - ")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should find every fingerprint within the max distance and none beyond it")
+    void shouldMatchWithinMaxDistance() {
+        // Given
+        long fingerprint = 0x0123_4567_89ab_cdefL;
+        index.findOrAdd("original", fingerprint, 0);
+
+        // When / Then
+        // one flipped bit in each of three bands: only the fourth band still matches exactly
+        assertThat(index.findOrAdd("three-bits", fingerprint ^ (1L | 1L << 20 | 1L << 40), 0)).isEqualTo("original");
+        assertThat(index.findOrAdd("four-bits", fingerprint ^ (1L | 1L << 20 | 1L << 40 | 1L << 60), 0)).isNull();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not report an indexed document as a duplicate of itself")
+    void shouldIgnoreSameKey() {
+        long fingerprint = SimHashIndex.fingerprint(SUMMARY);
+
+        assertThat(index.findOrAdd("av_1", fingerprint, 0)).isNull();
+        assertThat(index.findOrAdd("av_1", fingerprint, HOUR)).isNull();
+        assertThat(index.findOrAdd("av_2", fingerprint, HOUR)).isEqualTo("av_1");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should forget documents that fall out of the window or the capacity")
+    void shouldEvictOldDocuments() {
+        // Given
+        long fingerprint = SimHashIndex.fingerprint(SUMMARY);
+        index.findOrAdd("old", fingerprint, 0);
+
+        // When / Then
+        assertThat(index.findOrAdd("copy", fingerprint, 49 * HOUR)).isNull();
+
+        SimHashIndex small = new SimHashIndex(3, Duration.ofHours(48), 2);
+        small.findOrAdd("first", fingerprint, 0);
+        small.findOrAdd("second", ~fingerprint, 0);
+        small.findOrAdd("third", fingerprint ^ 0x00ff_00ff_00ff_00ffL, 0);
+        assertThat(small.size()).isEqualTo(2);
+        assertThat(small.findOrAdd("copy", fingerprint, 0)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop a removed document from every band")
+    void shouldRemoveDocuments() {
+        long fingerprint = SimHashIndex.fingerprint(SUMMARY);
+        index.findOrAdd("av_1", fingerprint, 0);
+
+        index.remove("av_1");
+
+        assertThat(index.size()).isZero();
+        assertThat(index.findOrAdd("av_2", fingerprint, 0)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a distance the bands cannot cover")
+    void shouldRejectUnsupportedDistance() {
+        assertThatThrownBy(() -> new SimHashIndex(32, Duration.ofHours(1), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.kapt.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Trending keyword sketch Tests")
+class SlidingWindowTopKTest {
+
+    private final Instant now = Instant.parse("2024-01-15T12:30:00Z");
+
+    @Test
+    @DisplayName("Space-Saving should keep heavy hitters within bounded capacity")
+    void spaceSavingShouldKeepHeavyHitters() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(10);
+
+        for (int i = 0; i < 50; i++) {
+            counter.offer("bitcoin");
+        }
+        for (int i = 0; i < 20; i++) {
+            counter.offer("ethereum");
+        }
+        for (int i = 0; i < 100; i++) {
+            counter.offer("noise" + i);
+        }
+
+        assertThat(counter.size()).isEqualTo(10);
+        List<HeavyHitter> top = counter.top(2);
+        assertThat(top).extracting(HeavyHitter::getTerm).containsExactly("bitcoin", "ethereum");
+        assertThat(top.get(0).getCount()).isGreaterThanOrEqualTo(50);
+        assertThat(top.get(0).getCount() - top.get(0).getError()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should rank terms across buckets of the window")
+    void shouldRankTermsAcrossBuckets() {
+        SlidingWindowTopK window = new SlidingWindowTopK("1h", Duration.ofHours(1), 12, 100, 10);
+
+        window.offer("etf", now.minus(Duration.ofMinutes(50)), now);
+        window.offer("etf", now.minus(Duration.ofMinutes(5)), now);
+        window.offer("halving", now.minus(Duration.ofMinutes(5)), now);
+        window.refresh(now);
+
+        assertThat(window.top(10)).extracting(HeavyHitter::getTerm).containsExactly("etf", "halving");
+        assertThat(window.top(1).get(0).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should ignore events older than the window and expire stale buckets")
+    void shouldExpireStaleBuckets() {
+        SlidingWindowTopK window = new SlidingWindowTopK("1h", Duration.ofHours(1), 12, 100, 10);
+
+        assertThat(window.offer("stale", now.minus(Duration.ofHours(2)), now)).isFalse();
+        window.offer("etf", now.minus(Duration.ofMinutes(10)), now);
+        window.refresh(now);
+        assertThat(window.top(10)).extracting(HeavyHitter::getTerm).containsExactly("etf");
+
+        window.refresh(now.plus(Duration.ofHours(1)));
+        assertThat(window.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should restore exported bucket state")
+    void shouldRestoreExportedBuckets() {
+        SlidingWindowTopK original = new SlidingWindowTopK("24h", Duration.ofHours(24), 24, 100, 10);
+        original.offer("solana", now.minus(Duration.ofHours(3)), now);
+        original.offer("solana", now, now);
+        original.offer("xrp", now, now);
+        original.refresh(now);
+
+        SlidingWindowTopK restored = new SlidingWindowTopK("24h", Duration.ofHours(24), 24, 100, 10);
+        restored.restore(original.exportBuckets(), now);
+
+        assertThat(restored.top(10)).isEqualTo(original.top(10));
+    }
+}
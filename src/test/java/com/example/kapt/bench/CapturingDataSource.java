@@ -0,0 +1,114 @@
+package com.example.kapt.bench;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records every statement executed through the wrapped data source together with its parameter bindings, so
+ * tests can count round trips or replay a query under {@code EXPLAIN}. Batched executions are recorded once
+ * per {@code addBatch}.
+ */
+public class CapturingDataSource extends DelegatingDataSource {
+
+    private final List<CapturedStatement> captured = Collections.synchronizedList(new ArrayList<>());
+
+    public CapturingDataSource(DataSource target) {
+        super(target);
+    }
+
+    public List<CapturedStatement> getCaptured() {
+        synchronized (captured) {
+            return List.copyOf(captured);
+        }
+    }
+
+    public void clear() {
+        captured.clear();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                        return wrap(statement, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                        return wrap(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private <T extends Statement> T wrap(T statement, Class<T> type, String preparedSql) {
+        List<Binding> bindings = new ArrayList<>();
+        Object proxy = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            String name = method.getName();
+            if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (name.equals("addBatch")) {
+                captured.add(new CapturedStatement(preparedSql != null ? preparedSql : (String) args[0], List.copyOf(bindings)));
+            } else if (name.startsWith("execute") && !name.equals("executeBatch")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                captured.add(new CapturedStatement(sql, List.copyOf(bindings)));
+            }
+            return invoke(statement, method, args);
+        });
+        return type.cast(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    public record Binding(Method setter, Object[] args) {
+    }
+
+    public record CapturedStatement(String sql, List<Binding> bindings) {
+
+        /**
+         * Applies the recorded bindings to another statement prepared from the same (or a prefixed) SQL.
+         */
+        public void bind(PreparedStatement target) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.setter().invoke(target, binding.args());
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new SQLException("Could not replay " + binding.setter().getName(), e);
+                }
+            }
+        }
+
+        public boolean isSelect() {
+            return sql.stripLeading().regionMatches(true, 0, "select", 0, 6)
+                    || sql.stripLeading().regionMatches(true, 0, "with", 0, 4);
+        }
+    }
+}
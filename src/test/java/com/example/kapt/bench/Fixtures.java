@@ -0,0 +1,227 @@
+package com.example.kapt.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded payloads shaped like the CoinGecko {@code /coins/markets} and Alpha Vantage {@code NEWS_SENTIMENT}
+ * responses, including the fields our DTOs ignore, so decoding pays for the whole document as it does in production.
+ */
+public final class Fixtures {
+
+    public static final long SEED = 42L;
+
+    private static final String[][] TOP_COINS = {
+            {"bitcoin", "btc", "Bitcoin", "67250.12"}, {"ethereum", "eth", "Ethereum", "3120.55"},
+            {"tether", "usdt", "Tether", "1.0002"}, {"binancecoin", "bnb", "BNB", "585.31"},
+            {"solana", "sol", "Solana", "148.77"}, {"usd-coin", "usdc", "USDC", "0.9998"},
+            {"ripple", "xrp", "XRP", "0.5213"}, {"dogecoin", "doge", "Dogecoin", "0.1584"},
+            {"cardano", "ada", "Cardano", "0.4571"}, {"tron", "trx", "TRON", "0.1221"},
+            {"avalanche-2", "avax", "Avalanche", "35.42"}, {"chainlink", "link", "Chainlink", "14.28"},
+            {"polkadot", "dot", "Polkadot", "6.93"}, {"litecoin", "ltc", "Litecoin", "83.16"},
+            {"uniswap", "uni", "Uniswap", "7.84"}, {"stellar", "xlm", "Stellar", "0.1102"},
+            {"cosmos", "atom", "Cosmos Hub", "8.37"}, {"matic-network", "matic", "Polygon", "0.7154"}
+    };
+
+    private static final String[] SOURCES = {"CoinDesk", "Cointelegraph", "Decrypt", "Benzinga", "Motley Fool", "Zacks Commentary"};
+    private static final String[] TOPICS = {"Blockchain", "Financial Markets", "Economy - Monetary", "Technology", "Earnings", "Finance"};
+    private static final String[] EQUITY_TICKERS = {"COIN", "MSTR", "HOOD", "NVDA", "FOREX:USD", "MARA"};
+    private static final String[] LABELS = {"Bearish", "Somewhat-Bearish", "Neutral", "Somewhat-Bullish", "Bullish"};
+    private static final String[] TITLE_TEMPLATES = {
+            "%s Price Slides as Traders Brace for Fed Decision",
+            "%s Rallies Past Key Resistance While Funding Rates Stay Flat",
+            "Why %s Could Outperform the Market This Quarter",
+            "Spot %s ETF Flows Turn Positive for Third Straight Day",
+            "Analysts Split on %s After Weekend Volatility"
+    };
+    private static final String[] SENTENCES = {
+            "Open interest across major derivatives venues climbed to a two-month high.",
+            "On-chain data shows long-term holders continued to accumulate through the dip.",
+            "The move came as the dollar index eased and Treasury yields pulled back from their highs.",
+            "Market makers reported thinner order books during the Asian session.",
+            "Several desks noted that options expiring on Friday carry heavy open interest near the current price.",
+            "Regulatory headlines out of Washington added to the uncertainty for exchange operators.",
+            "Mining difficulty adjusted upward again, squeezing margins for smaller operators.",
+            "Stablecoin supply on exchanges rose, which traders often read as dry powder waiting on the sidelines."
+    };
+    private static final DateTimeFormatter AV_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private Fixtures() {
+    }
+
+    /**
+     * The codec Spring's WebClient decodes with by default.
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    public static byte[] toJson(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static List<Map<String, Object>> coinMarkets(int count) {
+        return coinMarkets(count, SEED);
+    }
+
+    /**
+     * The same coins on every seed; prices and volumes move between seeds the way they do between ingest cycles.
+     */
+    public static List<Map<String, Object>> coinMarkets(int count, long seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> coins = new ArrayList<>(count);
+        for (int rank = 1; rank <= count; rank++) {
+            String id;
+            String symbol;
+            String name;
+            double price;
+            if (rank <= TOP_COINS.length) {
+                String[] top = TOP_COINS[rank - 1];
+                id = top[0];
+                symbol = top[1];
+                name = top[2];
+                price = Double.parseDouble(top[3]) * (1 + random.nextGaussian() * 0.01);
+            } else {
+                id = "token-" + rank;
+                symbol = "tk" + Integer.toString(rank, 36);
+                name = "Token " + rank;
+                // log-uniform between 1e-6 and 1e2, which is roughly how the long tail is priced
+                price = Math.pow(10, -6 + random.nextDouble() * 8);
+            }
+            // market cap falls off by rank like the real top list does
+            double marketCap = 1.3e12 / Math.pow(rank, 1.3);
+            double circulating = marketCap / price;
+            Map<String, Object> coin = new LinkedHashMap<>();
+            coin.put("id", id);
+            coin.put("symbol", symbol);
+            coin.put("name", name);
+            coin.put("image", "https://coin-images.coingecko.com/coins/images/" + rank + "/large/" + id + ".png");
+            coin.put("current_price", round(price));
+            coin.put("market_cap", Math.round(marketCap));
+            coin.put("market_cap_rank", rank);
+            coin.put("fully_diluted_valuation", Math.round(marketCap * (1 + random.nextDouble())));
+            coin.put("total_volume", Math.round(marketCap * (0.01 + random.nextDouble() * 0.3)));
+            coin.put("high_24h", round(price * 1.03));
+            coin.put("low_24h", round(price * 0.97));
+            double changePct = random.nextGaussian() * 4;
+            coin.put("price_change_24h", round(price * changePct / 100));
+            coin.put("price_change_percentage_24h", round(changePct));
+            coin.put("market_cap_change_24h", Math.round(marketCap * changePct / 100));
+            coin.put("market_cap_change_percentage_24h", round(changePct * 0.98));
+            coin.put("circulating_supply", Math.round(circulating));
+            coin.put("total_supply", Math.round(circulating * 1.1));
+            coin.put("max_supply", random.nextInt(10) < 4 ? null : Math.round(circulating * 1.5));
+            coin.put("ath", round(price * 2.4));
+            coin.put("ath_change_percentage", round(-58.3 + random.nextDouble()));
+            coin.put("ath_date", "2021-11-10T14:24:11.849Z");
+            coin.put("atl", round(price * 0.01));
+            coin.put("atl_change_percentage", round(9000 + random.nextDouble() * 1000));
+            coin.put("atl_date", "2015-10-20T00:00:00.000Z");
+            coin.put("roi", null);
+            coin.put("last_updated", "2024-05-01T12:" + two(random.nextInt(60)) + ":" + two(random.nextInt(60)) + ".512Z");
+            coins.add(coin);
+        }
+        return coins;
+    }
+
+    public static Map<String, Object> newsFeed(int count) {
+        return newsFeed(count, SEED);
+    }
+
+    /**
+     * Article URLs include the seed, so each seed yields articles that are new to the database.
+     */
+    public static Map<String, Object> newsFeed(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime published = LocalDateTime.of(2024, 5, 1, 18, 0);
+        List<Map<String, Object>> feed = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] coin = TOP_COINS[zipfIndex(random, TOP_COINS.length)];
+            String source = SOURCES[random.nextInt(SOURCES.length)];
+            String title = String.format(TITLE_TEMPLATES[random.nextInt(TITLE_TEMPLATES.length)], coin[2]);
+            StringBuilder summary = new StringBuilder();
+            int sentences = 2 + random.nextInt(4);
+            for (int s = 0; s < sentences; s++) {
+                summary.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            published = published.minusMinutes(1 + random.nextInt(20));
+
+            List<Map<String, Object>> topics = new ArrayList<>();
+            for (int t = 0, n = 1 + random.nextInt(3); t < n; t++) {
+                topics.add(Map.of("topic", TOPICS[random.nextInt(TOPICS.length)],
+                        "relevance_score", String.format("%.6f", random.nextDouble())));
+            }
+            List<Map<String, Object>> tickers = new ArrayList<>();
+            tickers.add(tickerSentiment(random, "CRYPTO:" + coin[1].toUpperCase()));
+            for (int t = 0, n = random.nextInt(4); t < n; t++) {
+                tickers.add(tickerSentiment(random, EQUITY_TICKERS[random.nextInt(EQUITY_TICKERS.length)]));
+            }
+
+            double sentiment = random.nextGaussian() * 0.2;
+            Map<String, Object> article = new LinkedHashMap<>();
+            article.put("title", title);
+            article.put("url", "https://www." + source.toLowerCase().replace(' ', '-') + ".com/markets/2024/05/01/" + coin[0] + "-" + seed + "-" + i);
+            article.put("time_published", published.format(AV_TIME));
+            article.put("authors", random.nextBoolean() ? List.of("Jamie Crawley") : List.of("Omkar Godbole", "Helene Braun"));
+            article.put("summary", summary.toString().trim());
+            article.put("banner_image", "https://cdn.example-news.com/images/" + i + ".jpg");
+            article.put("source", source);
+            article.put("category_within_source", "Markets");
+            article.put("source_domain", "www." + source.toLowerCase().replace(' ', '-') + ".com");
+            article.put("topics", topics);
+            article.put("overall_sentiment_score", sentiment);
+            article.put("overall_sentiment_label", label(sentiment));
+            article.put("ticker_sentiment", tickers);
+            feed.add(article);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", String.valueOf(count));
+        response.put("sentiment_score_definition", "x <= -0.35: Bearish; -0.35 < x <= -0.15: Somewhat-Bearish; "
+                + "-0.15 < x < 0.15: Neutral; 0.15 <= x < 0.35: Somewhat_Bullish; x >= 0.35: Bullish");
+        response.put("relevance_score_definition", "0 < x <= 1, with a higher score indicating higher relevance.");
+        response.put("feed", feed);
+        return response;
+    }
+
+    private static Map<String, Object> tickerSentiment(Random random, String ticker) {
+        double score = random.nextGaussian() * 0.25;
+        Map<String, Object> sentiment = new LinkedHashMap<>();
+        sentiment.put("ticker", ticker);
+        sentiment.put("relevance_score", String.format("%.6f", random.nextDouble()));
+        sentiment.put("ticker_sentiment_score", String.format("%.6f", score));
+        sentiment.put("ticker_sentiment_label", label(score));
+        return sentiment;
+    }
+
+    private static String label(double score) {
+        int bucket = score <= -0.35 ? 0 : score <= -0.15 ? 1 : score < 0.15 ? 2 : score < 0.35 ? 3 : 4;
+        return LABELS[bucket];
+    }
+
+    // coverage is skewed towards the largest coins
+    private static int zipfIndex(Random random, int size) {
+        return Math.min(size - 1, (int) Math.floor(Math.pow(size, random.nextDouble())) - 1);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1e8) / 1e8;
+    }
+
+    private static String two(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+}
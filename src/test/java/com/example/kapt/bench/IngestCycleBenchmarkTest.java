@@ -0,0 +1,158 @@
+package com.example.kapt.bench;
+
+import com.example.kapt.service.CryptocurrencyService;
+import com.example.kapt.service.NewsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full ingest cycles against local upstream stand-ins and a real Postgres with the Flyway schema. Run with
+ * {@code gradle ingestBenchmark}; sizes are set with {@code -Pingest.bench.coins=250 -Pingest.bench.articles=50
+ * -Pingest.bench.latency-ms=200 -Pingest.bench.cycles=20 -Pingest.bench.warmup=3}. Results are printed and
+ * written to {@code build/results/ingest-benchmark/results.json}.
+ */
+@Tag("ingest-benchmark")
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Ingest Cycle Benchmark")
+class IngestCycleBenchmarkTest {
+
+    private static final int COINS = Integer.getInteger("ingest.bench.coins", 250);
+    private static final int ARTICLES = Integer.getInteger("ingest.bench.articles", 50);
+    private static final long LATENCY_MS = Long.getLong("ingest.bench.latency-ms", 200);
+    private static final int CYCLES = Integer.getInteger("ingest.bench.cycles", 20);
+    private static final int WARMUP = Integer.getInteger("ingest.bench.warmup", 3);
+
+    @Container
+    static PostgreSQLContainer<?> postgresql = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("bench_crypto_db").withUsername("bench_user").withPassword("bench_password");
+
+    static UpstreamStandIn standIn;
+
+    @Autowired
+    private CryptocurrencyService cryptocurrencyService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        standIn = new UpstreamStandIn(COINS, ARTICLES, LATENCY_MS);
+        registry.add("spring.datasource.url", postgresql::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresql::getUsername);
+        registry.add("spring.datasource.password", postgresql::getPassword);
+        // NewsH2, the H2 mapping of news used by the in-memory tests, is scanned too and cannot validate against Postgres
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("app.scheduler.enabled", () -> "false");
+        registry.add("app.news.scheduler.enabled", () -> "false");
+        registry.add("app.telegram.bot.enabled", () -> "false");
+        registry.add("app.coingecko.api.url", standIn::coinGeckoUrl);
+        registry.add("app.coingecko.request-delay", () -> "0");
+        registry.add("app.alphavantage.api.url", standIn::alphaVantageUrl);
+        registry.add("app.alphavantage.api.requests-per-minute", () -> "1000000");
+        registry.add("app.alphavantage.api.rate-limit-delay", () -> "0");
+        registry.add("app.alphavantage.api.daily-quota", () -> "1000000");
+    }
+
+    @AfterAll
+    static void stopStandIn() {
+        if (standIn != null) {
+            standIn.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Report throughput, cycle time and allocation of full ingest cycles")
+    void ingestCycles() throws Exception {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("config", Map.of("coins", COINS, "articles", ARTICLES, "latencyMs", LATENCY_MS,
+                "cycles", CYCLES, "warmup", WARMUP));
+        results.put("coingecko", run("coingecko", cryptocurrencyService::fetchAndSaveCryptocurrencies));
+        results.put("news", run("news", () -> newsService.fetchAndSaveLatestNews(ARTICLES).join()));
+
+        Path output = Path.of("build", "results", "ingest-benchmark", "results.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private Map<String, Object> run(String source, IntSupplier cycle) {
+        for (int i = 0; i < WARMUP; i++) {
+            standIn.prepareCycle(-1 - i);
+            cycle.getAsInt();
+        }
+
+        Histogram cycleMicros = new Histogram(TimeUnit.MINUTES.toMicros(10), 3);
+        long rows = 0;
+        long busyNanos = 0;
+        long allocatedBytes = 0;
+        for (int i = 0; i < CYCLES; i++) {
+            standIn.prepareCycle(i);
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            int saved = cycle.getAsInt();
+            long elapsed = System.nanoTime() - start;
+            allocatedBytes += allocatedBytes() - allocatedBefore;
+            busyNanos += elapsed;
+            rows += saved;
+            cycleMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+
+        double seconds = busyNanos / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("rows", rows);
+        summary.put("rowsPerSecond", rows / seconds);
+        summary.put("cycleP50Ms", cycleMicros.getValueAtPercentile(50) / 1000.0);
+        summary.put("cycleP99Ms", cycleMicros.getValueAtPercentile(99) / 1000.0);
+        summary.put("cycleMaxMs", cycleMicros.getMaxValue() / 1000.0);
+        summary.put("allocatedMbPerSecond", allocatedBytes / 1e6 / seconds);
+        summary.put("allocatedKbPerRow", rows == 0 ? 0 : allocatedBytes / 1e3 / rows);
+
+        System.out.printf("%-10s %8s %12s %12s %12s %12s %14s%n",
+                "source", "rows", "rows/s", "p50 (ms)", "p99 (ms)", "max (ms)", "alloc (MB/s)");
+        System.out.printf("%-10s %8d %12.1f %12.1f %12.1f %12.1f %14.1f%n", source, rows, rows / seconds,
+                cycleMicros.getValueAtPercentile(50) / 1000.0, cycleMicros.getValueAtPercentile(99) / 1000.0,
+                cycleMicros.getMaxValue() / 1000.0, allocatedBytes / 1e6 / seconds);
+
+        assertThat(rows).isPositive();
+        return summary;
+    }
+
+    // Sums over live threads except the stand-in's: ingest work runs on the caller, the WebClient event loop,
+    // the Alpha Vantage dispatcher and the pipeline stages, all of which outlive a cycle
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] ids = Arrays.stream(threads.getThreadInfo(threads.getAllThreadIds()))
+                .filter(info -> info != null && !info.getThreadName().startsWith(UpstreamStandIn.THREAD_PREFIX))
+                .mapToLong(ThreadInfo::getThreadId)
+                .toArray();
+        return Arrays.stream(threads.getThreadAllocatedBytes(ids))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.kapt.bench;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Fires requests on a fixed schedule at a target rate regardless of how fast responses come back. Latency is
+ * measured from the time a request was due, not from when it was actually sent, so a stalled server shows up
+ * as queueing delay instead of silently lowering the offered load (coordinated omission).
+ */
+public class OpenLoopLoadGenerator {
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final Random random;
+
+    public OpenLoopLoadGenerator(String baseUrl, List<Endpoint> endpoints, long seed) {
+        this.baseUrl = baseUrl;
+        this.endpoints = endpoints;
+        this.totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        this.random = new Random(seed);
+    }
+
+    public Map<String, EndpointResult> run(double ratePerSecond, Duration duration, Duration drainTimeout) throws InterruptedException {
+        Map<String, EndpointResult> results = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> results.put(endpoint.name(), new EndpointResult()));
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long fired = 0;
+        for (long due = start; due < end; due += intervalNanos) {
+            long now;
+            while ((now = System.nanoTime()) < due) {
+                LockSupport.parkNanos(due - now);
+            }
+            Endpoint endpoint = pick();
+            EndpointResult result = results.get(endpoint.name());
+            long scheduledAt = due;
+            result.sent.incrementAndGet();
+            long sentAt = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path().apply(random)))
+                    .timeout(drainTimeout)
+                    .GET()
+                    .build();
+            inFlight.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> result.record(scheduledAt, sentAt,
+                            error == null && response.statusCode() < 400)));
+            if (++fired % 1000 == 0) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // unfinished requests are reported as timeouts below
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        results.values().forEach(result -> result.finish(elapsedNanos));
+        return results;
+    }
+
+    private Endpoint pick() {
+        int roll = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight();
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    public record Endpoint(String name, int weight, Function<Random, String> path) {
+    }
+
+    public static class EndpointResult {
+
+        // corrected: from the time the request was due; service: from the time it was actually sent
+        private final Histogram corrected = new ConcurrentHistogram(MAX_TRACKED_MICROS, 3);
+        private final Histogram service = new ConcurrentHistogram(MAX_TRACKED_MICROS, 3);
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long completed;
+        private double elapsedSeconds;
+
+        void record(long scheduledAt, long sentAt, boolean success) {
+            long now = System.nanoTime();
+            corrected.recordValue(Math.min(MAX_TRACKED_MICROS, TimeUnit.NANOSECONDS.toMicros(now - scheduledAt)));
+            service.recordValue(Math.min(MAX_TRACKED_MICROS, TimeUnit.NANOSECONDS.toMicros(now - sentAt)));
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void finish(long elapsedNanos) {
+            completed = corrected.getTotalCount();
+            elapsedSeconds = elapsedNanos / 1e9;
+        }
+
+        public Histogram getCorrected() {
+            return corrected;
+        }
+
+        public Histogram getService() {
+            return service;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getTimeouts() {
+            return sent.get() - completed;
+        }
+
+        public double getThroughput() {
+            return elapsedSeconds == 0 ? 0 : completed / elapsedSeconds;
+        }
+    }
+}
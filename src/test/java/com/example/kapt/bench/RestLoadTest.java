@@ -0,0 +1,207 @@
+package com.example.kapt.bench;
+
+import com.example.kapt.bench.OpenLoopLoadGenerator.Endpoint;
+import com.example.kapt.bench.OpenLoopLoadGenerator.EndpointResult;
+import com.example.kapt.service.NewsStatisticsRefresher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop load against the REST API over a seeded dataset in a Testcontainers Postgres. Run with
+ * {@code gradle loadTest}; tune with {@code -Pload.rates=50,100,200,400 -Pload.step-seconds=30
+ * -Pload.mix=top:25,search:25,advanced-search:20,news:20,statistics:10 -Pload.coins=10000 -Pload.articles=200000
+ * -Pload.slo-ms=250 -Pload.seed=42}. Writes {@code build/results/load-test/report.json} and one HdrHistogram
+ * percentile file per step and endpoint.
+ */
+@Tag("load-test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("REST Load Test")
+class RestLoadTest {
+
+    private static final int COINS = Integer.getInteger("load.coins", 10_000);
+    private static final int ARTICLES = Integer.getInteger("load.articles", 200_000);
+    private static final int NEWS_DAYS = Integer.getInteger("load.news-days", 90);
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final int STEP_SECONDS = Integer.getInteger("load.step-seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 15);
+    private static final long SLO_MILLIS = Long.getLong("load.slo-ms", 250);
+    private static final String RATES = System.getProperty("load.rates", "50,100,200,400");
+    private static final String MIX = System.getProperty("load.mix", "top:25,search:25,advanced-search:20,news:20,statistics:10");
+    private static final String[] SENTIMENTS = {"Bearish", "Neutral", "Bullish"};
+    private static final Path OUTPUT = Path.of("build", "results", "load-test");
+
+    @Container
+    static PostgreSQLContainer<?> postgresql = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("load_crypto_db").withUsername("load_user").withPassword("load_password");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private NewsStatisticsRefresher newsStatisticsRefresher;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresql::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresql::getUsername);
+        registry.add("spring.datasource.password", postgresql::getPassword);
+        // NewsH2, the H2 mapping of news used by the in-memory tests, is scanned too and cannot validate against Postgres
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("app.scheduler.enabled", () -> "false");
+        registry.add("app.news.scheduler.enabled", () -> "false");
+        registry.add("app.telegram.bot.enabled", () -> "false");
+        registry.add("logging.level.org.springframework.web.reactive.function.client", () -> "INFO");
+    }
+
+    @Test
+    @DisplayName("Report latency percentiles per endpoint at each target rate")
+    void stepThroughTargetRates() throws Exception {
+        SyntheticDataGenerator dataset = new SyntheticDataGenerator(dataSource, SEED);
+        dataset.generateCoins(COINS);
+        LocalDateTime now = LocalDateTime.now();
+        dataset.generateNews(ARTICLES, now.minusDays(NEWS_DAYS), now);
+        newsStatisticsRefresher.refresh();
+
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator("http://localhost:" + port,
+                endpoints(dataset), SEED);
+        double[] rates = Arrays.stream(RATES.split(",")).mapToDouble(Double::parseDouble).toArray();
+        generator.run(rates[0], Duration.ofSeconds(WARMUP_SECONDS), Duration.ofSeconds(30));
+
+        Files.createDirectories(OUTPUT);
+        List<Map<String, Object>> steps = new ArrayList<>();
+        Double saturatedAt = null;
+        for (double rate : rates) {
+            Map<String, EndpointResult> results = generator.run(rate, Duration.ofSeconds(STEP_SECONDS), Duration.ofSeconds(30));
+            Map<String, Object> step = report(rate, results);
+            steps.add(step);
+            if (saturatedAt == null && (Boolean) step.get("saturated")) {
+                saturatedAt = rate;
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", Map.of("coins", COINS, "articles", ARTICLES, "seed", SEED, "stepSeconds", STEP_SECONDS,
+                "sloMs", SLO_MILLIS, "mix", MIX));
+        report.put("steps", steps);
+        report.put("saturatedAtRate", saturatedAt);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(OUTPUT.resolve("report.json").toFile(), report);
+        System.out.println(saturatedAt == null
+                ? "No step breached the SLO; raise load.rates to find the saturation point"
+                : "Saturated at " + saturatedAt + " req/s");
+        System.out.println("Report written to " + OUTPUT.toAbsolutePath());
+
+        assertThat(steps).hasSize(rates.length);
+    }
+
+    private Map<String, Object> report(double rate, Map<String, EndpointResult> results) throws Exception {
+        System.out.printf("%n--- target %.0f req/s ---%n", rate);
+        System.out.printf("%-16s %8s %9s %7s %8s %9s %9s %9s %9s %9s%n", "endpoint", "done", "req/s", "errors",
+                "timeouts", "p50 (ms)", "p90 (ms)", "p99 (ms)", "p99.9", "max (ms)");
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        double achieved = 0;
+        boolean breached = false;
+        for (Map.Entry<String, EndpointResult> entry : results.entrySet()) {
+            EndpointResult result = entry.getValue();
+            Histogram latency = result.getCorrected();
+            achieved += result.getThroughput();
+            breached |= latency.getValueAtPercentile(99) / 1000.0 > SLO_MILLIS || result.getTimeouts() > 0;
+            System.out.printf("%-16s %8d %9.1f %7d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    result.getCompleted(), result.getThroughput(), result.getErrors(), result.getTimeouts(),
+                    ms(latency, 50), ms(latency, 90), ms(latency, 99), ms(latency, 99.9), latency.getMaxValue() / 1000.0);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("completed", result.getCompleted());
+            summary.put("throughput", result.getThroughput());
+            summary.put("errors", result.getErrors());
+            summary.put("timeouts", result.getTimeouts());
+            summary.put("p50Ms", ms(latency, 50));
+            summary.put("p90Ms", ms(latency, 90));
+            summary.put("p99Ms", ms(latency, 99));
+            summary.put("p999Ms", ms(latency, 99.9));
+            summary.put("maxMs", latency.getMaxValue() / 1000.0);
+            summary.put("serviceP99Ms", ms(result.getService(), 99));
+            endpoints.put(entry.getKey(), summary);
+
+            try (PrintStream out = new PrintStream(OUTPUT.resolve(String.format("%.0f-%s.hgrm", rate, entry.getKey())).toFile())) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        boolean saturated = breached || achieved < rate * 0.95;
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("targetRate", rate);
+        step.put("achievedRate", achieved);
+        step.put("saturated", saturated);
+        step.put("endpoints", endpoints);
+        return step;
+    }
+
+    private List<Endpoint> endpoints(SyntheticDataGenerator dataset) {
+        Map<String, Endpoint> all = new LinkedHashMap<>();
+        List<String> names = dataset.getCoinNames();
+        List<String> symbols = dataset.getCoinSymbols();
+        all.put("top", new Endpoint("top", 0, random ->
+                "/api/v1/cryptocurrencies/top?limit=" + (random.nextBoolean() ? 10 : 50)));
+        all.put("search", new Endpoint("search", 0, random ->
+                "/api/v1/cryptocurrencies/search?q=" + names.get(skewed(random, names.size())).substring(0, 3)));
+        all.put("advanced-search", new Endpoint("advanced-search", 0, random ->
+                "/api/v1/news/advanced-search?coin=" + symbols.get(skewed(random, symbols.size())).toLowerCase()
+                        + "&sentiment=" + SENTIMENTS[random.nextInt(SENTIMENTS.length)]
+                        + "&page=" + random.nextInt(5) + "&size=20"));
+        all.put("news", new Endpoint("news", 0, random ->
+                "/api/v1/news?page=" + skewed(random, 50) + "&size=20"));
+        all.put("statistics", new Endpoint("statistics", 0, random -> random.nextBoolean()
+                ? "/api/v1/news/statistics" : "/api/v1/cryptocurrencies/statistics"));
+
+        List<Endpoint> mix = new ArrayList<>();
+        for (String part : MIX.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            Endpoint endpoint = all.get(nameAndWeight[0]);
+            if (endpoint == null) {
+                throw new IllegalArgumentException("Unknown endpoint in load.mix: " + nameAndWeight[0] + ", expected one of " + all.keySet());
+            }
+            mix.add(new Endpoint(endpoint.name(), Integer.parseInt(nameAndWeight[1]), endpoint.path()));
+        }
+        return mix;
+    }
+
+    // users mostly look at the first pages and the largest coins
+    private static int skewed(Random random, int size) {
+        return Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), 3)));
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.kapt.bench;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills Postgres with production-shaped market and news data through {@code COPY ... FROM STDIN}, streaming
+ * rows in chunks so tens of millions of articles need no more memory than one chunk.
+ * <ul>
+ *     <li>Sources, coin mentions and keywords are Zipf-distributed, so a few outlets and coins dominate
+ *     and the GIN-indexed arrays have the long tail real feeds have.</li>
+ *     <li>{@code pub_date} is generated in ascending order by a Poisson process with a daily cycle and
+ *     occasional bursts, so physical order follows publication time as it does after live ingest.</li>
+ *     <li>Market rows follow the rank/market-cap curve of the real top list. The schema keeps only the
+ *     latest quote per coin, so there is no price history to fill.</li>
+ * </ul>
+ * Usable from tests through a {@link DataSource}, or standalone via {@code gradle generateData}.
+ */
+public class SyntheticDataGenerator {
+
+    private static final String[] SYLLABLES = {"ba", "ce", "di", "fo", "ka", "le", "mi", "no", "pa", "ri", "so", "ta", "vu", "xe", "zo"};
+    private static final String[] SENTIMENTS = {"Bearish", "Somewhat-Bearish", "Neutral", "Somewhat-Bullish", "Bullish"};
+    private static final double[] SENTIMENT_WEIGHTS = {0.08, 0.17, 0.45, 0.22, 0.08};
+    private static final String[] LANGUAGES = {"en", "es", "de", "fr", "ja"};
+    private static final double[] LANGUAGE_WEIGHTS = {0.85, 0.05, 0.04, 0.03, 0.03};
+    private static final String[] CATEGORIES = {"business", "technology", "markets", "regulation", "politics", "world"};
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final int CHUNK_ROWS = 10_000;
+
+    private final DataSource dataSource;
+    private final Random random;
+    private final List<String> coinNames = new ArrayList<>();
+    private final List<String> coinSymbols = new ArrayList<>();
+
+    public SyntheticDataGenerator(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Coin names and symbols in rank order, for building queries that hit the generated data.
+     */
+    public List<String> getCoinNames() {
+        return coinNames;
+    }
+
+    public List<String> getCoinSymbols() {
+        return coinSymbols;
+    }
+
+    public void generateCoins(int count) throws SQLException {
+        String lastUpdated = LocalDateTime.now().format(TIMESTAMP);
+        try (Connection connection = dataSource.getConnection()) {
+            CopyIn copy = copyIn(connection, "COPY cryptocurrencies (symbol, name, current_price, market_cap, total_volume, "
+                    + "price_change_24h, price_change_percentage_24h, market_cap_rank, circulating_supply, total_supply, "
+                    + "max_supply, last_updated) FROM STDIN");
+            StringBuilder chunk = new StringBuilder();
+            for (int rank = 1; rank <= count; rank++) {
+                String name = word(2 + random.nextInt(3)) + (random.nextInt(4) == 0 ? " " + word(2) : "");
+                String symbol = ("c" + Integer.toString(rank, 36)).toUpperCase();
+                coinNames.add(name);
+                coinSymbols.add(symbol);
+                // log-uniform prices; market cap falls off by rank like the real top list does
+                double price = Math.pow(10, -4 + random.nextDouble() * 8);
+                double marketCap = 1.3e12 / Math.pow(rank, 1.3);
+                double changePct = Math.max(-99, Math.min(99, random.nextGaussian() * 4));
+                double circulating = marketCap / price;
+                row(chunk, escape(symbol), escape(name), fixed(price, 8), fixed(marketCap, 2),
+                        fixed(marketCap * (0.01 + random.nextDouble() * 0.3), 2), fixed(price * changePct / 100, 2),
+                        fixed(changePct, 2), String.valueOf(rank), fixed(circulating, 2), fixed(circulating * 1.1, 2),
+                        random.nextInt(10) < 4 ? null : fixed(circulating * 1.5, 2), lastUpdated);
+                if (rank % CHUNK_ROWS == 0) {
+                    flush(copy, chunk);
+                }
+            }
+            flush(copy, chunk);
+            copy.endCopy();
+            analyze(connection, "cryptocurrencies");
+        }
+    }
+
+    /**
+     * Articles published between {@code from} and {@code to}; call {@link #generateCoins} first so mentions
+     * point at existing coins. Missing monthly partitions for the range are created up front.
+     */
+    public long generateNews(long count, LocalDateTime from, LocalDateTime to) throws SQLException {
+        if (coinSymbols.isEmpty()) {
+            throw new IllegalStateException("generateCoins must run before generateNews");
+        }
+        ZipfSampler sources = new ZipfSampler(200, 1.1);
+        ZipfSampler coins = new ZipfSampler(coinSymbols.size(), 1.0);
+        ZipfSampler keywords = new ZipfSampler(500, 1.05);
+        String[] keywordVocabulary = new String[500];
+        for (int i = 0; i < keywordVocabulary.length; i++) {
+            keywordVocabulary[i] = word(2 + i % 3).toLowerCase() + i;
+        }
+
+        // mean gap that spreads count articles over the range; the daily cycle and bursts modulate it
+        long spanSeconds = Duration.between(from, to).toSeconds();
+        double meanGapSeconds = (double) spanSeconds / count;
+        try (Connection connection = dataSource.getConnection()) {
+            createPartitions(connection, from, to);
+            CopyIn copy = copyIn(connection, "COPY news (article_id, title, link, keywords, description, pub_date, "
+                    + "source_name, source_url, language, coin_mentioned, sentiment, category, duplicate) FROM STDIN");
+            StringBuilder chunk = new StringBuilder();
+            double clock = 0;
+            int burstLeft = 0;
+            for (long i = 0; i < count; i++) {
+                LocalDateTime pubDate = from.plusSeconds(Math.min(spanSeconds, (long) clock));
+                double hour = pubDate.getHour() + pubDate.getMinute() / 60.0;
+                // three times as busy around 15:00 UTC (US market hours) as around 03:00
+                double dailyRate = 1 + 0.5 * Math.sin((hour - 9) / 24 * 2 * Math.PI);
+                if (burstLeft == 0 && random.nextInt(5_000) == 0) {
+                    burstLeft = 20 + random.nextInt(200);
+                }
+                double rate = dailyRate * (burstLeft > 0 ? 10 : 1);
+                burstLeft = Math.max(0, burstLeft - 1);
+                clock += -Math.log(1 - random.nextDouble()) * meanGapSeconds / rate;
+
+                int source = sources.sample(random);
+                String sourceName = "Source " + source;
+                // most articles are about one coin, some compare two or three
+                int[] coinRanks = distinct(coins, random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(2));
+                String[] mentioned = new String[coinRanks.length];
+                for (int c = 0; c < coinRanks.length; c++) {
+                    mentioned[c] = coinSymbols.get(coinRanks[c]).toLowerCase();
+                }
+                int[] keywordRanks = distinct(keywords, 1 + random.nextInt(4));
+                String[] articleKeywords = new String[keywordRanks.length];
+                for (int k = 0; k < keywordRanks.length; k++) {
+                    articleKeywords[k] = keywordVocabulary[keywordRanks[k]];
+                }
+                String headline = coinNames.get(coinRanks[0]) + " " + String.join(" ", articleKeywords) + " " + i;
+                String summary = headline + ": " + word(8) + " " + word(6) + " " + word(10) + ".";
+                row(chunk, "syn_" + i, escape(headline), "https://news" + source + ".example.com/a/" + i,
+                        array(articleKeywords), escape(summary), pubDate.format(TIMESTAMP),
+                        escape(sourceName), "https://news" + source + ".example.com",
+                        LANGUAGES[weighted(LANGUAGE_WEIGHTS)], array(mentioned), SENTIMENTS[weighted(SENTIMENT_WEIGHTS)],
+                        array(new String[]{CATEGORIES[random.nextInt(CATEGORIES.length)]}), random.nextInt(50) == 0 ? "t" : "f");
+                if ((i + 1) % CHUNK_ROWS == 0) {
+                    flush(copy, chunk);
+                }
+            }
+            flush(copy, chunk);
+            long written = copy.endCopy();
+            registerArticleIds(connection);
+            analyze(connection, "news");
+            analyze(connection, "news_article_ids");
+            return written;
+        }
+    }
+
+    private static void registerArticleIds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO news_article_ids (article_id, news_id, pub_date) "
+                    + "SELECT article_id, id, pub_date FROM news ON CONFLICT (article_id) DO NOTHING");
+        }
+    }
+
+    private void createPartitions(Connection connection, LocalDateTime from, LocalDateTime to) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+                statement.execute(String.format("CREATE TABLE IF NOT EXISTS news_p%s PARTITION OF news FOR VALUES FROM ('%s') TO ('%s')",
+                        month.format(PARTITION_SUFFIX), month.atDay(1), month.plusMonths(1).atDay(1)));
+            }
+        }
+    }
+
+    private int[] distinct(ZipfSampler sampler, int count) {
+        int[] ranks = new int[count];
+        int found = 0;
+        for (int attempt = 0; found < count && attempt < count * 4; attempt++) {
+            int candidate = sampler.sample(random);
+            boolean seen = false;
+            for (int j = 0; j < found && !seen; j++) {
+                seen = ranks[j] == candidate;
+            }
+            if (!seen) {
+                ranks[found++] = candidate;
+            }
+        }
+        return Arrays.copyOf(ranks, found);
+    }
+
+    private int weighted(double[] weights) {
+        double roll = random.nextDouble();
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private String word(int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    private static CopyIn copyIn(Connection connection, String sql) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    }
+
+    private static void flush(CopyIn copy, StringBuilder chunk) throws SQLException {
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private static void analyze(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE " + table);
+        }
+    }
+
+    // one line of COPY text format; null becomes \N
+    private static void row(StringBuilder chunk, String... columns) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                chunk.append('\t');
+            }
+            chunk.append(columns[i] == null ? "\\N" : columns[i]);
+        }
+        chunk.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    // array literal inside COPY text format: elements are quoted, and backslashes doubled once for each layer
+    private static String array(String[] values) {
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append('"').append(values[i].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return escape(literal.append('}').toString());
+    }
+
+    private static String fixed(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Standalone entry point for filling a database by hand, e.g. the docker-compose one:
+     * {@code gradle generateData -Pdata.url=jdbc:postgresql://localhost:5432/crypto_db -Pdata.news=20000000}.
+     * The schema must already be migrated.
+     */
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("data.url", "jdbc:postgresql://localhost:5432/crypto_db");
+        String user = System.getProperty("data.user", "crypto_user");
+        String password = System.getProperty("data.password", "crypto_password");
+        int coins = Integer.getInteger("data.coins", 10_000);
+        long news = Long.getLong("data.news", 1_000_000L);
+        int days = Integer.getInteger("data.days", 365);
+        long seed = Long.getLong("data.seed", 42L);
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(new DriverManagerDataSource(url, user, password), seed);
+        long start = System.nanoTime();
+        generator.generateCoins(coins);
+        LocalDateTime now = LocalDateTime.now();
+        long written = generator.generateNews(news, now.minusDays(days), now);
+        System.out.printf("Generated %d coins and %d articles in %.1f s%n", coins, written, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^s from a precomputed CDF.
+     */
+    static class ZipfSampler {
+
+        private final double[] cdf;
+
+        ZipfSampler(int n, double s) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, s);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
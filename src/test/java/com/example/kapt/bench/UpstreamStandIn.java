@@ -0,0 +1,113 @@
+package com.example.kapt.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server answering CoinGecko {@code /coins/markets} and Alpha Vantage {@code /query} with synthetic
+ * payloads from {@link Fixtures} after a fixed latency. Payloads for a cycle are rendered by {@link #prepareCycle}
+ * ahead of time so the stand-in's own JSON work stays out of the measured window.
+ */
+public class UpstreamStandIn implements AutoCloseable {
+
+    public static final String THREAD_PREFIX = "upstream-stand-in-";
+
+    private final HttpServer server;
+    private final ObjectMapper mapper = Fixtures.objectMapper();
+    private final int coinCount;
+    private final int articleCount;
+    private final long latencyMillis;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final Map<String, byte[]> coinPages = new ConcurrentHashMap<>();
+    private volatile List<Map<String, Object>> coins = List.of();
+    private volatile byte[] newsFeed = new byte[0];
+
+    public UpstreamStandIn(int coinCount, int articleCount, long latencyMillis) throws IOException {
+        this.coinCount = coinCount;
+        this.articleCount = articleCount;
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/coins/markets", this::coinMarkets);
+        server.createContext("/query", this::newsSentiment);
+        AtomicInteger threadCount = new AtomicInteger();
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    public String coinGeckoUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String alphaVantageUrl() {
+        return coinGeckoUrl() + "/query";
+    }
+
+    public void prepareCycle(int cycle) {
+        coins = Fixtures.coinMarkets(coinCount, Fixtures.SEED + cycle);
+        coinPages.clear();
+        // CryptocurrencyService asks for pages of 100; any other page size is rendered on first request
+        for (int page = 1; (page - 1) * 100 < coinCount; page++) {
+            coinPage(100, page);
+        }
+        newsFeed = Fixtures.toJson(mapper, Fixtures.newsFeed(articleCount, Fixtures.SEED + cycle));
+    }
+
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    private void coinMarkets(HttpExchange exchange) throws IOException {
+        Map<String, String> params = UriComponentsBuilder.fromUri(exchange.getRequestURI()).build().getQueryParams().toSingleValueMap();
+        int perPage = Integer.parseInt(params.getOrDefault("per_page", "100"));
+        int page = Integer.parseInt(params.getOrDefault("page", "1"));
+        respond(exchange, coinPage(perPage, page));
+    }
+
+    private byte[] coinPage(int perPage, int page) {
+        return coinPages.computeIfAbsent(perPage + ":" + page, key -> {
+            List<Map<String, Object>> all = coins;
+            int from = Math.min(all.size(), (page - 1) * perPage);
+            int to = Math.min(all.size(), from + perPage);
+            return Fixtures.toJson(mapper, all.subList(from, to));
+        });
+    }
+
+    private void newsSentiment(HttpExchange exchange) throws IOException {
+        respond(exchange, newsFeed);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.kapt.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records every statement Hibernate prepares in the test profile. A JDBC batch is prepared once, so a flush of
+ * many dirty rows counts once per batch while a query or insert issued per row counts once per row. Native JDBC
+ * that bypasses Hibernate is not seen.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        statements.clear();
+    }
+
+    public static List<String> statements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    public static void assertStatements(int atMost) {
+        assertThat(statements()).as("SQL statements since the last reset").hasSizeLessThanOrEqualTo(atMost);
+    }
+
+    public static void assertStatements(String verb, int atMost) {
+        List<String> matching = statements().stream()
+                .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith(verb.toLowerCase(Locale.ROOT)))
+                .toList();
+        assertThat(matching).as("%s statements since the last reset", verb).hasSizeLessThanOrEqualTo(atMost);
+    }
+}
@@ -2,12 +2,14 @@ package com.example.kapt.controller;
 
 import com.example.kapt.model.Cryptocurrency;
 import com.example.kapt.service.CryptocurrencyService;
+import com.example.kapt.service.JobService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
@@ -18,7 +20,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
@@ -28,6 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CryptocurrencyController.class)
+@Import(JobService.class)
 @DisplayName("CryptocurrencyController Tests")
 class CryptocurrencyControllerTest {
 
@@ -36,6 +41,9 @@ class CryptocurrencyControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JobService jobService;
+
     @MockBean
     private CryptocurrencyService cryptocurrencyService;
 
@@ -154,15 +162,35 @@ class CryptocurrencyControllerTest {
     @DisplayName("Should trigger manual data update")
     void shouldTriggerManualDataUpdate() throws Exception {
 
-        mockMvc.perform(post("/api/v1/cryptocurrencies/update")).andExpect(status().isOk()).andExpect(content().string(containsString("update started successfully")));
+        when(cryptocurrencyService.fetchAndSaveCryptocurrencies(any())).thenReturn(3);
+        String response = mockMvc.perform(post("/api/v1/cryptocurrencies/update")).andExpect(status().isAccepted()).andExpect(jsonPath("$.jobId", notNullValue())).andExpect(jsonPath("$.statusUrl", startsWith("/api/v1/jobs/"))).andReturn().getResponse().getContentAsString();
+
+        // the job runs on a worker thread and must finish before the next test stubs the same mock
+        JobService.Job job = awaitJob(response);
+        assertThat(job.getStatus()).isEqualTo(JobService.JobStatus.SUCCEEDED);
+        assertThat(job.getResult()).isEqualTo(3);
+        assertThat(job.getProgress()).isEqualTo(100);
     }
 
     @Test
-    @DisplayName("Should handle service exception during manual update")
+    @DisplayName("Should report service exception during manual update on the job")
     void shouldHandleServiceExceptionDuringManualUpdate() throws Exception {
 
-        doThrow(new RuntimeException("Service error")).when(cryptocurrencyService).fetchAndSaveCryptocurrencies();
-        mockMvc.perform(post("/api/v1/cryptocurrencies/update")).andExpect(status().isInternalServerError()).andExpect(content().string(containsString("Error triggering cryptocurrency data update")));
+        doThrow(new RuntimeException("Service error")).when(cryptocurrencyService).fetchAndSaveCryptocurrencies(any());
+        String response = mockMvc.perform(post("/api/v1/cryptocurrencies/update")).andExpect(status().isAccepted()).andReturn().getResponse().getContentAsString();
+
+        JobService.Job job = awaitJob(response);
+        assertThat(job.getStatus()).isEqualTo(JobService.JobStatus.FAILED);
+        assertThat(job.getError()).isEqualTo("Service error");
+    }
+
+    private JobService.Job awaitJob(String response) throws Exception {
+        String jobId = objectMapper.readTree(response).get("jobId").asText();
+        JobService.Job job = jobService.findJob(jobId).orElseThrow();
+        for (int i = 0; i < 250 && job.getFinishedAt() == null; i++) {
+            Thread.sleep(20);
+        }
+        return job;
     }
 
     private Cryptocurrency createTestBitcoin() {
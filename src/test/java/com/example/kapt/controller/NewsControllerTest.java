@@ -1,6 +1,9 @@
 package com.example.kapt.controller;
 
+import com.example.kapt.dto.NewsSummary;
 import com.example.kapt.model.News;
+import com.example.kapt.service.AlphaVantageRequestScheduler;
+import com.example.kapt.service.JobService;
 import com.example.kapt.service.NewsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -19,8 +23,11 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -29,6 +36,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(NewsController.class)
+@Import(JobService.class)
 @DisplayName("NewsController Tests")
 class NewsControllerTest {
 
@@ -41,19 +49,20 @@ class NewsControllerTest {
     private NewsService newsService;
 
     private News testNews;
-    private List<News> testNewsList;
+    private List<NewsSummary> testNewsList;
 
     @BeforeEach
     void setUp() {
         testNews = createTestNews();
-        testNewsList = List.of(testNews);
+        testNewsList = List.of(new NewsSummary(testNews.getId(), testNews.getArticleId(), testNews.getTitle(), testNews.getLink(),
+                testNews.getPubDate(), testNews.getSourceName(), testNews.getSentiment()));
     }
 
     @Test
     @DisplayName("Should get all news with default pagination")
     void shouldGetAllNewsWithDefaultPagination() throws Exception {
 
-        Page<News> newsPage = new PageImpl<>(testNewsList, PageRequest.of(0, 20), 1);
+        Page<NewsSummary> newsPage = new PageImpl<>(testNewsList, PageRequest.of(0, 20), 1);
         when(newsService.getAllNews(anyInt(), anyInt(), anyString(), anyString())).thenReturn(newsPage);
         mockMvc.perform(get("/api/v1/news")).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$.content", hasSize(1))).andExpect(jsonPath("$.content[0].id", is(1))).andExpect(jsonPath("$.content[0].title", is("Test Bitcoin News"))).andExpect(jsonPath("$.totalElements", is(1))).andExpect(jsonPath("$.size", is(20)));
 
@@ -64,7 +73,7 @@ class NewsControllerTest {
     @DisplayName("Should get all news with custom pagination")
     void shouldGetAllNewsWithCustomPagination() throws Exception {
 
-        Page<News> newsPage = new PageImpl<>(testNewsList, PageRequest.of(1, 10), 1);
+        Page<NewsSummary> newsPage = new PageImpl<>(testNewsList, PageRequest.of(1, 10), 1);
         when(newsService.getAllNews(anyInt(), anyInt(), anyString(), anyString())).thenReturn(newsPage);
         mockMvc.perform(get("/api/v1/news").param("page", "1").param("size", "10")).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$.content", hasSize(1))).andExpect(jsonPath("$.size", is(10))).andExpect(jsonPath("$.number", is(1)));
 
@@ -124,7 +133,7 @@ class NewsControllerTest {
         when(newsService.getNewsByCoin(coin)).thenReturn(testNewsList);
 
 
-        mockMvc.perform(get("/api/v1/news/coin/{coin}", coin)).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$", hasSize(1))).andExpect(jsonPath("$[0].coinMentioned", hasItem("BTC")));
+        mockMvc.perform(get("/api/v1/news/coin/{coin}", coin)).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$", hasSize(1))).andExpect(jsonPath("$[0].title", is("Test Bitcoin News"))).andExpect(jsonPath("$[0].coinMentioned").doesNotExist());
 
         verify(newsService).getNewsByCoin(coin);
     }
@@ -187,21 +196,30 @@ class NewsControllerTest {
     @Test
     @DisplayName("Should trigger manual news update")
     void shouldTriggerManualNewsUpdate() throws Exception {
-        doNothing().when(newsService).fetchAndSaveLatestNews(anyInt());
+        when(newsService.fetchAndSaveLatestNews(anyInt(), any(IntConsumer.class))).thenReturn(CompletableFuture.completedFuture(0));
 
-        mockMvc.perform(post("/api/v1/news/update")).andExpect(status().isOk()).andExpect(content().contentType("text/plain;charset=UTF-8")).andExpect(content().string(containsString("started successfully")));
+        mockMvc.perform(post("/api/v1/news/update")).andExpect(status().isAccepted()).andExpect(header().string("Location", org.hamcrest.Matchers.startsWith("/api/v1/jobs/"))).andExpect(jsonPath("$.jobId", notNullValue())).andExpect(jsonPath("$.statusUrl", org.hamcrest.Matchers.startsWith("/api/v1/jobs/")));
 
-        verify(newsService).fetchAndSaveLatestNews(anyInt());
+        verify(newsService).fetchAndSaveLatestNews(anyInt(), any(IntConsumer.class));
     }
 
     @Test
     @DisplayName("Should handle service exception during manual update")
     void shouldHandleServiceExceptionDuringManualUpdate() throws Exception {
-        doThrow(new RuntimeException("Service error")).when(newsService).fetchAndSaveLatestNews(anyInt());
+        doThrow(new RuntimeException("Service error")).when(newsService).fetchAndSaveLatestNews(anyInt(), any(IntConsumer.class));
 
         mockMvc.perform(post("/api/v1/news/update")).andExpect(status().isInternalServerError());
 
-        verify(newsService).fetchAndSaveLatestNews(anyInt());
+        verify(newsService).fetchAndSaveLatestNews(anyInt(), any(IntConsumer.class));
+    }
+
+    @Test
+    @DisplayName("Should return 429 when the Alpha Vantage daily quota is exhausted")
+    void shouldReturnTooManyRequestsWhenQuotaExhausted() throws Exception {
+        when(newsService.fetchAndSaveLatestNews(anyInt(), any(IntConsumer.class)))
+                .thenThrow(new AlphaVantageRequestScheduler.QuotaExceededException("Alpha Vantage daily quota of 25 requests is exhausted until 00:00 UTC"));
+
+        mockMvc.perform(post("/api/v1/news/update")).andExpect(status().isTooManyRequests()).andExpect(content().string(containsString("daily quota")));
     }
 
     @Test
@@ -0,0 +1,175 @@
+package com.example.kapt.controller;
+
+import com.example.kapt.config.TelegramBotConfig;
+import com.example.kapt.service.CryptocurrencyService;
+import com.example.kapt.service.PriceAlertService;
+import com.example.kapt.service.SubscriptionService;
+import com.example.kapt.telegram.CryptocurrencyTelegramBot;
+import com.example.kapt.telegram.TelegramInlineSearch;
+import com.example.kapt.telegram.TelegramNewsPager;
+import com.example.kapt.telegram.TelegramResponseCache;
+import com.example.kapt.telegram.TelegramSendQueue;
+import com.example.kapt.telegram.TelegramUpdateDispatcher;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the webhook end to end against a local HTTP stand-in for the Telegram Bot API.
+ */
+@DisplayName("TelegramWebhookController Tests")
+class TelegramWebhookControllerTest {
+
+    private static final String TOKEN = "123:test";
+    private static final String SECRET = "webhook-secret";
+    private static final String UPDATE_JSON = """
+            {"update_id": 1,
+             "message": {"message_id": 5, "date": 0,
+                         "chat": {"id": 42, "type": "private"},
+                         "from": {"id": 42, "is_bot": false, "first_name": "Alex"},
+                         "text": "/help"}}
+            """;
+
+    private final BlockingQueue<String> apiCalls = new LinkedBlockingQueue<>();
+    private HttpServer telegramApi;
+    private TelegramUpdateDispatcher dispatcher;
+    private TelegramSendQueue sendQueue;
+    private CryptocurrencyTelegramBot bot;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        telegramApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        telegramApi.createContext("/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String path = exchange.getRequestURI().getPath();
+            apiCalls.add(path.substring(path.lastIndexOf('/') + 1).toLowerCase() + " " + body);
+
+            String response = path.toLowerCase().endsWith("/setwebhook")
+                    ? "{\"ok\":true,\"result\":true}"
+                    : "{\"ok\":true,\"result\":{\"message_id\":6,\"date\":0,\"chat\":{\"id\":42,\"type\":\"private\"}}}";
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        telegramApi.start();
+
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl("http://localhost:" + telegramApi.getAddress().getPort() + "/bot");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new TelegramUpdateDispatcher(2, 10, meterRegistry);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<AbsSender> senderProvider = mock(ObjectProvider.class);
+        sendQueue = new TelegramSendQueue(senderProvider, meterRegistry, 30, 0, 100, 0, 1);
+        bot = new CryptocurrencyTelegramBot(options, TOKEN, mock(CryptocurrencyService.class), mock(TelegramNewsPager.class),
+                dispatcher, mock(TelegramResponseCache.class), sendQueue, mock(PriceAlertService.class),
+                mock(TelegramInlineSearch.class), mock(SubscriptionService.class));
+        ReflectionTestUtils.setField(bot, "botUsername", "crypto_test_bot");
+        when(senderProvider.getObject()).thenReturn(bot);
+        sendQueue.start();
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new TelegramWebhookController(bot, SECRET)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendQueue.stop();
+        dispatcher.shutdown();
+        telegramApi.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should handle a pushed update and reply through the Telegram API")
+    void shouldHandleWebhookUpdate() throws Exception {
+        mockMvc.perform(post("/api/v1/telegram/webhook")
+                        .header(TelegramWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_JSON))
+                .andExpect(status().isOk());
+
+        String call = apiCalls.poll(5, TimeUnit.SECONDS);
+        assertThat(call).startsWith("sendmessage ").contains("\"chat_id\":\"42\"").contains("Доступные команды");
+    }
+
+    @Test
+    @DisplayName("Should reject updates without the secret token")
+    void shouldRejectWrongSecretToken() throws Exception {
+        mockMvc.perform(post("/api/v1/telegram/webhook")
+                        .header(TelegramWebhookController.SECRET_TOKEN_HEADER, "guess")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_JSON))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/telegram/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_JSON))
+                .andExpect(status().isForbidden());
+
+        assertThat(apiCalls.poll(300, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should register the webhook with its secret token instead of polling")
+    void shouldRegisterWebhook() throws Exception {
+        TelegramBotConfig config = new TelegramBotConfig();
+        ReflectionTestUtils.setField(config, "telegramBotEnabled", true);
+        ReflectionTestUtils.setField(config, "botMode", "webhook");
+        ReflectionTestUtils.setField(config, "webhookUrl", "https://bot.example.com/");
+        ReflectionTestUtils.setField(config, "webhookPath", "/api/v1/telegram/webhook");
+        ReflectionTestUtils.setField(config, "webhookSecretToken", SECRET);
+        ReflectionTestUtils.setField(config, "webhookMaxConnections", 40);
+
+        assertThat(config.telegramBotsApi(bot)).isNull();
+
+        String call = apiCalls.poll(5, TimeUnit.SECONDS);
+        assertThat(call).startsWith("setwebhook ")
+                .contains("\"url\":\"https://bot.example.com/api/v1/telegram/webhook\"")
+                .contains("\"secret_token\":\"" + SECRET + "\"");
+    }
+
+    @Test
+    @DisplayName("Should expose the webhook only when the bot is enabled in webhook mode")
+    void shouldRequireEnabledBotInWebhookMode() {
+        // Given
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withBean(CryptocurrencyTelegramBot.class, () -> bot)
+                .withUserConfiguration(TelegramWebhookController.class)
+                .withPropertyValues("app.telegram.webhook.secret-token=" + SECRET);
+
+        // When / Then
+        runner.withPropertyValues("app.telegram.bot.enabled=true", "app.telegram.bot.mode=webhook")
+                .run(context -> assertThat(context).hasSingleBean(TelegramWebhookController.class));
+        runner.withPropertyValues("app.telegram.bot.enabled=false", "app.telegram.bot.mode=webhook")
+                .run(context -> assertThat(context).doesNotHaveBean(TelegramWebhookController.class));
+        runner.withPropertyValues("app.telegram.bot.enabled=true", "app.telegram.bot.mode=polling")
+                .run(context -> assertThat(context).doesNotHaveBean(TelegramWebhookController.class));
+    }
+}
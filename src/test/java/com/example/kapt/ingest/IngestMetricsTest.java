@@ -0,0 +1,89 @@
+package com.example.kapt.ingest;
+
+import com.example.kapt.config.UpstreamMetricsFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IngestMetrics Tests")
+class IngestMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should report the age of the last successful run and ignore failed ones")
+    void shouldTrackLastSuccessAge() {
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        IngestMetrics metrics = new IngestMetrics(meterRegistry, clock);
+
+        now.set(now.get().plusSeconds(60));
+        metrics.recordRun(IngestMetrics.COINGECKO, System.nanoTime(), true);
+        now.set(now.get().plusSeconds(900));
+        metrics.recordRun(IngestMetrics.COINGECKO, System.nanoTime(), false);
+
+        assertThat(meterRegistry.get("ingest.last.success.age").tag("source", "coingecko").gauge().value()).isEqualTo(900.0);
+        assertThat(meterRegistry.get("ingest.last.success.age").tag("source", "news").gauge().value()).isEqualTo(960.0);
+        assertThat(meterRegistry.get("ingest.run.duration").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should time upstream calls by endpoint and status")
+    void shouldTimeUpstreamCalls() {
+        UpstreamMetricsFilter filter = new UpstreamMetricsFilter(meterRegistry);
+
+        filter.filter(request("https://www.alphavantage.co/query?function=NEWS_SENTIMENT&tickers=CRYPTO:BTC"),
+                request -> Mono.just(ClientResponse.create(HttpStatus.OK).build())).block();
+        filter.filter(request("https://api.coingecko.com/api/v3/coins/markets?page=1"),
+                request -> Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build())).block();
+        assertThatThrownBy(() -> filter.filter(request("https://api.coingecko.com/api/v3/coins/markets?page=2"),
+                request -> Mono.error(new IOException("connection reset"))).block());
+
+        assertThat(meterRegistry.get("upstream.request.duration")
+                .tags("upstream", "alphavantage", "endpoint", "NEWS_SENTIMENT", "status", "200").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("upstream.request.duration")
+                .tags("upstream", "coingecko", "endpoint", "/api/v3/coins/markets", "status", "429").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("upstream.request.duration")
+                .tags("upstream", "coingecko", "status", "IO_ERROR").timer().count()).isEqualTo(1);
+    }
+
+    private static ClientRequest request(String url) {
+        return ClientRequest.create(HttpMethod.GET, URI.create(url)).build();
+    }
+}
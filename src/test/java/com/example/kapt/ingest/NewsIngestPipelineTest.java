@@ -0,0 +1,311 @@
+package com.example.kapt.ingest;
+
+import com.example.kapt.dto.AlphaVantageNewsArticleDto;
+import com.example.kapt.event.NewsIngestedEvent;
+import com.example.kapt.model.News;
+import com.example.kapt.model.NewsArticleKey;
+import com.example.kapt.model.NewsContent;
+import com.example.kapt.repository.NewsArticleKeyRepository;
+import com.example.kapt.repository.NewsContentRepository;
+import com.example.kapt.repository.NewsRepository;
+import com.example.kapt.service.AlphaVantageNewsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NewsIngestPipeline Tests")
+class NewsIngestPipelineTest {
+
+    @Mock
+    private AlphaVantageNewsService alphaVantageNewsService;
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    @Mock
+    private NewsContentRepository newsContentRepository;
+
+    @Mock
+    private NewsArticleKeyRepository newsArticleKeyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NearDuplicateDetector nearDuplicateDetector;
+    private NewsIngestPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nearDuplicateDetector = spy(new NearDuplicateDetector(newsRepository, true, 6, 48, 1_000));
+        pipeline = new NewsIngestPipeline(alphaVantageNewsService, newsRepository, newsContentRepository, newsArticleKeyRepository,
+                nearDuplicateDetector, eventPublisher, transactionManager, meterRegistry,
+                new IngestMetrics(meterRegistry));
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 4);
+        ReflectionTestUtils.setField(pipeline, "decodeWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "enrichWorkers", 2);
+        ReflectionTestUtils.setField(pipeline, "dedupWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "persistWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 10);
+        ReflectionTestUtils.setField(pipeline, "batchLingerMillis", 50L);
+        ReflectionTestUtils.setField(pipeline, "maxContentLength", 20);
+
+        lenient().when(alphaVantageNewsService.decode(any())).thenAnswer(invocation -> {
+            AlphaVantageNewsArticleDto dto = invocation.getArgument(0);
+            return dto.getTitle() == null ? null : new News("av_" + dto.getUrl(), dto.getTitle(), dto.getUrl());
+        });
+        lenient().when(newsRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    @DisplayName("Should insert new articles, update existing ones and drop invalid or repeated ones")
+    void shouldRouteArticlesThroughAllStages() throws Exception {
+        News existing = new News("av_https://example.com/known", "Old title", "https://example.com/known");
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of(existing));
+
+        List<AlphaVantageNewsArticleDto> articles = List.of(
+                article("Fresh", "https://example.com/fresh"),
+                article("Updated title", "https://example.com/known"),
+                article(null, "https://example.com/broken"));
+
+        NewsIngestPipeline.IngestResult result = pipeline.ingest(articles, "test").get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getSaved()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        assertThat(result.getFailed()).isZero();
+        assertThat(existing.getTitle()).isEqualTo("Updated title");
+        verify(alphaVantageNewsService, times(2)).enrich(any(), any());
+
+        ArgumentCaptor<NewsIngestedEvent> event = ArgumentCaptor.forClass(NewsIngestedEvent.class);
+        verify(eventPublisher, timeout(1_000)).publishEvent(event.capture());
+        assertThat(event.getValue().getSavedArticles()).extracting(News::getTitle).containsExactly("Fresh");
+        // the dropped article is not a change
+        assertThat(event.getValue().getUpdatedCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("news.ingest.items").tag("stage", "persist").tag("outcome", "inserted").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should complete a run without waiting for the ingested event listeners")
+    void shouldPublishEventOffThePipeline() throws Exception {
+        // Given
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of());
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(eventPublisher).publishEvent(any(Object.class));
+
+        // When
+        NewsIngestPipeline.IngestResult result = pipeline.ingest(List.of(article("Fresh", "https://example.com/fresh")), "test")
+                .get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result.getSaved()).isEqualTo(1);
+        release.countDown();
+        verify(eventPublisher, timeout(1_000)).publishEvent(any(NewsIngestedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should count the whole batch as failed when persisting it throws")
+    void shouldFailBatchWhenPersistThrows() throws Exception {
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenThrow(new IllegalStateException("database down"));
+
+        NewsIngestPipeline.IngestResult result = pipeline.ingest(
+                List.of(article("One", "https://example.com/1"), article("Two", "https://example.com/2")), "test")
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getSaved()).isZero();
+        assertThat(result.getFailed()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report the share of a page's articles that went through the pipeline")
+    void shouldReportProgress() throws Exception {
+        // Given
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of());
+        List<Integer> reported = new CopyOnWriteArrayList<>();
+
+        // When
+        pipeline.ingest(List.of(
+                        article("Fresh", "https://example.com/fresh"),
+                        article(null, "https://example.com/broken")),
+                "test", reported::add).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(reported).containsExactlyInAnyOrder(50, 100);
+    }
+
+    @Test
+    @DisplayName("Should release the article id when the dedup stage fails so a later run stores it")
+    void shouldReleaseArticleIdWhenDedupFails() throws Exception {
+        // Given
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of());
+        doThrow(new IllegalStateException("index corrupted")).doCallRealMethod()
+                .when(nearDuplicateDetector).markDuplicate(any());
+        List<AlphaVantageNewsArticleDto> articles = List.of(article("Fresh", "https://example.com/fresh"));
+
+        // When
+        NewsIngestPipeline.IngestResult failed = pipeline.ingest(articles, "first").get(5, TimeUnit.SECONDS);
+        NewsIngestPipeline.IngestResult retried = pipeline.ingest(articles, "retry").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(failed.getFailed()).isEqualTo(1);
+        assertThat(retried.getSaved()).isEqualTo(1);
+        assertThat(retried.getSkipped()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should store only bodies that differ from the summary, capped at the max content length")
+    void shouldStoreDistinctBodiesSeparately() throws Exception {
+        // Given
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            AlphaVantageNewsArticleDto dto = invocation.getArgument(0);
+            News news = new News("av_" + dto.getUrl(), dto.getTitle(), dto.getUrl());
+            news.setDescription("Short summary");
+            news.setContent(dto.getTitle().equals("Full") ? "A body much longer than the configured limit" : "Short summary");
+            return news;
+        }).when(alphaVantageNewsService).decode(any());
+
+        // When
+        NewsIngestPipeline.IngestResult result = pipeline.ingest(
+                List.of(article("Full", "https://example.com/full"), article("Summary", "https://example.com/summary")), "test")
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result.getSaved()).isEqualTo(2);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewsContent>> contents = ArgumentCaptor.forClass(List.class);
+        verify(newsContentRepository).saveAll(contents.capture());
+        assertThat(contents.getValue()).extracting(NewsContent::getBody).containsExactly("A body much longer t");
+    }
+
+    @Test
+    @DisplayName("Should not split a surrogate pair when capping text at the max content length")
+    void shouldTruncateOnCharacterBoundary() throws Exception {
+        // Given
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of());
+        String body = "Bitcoin rallies to 🚀 new highs";
+        doAnswer(invocation -> {
+            AlphaVantageNewsArticleDto dto = invocation.getArgument(0);
+            News news = new News("av_" + dto.getUrl(), dto.getTitle(), dto.getUrl());
+            news.setDescription(body);
+            news.setContent(body + " and beyond");
+            return news;
+        }).when(alphaVantageNewsService).decode(any());
+
+        // When
+        pipeline.ingest(List.of(article("Rally", "https://example.com/rally")), "test").get(5, TimeUnit.SECONDS);
+
+        // Then
+        // the rocket emoji sits at indices 19 and 20, so it is dropped whole rather than keeping its high surrogate
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<News>> saved = ArgumentCaptor.forClass(List.class);
+        verify(newsRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement()
+                .satisfies(news -> {
+                    assertThat(news.getDescription()).isEqualTo("Bitcoin rallies to ");
+                    assertThat(news.getContent()).isEqualTo("Bitcoin rallies to ");
+                });
+    }
+
+    @Test
+    @DisplayName("Should register new article ids and move the key and body of a re-dated article")
+    void shouldKeepArticleKeysInStep() throws Exception {
+        // Given
+        LocalDateTime published = LocalDateTime.of(2024, 1, 15, 12, 0);
+        News existing = new News("av_https://example.com/known", "Old title", "https://example.com/known");
+        existing.setId(7L);
+        existing.setPubDate(published);
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of(existing));
+        doAnswer(invocation -> {
+            AlphaVantageNewsArticleDto dto = invocation.getArgument(0);
+            News news = new News("av_" + dto.getUrl(), dto.getTitle(), dto.getUrl());
+            news.setPubDate(published.plusHours(1));
+            return news;
+        }).when(alphaVantageNewsService).decode(any());
+
+        // When
+        pipeline.ingest(List.of(article("Fresh", "https://example.com/fresh"), article("Known", "https://example.com/known")),
+                "test").get(5, TimeUnit.SECONDS);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewsArticleKey>> keys = ArgumentCaptor.forClass(List.class);
+        verify(newsArticleKeyRepository).saveAll(keys.capture());
+        assertThat(keys.getValue()).extracting(NewsArticleKey::getArticleId).containsExactly("av_https://example.com/fresh");
+        assertThat(keys.getValue()).allMatch(NewsArticleKey::isNew);
+        verify(newsArticleKeyRepository).updatePubDate("av_https://example.com/known", published.plusHours(1));
+        verify(newsContentRepository).updatePubDate(7L, published.plusHours(1));
+    }
+
+    @Test
+    @DisplayName("Should store a syndicated copy from another source flagged as a duplicate")
+    void shouldFlagNearDuplicates() throws Exception {
+        // Given
+        when(newsRepository.findByArticleIdIn(anyCollection())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            AlphaVantageNewsArticleDto dto = invocation.getArgument(0);
+            News news = new News("av_" + dto.getUrl(), dto.getTitle(), dto.getUrl());
+            news.setDescription("The SEC approved the first spot bitcoin exchange-traded funds on Wednesday, "
+                    + "opening the market to a wider range of investors.");
+            return news;
+        }).when(alphaVantageNewsService).decode(any());
+
+        // When
+        NewsIngestPipeline.IngestResult result = pipeline.ingest(List.of(
+                article("SEC approves spot Bitcoin ETFs", "https://wire.example.com/etf"),
+                article("SEC approves spot Bitcoin ETFs", "https://mirror.example.com/etf"),
+                article("Ethereum developers schedule the Dencun upgrade", "https://wire.example.com/dencun")), "test")
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result.getSaved()).isEqualTo(3);
+        ArgumentCaptor<NewsIngestedEvent> event = ArgumentCaptor.forClass(NewsIngestedEvent.class);
+        verify(eventPublisher, timeout(1_000)).publishEvent(event.capture());
+        assertThat(event.getValue().getSavedArticles())
+                .filteredOn(News::getDuplicate)
+                .extracting(News::getTitle)
+                .containsExactly("SEC approves spot Bitcoin ETFs");
+        assertThat(meterRegistry.get("news.ingest.items").tag("stage", "dedup").tag("outcome", "near_duplicate").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    private AlphaVantageNewsArticleDto article(String title, String url) {
+        AlphaVantageNewsArticleDto dto = new AlphaVantageNewsArticleDto();
+        dto.setTitle(title);
+        dto.setUrl(url);
+        return dto;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.kapt.integration;
 
+import com.example.kapt.dto.NewsSummary;
 import com.example.kapt.model.News;
 import com.example.kapt.repository.NewsRepository;
 import com.example.kapt.service.NewsService;
@@ -52,9 +53,9 @@ class NewsIntegrationTest {
         newsRepository.deleteAll();
 
 
-        testNews1 = createAndSaveNews("article-1", "Bitcoin Reaches New High", "CoinDesk", new String[]{"BTC", "Bitcoin"}, new String[]{"cryptocurrency", "price"}, "positive", LocalDateTime.now().minusHours(1));
+        testNews1 = createAndSaveNews("article-1", "Bitcoin Reaches New High", "CoinDesk", new String[]{"btc", "bitcoin"}, new String[]{"cryptocurrency", "price"}, "positive", LocalDateTime.now().minusHours(1));
 
-        testNews2 = createAndSaveNews("article-2", "Ethereum Network Upgrade", "CoinTelegraph", new String[]{"ETH", "Ethereum"}, new String[]{"cryptocurrency", "technology"}, "neutral", LocalDateTime.now().minusHours(2));
+        testNews2 = createAndSaveNews("article-2", "Ethereum Network Upgrade", "CoinTelegraph", new String[]{"eth", "ethereum"}, new String[]{"cryptocurrency", "technology"}, "neutral", LocalDateTime.now().minusHours(2));
     }
 
     @Test
@@ -66,14 +67,14 @@ class NewsIntegrationTest {
     @DisplayName("Should find specific news by ID")
     void shouldFindSpecificNewsById() throws Exception {
 
-        mockMvc.perform(get("/api/v1/news/{id}", testNews1.getId())).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$.id", is(testNews1.getId().intValue()))).andExpect(jsonPath("$.title", is("Bitcoin Reaches New High"))).andExpect(jsonPath("$.sourceName", is("CoinDesk"))).andExpect(jsonPath("$.sentiment", is("positive")));
+        mockMvc.perform(get("/api/v1/news/{articleId}", testNews1.getArticleId())).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$.id", is(testNews1.getId().intValue()))).andExpect(jsonPath("$.title", is("Bitcoin Reaches New High"))).andExpect(jsonPath("$.sourceName", is("CoinDesk"))).andExpect(jsonPath("$.sentiment", is("positive")));
     }
 
     @Test
     @DisplayName("Should return 404 for non-existent news ID")
     void shouldReturn404ForNonExistentNewsId() throws Exception {
 
-        mockMvc.perform(get("/api/v1/news/{id}", 999L)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/news/{articleId}", "missing-article")).andExpect(status().isNotFound());
     }    @Test
     @DisplayName("Should search news by keyword")
     void shouldSearchNewsByKeyword() throws Exception {
@@ -85,7 +86,7 @@ class NewsIntegrationTest {
     @DisplayName("Should get news by coin symbol")
     void shouldGetNewsByCoinSymbol() throws Exception {
 
-        mockMvc.perform(get("/api/v1/news/coin/{coin}", "BTC")).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$", hasSize(1))).andExpect(jsonPath("$[0].coinMentioned", hasItem("BTC")));
+        mockMvc.perform(get("/api/v1/news/coin/{coin}", "BTC")).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$", hasSize(1))).andExpect(jsonPath("$[0].title", is("Bitcoin Reaches New High"))).andExpect(jsonPath("$[0].content").doesNotExist());
     }
 
     @Test
@@ -111,7 +112,7 @@ class NewsIntegrationTest {
     @DisplayName("Should trigger manual news update")
     void shouldTriggerManualNewsUpdate() throws Exception {
 
-        mockMvc.perform(post("/api/v1/news/update")).andExpect(status().isOk()).andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN)).andExpect(content().string(containsString("started")));
+        mockMvc.perform(post("/api/v1/news/update")).andExpect(status().isAccepted()).andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)).andExpect(jsonPath("$.jobId", notNullValue())).andExpect(jsonPath("$.statusUrl", containsString("/api/v1/jobs/")));
     }
 
     @Test
@@ -146,9 +147,9 @@ class NewsIntegrationTest {
         assertThat(initialCount).isEqualTo(2);
 
 
-        List<News> allNews = newsService.getAllNews(0, 10, "pubDate", "desc").getContent();
-        List<News> bitcoinNews = newsService.getNewsByCoin("BTC");
-        List<News> recentNews = newsService.getRecentNews(24);
+        List<NewsSummary> allNews = newsService.getAllNews(0, 10, "pubDate", "desc").getContent();
+        List<NewsSummary> bitcoinNews = newsService.getNewsByCoin("BTC");
+        List<NewsSummary> recentNews = newsService.getRecentNews(24);
 
 
         assertThat(allNews).hasSize(2);
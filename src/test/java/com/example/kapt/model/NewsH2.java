@@ -44,9 +44,6 @@ public class NewsH2 {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @Column(name = "content", columnDefinition = "TEXT")
-    private String content;
-
     @Column(name = "pub_date")
     private LocalDateTime pubDate;
 
@@ -183,14 +180,6 @@ public class NewsH2 {
         this.description = description;
     }
 
-    public String getContent() {
-        return content;
-    }
-
-    public void setContent(String content) {
-        this.content = content;
-    }
-
     public LocalDateTime getPubDate() {
         return pubDate;
     }
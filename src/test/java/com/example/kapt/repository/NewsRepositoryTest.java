@@ -1,5 +1,6 @@
 package com.example.kapt.repository;
 
+import com.example.kapt.dto.NewsSummary;
 import com.example.kapt.model.News;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -88,7 +89,7 @@ class NewsRepositoryTest {
         Pageable pageable = PageRequest.of(0, 10);
 
 
-        Page<News> newsPage = newsRepository.findByDuplicateFalseOrderByPubDateDesc(pageable);
+        Page<NewsSummary> newsPage = newsRepository.findByDuplicateFalseOrderByPubDateDesc(pageable);
 
 
         assertThat(newsPage.getContent()).hasSize(2);
@@ -96,15 +97,15 @@ class NewsRepositoryTest {
         assertThat(newsPage.getContent().get(0).getTitle()).isEqualTo("Ethereum Network Upgrades Successfully");
         assertThat(newsPage.getContent().get(1).getTitle()).isEqualTo("Bitcoin Price Surges to New Heights");
 
-        assertThat(newsPage.getContent()).noneMatch(news -> news.getDuplicate());
+        assertThat(newsPage.getContent()).extracting(NewsSummary::getArticleId).doesNotContain(duplicateNews.getArticleId());
     }
 
     @Test
     @DisplayName("Should find news by source name ignoring case")
     void shouldFindNewsBySourceNameIgnoringCase() {
 
-        List<News> coinDeskNews = newsRepository.findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc("coindesk");
-        List<News> coinTelegraphNews = newsRepository.findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc("COINTELEGRAPH");
+        List<NewsSummary> coinDeskNews = newsRepository.findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc("coindesk");
+        List<NewsSummary> coinTelegraphNews = newsRepository.findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc("COINTELEGRAPH");
 
 
         assertThat(coinDeskNews).hasSize(1);
@@ -121,10 +122,10 @@ class NewsRepositoryTest {
         Pageable pageable = PageRequest.of(0, 10);
 
 
-        Page<News> englishNews = newsRepository.findByLanguageAndDuplicateFalseOrderByPubDateDesc("en", pageable);
+        Page<NewsSummary> englishNews = newsRepository.findByLanguageAndDuplicateFalseOrderByPubDateDesc("en", pageable);
 
 
-        assertThat(englishNews.getContent()).allMatch(news -> "en".equals(news.getLanguage())).noneMatch(news -> news.getDuplicate());
+        assertThat(englishNews.getContent()).extracting(NewsSummary::getArticleId).containsExactly("article-2", "article-1");
     }
 
     @Test
@@ -134,8 +135,8 @@ class NewsRepositoryTest {
         Pageable pageable = PageRequest.of(0, 10);
 
 
-        Page<News> positiveNews = newsRepository.findBySentimentAndDuplicateFalseOrderByPubDateDesc("positive", pageable);
-        Page<News> neutralNews = newsRepository.findBySentimentAndDuplicateFalseOrderByPubDateDesc("neutral", pageable);
+        Page<NewsSummary> positiveNews = newsRepository.findBySentimentAndDuplicateFalseOrderByPubDateDesc("positive", pageable);
+        Page<NewsSummary> neutralNews = newsRepository.findBySentimentAndDuplicateFalseOrderByPubDateDesc("neutral", pageable);
 
 
         assertThat(positiveNews.getContent()).hasSize(1);
@@ -152,14 +153,14 @@ class NewsRepositoryTest {
         LocalDateTime oneHourAgo = baseTime.minusHours(1);
 
 
-        List<News> recentNews = newsRepository.findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(oneHourAgo);
+        List<NewsSummary> recentNews = newsRepository.findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(oneHourAgo);
 
 
         assertThat(recentNews).hasSize(0);
 
 
         LocalDateTime slightlyBefore = baseTime.minusHours(1).minusMinutes(5);
-        List<News> recentNewsInclusive = newsRepository.findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(slightlyBefore);
+        List<NewsSummary> recentNewsInclusive = newsRepository.findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(slightlyBefore);
         assertThat(recentNewsInclusive).hasSize(1);
         assertThat(recentNewsInclusive.get(0).getTitle()).isEqualTo("Ethereum Network Upgrades Successfully");
         assertThat(recentNewsInclusive.get(0).getPubDate()).isAfter(slightlyBefore);
@@ -173,7 +174,7 @@ class NewsRepositoryTest {
         LocalDateTime oneHourAgo = baseTime.minusHours(1);
 
 
-        List<News> newsBetween = newsRepository.findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc(threeHoursAgo, oneHourAgo);
+        List<NewsSummary> newsBetween = newsRepository.findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc(threeHoursAgo, oneHourAgo);
 
 
         assertThat(newsBetween).hasSize(2);
@@ -211,7 +212,7 @@ class NewsRepositoryTest {
     @DisplayName("Should search news by title or description")
     void shouldSearchNewsByTitleOrDescription() {
 
-        List<News> cryptoNews = newsRepository.searchByTitleOrDescription("cryptocurrency");
+        List<NewsSummary> cryptoNews = newsRepository.searchByTitleOrDescription("cryptocurrency");
 
 
         assertThat(cryptoNews).hasSize(2);
@@ -246,6 +247,59 @@ class NewsRepositoryTest {
         assertThat(recentNews).noneMatch(news -> news.getDuplicate());
     }
 
+    @Test
+    @DisplayName("Should delete news older than cutoff in bounded chunks")
+    void shouldDeleteOlderThanInChunks() {
+
+        LocalDateTime cutoff = baseTime.minusMinutes(45);
+
+
+        int firstChunk = newsRepository.deleteOlderThan(cutoff, 1);
+        int secondChunk = newsRepository.deleteOlderThan(cutoff, 1);
+        int thirdChunk = newsRepository.deleteOlderThan(cutoff, 1);
+
+
+        assertThat(firstChunk).isEqualTo(1);
+        assertThat(secondChunk).isEqualTo(1);
+        assertThat(thirdChunk).isZero();
+        assertThat(newsRepository.findAll()).extracting(News::getArticleId).containsExactly("article-3");
+    }
+
+    @Test
+    @DisplayName("Should page news by (pubDate, id) keyset in both directions")
+    void shouldPageNewsByKeyset() {
+
+        News sameTime = entityManager.persistAndFlush(createNews("article-4", "Bitcoin ETF Approved", "CoinDesk", "positive", "en", testNews2.getPubDate(), false));
+        entityManager.clear();
+
+
+        List<NewsSummary> latest = newsRepository.findLatestPage(PageRequest.of(0, 2));
+        List<NewsSummary> older = newsRepository.findPageOlderThan(latest.get(1).getPubDate(), latest.get(1).getId(), PageRequest.of(0, 2));
+        List<NewsSummary> newer = newsRepository.findPageNewerThan(testNews1.getPubDate(), testNews1.getId(), PageRequest.of(0, 5));
+
+
+        assertThat(latest).extracting(NewsSummary::getArticleId).containsExactly(sameTime.getArticleId(), "article-2");
+        assertThat(older).extracting(NewsSummary::getArticleId).containsExactly("article-1");
+        assertThat(newer).extracting(NewsSummary::getArticleId).containsExactly("article-2", sameTime.getArticleId());
+    }
+
+    @Test
+    @DisplayName("Should filter news by coin and category array membership")
+    void shouldFilterByArrayMembership() {
+
+        Page<NewsSummary> btcCrypto = newsRepository.findByMultipleCriteria(null, null, null, null,
+                true, new String[]{"BTC"}, true, new String[]{"cryptocurrency"}, null, null, PageRequest.of(0, 10));
+        Page<NewsSummary> unfiltered = newsRepository.findByMultipleCriteria(null, null, null, null,
+                false, new String[0], false, new String[0], null, null, PageRequest.of(0, 10));
+
+
+        assertThat(newsRepository.findByCoinMentioned("ETH")).extracting(NewsSummary::getArticleId).containsExactly("article-2");
+        assertThat(newsRepository.findByCategory("cryptocurrency")).hasSize(2);
+        assertThat(newsRepository.findByCategory("sports")).isEmpty();
+        assertThat(btcCrypto.getContent()).extracting(NewsSummary::getArticleId).containsExactly("article-1");
+        assertThat(unfiltered.getTotalElements()).isEqualTo(2);
+    }
+
     private News createNews(String articleId, String title, String sourceName, String sentiment, String language, LocalDateTime pubDate, boolean duplicate) {
         News news = new News();
         news.setArticleId(articleId);
@@ -0,0 +1,401 @@
+package com.example.kapt.repository;
+
+import com.example.kapt.bench.CapturingDataSource;
+import com.example.kapt.bench.CapturingDataSource.CapturedStatement;
+import com.example.kapt.bench.SyntheticDataGenerator;
+import com.example.kapt.service.NewsStatisticsRefresher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every {@link NewsRepository} and {@link CryptocurrencyRepository} query against a seeded Postgres, replays
+ * the SQL Hibernate actually sent under {@code EXPLAIN (ANALYZE, BUFFERS)} and fails when a plan seq-scans a
+ * large relation or goes over its buffer or execution-time budget. Queries that cannot use an index by design
+ * carry the reason in {@link PlanCase#allowSeqScan}. Plans are written to {@code build/reports/query-plans}.
+ * Budgets are calibrated for the default dataset, set with {@code -Pplans.coins=10000 -Pplans.articles=300000}.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import(RepositoryQueryPlanTest.CapturingDataSourceConfig.class)
+@DisplayName("Repository Query Plan Tests")
+class RepositoryQueryPlanTest {
+
+    private static final int COINS = Integer.getInteger("plans.coins", 10_000);
+    private static final int ARTICLES = Integer.getInteger("plans.articles", 300_000);
+    private static final int NEWS_DAYS = 180;
+    private static final long SEED = 7;
+    private static final long DEFAULT_MAX_BUFFERS = 1_000;
+    private static final double DEFAULT_MAX_MILLIS = 50;
+    // one pass over the news partitions at the default dataset size, with headroom for slower CI machines
+    private static final long FULL_SCAN_BUFFERS = 25_000;
+    private static final double FULL_SCAN_MILLIS = 2_000;
+    // empty partitions and tiny relations are seq-scanned because that is cheaper than an index probe
+    private static final long SEQ_SCAN_ROW_LIMIT = 1_000;
+    // EXPLAIN does not accept REFRESH MATERIALIZED VIEW
+    private static final Set<String> NOT_EXPLAINABLE = Set.of("refreshCoinStatistics", "refreshKeywordStatistics");
+    private static final Path OUTPUT = Path.of("build", "reports", "query-plans");
+
+    @Container
+    static PostgreSQLContainer<?> postgresql = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("plans_crypto_db").withUsername("plans_user").withPassword("plans_password");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Autowired
+    private CapturingDataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private NewsContentRepository newsContentRepository;
+
+    @Autowired
+    private NewsArticleKeyRepository newsArticleKeyRepository;
+
+    @Autowired
+    private CryptocurrencyRepository cryptocurrencyRepository;
+
+    @Autowired
+    private NewsStatisticsRefresher newsStatisticsRefresher;
+
+    private SyntheticDataGenerator dataset;
+    private LocalDateTime now;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresql::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresql::getUsername);
+        registry.add("spring.datasource.password", postgresql::getPassword);
+        // NewsH2, the H2 mapping of news used by the in-memory tests, is scanned too and cannot validate against Postgres
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("app.scheduler.enabled", () -> "false");
+        registry.add("app.news.scheduler.enabled", () -> "false");
+        registry.add("app.telegram.bot.enabled", () -> "false");
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        dataset = new SyntheticDataGenerator(dataSource.getTargetDataSource(), SEED);
+        dataset.generateCoins(COINS);
+        now = LocalDateTime.now();
+        dataset.generateNews(ARTICLES, now.minusDays(NEWS_DAYS), now);
+        newsStatisticsRefresher.refresh();
+        Files.createDirectories(OUTPUT);
+    }
+
+    @TestFactory
+    @DisplayName("Should stay on indexes and within budget")
+    Stream<DynamicTest> plans() {
+        return cases().stream().map(planCase -> DynamicTest.dynamicTest(planCase.name(), () -> check(planCase)));
+    }
+
+    @Test
+    @DisplayName("Should have a plan case for every repository query")
+    void shouldCoverEveryRepositoryQuery() {
+        Set<String> covered = new HashSet<>(NOT_EXPLAINABLE);
+        cases().forEach(planCase -> covered.add(planCase.method()));
+
+        List<String> declared = Stream.of(NewsRepository.class, NewsContentRepository.class, NewsArticleKeyRepository.class,
+                        CryptocurrencyRepository.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic())
+                .map(Method::getName)
+                .toList();
+
+        assertThat(covered).containsAll(declared);
+    }
+
+    @Test
+    @DisplayName("Should match articles by coin and category array membership")
+    void shouldMatchArrayMembership() {
+        String[] coin = {mentionedCoin()};
+
+        assertThat(newsRepository.findByCoinMentioned(coin[0])).isNotEmpty();
+        assertThat(newsRepository.findByCategory("regulation")).isNotEmpty();
+        assertThat(newsRepository.findByMultipleCriteria(null, null, null, null, true, coin, false, new String[0],
+                null, null, PageRequest.of(0, 20)).getContent()).isNotEmpty();
+        assertThat(newsRepository.findByMultipleCriteria(null, null, null, null, false, new String[0], true,
+                new String[]{"regulation"}, null, null, PageRequest.of(0, 20)).getContent()).isNotEmpty();
+    }
+
+    private List<PlanCase> cases() {
+        return List.of(
+                query("findByArticleId", () -> newsRepository.findByArticleId("syn_" + ARTICLES / 2)),
+                // article_id is not the partition key, so every id is looked up in every partition
+                query("findByArticleIdIn", () -> newsRepository.findByArticleIdIn(
+                        IntStream.range(0, 100).mapToObj(i -> "syn_" + i * (ARTICLES / 100)).toList()))
+                        .budget(3_000, 50),
+                query("existsByArticleId", () -> newsRepository.existsByArticleId("syn_" + ARTICLES / 3)),
+                query("findByDuplicateFalseOrderByPubDateDesc", () -> newsRepository.findByDuplicateFalseOrderByPubDateDesc(PageRequest.of(0, 20)))
+                        .allowSeqScan("the page total counts every non-duplicate article")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc",
+                        () -> newsRepository.findBySourceNameIgnoreCaseAndDuplicateFalseOrderByPubDateDesc("Source 150"))
+                        .allowSeqScan("IgnoreCase compares upper(source_name), which idx_news_source_name does not cover")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                // the page total visits every matching row through the bitmap index
+                query("findByLanguageAndDuplicateFalseOrderByPubDateDesc", () -> newsRepository.findByLanguageAndDuplicateFalseOrderByPubDateDesc("de", PageRequest.of(0, 20)))
+                        .budget(15_000, 300),
+                query("findBySentimentAndDuplicateFalseOrderByPubDateDesc", () -> newsRepository.findBySentimentAndDuplicateFalseOrderByPubDateDesc("Bullish", PageRequest.of(0, 20)))
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc", () -> newsRepository.findByPubDateAfterAndDuplicateFalseOrderByPubDateDesc(now.minusHours(1))),
+                query("findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc", () -> newsRepository.findByPubDateBetweenAndDuplicateFalseOrderByPubDateDesc(
+                        now.minusDays(30), now.minusDays(30).plusHours(1))),
+                query("findByTitleContainingKeyword", () -> newsRepository.findByTitleContainingKeyword(rareCoinName()))
+                        .allowSeqScan("LIKE with a leading wildcard cannot use a b-tree index")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("findByDescriptionContainingKeyword", () -> newsRepository.findByDescriptionContainingKeyword(rareCoinName()))
+                        .allowSeqScan("LIKE with a leading wildcard cannot use a b-tree index")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("searchByTitleOrDescription", () -> newsRepository.searchByTitleOrDescription(rareCoinName()))
+                        .allowSeqScan("LIKE with a leading wildcard cannot use a b-tree index")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                // array_contains renders coin_mentioned @> ?, a GIN probe of every partition
+                query("findByCoinMentioned", () -> newsRepository.findByCoinMentioned(mentionedCoin()))
+                        .budget(3_000, 100),
+                query("findByCategory", () -> newsRepository.findByCategory("regulation"))
+                        .allowSeqScan("each of the six synthetic categories covers a sixth of the articles")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("findByAiTag", () -> newsRepository.findByAiTag("defi"))
+                        .budget(3_000, 100),
+                query("findRecentNews", () -> newsRepository.findRecentNews(now.minusHours(1))),
+                query("findCoinsMentionedSince", () -> newsRepository.findCoinsMentionedSince(now.minusHours(1))),
+                query("findDuplicateCheckSourcesSince", () -> newsRepository.findDuplicateCheckSourcesSince(now.minusHours(48))),
+                query("findLatestPage", () -> newsRepository.findLatestPage(PageRequest.of(0, 20))),
+                query("findPageOlderThan", () -> newsRepository.findPageOlderThan(now.minusDays(10), Long.MAX_VALUE, PageRequest.of(0, 20))),
+                query("findPageNewerThan", () -> newsRepository.findPageNewerThan(now.minusDays(10), 0L, PageRequest.of(0, 20))),
+                query("getNewsCountBySource", () -> newsRepository.getNewsCountBySource())
+                        .allowSeqScan("aggregates over every non-duplicate article")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("getNewsCountBySentiment", () -> newsRepository.getNewsCountBySentiment())
+                        .allowSeqScan("aggregates over every non-duplicate article")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("getNewsCountByCoin", () -> newsRepository.getNewsCountByCoin())
+                        .allowSeqScan("returns the whole news_coin_stats view"),
+                query("getTrendingKeywords", () -> newsRepository.getTrendingKeywords(now.minusHours(24))),
+                query("deleteOlderThan", () -> newsRepository.deleteOlderThan(now.minusDays(NEWS_DAYS - 1), 1_000))
+                        .budget(5_000, 100),
+                query("deleteOlderThan", () -> newsContentRepository.deleteOlderThan(now.minusDays(NEWS_DAYS - 1), 1_000))
+                        .variant("news_content"),
+                query("deleteOlderThan", () -> newsArticleKeyRepository.deleteOlderThan(now.minusDays(NEWS_DAYS - 1), 1_000))
+                        .variant("news_article_ids")
+                        .budget(5_000, 100),
+                query("updatePubDate", () -> newsArticleKeyRepository.updatePubDate("syn_" + ARTICLES / 4, now)),
+                query("updatePubDate", () -> newsContentRepository.updatePubDate((long) ARTICLES / 4, now))
+                        .variant("news_content"),
+                query("countByDuplicateFalse", () -> newsRepository.countByDuplicateFalse())
+                        .allowSeqScan("counts every non-duplicate article")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("findByDuplicateTrue", () -> newsRepository.findByDuplicateTrue())
+                        .budget(10_000, 200),
+                query("findBySourcePriorityOrderByPriorityAndDate", () -> newsRepository.findBySourcePriorityOrderByPriorityAndDate(PageRequest.of(0, 20)))
+                        .allowSeqScan("source_priority is not indexed")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+                query("findByMultipleCriteria", () -> newsRepository.findByMultipleCriteria(
+                        null, null, null, "Bullish", true, new String[]{mentionedCoin()}, false, new String[0], null, null,
+                        PageRequest.of(0, 20)))
+                        .variant("coin and sentiment")
+                        .budget(3_000, 100),
+                query("findByMultipleCriteria", () -> newsRepository.findByMultipleCriteria(
+                        null, "Source 3", null, null, false, new String[0], false, new String[0], now.minusDays(2), now,
+                        PageRequest.of(0, 20)))
+                        .variant("source and date range"),
+                query("findByMultipleCriteria", () -> newsRepository.findByMultipleCriteria(
+                        rareCoinName(), null, null, null, false, new String[0], false, new String[0], null, null,
+                        PageRequest.of(0, 20)))
+                        .variant("keyword")
+                        .allowSeqScan("LIKE with a leading wildcard cannot use a b-tree index")
+                        .budget(FULL_SCAN_BUFFERS, FULL_SCAN_MILLIS),
+
+                query("findBySymbolIgnoreCase", () -> cryptocurrencyRepository.findBySymbolIgnoreCase(dataset.getCoinSymbols().get(500)))
+                        .allowSeqScan("IgnoreCase compares upper(symbol), which idx_cryptocurrencies_symbol does not cover"),
+                query("findBySymbolsIgnoreCase", () -> cryptocurrencyRepository.findBySymbolsIgnoreCase(dataset.getCoinSymbols().subList(0, Math.min(COINS, 100))))
+                        .allowSeqScan("UPPER(symbol) IN compares upper(symbol), which idx_cryptocurrencies_symbol does not cover"),
+                query("findByNameContainingIgnoreCase", () -> cryptocurrencyRepository.findByNameContainingIgnoreCase("kale"))
+                        .allowSeqScan("LIKE with a leading wildcard cannot use a b-tree index"),
+                query("findBySymbolContainingIgnoreCase", () -> cryptocurrencyRepository.findBySymbolContainingIgnoreCase("c1"))
+                        .allowSeqScan("LIKE with a leading wildcard cannot use a b-tree index"),
+                query("findByMarketCapRankIsNotNullOrderByMarketCapRankAsc", () -> cryptocurrencyRepository.findByMarketCapRankIsNotNullOrderByMarketCapRankAsc(PageRequest.of(0, 50))),
+                query("findByPriceChangePercentageRange", () -> cryptocurrencyRepository.findByPriceChangePercentageRange(
+                        new BigDecimal("5.00"), new BigDecimal("5.50"))),
+                query("findByMarketCapGreaterThanOrderByMarketCapDesc", () -> cryptocurrencyRepository.findByMarketCapGreaterThanOrderByMarketCapDesc(new BigDecimal("1e10")))
+                        .allowSeqScan("market_cap is not indexed"),
+                query("findByLastUpdatedAfter", () -> cryptocurrencyRepository.findByLastUpdatedAfter(now.plusMinutes(1))),
+                query("findTopGainers", () -> cryptocurrencyRepository.findTopGainers(PageRequest.of(0, 10))),
+                query("findTopLosers", () -> cryptocurrencyRepository.findTopLosers(PageRequest.of(0, 10))),
+                query("searchByNameOrSymbol", () -> cryptocurrencyRepository.searchByNameOrSymbol("kale"))
+                        .allowSeqScan("LIKE with a leading wildcard cannot use a b-tree index"),
+                query("getMarketStatistics", () -> cryptocurrencyRepository.getMarketStatistics())
+                        .allowSeqScan("aggregates over every coin"),
+                query("findAll", () -> cryptocurrencyRepository.findAll(PageRequest.of(0, 50)))
+                        .allowSeqScan("the page total counts every coin")
+        );
+    }
+
+    private void check(PlanCase planCase) throws Exception {
+        dataSource.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            planCase.query().run();
+            status.setRollbackOnly();
+        });
+        List<CapturedStatement> statements = dataSource.getCaptured();
+        assertThat(statements).as("statements issued by %s", planCase.name()).isNotEmpty();
+
+        List<String> violations = new ArrayList<>();
+        boolean seqScanned = false;
+        for (int i = 0; i < statements.size(); i++) {
+            CapturedStatement statement = statements.get(i);
+            // the first run warms the buffer cache so the timed one is not dominated by disk reads
+            explain(statement);
+            JsonNode explained = explain(statement);
+            JsonNode plan = explained.get("Plan");
+
+            List<String> seqScans = new ArrayList<>();
+            collectSeqScans(plan, seqScans);
+            seqScanned |= !seqScans.isEmpty();
+            long buffers = plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+            double millis = explained.path("Execution Time").asDouble();
+
+            String label = statements.size() == 1 ? "" : "statement " + (i + 1) + ": ";
+            if (planCase.seqScanReason() == null) {
+                seqScans.forEach(scan -> violations.add(label + scan));
+            }
+            if (buffers > planCase.maxBuffers()) {
+                violations.add(label + buffers + " shared buffers, budget " + planCase.maxBuffers());
+            }
+            if (millis > planCase.maxMillis()) {
+                violations.add(label + millis + " ms, budget " + planCase.maxMillis() + " ms");
+            }
+            System.out.printf("%-70s %8d buffers %9.2f ms%s%n", planCase.name() + (label.isEmpty() ? "" : " #" + (i + 1)),
+                    buffers, millis, seqScans.isEmpty() ? "" : " (seq scan)");
+
+            ObjectNode report = objectMapper.createObjectNode();
+            report.put("sql", statement.sql());
+            report.set("plan", explained);
+            objectMapper.writeValue(OUTPUT.resolve(planCase.name().replaceAll("[^A-Za-z0-9]+", "-") + "-" + (i + 1) + ".json").toFile(), report);
+        }
+        if (planCase.seqScanReason() != null && !seqScanned) {
+            System.out.println(planCase.name() + " no longer seq-scans; its allowSeqScan entry can go");
+        }
+
+        assertThat(violations).as("plan of %s", planCase.name()).isEmpty();
+    }
+
+    private JsonNode explain(CapturedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getTargetDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql())) {
+                statement.bind(explain);
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    return objectMapper.readTree(resultSet.getString(1)).get(0);
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            long examined = (node.path("Actual Rows").asLong() + node.path("Rows Removed by Filter").asLong())
+                    * Math.max(1, node.path("Actual Loops").asLong());
+            if (examined > SEQ_SCAN_ROW_LIMIT) {
+                seqScans.add("seq scan on " + node.path("Relation Name").asText() + " examined " + examined + " rows");
+            }
+        }
+        node.path("Plans").forEach(child -> collectSeqScans(child, seqScans));
+    }
+
+    // a coin far down the Zipf tail: mentioned by a few dozen articles
+    private String mentionedCoin() {
+        return dataset.getCoinSymbols().get(Math.min(COINS - 1, 500)).toLowerCase();
+    }
+
+    private String rareCoinName() {
+        return dataset.getCoinNames().get(Math.min(COINS - 1, 5_000));
+    }
+
+    private static PlanCase query(String method, Runnable query) {
+        return new PlanCase(method, null, query, DEFAULT_MAX_BUFFERS, DEFAULT_MAX_MILLIS, null);
+    }
+
+    record PlanCase(String method, String variant, Runnable query, long maxBuffers, double maxMillis, String seqScanReason) {
+
+        String name() {
+            return variant == null ? method : method + " [" + variant + "]";
+        }
+
+        PlanCase variant(String variant) {
+            return new PlanCase(method, variant, query, maxBuffers, maxMillis, seqScanReason);
+        }
+
+        PlanCase budget(long maxBuffers, double maxMillis) {
+            return new PlanCase(method, variant, query, maxBuffers, maxMillis, seqScanReason);
+        }
+
+        PlanCase allowSeqScan(String reason) {
+            return new PlanCase(method, variant, query, maxBuffers, maxMillis, reason);
+        }
+    }
+
+    @TestConfiguration
+    static class CapturingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource target && !(bean instanceof CapturingDataSource)
+                            ? new CapturingDataSource(target) : bean;
+                }
+            };
+        }
+    }
+}
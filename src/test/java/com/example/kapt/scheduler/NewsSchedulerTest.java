@@ -0,0 +1,56 @@
+package com.example.kapt.scheduler;
+
+import com.example.kapt.service.AlphaVantageNewsService;
+import com.example.kapt.service.AlphaVantageRequestScheduler.Priority;
+import com.example.kapt.service.NewsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NewsScheduler Tests")
+class NewsSchedulerTest {
+
+    @Mock
+    private NewsService newsService;
+
+    private NewsScheduler newsScheduler;
+
+    @BeforeEach
+    void setUp() {
+        newsScheduler = new NewsScheduler(newsService);
+    }
+
+    @Test
+    @DisplayName("Should return while the fetch is running and skip cycles that would overlap it")
+    void shouldNotBlockOrOverlapCycles() {
+        // Given
+        CompletableFuture<Integer> running = new CompletableFuture<>();
+        when(newsService.fetchAndSaveIncrementalNews(Priority.SCHEDULED))
+                .thenReturn(running)
+                .thenReturn(CompletableFuture.completedFuture(0));
+        when(newsService.getRecentArticles(1)).thenReturn(List.of());
+
+        // When
+        newsScheduler.updateNews();
+        newsScheduler.updateNews();
+
+        // Then
+        verify(newsService, times(1)).fetchAndSaveIncrementalNews(Priority.SCHEDULED);
+
+        running.completeExceptionally(new AlphaVantageNewsService.NewsFetchException("Alpha Vantage returned HTTP 503", null));
+        newsScheduler.updateNews();
+        verify(newsService, times(2)).fetchAndSaveIncrementalNews(Priority.SCHEDULED);
+        verify(newsService, times(2)).getRecentArticles(1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.kapt.service;
+
+import com.example.kapt.ingest.IngestMetrics;
+import com.example.kapt.service.AlphaVantageRequestScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AlphaVantageRequestScheduler Tests")
+class AlphaVantageRequestSchedulerTest {
+
+    private AlphaVantageRequestScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge identical queued requests into one upstream call")
+    void shouldMergeIdenticalRequests() throws Exception {
+        scheduler = new AlphaVantageRequestScheduler(100, 0, 25, Clock.systemUTC(), new IngestMetrics(new SimpleMeterRegistry()));
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> first = scheduler.submit("tickers=BTC", Priority.ADHOC, () -> "feed-" + calls.incrementAndGet());
+        CompletableFuture<String> second = scheduler.submit("tickers=BTC", Priority.SCHEDULED, () -> "feed-" + calls.incrementAndGet());
+        scheduler.start();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("feed-1");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(scheduler.getUsedToday()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should release scheduled requests before earlier ad-hoc requests")
+    void shouldPrioritizeScheduledRequests() throws Exception {
+        scheduler = new AlphaVantageRequestScheduler(100, 20, 25, Clock.systemUTC(), new IngestMetrics(new SimpleMeterRegistry()));
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Boolean> adhoc1 = scheduler.submit("adhoc-1", Priority.ADHOC, () -> order.add("adhoc-1"));
+        CompletableFuture<Boolean> adhoc2 = scheduler.submit("adhoc-2", Priority.ADHOC, () -> order.add("adhoc-2"));
+        CompletableFuture<Boolean> scheduled = scheduler.submit("scheduled", Priority.SCHEDULED, () -> order.add("scheduled"));
+        scheduler.start();
+
+        CompletableFuture.allOf(adhoc1, adhoc2, scheduled).get(5, TimeUnit.SECONDS);
+        assertThat(order).containsExactly("scheduled", "adhoc-1", "adhoc-2");
+    }
+
+    @Test
+    @DisplayName("Should reject requests once the daily quota is reserved")
+    void shouldRejectRequestsBeyondDailyQuota() {
+        scheduler = new AlphaVantageRequestScheduler(100, 0, 2, Clock.systemUTC(), new IngestMetrics(new SimpleMeterRegistry()));
+
+        scheduler.submit("first", Priority.ADHOC, () -> 1);
+        scheduler.submit("second", Priority.ADHOC, () -> 2);
+
+        assertThat(scheduler.submit("first", Priority.ADHOC, () -> 3)).isNotNull();
+        assertThatThrownBy(() -> scheduler.submit("third", Priority.SCHEDULED, () -> 4))
+                .isInstanceOf(AlphaVantageRequestScheduler.QuotaExceededException.class);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.kapt.service;
 
 import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.example.kapt.ingest.IngestMetrics;
 import com.example.kapt.model.Cryptocurrency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -51,7 +53,7 @@ class CoinGeckoServiceTest {
         when(webClientBuilder.baseUrl(anyString())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
 
-        coinGeckoService = new CoinGeckoService(webClientBuilder);
+        coinGeckoService = new CoinGeckoService(webClientBuilder, new IngestMetrics(new SimpleMeterRegistry()), "http://localhost");
         ReflectionTestUtils.setField(coinGeckoService, "requestDelay", 0L); // Remove delay for tests
     }
 
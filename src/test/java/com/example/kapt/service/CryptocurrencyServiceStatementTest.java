@@ -0,0 +1,137 @@
+package com.example.kapt.service;
+
+import com.example.kapt.config.StatementCounter;
+import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.example.kapt.ingest.IngestMetrics;
+import com.example.kapt.repository.CryptocurrencyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.kapt.config.StatementCounter.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(CryptocurrencyService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("CryptocurrencyService Statement Count Tests")
+class CryptocurrencyServiceStatementTest {
+
+    private static final int PAGES = 3;
+    private static final int PER_PAGE = 100;
+    private static final int JDBC_BATCH_SIZE = 20;
+
+    @Autowired
+    private CryptocurrencyService cryptocurrencyService;
+
+    @Autowired
+    private CryptocurrencyRepository cryptocurrencyRepository;
+
+    @MockBean
+    private CoinGeckoService coinGeckoService;
+
+    @MockBean
+    private IngestMetrics ingestMetrics;
+
+    @BeforeEach
+    void setUp() {
+        cryptocurrencyRepository.deleteAllInBatch();
+        CoinGeckoService converter = new CoinGeckoService(WebClient.builder(), mock(IngestMetrics.class), "http://localhost");
+        when(coinGeckoService.convertToEntity(any())).thenAnswer(invocation -> converter.convertToEntity(invocation.getArgument(0)));
+        stubMarkets("100.00");
+        StatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cryptocurrencyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should look up existing coins once per page when inserting")
+    void shouldLookUpExistingCoinsOncePerPage() {
+        // When
+        int saved = cryptocurrencyService.fetchAndSaveCryptocurrencies();
+
+        // Then
+        assertThat(saved).isEqualTo(PAGES * PER_PAGE);
+        assertStatements("select", PAGES);
+        // identity ids make Hibernate insert row by row
+        assertStatements(PAGES + PAGES * PER_PAGE);
+    }
+
+    @Test
+    @DisplayName("Should flush price updates in JDBC batches")
+    void shouldFlushUpdatesInBatches() {
+        // Given
+        cryptocurrencyService.fetchAndSaveCryptocurrencies();
+        stubMarkets("101.00");
+        StatementCounter.reset();
+
+        // When
+        int saved = cryptocurrencyService.fetchAndSaveCryptocurrencies();
+
+        // Then
+        assertThat(saved).isEqualTo(PAGES * PER_PAGE);
+        assertStatements("select", PAGES);
+        assertStatements("insert", 0);
+        assertStatements(PAGES + PAGES * PER_PAGE / JDBC_BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should serve listings with one query plus the page count")
+    void shouldServeListingsWithoutPerRowQueries() {
+        // Given
+        cryptocurrencyService.fetchAndSaveCryptocurrencies();
+
+        // When / Then
+        StatementCounter.reset();
+        assertThat(cryptocurrencyService.getTopByMarketCap(50)).hasSize(50);
+        assertStatements(1);
+
+        StatementCounter.reset();
+        assertThat(cryptocurrencyService.getAllCryptocurrencies(0, 20, "marketCapRank", "asc").getContent()).hasSize(20);
+        assertStatements(2);
+
+        StatementCounter.reset();
+        assertThat(cryptocurrencyService.getTopGainers(10)).isNotEmpty();
+        assertStatements(1);
+    }
+
+    private void stubMarkets(String price) {
+        for (int page = 1; page <= PAGES; page++) {
+            List<CoinGeckoResponseDto> dtos = new ArrayList<>();
+            for (int i = 0; i < PER_PAGE; i++) {
+                int rank = (page - 1) * PER_PAGE + i + 1;
+                CoinGeckoResponseDto dto = new CoinGeckoResponseDto();
+                dto.setId("coin-" + rank);
+                dto.setSymbol("c" + rank);
+                dto.setName("Coin " + rank);
+                dto.setCurrentPrice(new BigDecimal(price));
+                dto.setMarketCap(BigDecimal.valueOf(1_000_000_000L / rank));
+                dto.setMarketCapRank(rank);
+                dto.setPriceChangePercentage24h(BigDecimal.valueOf(rank % 7 - 3));
+                dto.setLastUpdated("2023-12-07T10:30:00.000Z");
+                dtos.add(dto);
+            }
+            when(coinGeckoService.fetchTopCryptocurrencies(page, PER_PAGE)).thenReturn(dtos);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.kapt.service;
 
 import com.example.kapt.dto.CoinGeckoResponseDto;
+import com.example.kapt.ingest.IngestMetrics;
 import com.example.kapt.model.Cryptocurrency;
 import com.example.kapt.repository.CryptocurrencyRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -20,9 +22,15 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +44,12 @@ class CryptocurrencyServiceTest {
     @Mock
     private CoinGeckoService coinGeckoService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IngestMetrics ingestMetrics;
+
     @InjectMocks
     private CryptocurrencyService cryptocurrencyService;
 
@@ -278,6 +292,45 @@ class CryptocurrencyServiceTest {
         verify(cryptocurrencyRepository).findByLastUpdatedAfter(any(LocalDateTime.class));
     }
 
+    @Test
+    @DisplayName("Should record row outcomes and a successful run after fetching")
+    void shouldRecordIngestMetrics() {
+        // Given
+        CoinGeckoResponseDto ethDto = createTestDto();
+        ethDto.setSymbol("eth");
+        Cryptocurrency eth = createTestCryptocurrency();
+        eth.setSymbol("ETH");
+        when(coinGeckoService.fetchTopCryptocurrencies(1, 100)).thenReturn(List.of(testDto, ethDto));
+        when(coinGeckoService.fetchTopCryptocurrencies(2, 100)).thenReturn(Collections.emptyList());
+        when(coinGeckoService.convertToEntity(testDto)).thenReturn(createTestCryptocurrency());
+        when(coinGeckoService.convertToEntity(ethDto)).thenReturn(eth);
+        when(cryptocurrencyRepository.findBySymbolsIgnoreCase(Set.of("BTC", "ETH"))).thenReturn(List.of(testCryptocurrency));
+        when(cryptocurrencyRepository.save(any(Cryptocurrency.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        int saved = cryptocurrencyService.fetchAndSaveCryptocurrencies();
+
+        // Then
+        assertThat(saved).isEqualTo(2);
+        verify(ingestMetrics).recordRows(IngestMetrics.COINGECKO, 1, 1, 0, 0);
+        verify(ingestMetrics).recordRun(eq(IngestMetrics.COINGECKO), anyLong(), eq(true));
+        verify(ingestMetrics, times(2)).recordStage(eq(IngestMetrics.COINGECKO), eq("fetch"), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should fail the update and record a failed run when CoinGecko returns no data")
+    void shouldFailWhenNothingIsFetched() {
+        // Given
+        when(coinGeckoService.fetchTopCryptocurrencies(1, 100)).thenReturn(Collections.emptyList());
+
+        // When / Then
+        assertThatThrownBy(() -> cryptocurrencyService.fetchAndSaveCryptocurrencies())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("No data received from CoinGecko");
+        verify(ingestMetrics).recordRun(eq(IngestMetrics.COINGECKO), anyLong(), eq(false));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
     private Cryptocurrency createTestCryptocurrency() {
         Cryptocurrency crypto = new Cryptocurrency();
         crypto.setId(1L);
@@ -0,0 +1,152 @@
+package com.example.kapt.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JobService Tests")
+class JobServiceTest {
+
+    private JobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new JobService(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should join the running job when the same key is submitted again")
+    void shouldJoinRunningJobWithSameKey() {
+        CompletableFuture<Integer> work = new CompletableFuture<>();
+        AtomicInteger starts = new AtomicInteger();
+
+        JobService.Job first = jobService.submit("news-update", "news-update:50", () -> {
+            starts.incrementAndGet();
+            return work;
+        });
+        JobService.Job second = jobService.submit("news-update", "news-update:50", () -> {
+            starts.incrementAndGet();
+            return work;
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(starts.get()).isEqualTo(1);
+        assertThat(first.getStatus()).isEqualTo(JobService.JobStatus.RUNNING);
+
+        work.complete(7);
+
+        assertThat(first.getStatus()).isEqualTo(JobService.JobStatus.SUCCEEDED);
+        assertThat(first.getResult()).isEqualTo(7);
+        assertThat(jobService.submit("news-update", "news-update:50", () -> CompletableFuture.completedFuture(1)))
+                .isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should record failures of asynchronous work on the job")
+    void shouldRecordFailure() {
+        JobService.Job job = jobService.submit("news-update", "key",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("upstream unavailable")));
+
+        assertThat(job.getStatus()).isEqualTo(JobService.JobStatus.FAILED);
+        assertThat(job.getError()).isEqualTo("upstream unavailable");
+        assertThat(jobService.findJob(job.getId())).contains(job);
+    }
+
+    @Test
+    @DisplayName("Should run blocking tasks off the calling thread")
+    void shouldRunTasksOnWorkerThread() throws Exception {
+        JobService.Job job = jobService.submitTask("cryptocurrency-update", "cryptocurrency-update",
+                () -> Thread.currentThread().getName());
+
+        for (int i = 0; i < 50 && job.getStatus() != JobService.JobStatus.SUCCEEDED; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(job.getStatus()).isEqualTo(JobService.JobStatus.SUCCEEDED);
+        assertThat((String) job.getResult()).startsWith("job-worker-");
+    }
+
+    @Test
+    @DisplayName("Should expose the progress a task reports while it runs")
+    void shouldTrackTaskProgress() throws Exception {
+        // Given
+        CountDownLatch reported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        JobService.Job job = jobService.submitTask("cryptocurrency-update", "cryptocurrency-update", progress -> {
+            progress.accept(40);
+            reported.countDown();
+            awaitQuietly(release);
+            return 3;
+        });
+
+        // Then
+        assertThat(reported.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(job.getStatus()).isEqualTo(JobService.JobStatus.RUNNING);
+        assertThat(job.getProgress()).isEqualTo(40);
+
+        release.countDown();
+        for (int i = 0; i < 50 && job.getStatus() != JobService.JobStatus.SUCCEEDED; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(job.getStatus()).isEqualTo(JobService.JobStatus.SUCCEEDED);
+        assertThat(job.getProgress()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should expose the progress asynchronous work reports without moving it backwards")
+    void shouldTrackAsyncProgress() {
+        // Given
+        CompletableFuture<Integer> work = new CompletableFuture<>();
+        IntConsumer[] callback = new IntConsumer[1];
+
+        // When
+        JobService.Job job = jobService.submit("news-update", "news-update:50", progress -> {
+            callback[0] = progress;
+            return work;
+        });
+        callback[0].accept(10);
+        callback[0].accept(55);
+        callback[0].accept(40);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(JobService.JobStatus.RUNNING);
+        assertThat(job.getProgress()).isEqualTo(55);
+        work.complete(4);
+        assertThat(job.getProgress()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should not record a job when starting it fails")
+    void shouldPropagateStarterFailure() {
+        assertThatThrownBy(() -> jobService.submit("news-update", "key", () -> {
+            throw new AlphaVantageRequestScheduler.QuotaExceededException("quota exhausted");
+        })).isInstanceOf(AlphaVantageRequestScheduler.QuotaExceededException.class);
+
+        assertThat(jobService.submit("news-update", "key", () -> CompletableFuture.completedFuture(1)).getStatus())
+                .isEqualTo(JobService.JobStatus.SUCCEEDED);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.kapt.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Partition maintenance only exists on Postgres, so it runs against a container with the Flyway schema.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("NewsRetentionService Partition Tests")
+class NewsRetentionServiceTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgresql = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("retention_crypto_db").withUsername("retention_user").withPassword("retention_password");
+
+    @Autowired
+    private NewsRetentionService newsRetentionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresql::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresql::getUsername);
+        registry.add("spring.datasource.password", postgresql::getPassword);
+        // NewsH2, the H2 mapping of news used by the in-memory tests, is scanned too and cannot validate against Postgres
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("app.scheduler.enabled", () -> "false");
+        registry.add("app.news.scheduler.enabled", () -> "false");
+        registry.add("app.telegram.bot.enabled", () -> "false");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE news, news_content, news_article_ids");
+        for (String month : new String[]{"2020_01", "2020_02"}) {
+            YearMonth start = YearMonth.parse(month.replace('_', '-'));
+            jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS news_p%s PARTITION OF news FOR VALUES FROM ('%s') TO ('%s')",
+                    month, start.atDay(1), start.plusMonths(1).atDay(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should detach and drop expired months and delete the rest of the cutoff month in chunks")
+    void shouldDropExpiredPartitions() {
+        // Given
+        insertArticle("january", LocalDateTime.of(2020, 1, 10, 12, 0));
+        insertArticle("early-february", LocalDateTime.of(2020, 2, 5, 12, 0));
+        insertArticle("late-february", LocalDateTime.of(2020, 2, 20, 12, 0));
+
+        // When
+        newsRetentionService.purgeOlderThan(LocalDateTime.of(2020, 2, 15, 0, 0));
+
+        // Then
+        assertThat(partitionExists("news_p2020_01")).isFalse();
+        assertThat(partitionExists("news_p2020_02")).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT article_id FROM news", String.class)).containsExactly("late-february");
+        assertThat(jdbcTemplate.queryForList("SELECT article_id FROM news_article_ids", String.class))
+                .containsExactly("late-february");
+        assertThat(jdbcTemplate.queryForList("SELECT body FROM news_content", String.class))
+                .containsExactly("Body of late-february");
+    }
+
+    @Test
+    @DisplayName("Should create partitions from the current UTC month onwards")
+    void shouldCreateFuturePartitions() {
+        // When
+        newsRetentionService.ensureFuturePartitions();
+
+        // Then
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        assertThat(partitionExists(NewsRetentionService.partitionName(current))).isTrue();
+        assertThat(partitionExists(NewsRetentionService.partitionName(current.plusMonths(3)))).isTrue();
+    }
+
+    private void insertArticle(String articleId, LocalDateTime pubDate) {
+        Long id = jdbcTemplate.queryForObject("INSERT INTO news (article_id, title, link, pub_date) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, articleId, "Title of " + articleId, "https://example.com/" + articleId, pubDate);
+        jdbcTemplate.update("INSERT INTO news_article_ids (article_id, news_id, pub_date) VALUES (?, ?, ?)", articleId, id, pubDate);
+        jdbcTemplate.update("INSERT INTO news_content (news_id, pub_date, body) VALUES (?, ?, ?)", id, pubDate, "Body of " + articleId);
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+}
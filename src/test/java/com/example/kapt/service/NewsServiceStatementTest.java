@@ -0,0 +1,201 @@
+package com.example.kapt.service;
+
+import com.example.kapt.config.StatementCounter;
+import com.example.kapt.dto.AlphaVantageNewsArticleDto;
+import com.example.kapt.dto.NewsSummary;
+import com.example.kapt.ingest.IngestMetrics;
+import com.example.kapt.ingest.NearDuplicateDetector;
+import com.example.kapt.ingest.NewsIngestPipeline;
+import com.example.kapt.model.News;
+import com.example.kapt.repository.NewsArticleKeyRepository;
+import com.example.kapt.repository.NewsContentRepository;
+import com.example.kapt.repository.NewsFetchWatermarkRepository;
+import com.example.kapt.repository.NewsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.kapt.config.StatementCounter.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("NewsService Statement Count Tests")
+class NewsServiceStatementTest {
+
+    private static final int ARTICLES = 200;
+    private static final int BATCH_SIZE = 50;
+    private static final int BATCHES = ARTICLES / BATCH_SIZE;
+    private static final int JDBC_BATCH_SIZE = 20;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private NewsContentRepository newsContentRepository;
+
+    @Autowired
+    private NewsArticleKeyRepository newsArticleKeyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime baseTime = LocalDateTime.of(2024, 1, 15, 12, 0, 0);
+    private NewsIngestPipeline pipeline;
+    private NewsService newsService;
+
+    @BeforeEach
+    void setUp() {
+        newsRepository.deleteAllInBatch();
+        newsContentRepository.deleteAllInBatch();
+        newsArticleKeyRepository.deleteAllInBatch();
+
+        AlphaVantageNewsService alphaVantageNewsService = mock(AlphaVantageNewsService.class);
+        when(alphaVantageNewsService.decode(any())).thenAnswer(invocation -> {
+            AlphaVantageNewsArticleDto dto = invocation.getArgument(0);
+            News news = new News("av_" + dto.getUrl(), dto.getTitle(), dto.getUrl());
+            news.setPubDate(baseTime.plusMinutes(Long.parseLong(dto.getUrl().substring(dto.getUrl().lastIndexOf('/') + 1))));
+            news.setSourceName("Example");
+            return news;
+        });
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        pipeline = new NewsIngestPipeline(alphaVantageNewsService, newsRepository, newsContentRepository, newsArticleKeyRepository,
+                new NearDuplicateDetector(newsRepository, true, 6, 48, ARTICLES), mock(ApplicationEventPublisher.class),
+                transactionManager, meterRegistry, new IngestMetrics(meterRegistry));
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", ARTICLES);
+        ReflectionTestUtils.setField(pipeline, "decodeWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "enrichWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "dedupWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "persistWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "batchSize", BATCH_SIZE);
+        // long enough that every batch fills up, so the number of batches is deterministic
+        ReflectionTestUtils.setField(pipeline, "batchLingerMillis", 2_000L);
+        pipeline.start();
+
+        newsService = new NewsService(newsRepository, newsContentRepository, mock(NewsFetchWatermarkRepository.class),
+                alphaVantageNewsService, mock(TrendingKeywordService.class), mock(NewsRetentionService.class), pipeline);
+        StatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+        newsRepository.deleteAllInBatch();
+        newsContentRepository.deleteAllInBatch();
+        newsArticleKeyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should look up existing articles once per persist batch when inserting")
+    void shouldLookUpExistingArticlesOncePerBatch() throws Exception {
+        // When
+        NewsIngestPipeline.IngestResult result = pipeline.ingest(articles("Title"), "test").get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result.getSaved()).isEqualTo(ARTICLES);
+        assertStatements("select", BATCHES);
+        // identity ids make Hibernate insert row by row; the article ids registry takes one batched insert per batch
+        assertStatements("insert into news_article_ids", BATCHES);
+        assertStatements(BATCHES + ARTICLES + BATCHES);
+    }
+
+    @Test
+    @DisplayName("Should flush article updates in JDBC batches")
+    void shouldFlushUpdatesInBatches() throws Exception {
+        // Given
+        pipeline.ingest(articles("Title"), "test").get(10, TimeUnit.SECONDS);
+        StatementCounter.reset();
+
+        // When
+        NewsIngestPipeline.IngestResult result = pipeline.ingest(articles("Revised title"), "test").get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result.getUpdated()).isEqualTo(ARTICLES);
+        assertStatements("select", BATCHES);
+        assertStatements("insert", 0);
+        int updateBatchesPerPersist = (BATCH_SIZE + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE;
+        assertStatements(BATCHES + BATCHES * updateBatchesPerPersist);
+    }
+
+    @Test
+    @DisplayName("Should serve feed pages with one query plus the page count")
+    void shouldServeFeedPagesWithoutPerRowQueries() throws Exception {
+        // Given
+        pipeline.ingest(articles("Title"), "test").get(10, TimeUnit.SECONDS);
+
+        // When / Then
+        StatementCounter.reset();
+        assertThat(newsService.getLatestNews(20)).hasSize(20);
+        assertStatements(2);
+
+        StatementCounter.reset();
+        List<NewsSummary> firstPage = newsService.getNewsPageOlderThan(null, null, 20);
+        assertThat(firstPage).hasSize(20);
+        assertStatements(1);
+
+        StatementCounter.reset();
+        NewsSummary last = firstPage.get(firstPage.size() - 1);
+        assertThat(newsService.getNewsPageOlderThan(last.getPubDate(), last.getId(), 20)).hasSize(20);
+        assertStatements(1);
+
+        StatementCounter.reset();
+        assertThat(newsService.getNewsBySentiment("Bullish", 0, 20).getContent()).isEmpty();
+        assertStatements(2);
+    }
+
+    @Test
+    @DisplayName("Should read only the summary columns for list views")
+    void shouldSelectOnlySummaryColumnsForLists() throws Exception {
+        // Given
+        pipeline.ingest(articles("Title"), "test").get(10, TimeUnit.SECONDS);
+        StatementCounter.reset();
+
+        // When
+        newsService.getAllNews(0, 20, "pubDate", "desc");
+        newsService.getLatestNews(20);
+        newsService.getNewsPageOlderThan(null, null, 20);
+        newsService.getNewsBySource("Example");
+        newsService.getRecentNews(24);
+        newsService.searchNews("title");
+        newsService.searchWithCriteria("title", "Example", null, null, null, null, null, null, 0, 20);
+
+        // Then
+        assertThat(StatementCounter.statements())
+                .filteredOn(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                .map(sql -> sql.substring(0, sql.toLowerCase().indexOf(" from ")))
+                .isNotEmpty()
+                .noneMatch(columns -> columns.contains("content") || columns.contains("description")
+                        || columns.contains("keywords") || columns.contains("coin_mentioned"));
+    }
+
+    private List<AlphaVantageNewsArticleDto> articles(String title) {
+        List<AlphaVantageNewsArticleDto> articles = new ArrayList<>();
+        for (int i = 0; i < ARTICLES; i++) {
+            AlphaVantageNewsArticleDto dto = new AlphaVantageNewsArticleDto();
+            dto.setTitle(title + " " + i);
+            dto.setUrl("https://example.com/news/" + i);
+            articles.add(dto);
+        }
+        return articles;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.kapt.service;
+
+import com.example.kapt.dto.AlphaVantageNewsArticleDto;
+import com.example.kapt.ingest.NewsIngestPipeline;
+import com.example.kapt.model.News;
+import com.example.kapt.model.NewsContent;
+import com.example.kapt.model.NewsFetchWatermark;
+import com.example.kapt.repository.NewsContentRepository;
+import com.example.kapt.repository.NewsFetchWatermarkRepository;
+import com.example.kapt.repository.NewsRepository;
+import com.example.kapt.service.AlphaVantageRequestScheduler.Priority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NewsService Tests")
+class NewsServiceTest {
+
+    private static final String QUERY_KEY = "tickers:CRYPTO:BTC,CRYPTO:ETH";
+    private static final DateTimeFormatter AV_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    @Mock
+    private NewsContentRepository newsContentRepository;
+
+    @Mock
+    private NewsFetchWatermarkRepository watermarkRepository;
+
+    @Mock
+    private AlphaVantageNewsService alphaVantageNewsService;
+
+    @Mock
+    private TrendingKeywordService trendingKeywordService;
+
+    @Mock
+    private NewsRetentionService newsRetentionService;
+
+    @Mock
+    private NewsIngestPipeline ingestPipeline;
+
+    private NewsService newsService;
+
+    private final LocalDateTime watermark = LocalDateTime.of(2024, 1, 15, 12, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        newsService = new NewsService(newsRepository, newsContentRepository, watermarkRepository, alphaVantageNewsService,
+                trendingKeywordService, newsRetentionService, ingestPipeline);
+        ReflectionTestUtils.setField(newsService, "incrementalPageSize", 2);
+        ReflectionTestUtils.setField(newsService, "maxPagesPerCycle", 3);
+        ReflectionTestUtils.setField(newsService, "initialLookbackHours", 24);
+        ReflectionTestUtils.setField(newsService, "cycleIntervalMillis", 3_600_000L);
+
+        lenient().when(alphaVantageNewsService.getRemainingDailyQuota()).thenReturn(1000);
+
+        lenient().when(alphaVantageNewsService.parsePublishedAt(anyString()))
+                .thenAnswer(invocation -> LocalDateTime.parse(invocation.getArgument(0), AV_FORMAT));
+        lenient().when(ingestPipeline.ingest(anyList(), anyString())).thenAnswer(invocation -> {
+            List<?> articles = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(new NewsIngestPipeline.IngestResult(articles.size(), 0, 0, 0));
+        });
+    }
+
+    @Test
+    @DisplayName("Should page forward from the stored watermark, re-ingesting its own second, and advance it")
+    void shouldFetchIncrementallyFromWatermark() {
+        LocalDateTime first = watermark.plusMinutes(5);
+        LocalDateTime second = watermark.plusMinutes(20);
+        when(watermarkRepository.findById(QUERY_KEY)).thenReturn(Optional.of(new NewsFetchWatermark(QUERY_KEY, watermark)));
+        when(alphaVantageNewsService.fetchCryptoNewsByTickersSince(anyString(), eq(watermark), anyInt(), eq(Priority.SCHEDULED)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(article("seen", watermark), article("first", first))));
+        when(alphaVantageNewsService.fetchCryptoNewsByTickersSince(anyString(), eq(first), anyInt(), eq(Priority.SCHEDULED)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(article("second", second))));
+
+        int saved = newsService.fetchAndSaveIncrementalNews(Priority.SCHEDULED).join();
+
+        // the article published in the watermark's second is upserted again rather than dropped
+        assertThat(saved).isEqualTo(3);
+        ArgumentCaptor<NewsFetchWatermark> captor = ArgumentCaptor.forClass(NewsFetchWatermark.class);
+        verify(watermarkRepository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(NewsFetchWatermark::getLastPublished).containsExactly(first, second);
+        verify(alphaVantageNewsService, times(2)).fetchCryptoNewsByTickersSince(anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should stop paging when the per-cycle page budget is spent")
+    void shouldStopAtPageBudget() {
+        ReflectionTestUtils.setField(newsService, "maxPagesPerCycle", 1);
+        when(watermarkRepository.findById(QUERY_KEY)).thenReturn(Optional.of(new NewsFetchWatermark(QUERY_KEY, watermark)));
+        when(alphaVantageNewsService.fetchCryptoNewsByTickersSince(anyString(), eq(watermark), anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(
+                        article("a", watermark.plusMinutes(1)), article("b", watermark.plusMinutes(2)))));
+
+        int saved = newsService.fetchAndSaveIncrementalNews(Priority.SCHEDULED).join();
+
+        assertThat(saved).isEqualTo(2);
+        verify(alphaVantageNewsService, times(1)).fetchCryptoNewsByTickersSince(anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should fetch fewer pages when the remaining quota has to last the rest of the day")
+    void shouldCapPagesByRemainingQuota() {
+        // Given
+        when(alphaVantageNewsService.getRemainingDailyQuota()).thenReturn(1);
+        when(watermarkRepository.findById(QUERY_KEY)).thenReturn(Optional.of(new NewsFetchWatermark(QUERY_KEY, watermark)));
+        when(alphaVantageNewsService.fetchCryptoNewsByTickersSince(anyString(), eq(watermark), anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(
+                        article("a", watermark.plusMinutes(1)), article("b", watermark.plusMinutes(2)))));
+
+        // When
+        int saved = newsService.fetchAndSaveIncrementalNews(Priority.SCHEDULED).join();
+
+        // Then
+        assertThat(saved).isEqualTo(2);
+        verify(alphaVantageNewsService, times(1)).fetchCryptoNewsByTickersSince(anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail the fetch and keep the watermark when Alpha Vantage cannot be reached")
+    void shouldPropagateFetchFailure() {
+        // Given
+        when(watermarkRepository.findById(QUERY_KEY)).thenReturn(Optional.of(new NewsFetchWatermark(QUERY_KEY, watermark)));
+        when(alphaVantageNewsService.fetchCryptoNewsByTickersSince(anyString(), eq(watermark), anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new AlphaVantageNewsService.NewsFetchException("Alpha Vantage returned HTTP 503", null)));
+
+        // When / Then
+        assertThatThrownBy(() -> newsService.fetchAndSaveIncrementalNews(Priority.SCHEDULED).join())
+                .hasCauseInstanceOf(AlphaVantageNewsService.NewsFetchException.class);
+        verify(ingestPipeline, never()).ingest(anyList(), anyString());
+        verify(watermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should purge old news by a UTC cutoff, like the partition bounds")
+    void shouldPurgeByUtcCutoff() {
+        // Given
+        LocalDateTime expected = LocalDateTime.now(ZoneOffset.UTC).minusDays(7);
+
+        // When
+        newsService.deleteOldNews(7);
+
+        // Then
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(newsRetentionService).purgeOlderThan(cutoff.capture());
+        assertThat(cutoff.getValue()).isBetween(expected.minusMinutes(1), expected.plusMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should keep the watermark when articles of a page fail to persist")
+    void shouldKeepWatermarkWhenPageFails() {
+        when(watermarkRepository.findById(QUERY_KEY)).thenReturn(Optional.of(new NewsFetchWatermark(QUERY_KEY, watermark)));
+        when(alphaVantageNewsService.fetchCryptoNewsByTickersSince(anyString(), eq(watermark), anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(article("a", watermark.plusMinutes(1)))));
+        when(ingestPipeline.ingest(anyList(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new NewsIngestPipeline.IngestResult(0, 0, 0, 1)));
+
+        int saved = newsService.fetchAndSaveIncrementalNews(Priority.SCHEDULED).join();
+
+        assertThat(saved).isZero();
+        verify(watermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should attach the stored body to a single article and fall back to its summary")
+    void shouldAttachBodyToSingleArticle() {
+        News full = new News("av_full", "Full", "https://example.com/full");
+        full.setId(1L);
+        full.setDescription("Summary");
+        News summaryOnly = new News("av_summary", "Summary only", "https://example.com/summary");
+        summaryOnly.setId(2L);
+        summaryOnly.setDescription("Just a summary");
+        when(newsRepository.findByArticleId("av_full")).thenReturn(Optional.of(full));
+        when(newsRepository.findByArticleId("av_summary")).thenReturn(Optional.of(summaryOnly));
+        when(newsContentRepository.findById(1L)).thenReturn(Optional.of(new NewsContent(1L, watermark, "Full body")));
+        when(newsContentRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(newsService.findByArticleId("av_full")).map(News::getContent).contains("Full body");
+        assertThat(newsService.findByArticleId("av_summary")).map(News::getContent).contains("Just a summary");
+    }
+
+    private AlphaVantageNewsArticleDto article(String slug, LocalDateTime publishedAt) {
+        AlphaVantageNewsArticleDto dto = new AlphaVantageNewsArticleDto();
+        dto.setTitle("Article " + slug);
+        dto.setUrl("https://example.com/" + slug);
+        dto.setTimePublished(publishedAt.format(AV_FORMAT));
+        return dto;
+    }
+}
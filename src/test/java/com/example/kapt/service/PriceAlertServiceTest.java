@@ -0,0 +1,137 @@
+package com.example.kapt.service;
+
+import com.example.kapt.event.CryptocurrencyIngestedEvent;
+import com.example.kapt.event.PriceAlertsTriggeredEvent;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.model.PriceAlert;
+import com.example.kapt.repository.PriceAlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceAlertService Tests")
+class PriceAlertServiceTest {
+
+    @Mock
+    private PriceAlertRepository priceAlertRepository;
+
+    @Mock
+    private CryptocurrencyService cryptocurrencyService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PriceAlertService priceAlertService;
+
+    @BeforeEach
+    void setUp() {
+        priceAlertService = new PriceAlertService(priceAlertRepository, cryptocurrencyService, eventPublisher,
+                transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(priceAlertService, "maxAlertsPerChat", 20);
+        ReflectionTestUtils.setField(priceAlertService, "deactivateBatchSize", 1000);
+
+        Cryptocurrency bitcoin = new Cryptocurrency();
+        bitcoin.setSymbol("BTC");
+        bitcoin.setCurrentPrice(new BigDecimal("65000"));
+        when(cryptocurrencyService.findBySymbol("BTC")).thenReturn(Optional.of(bitcoin));
+    }
+
+    @Test
+    @DisplayName("Should reject an alert whose condition already holds")
+    void shouldRejectAlreadySatisfiedAlert() {
+        assertThatThrownBy(() -> priceAlertService.createAlert(1L, "btc", PriceAlert.Direction.ABOVE, new BigDecimal("60000")))
+                .isInstanceOf(PriceAlertService.AlertRejectedException.class);
+        verify(priceAlertRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should deactivate and announce alerts crossed by an ingest")
+    void shouldTriggerCrossedAlerts() {
+        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(invocation -> {
+            PriceAlert alert = invocation.getArgument(0);
+            alert.setId(7L);
+            return alert;
+        });
+        priceAlertService.createAlert(1L, "BTC", PriceAlert.Direction.ABOVE, new BigDecimal("70000"));
+
+        priceAlertService.onCryptocurrencyIngested(new CryptocurrencyIngestedEvent(1, List.of(
+                new CryptocurrencyIngestedEvent.PriceChange("BTC", new BigDecimal("65000"), new BigDecimal("70500")))));
+
+        ArgumentCaptor<PriceAlertsTriggeredEvent> event = ArgumentCaptor.forClass(PriceAlertsTriggeredEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getAlerts()).singleElement()
+                .satisfies(alert -> {
+                    assertThat(alert.getChatId()).isEqualTo(1L);
+                    assertThat(alert.getPrice()).isEqualByComparingTo("70500");
+                });
+        verify(priceAlertRepository).deactivate(eq(List.of(7L)), any());
+        assertThat(priceAlertService.getActiveAlertCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should update the alert index only once the transaction commits")
+    void shouldIndexAlertsAfterCommit() {
+        // Given
+        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(invocation -> {
+            PriceAlert alert = invocation.getArgument(0);
+            alert.setId(7L);
+            return alert;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            PriceAlert alert = priceAlertService.createAlert(1L, "BTC", PriceAlert.Direction.ABOVE, new BigDecimal("70000"));
+            assertThat(priceAlertService.getActiveAlertCount()).isZero();
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+            assertThat(priceAlertService.getActiveAlertCount()).isEqualTo(1);
+
+            when(priceAlertRepository.findByIdAndChatIdAndActiveTrue(7L, 1L)).thenReturn(Optional.of(alert));
+            assertThat(priceAlertService.cancelAlert(1L, 7L)).isTrue();
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            // Then
+            assertThat(priceAlertService.getActiveAlertCount()).isEqualTo(1);
+            assertThat(priceAlertService.cancelAlert(1L, 7L)).isTrue();
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+            assertThat(priceAlertService.getActiveAlertCount()).isZero();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.kapt.service;
+
+import com.example.kapt.model.ChatSubscription;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.repository.ChatSubscriptionRepository;
+import com.example.kapt.repository.ChatSubscriptionRepository.DigestRecipient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SubscriptionService Tests")
+class SubscriptionServiceTest {
+
+    @Mock
+    private ChatSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private CryptocurrencyService cryptocurrencyService;
+
+    private SubscriptionService subscriptionService;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionService = new SubscriptionService(subscriptionRepository, cryptocurrencyService);
+        ReflectionTestUtils.setField(subscriptionService, "maxWatchlistSize", 3);
+        ReflectionTestUtils.setField(subscriptionService, "recipientPageSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should store watchlists in canonical order and enforce the size limit")
+    void shouldCanonicalizeWatchlist() {
+        ChatSubscription existing = new ChatSubscription(1L);
+        existing.setWatchlist("ETH");
+        when(subscriptionRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(cryptocurrencyService.findBySymbol(anyString())).thenReturn(Optional.of(new Cryptocurrency()));
+        when(subscriptionRepository.save(any(ChatSubscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(subscriptionService.watch(1L, List.of("sol", "btc", "ETH"))).containsExactly("BTC", "ETH", "SOL");
+        assertThat(existing.getWatchlist()).isEqualTo("BTC,ETH,SOL");
+
+        assertThatThrownBy(() -> subscriptionService.watch(1L, List.of("ada")))
+                .isInstanceOf(SubscriptionService.SubscriptionRejectedException.class);
+        verify(subscriptionRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Should page through digest recipients by chat id and group them by watchlist")
+    void shouldGroupRecipientsAcrossPages() {
+        when(subscriptionRepository.findDigestRecipients(eq(8), eq(Long.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(recipient(1L, "BTC"), recipient(2L, "")));
+        when(subscriptionRepository.findDigestRecipients(eq(8), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(recipient(3L, "BTC")));
+
+        Map<String, List<Long>> groups = subscriptionService.groupDigestRecipients(8);
+
+        assertThat(groups).containsOnlyKeys("BTC", "");
+        assertThat(groups.get("BTC")).containsExactly(1L, 3L);
+        assertThat(groups.get("")).containsExactly(2L);
+        verify(subscriptionRepository, never()).findDigestRecipients(eq(8), eq(3L), any(Pageable.class));
+    }
+
+    private static DigestRecipient recipient(long chatId, String watchlist) {
+        return new DigestRecipient() {
+            @Override
+            public Long getChatId() {
+                return chatId;
+            }
+
+            @Override
+            public String getWatchlist() {
+                return watchlist;
+            }
+        };
+    }
+}
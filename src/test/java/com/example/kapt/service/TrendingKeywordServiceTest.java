@@ -0,0 +1,67 @@
+package com.example.kapt.service;
+
+import com.example.kapt.analytics.HeavyHitter;
+import com.example.kapt.event.NewsIngestedEvent;
+import com.example.kapt.model.News;
+import com.example.kapt.repository.TrendingKeywordCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrendingKeywordService Tests")
+class TrendingKeywordServiceTest {
+
+    @Mock
+    private TrendingKeywordCheckpointRepository checkpointRepository;
+
+    private TrendingKeywordService trendingKeywordService;
+
+    @BeforeEach
+    void setUp() {
+        trendingKeywordService = new TrendingKeywordService(checkpointRepository, new ObjectMapper(), 500, 50);
+    }
+
+    @Test
+    @DisplayName("Should not count syndicated copies flagged as duplicates")
+    void shouldSkipDuplicateArticles() {
+        // Given
+        trendingKeywordService.onNewsIngested(new NewsIngestedEvent(List.of(article("Halving rally lifts miners", false)), 0));
+        long before = count("halving");
+
+        // When
+        trendingKeywordService.onNewsIngested(new NewsIngestedEvent(List.of(
+                article("Halving rally lifts miners", true),
+                article("Halving rally lifts miners", true)), 0));
+
+        // Then
+        assertThat(before).isEqualTo(1);
+        assertThat(count("halving")).isEqualTo(before);
+    }
+
+    private long count(String term) {
+        return trendingKeywordService.getTrendingKeywords(TrendingKeywordService.WINDOW_1H, 50).stream()
+                .filter(hitter -> hitter.getTerm().equals(term))
+                .mapToLong(HeavyHitter::getCount)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private News article(String title, boolean duplicate) {
+        News news = new News();
+        news.setTitle(title);
+        news.setPubDate(LocalDateTime.now(ZoneOffset.UTC));
+        news.setDuplicate(duplicate);
+        return news;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.dto.NewsSummary;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.service.CryptocurrencyService;
+import com.example.kapt.service.NewsService;
+import com.example.kapt.service.SubscriptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TelegramDigestBroadcaster Tests")
+class TelegramDigestBroadcasterTest {
+
+    @Mock
+    private SubscriptionService subscriptionService;
+
+    @Mock
+    private CryptocurrencyService cryptocurrencyService;
+
+    @Mock
+    private NewsService newsService;
+
+    @Mock
+    private TelegramSendQueue sendQueue;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TelegramDigestBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TelegramDigestBroadcaster(subscriptionService, cryptocurrencyService, newsService,
+                sendQueue, meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "headlineCount", 3);
+        ReflectionTestUtils.setField(broadcaster, "maxQueued", 5000);
+        ReflectionTestUtils.setField(broadcaster, "queueWaitMinutes", 1L);
+    }
+
+    @Test
+    @DisplayName("Should render each distinct digest once and queue it for every chat in its group")
+    void shouldFanOutOneRenderPerGroup() throws InterruptedException {
+        List<Long> btcWatchers = LongStream.rangeClosed(1, 1000).boxed().toList();
+        when(subscriptionService.groupDigestRecipients(8)).thenReturn(Map.of(
+                "BTC,ETH", btcWatchers,
+                "", List.of(5000L)));
+        when(cryptocurrencyService.getAllCryptocurrencies()).thenReturn(List.of(coin("BTC", "Bitcoin"), coin("ETH", "Ethereum")));
+        when(cryptocurrencyService.getTopByMarketCap(anyInt())).thenReturn(List.of(coin("BTC", "Bitcoin")));
+        when(newsService.getLatestNews(3)).thenReturn(List.of(headline()));
+        when(sendQueue.getCapacity()).thenReturn(10000);
+        when(sendQueue.awaitQueuedBelow(anyInt(), anyLong(), any())).thenReturn(true);
+
+        TelegramDigestBroadcaster.DigestRun run = broadcaster.broadcast(8);
+
+        assertThat(run.getRecipients()).isEqualTo(1001);
+        assertThat(run.getDistinctMessages()).isEqualTo(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<BotApiMethod<?>> messages = ArgumentCaptor.forClass(BotApiMethod.class);
+        verify(sendQueue, times(1001)).enqueue(anyLong(), eq(TelegramSendQueue.Priority.BROADCAST), messages.capture());
+        Set<String> texts = messages.getAllValues().stream()
+                .map(method -> ((SendMessage) method).getText())
+                .collect(Collectors.toSet());
+        assertThat(texts).hasSize(2);
+        assertThat(texts).anySatisfy(text -> assertThat(text).contains("*Ethereum* (ETH)").contains("Market update"));
+
+        verify(cryptocurrencyService, times(1)).getAllCryptocurrencies();
+        verify(newsService, times(1)).getLatestNews(3);
+        verify(sendQueue, times(1001)).awaitQueuedBelow(eq(5000), eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should stop queuing when the send queue does not drain")
+    void shouldAbandonRunWhenQueueIsStuck() throws InterruptedException {
+        when(subscriptionService.groupDigestRecipients(8)).thenReturn(Map.of("BTC", List.of(1L, 2L, 3L)));
+        when(cryptocurrencyService.getAllCryptocurrencies()).thenReturn(List.of(coin("BTC", "Bitcoin")));
+        when(sendQueue.getCapacity()).thenReturn(100);
+        when(sendQueue.awaitQueuedBelow(anyInt(), anyLong(), any())).thenReturn(true, false);
+
+        TelegramDigestBroadcaster.DigestRun run = broadcaster.broadcast(8);
+
+        assertThat(run.getRecipients()).isEqualTo(1);
+        verify(sendQueue, times(1)).enqueue(anyLong(), any(), any());
+        verify(sendQueue, times(2)).awaitQueuedBelow(eq(50), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should queue the next hour behind a run that is still queuing instead of skipping it")
+    void shouldQueueHourBehindSlowRun() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(subscriptionService.groupDigestRecipients(8)).thenReturn(Map.of("", List.of(1L)));
+        when(subscriptionService.groupDigestRecipients(9)).thenReturn(Map.of());
+        when(sendQueue.getCapacity()).thenReturn(100);
+        when(sendQueue.awaitQueuedBelow(anyInt(), anyLong(), any())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+
+        // When
+        broadcaster.queueRun(8);
+        broadcaster.queueRun(9);
+        broadcaster.queueRun(9);
+
+        // Then
+        assertThat(broadcaster.getPendingRunCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("telegram.digest.runs.delayed").counter().count()).isEqualTo(1.0);
+        release.countDown();
+        verify(subscriptionService, timeout(2_000)).groupDigestRecipients(9);
+        for (int i = 0; i < 50 && broadcaster.getPendingRunCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(broadcaster.getPendingRunCount()).isZero();
+    }
+
+    private static Cryptocurrency coin(String symbol, String name) {
+        Cryptocurrency crypto = new Cryptocurrency(symbol, name);
+        crypto.setCurrentPrice(new BigDecimal("100"));
+        return crypto;
+    }
+
+    private static NewsSummary headline() {
+        return new NewsSummary(1L, "market-update", "Market update", "https://example.com/market",
+                LocalDateTime.of(2024, 1, 1, 9, 0), null, null);
+    }
+}
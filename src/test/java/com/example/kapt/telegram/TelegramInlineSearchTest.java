@@ -0,0 +1,86 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.event.CryptocurrencyIngestedEvent;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.service.CryptocurrencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.telegrambots.meta.api.methods.AnswerInlineQuery;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.InlineQuery;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.result.InlineQueryResultArticle;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TelegramInlineSearch Tests")
+class TelegramInlineSearchTest {
+
+    @Mock
+    private CryptocurrencyService cryptocurrencyService;
+
+    private TelegramInlineSearch inlineSearch;
+
+    @BeforeEach
+    void setUp() {
+        inlineSearch = new TelegramInlineSearch(cryptocurrencyService, 3, 30);
+        when(cryptocurrencyService.getAllCryptocurrencies()).thenReturn(List.of(
+                coin("BCH", "Bitcoin Cash", 15),
+                coin("SHIB", "Shiba Inu", 12),
+                coin("BTC", "Bitcoin", 1),
+                coin("BNB", "BNB", 4),
+                coin("WBTC", "Wrapped Bitcoin", 16),
+                coin("ETH", "Ethereum", 2)));
+    }
+
+    @Test
+    @DisplayName("Should match symbol and name prefixes ranked by market cap")
+    void shouldRankPrefixMatchesByMarketCap() {
+        assertThat(ids(inlineSearch.search("b"))).containsExactly("BTC", "BNB", "BCH");
+        assertThat(ids(inlineSearch.search("BiTc"))).containsExactly("BTC", "BCH", "WBTC");
+        assertThat(ids(inlineSearch.search("inu"))).containsExactly("SHIB");
+        assertThat(ids(inlineSearch.search("  "))).containsExactly("BTC", "ETH", "BNB");
+        assertThat(inlineSearch.search("xyz")).isEmpty();
+
+        verify(cryptocurrencyService, times(1)).getAllCryptocurrencies();
+    }
+
+    @Test
+    @DisplayName("Should answer with pre-rendered articles and rebuild after an ingest")
+    void shouldAnswerAndRebuildAfterIngest() {
+        AnswerInlineQuery answer = inlineSearch.answer(new InlineQuery("q1", new User(42L, "Alex", false), "eth", "0"));
+        InlineQueryResultArticle article = (InlineQueryResultArticle) answer.getResults().get(0);
+        assertThat(answer.getInlineQueryId()).isEqualTo("q1");
+        assertThat(answer.getCacheTime()).isEqualTo(30);
+        assertThat(article.getTitle()).isEqualTo("Ethereum (ETH)");
+
+        when(cryptocurrencyService.getAllCryptocurrencies()).thenReturn(List.of(coin("SOL", "Solana", 5)));
+        inlineSearch.onCryptocurrencyIngested(new CryptocurrencyIngestedEvent(0));
+        assertThat(ids(inlineSearch.search("e"))).containsExactly("ETH");
+
+        inlineSearch.onCryptocurrencyIngested(new CryptocurrencyIngestedEvent(1));
+        assertThat(inlineSearch.search("e")).isEmpty();
+        assertThat(ids(inlineSearch.search("sol"))).containsExactly("SOL");
+    }
+
+    private static List<String> ids(List<InlineQueryResultArticle> articles) {
+        return articles.stream().map(InlineQueryResultArticle::getId).toList();
+    }
+
+    private static Cryptocurrency coin(String symbol, String name, int rank) {
+        Cryptocurrency crypto = new Cryptocurrency(symbol, name);
+        crypto.setMarketCapRank(rank);
+        crypto.setCurrentPrice(new BigDecimal("100"));
+        return crypto;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.dto.NewsSummary;
+import com.example.kapt.event.NewsIngestedEvent;
+import com.example.kapt.model.News;
+import com.example.kapt.service.NewsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TelegramNewsPager Tests")
+class TelegramNewsPagerTest {
+
+    @Mock
+    private NewsService newsService;
+
+    private TelegramNewsPager newsPager;
+    private final LocalDateTime now = LocalDateTime.now().withNano(123_456_000);
+
+    @BeforeEach
+    void setUp() {
+        newsPager = new TelegramNewsPager(newsService, 16, 300);
+    }
+
+    @Test
+    @DisplayName("Should encode the last article of a page as the cursor of the next page")
+    void shouldFollowCursorToOlderPage() {
+        List<NewsSummary> firstBatch = articles(1, 6);
+        when(newsService.getNewsPageOlderThan(isNull(), isNull(), eq(6))).thenReturn(firstBatch);
+
+        TelegramNewsPager.NewsPage first = newsPager.firstPage();
+
+        NewsSummary lastShown = firstBatch.get(4);
+        assertThat(first.getNewerCursor()).isNull();
+        assertThat(first.getOlderCursor()).isEqualTo(TelegramNewsPager.cursor(TelegramNewsPager.OLDER_PREFIX, lastShown));
+        assertThat(first.getOlderCursor().length()).isLessThanOrEqualTo(64);
+
+        when(newsService.getNewsPageOlderThan(lastShown.getPubDate(), lastShown.getId(), 6)).thenReturn(articles(6, 2));
+
+        TelegramNewsPager.NewsPage second = newsPager.page(first.getOlderCursor());
+
+        assertThat(second.getText()).contains("Article 6").contains("Article 7").doesNotContain("Article 5");
+        assertThat(second.getOlderCursor()).isNull();
+        assertThat(second.getNewerCursor()).startsWith(TelegramNewsPager.NEWER_PREFIX);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated clicks from cache until news is ingested")
+    void shouldCacheRenderedPages() {
+        when(newsService.getNewsPageOlderThan(isNull(), isNull(), eq(6))).thenReturn(articles(1, 3));
+
+        newsPager.firstPage();
+        newsPager.firstPage();
+        newsPager.onNewsIngested(new NewsIngestedEvent(Collections.emptyList(), 0));
+        newsPager.firstPage();
+        verify(newsService, times(1)).getNewsPageOlderThan(null, null, 6);
+
+        newsPager.onNewsIngested(new NewsIngestedEvent(List.of(new News()), 0));
+        newsPager.firstPage();
+        verify(newsService, times(2)).getNewsPageOlderThan(null, null, 6);
+    }
+
+    @Test
+    @DisplayName("Should not cache a page that was loaded while news was being ingested")
+    void shouldNotCachePageLoadedAcrossIngest() {
+        // Given
+        when(newsService.getNewsPageOlderThan(isNull(), isNull(), eq(6)))
+                .thenAnswer(invocation -> {
+                    newsPager.onNewsIngested(new NewsIngestedEvent(List.of(new News()), 0));
+                    return articles(1, 3);
+                })
+                .thenReturn(articles(1, 4));
+
+        // When
+        newsPager.firstPage();
+        TelegramNewsPager.NewsPage fresh = newsPager.firstPage();
+
+        // Then
+        assertThat(fresh.getText()).contains("Article 4");
+        verify(newsService, times(2)).getNewsPageOlderThan(null, null, 6);
+    }
+
+    private List<NewsSummary> articles(int firstNumber, int count) {
+        List<NewsSummary> articles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int number = firstNumber + i;
+            articles.add(new NewsSummary((long) (100 - number), "article-" + number, "Article " + number,
+                    "https://example.com/" + number, now.minusMinutes(number), null, null));
+        }
+        return articles;
+    }
+}
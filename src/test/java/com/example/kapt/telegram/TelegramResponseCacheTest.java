@@ -0,0 +1,119 @@
+package com.example.kapt.telegram;
+
+import com.example.kapt.event.CryptocurrencyIngestedEvent;
+import com.example.kapt.model.Cryptocurrency;
+import com.example.kapt.service.CryptocurrencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TelegramResponseCache Tests")
+class TelegramResponseCacheTest {
+
+    @Mock
+    private CryptocurrencyService cryptocurrencyService;
+
+    private TelegramResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new TelegramResponseCache(cryptocurrencyService);
+        when(cryptocurrencyService.getTopByMarketCap(anyInt())).thenReturn(List.of(bitcoin(new BigDecimal("50000"))));
+        when(cryptocurrencyService.getTopGainers(anyInt())).thenReturn(List.of(bitcoin(new BigDecimal("50000"))));
+        when(cryptocurrencyService.getTopLosers(anyInt())).thenReturn(Collections.emptyList());
+        when(cryptocurrencyService.getMarketStatistics()).thenReturn(new CryptocurrencyService.MarketStatistics(
+                1L, new BigDecimal("1000000000000"), BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO));
+    }
+
+    @Test
+    @DisplayName("Should render each command once and serve repeats from memory")
+    void shouldServeRepeatedRequestsWithoutQueries() {
+        for (int i = 0; i < 100; i++) {
+            responseCache.getTop();
+            responseCache.getStats();
+        }
+
+        TelegramResponseCache.Response top = responseCache.getTop();
+        assertThat(top.isMarkdown()).isTrue();
+        assertThat(top.getText()).contains("1. *Bitcoin* (BTC)").contains("$50,000.00");
+        assertThat(responseCache.getStats().getText()).contains("$1.00T");
+        assertThat(responseCache.getLosers().isMarkdown()).isFalse();
+        verify(cryptocurrencyService, times(1)).getTopByMarketCap(10);
+        verify(cryptocurrencyService, times(1)).getMarketStatistics();
+    }
+
+    @Test
+    @DisplayName("Should swap in a new generation after an ingest with changes")
+    void shouldRebuildOnIngest() {
+        responseCache.getTop();
+        when(cryptocurrencyService.getTopByMarketCap(anyInt())).thenReturn(List.of(bitcoin(new BigDecimal("60000"))));
+
+        responseCache.onCryptocurrencyIngested(new CryptocurrencyIngestedEvent(0));
+        assertThat(responseCache.getGeneration()).isEqualTo(1);
+
+        responseCache.onCryptocurrencyIngested(new CryptocurrencyIngestedEvent(300));
+        assertThat(responseCache.getGeneration()).isEqualTo(2);
+        assertThat(responseCache.getTop().getText()).contains("$60,000.00");
+    }
+
+    @Test
+    @DisplayName("Should not let a slower earlier rebuild overwrite a newer generation")
+    void shouldSerializeRebuilds() throws Exception {
+        // Given
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(cryptocurrencyService.getTopByMarketCap(anyInt()))
+                .thenAnswer(invocation -> {
+                    firstReading.countDown();
+                    releaseFirst.await(5, TimeUnit.SECONDS);
+                    return List.of(bitcoin(new BigDecimal("50000")));
+                })
+                .thenReturn(List.of(bitcoin(new BigDecimal("60000"))));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<?> stale = executor.submit(responseCache::rebuild);
+            assertThat(firstReading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> fresh = executor.submit(responseCache::rebuild);
+            Thread.sleep(100);
+            releaseFirst.countDown();
+            stale.get(5, TimeUnit.SECONDS);
+            fresh.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(responseCache.getGeneration()).isEqualTo(2);
+        assertThat(responseCache.getTop().getText()).contains("$60,000.00");
+    }
+
+    private Cryptocurrency bitcoin(BigDecimal price) {
+        Cryptocurrency crypto = new Cryptocurrency();
+        crypto.setName("Bitcoin");
+        crypto.setSymbol("BTC");
+        crypto.setCurrentPrice(price);
+        crypto.setPriceChangePercentage24h(new BigDecimal("2.5"));
+        return crypto;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.kapt.telegram;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TelegramSendQueue Tests")
+class TelegramSendQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AbsSender sender = mock(AbsSender.class);
+    private TelegramSendQueue sendQueue;
+
+    @AfterEach
+    void tearDown() {
+        sendQueue.stop();
+    }
+
+    @Test
+    @DisplayName("Should send interactive replies before queued broadcasts")
+    void shouldPrioritiseInteractiveMessages() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            sent.add(((SendMessage) invocation.getArgument(0)).getText());
+            return null;
+        }).when(sender).execute(any(SendMessage.class));
+        sendQueue = new TelegramSendQueue(() -> sender, meterRegistry, 30, 0, 100, 3, 1);
+
+        sendQueue.enqueue(1L, TelegramSendQueue.Priority.BROADCAST, message(1L, "digest"));
+        CompletableFuture<Void> reply = sendQueue.enqueue(2L, TelegramSendQueue.Priority.INTERACTIVE, message(2L, "reply"));
+        CompletableFuture<Void> digest = sendQueue.enqueue(3L, TelegramSendQueue.Priority.BROADCAST, message(3L, "digest"));
+        sendQueue.start();
+
+        CompletableFuture.allOf(reply, digest).get(2, TimeUnit.SECONDS);
+        assertThat(sent.get(0)).isEqualTo("reply");
+        assertThat(meterRegistry.get("telegram.send.latency").tag("priority", "INTERACTIVE").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should hold a chat for retry_after and resend after a 429")
+    void shouldHonourRetryAfter() throws Exception {
+        TelegramApiRequestException tooManyRequests = mock(TelegramApiRequestException.class);
+        when(tooManyRequests.getErrorCode()).thenReturn(429);
+        when(tooManyRequests.getParameters()).thenReturn(new ResponseParameters(null, 1));
+        when(sender.execute(any(SendMessage.class))).thenThrow(tooManyRequests).thenReturn(null);
+        sendQueue = new TelegramSendQueue(() -> sender, meterRegistry, 30, 0, 100, 3, 1);
+        sendQueue.start();
+
+        long startedAt = System.nanoTime();
+        sendQueue.enqueue(1L, TelegramSendQueue.Priority.INTERACTIVE, message(1L, "hello")).get(5, TimeUnit.SECONDS);
+
+        assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+        verify(sender, times(2)).execute(any(SendMessage.class));
+        assertThat(meterRegistry.get("telegram.send.messages").tag("outcome", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should space messages to one chat by the per-chat interval")
+    void shouldPaceMessagesPerChat() throws Exception {
+        sendQueue = new TelegramSendQueue(() -> sender, meterRegistry, 30, 300, 100, 3, 2);
+        sendQueue.start();
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<Void> first = sendQueue.enqueue(1L, TelegramSendQueue.Priority.INTERACTIVE, message(1L, "one"));
+        CompletableFuture<Void> second = sendQueue.enqueue(1L, TelegramSendQueue.Priority.INTERACTIVE, message(1L, "two"));
+        CompletableFuture<Void> third = sendQueue.enqueue(1L, TelegramSendQueue.Priority.INTERACTIVE, message(1L, "three"));
+        CompletableFuture.allOf(first, second, third).get(3, TimeUnit.SECONDS);
+
+        assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(550));
+        assertThat(sendQueue.getQueuedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep pacing a chat whose previous message has already been sent")
+    void shouldPaceChatAfterItsQueueEmptied() throws Exception {
+        // Given
+        List<Long> sentAt = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            sentAt.add(System.nanoTime());
+            return null;
+        }).when(sender).execute(any(SendMessage.class));
+        sendQueue = new TelegramSendQueue(() -> sender, meterRegistry, 30, 300, 100, 3, 1);
+        sendQueue.start();
+        sendQueue.enqueue(1L, TelegramSendQueue.Priority.INTERACTIVE, message(1L, "one")).get(2, TimeUnit.SECONDS);
+
+        // When
+        sendQueue.enqueue(1L, TelegramSendQueue.Priority.INTERACTIVE, message(1L, "two")).get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(sentAt).hasSize(2);
+        assertThat(sentAt.get(1) - sentAt.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(280));
+    }
+
+    private SendMessage message(long chatId, String text) {
+        return new SendMessage(String.valueOf(chatId), text);
+    }
+}
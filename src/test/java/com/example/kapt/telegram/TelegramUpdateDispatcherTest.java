@@ -0,0 +1,81 @@
+package com.example.kapt.telegram;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TelegramUpdateDispatcher Tests")
+class TelegramUpdateDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TelegramUpdateDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should handle updates of one chat in arrival order")
+    void shouldPreserveOrderWithinChat() throws Exception {
+        dispatcher = new TelegramUpdateDispatcher(4, 100, meterRegistry);
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(50);
+
+        for (int i = 0; i < 50; i++) {
+            int sequence = i;
+            dispatcher.dispatch(42L, "message", () -> {
+                handled.add(sequence);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handled).isSorted().hasSize(50);
+        dispatcher.shutdown();
+        assertThat(meterRegistry.get("telegram.update.handler.duration").tag("type", "message").timer().count()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should not let a slow chat block other chats")
+    void shouldHandleOtherChatsWhileOneIsBusy() throws Exception {
+        dispatcher = new TelegramUpdateDispatcher(4, 100, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherHandled = new CountDownLatch(1);
+
+        dispatcher.dispatch(0L, "message", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(1L, "message", otherHandled::countDown);
+
+        assertThat(otherHandled.await(2, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should keep dispatching after a handler throws")
+    void shouldSurviveHandlerFailure() throws Exception {
+        dispatcher = new TelegramUpdateDispatcher(1, 10, meterRegistry);
+        CountDownLatch handled = new CountDownLatch(1);
+
+        dispatcher.dispatch(7L, "callback", () -> {
+            throw new IllegalStateException("boom");
+        });
+        dispatcher.dispatch(7L, "callback", handled::countDown);
+
+        assertThat(handled.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("telegram.dispatcher.queue.size").gauge().value()).isZero();
+    }
+}
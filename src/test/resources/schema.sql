@@ -1,5 +1,27 @@
 -- Test schema for H2 database compatibility
--- H2 doesn't support PostgreSQL arrays, so we'll use VARCHAR with JSON-like format
+-- H2 arrays stand in for the PostgreSQL array columns; materialized views are plain tables
+
+CREATE TABLE cryptocurrencies
+(
+    id                          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol                      VARCHAR(20)  NOT NULL UNIQUE,
+    name                        VARCHAR(255) NOT NULL,
+    current_price               DECIMAL(20, 8),
+    market_cap                  DECIMAL(25, 2),
+    total_volume                DECIMAL(25, 2),
+    price_change_24h            DECIMAL(10, 2),
+    price_change_percentage_24h DECIMAL(5, 2),
+    market_cap_rank             INTEGER,
+    circulating_supply          DECIMAL(25, 2),
+    total_supply                DECIMAL(25, 2),
+    max_supply                  DECIMAL(25, 2),
+    last_updated                TIMESTAMP    NOT NULL,
+    created_at                  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at                  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_cryptocurrencies_market_cap_rank ON cryptocurrencies (market_cap_rank);
+CREATE INDEX idx_cryptocurrencies_price_change_percentage_24h ON cryptocurrencies (price_change_percentage_24h);
 
 CREATE TABLE news
 (
@@ -7,22 +29,21 @@ CREATE TABLE news
     article_id      VARCHAR(255) UNIQUE NOT NULL,
     title           TEXT                NOT NULL,
     link            VARCHAR(2048)       NOT NULL,
-    keywords        TEXT,
-    creator         TEXT,
+    keywords        VARCHAR ARRAY,
+    creator         VARCHAR ARRAY,
     video_url       VARCHAR(2048),
     description     TEXT,
-    content         TEXT,
-    pub_date        TIMESTAMP,
+    pub_date        TIMESTAMP           NOT NULL,
     source_icon     VARCHAR(2048),
     source_name     VARCHAR(255),
     source_url      VARCHAR(2048),
     source_priority INTEGER,
-    country         TEXT,
-    category        TEXT,
+    country         VARCHAR ARRAY,
+    category        VARCHAR ARRAY,
     language        VARCHAR(10),
-    coin_mentioned  TEXT,
+    coin_mentioned  VARCHAR ARRAY,
     sentiment       VARCHAR(20),
-    ai_tag          TEXT,
+    ai_tag          VARCHAR ARRAY,
     duplicate       BOOLEAN                      DEFAULT FALSE NOT NULL,
     created_at      TIMESTAMP           NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at      TIMESTAMP           NOT NULL DEFAULT CURRENT_TIMESTAMP
@@ -30,9 +51,82 @@ CREATE TABLE news
 
 -- Create indexes for better performance
 CREATE INDEX idx_news_article_id ON news (article_id);
-CREATE INDEX idx_news_pub_date ON news (pub_date);
+CREATE INDEX idx_news_pub_date_id ON news (pub_date DESC, id DESC);
 CREATE INDEX idx_news_source_name ON news (source_name);
 CREATE INDEX idx_news_language ON news (language);
 CREATE INDEX idx_news_sentiment ON news (sentiment);
 CREATE INDEX idx_news_duplicate ON news (duplicate);
 CREATE INDEX idx_news_created_at ON news (created_at);
+
+CREATE TABLE news_content
+(
+    news_id    BIGINT PRIMARY KEY,
+    pub_date   TIMESTAMP NOT NULL,
+    body       TEXT      NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_news_content_pub_date ON news_content (pub_date);
+
+CREATE TABLE news_article_ids
+(
+    article_id VARCHAR(255) PRIMARY KEY,
+    news_id    BIGINT    NOT NULL,
+    pub_date   TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_news_article_ids_pub_date ON news_article_ids (pub_date);
+
+CREATE TABLE news_coin_stats
+(
+    coin          VARCHAR(50) PRIMARY KEY,
+    article_count BIGINT NOT NULL
+);
+
+CREATE TABLE news_keyword_stats
+(
+    keyword       VARCHAR(255) NOT NULL,
+    bucket        TIMESTAMP    NOT NULL,
+    article_count BIGINT       NOT NULL,
+    PRIMARY KEY (keyword, bucket)
+);
+
+CREATE TABLE trending_keyword_checkpoints
+(
+    window_name VARCHAR(20) PRIMARY KEY,
+    payload     TEXT      NOT NULL,
+    saved_at    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE news_fetch_watermarks
+(
+    query_key      VARCHAR(255) PRIMARY KEY,
+    last_published TIMESTAMP NOT NULL,
+    updated_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE price_alerts
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    chat_id      BIGINT         NOT NULL,
+    symbol       VARCHAR(20)    NOT NULL,
+    direction    VARCHAR(10)    NOT NULL,
+    threshold    DECIMAL(20, 8) NOT NULL,
+    active       BOOLEAN        NOT NULL DEFAULT TRUE,
+    created_at   TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    triggered_at TIMESTAMP
+);
+
+CREATE INDEX idx_price_alerts_chat_active ON price_alerts (chat_id, active);
+
+CREATE TABLE chat_subscriptions
+(
+    chat_id        BIGINT PRIMARY KEY,
+    watchlist      VARCHAR(512) NOT NULL DEFAULT '',
+    digest_enabled BOOLEAN      NOT NULL DEFAULT FALSE,
+    digest_hour    INTEGER      NOT NULL DEFAULT 8,
+    created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_chat_subscriptions_digest ON chat_subscriptions (digest_hour, chat_id);